@@ -3,9 +3,16 @@ package org.mavb.azure.ai.demos.config;
 import com.azure.ai.openai.OpenAIClient;
 import com.azure.ai.openai.OpenAIClientBuilder;
 import com.azure.core.credential.AzureKeyCredential;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.Data;
+import org.mavb.azure.ai.demos.service.limiter.AdaptiveConcurrencyLimiter;
+import org.mavb.azure.ai.demos.service.limiter.OpenAIConcurrencyPolicy;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
 
 @Data
 @Configuration
@@ -15,12 +22,36 @@ public class OpenAIConfig {
     private String openAiKey;
     private String deploymentName;
     private String systemPrompt;
+    private Limiter limiter = new Limiter();
 
+    @Bean
+    public AdaptiveConcurrencyLimiter openAIConcurrencyLimiter(MeterRegistry meterRegistry) {
+        return new AdaptiveConcurrencyLimiter("openai", limiter, Schedulers.parallel(), meterRegistry);
+    }
 
-    public OpenAIClient createClient() {
-        return new OpenAIClientBuilder()
+    public OpenAIClient createClient(AdaptiveConcurrencyLimiter concurrencyLimiter) {
+        OpenAIClientBuilder builder = new OpenAIClientBuilder()
                 .endpoint(endpoint)
-                .credential(new AzureKeyCredential(openAiKey))
-                .buildClient();
+                .credential(new AzureKeyCredential(openAiKey));
+        if (limiter.isEnabled()) {
+            builder.addPolicy(new OpenAIConcurrencyPolicy(concurrencyLimiter));
+        }
+        return builder.buildClient();
+    }
+
+    /**
+     * Límite AIMD de llamadas concurrentes a OpenAI: crece en uno por cada ventana de llamadas exitosas
+     * y se reduce por backoffRatio ante throttling o errores del servidor.
+     */
+    @Data
+    public static class Limiter {
+        private boolean enabled = true;
+        private int initialLimit = 4;
+        private int minLimit = 1;
+        private int maxLimit = 16;
+        private double backoffRatio = 0.5;
+        private int maxQueueSize = 64;
+        private Duration queueTimeout = Duration.ofSeconds(30);
+        private Duration maxRetryAfter = Duration.ofSeconds(60);
     }
 }
@@ -3,6 +3,7 @@ package org.mavb.azure.ai.demos.exception;
 import lombok.extern.slf4j.Slf4j;
 import org.mavb.azure.ai.demos.dto.response.ErrorResponseDto;
 import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -69,6 +70,22 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
     }
 
+    @ExceptionHandler(ServiceOverloadedException.class)
+    @ResponseBody
+    public ResponseEntity<ErrorResponseDto> handleServiceOverloaded(ServiceOverloadedException ex) {
+        log.warn("Solicitud rechazada por el limitador de concurrencia: {}", ex.getMessage());
+        
+        ErrorResponseDto errorResponse = ErrorResponseDto.builder()
+                .error("Service Overloaded")
+                .message("El servicio de IA está al límite de su capacidad, intente nuevamente en unos segundos")
+                .timestamp(LocalDateTime.now())
+                .build();
+        
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, (ex.getRetryAfter().toMillis() + 999) / 1000)))
+                .body(errorResponse);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     @ResponseBody
     public ResponseEntity<ErrorResponseDto> handleValidationErrors(MethodArgumentNotValidException ex) {
@@ -0,0 +1,24 @@
+package org.mavb.azure.ai.demos.exception;
+
+import java.time.Duration;
+
+/**
+ * Excepción lanzada cuando una llamada a un servicio de IA se descarta por no poder admitirse
+ * antes de su plazo en cola.
+ */
+public class ServiceOverloadedException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public ServiceOverloadedException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * @return Espera sugerida antes de reintentar
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -12,6 +12,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.mavb.azure.ai.demos.config.OpenAIConfig;
 import org.mavb.azure.ai.demos.dto.request.ClaimImportReason;
 import org.mavb.azure.ai.demos.dto.request.ImportClaimDto;
+import org.mavb.azure.ai.demos.exception.ServiceOverloadedException;
+import org.mavb.azure.ai.demos.service.limiter.AdaptiveConcurrencyLimiter;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
@@ -28,10 +30,11 @@ public class OpenAIClaimService {
     private final OpenAIConfig openAIConfig;
     private OpenAIClient openAIClient;
     private final ObjectMapper objectMapper;
+    private final AdaptiveConcurrencyLimiter openAIConcurrencyLimiter;
 
     @PostConstruct
     public void postConstruct() {
-        this.openAIClient = openAIConfig.createClient();
+        this.openAIClient = openAIConfig.createClient(openAIConcurrencyLimiter);
     }
 
     /**
@@ -60,7 +63,8 @@ public class OpenAIClaimService {
         })
         .subscribeOn(Schedulers.boundedElastic())
         .doOnError(error -> log.error("Error en llamada reactiva a OpenAI: {}", error.getMessage(), error))
-        .onErrorReturn(Collections.emptyList());
+        // Una llamada descartada por el limitador se informa al cliente en lugar de importar sin clasificación
+        .onErrorResume(error -> !(error instanceof ServiceOverloadedException), error -> Mono.just(Collections.emptyList()));
     }
 
     private List<ClaimImportReason> parseOpenAIResponse(String rawJsonAnswer) {
@@ -0,0 +1,245 @@
+package org.mavb.azure.ai.demos.service.limiter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.mavb.azure.ai.demos.config.OpenAIConfig;
+import org.mavb.azure.ai.demos.exception.ServiceOverloadedException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Limitador de concurrencia adaptativo (AIMD).
+ * <p>
+ * El límite crece en uno por cada ventana de llamadas exitosas mientras se está usando, y se reduce por el
+ * factor de retroceso ante throttling o errores del servidor, una sola vez por cambio de límite para que una
+ * ráfaga de rechazos de la misma ola cuente una vez. Un Retry-After del servidor pausa las admisiones hasta
+ * que vence. Las llamadas por encima del límite esperan en una cola FIFO; si no pueden admitirse antes de su
+ * plazo fallan de inmediato con {@link ServiceOverloadedException}.
+ */
+@Slf4j
+public class AdaptiveConcurrencyLimiter {
+
+    /**
+     * Resultado de una llamada en cuanto a la capacidad del servicio.
+     */
+    public enum Outcome {
+        SUCCESS,
+        THROTTLED,
+        DROPPED,
+        IGNORED
+    }
+
+    private final OpenAIConfig.Limiter settings;
+    private final Scheduler scheduler;
+    private final Deque<Waiter> queue = new ArrayDeque<>();
+    private final Timer latency;
+    private final Counter rejected;
+    private final Counter throttled;
+
+    // Guarded by this
+    private double limit;
+    private int inFlight;
+    private long pausedUntilNanos = System.nanoTime();
+    private long lastDecreaseNanos = System.nanoTime();
+    private boolean drainScheduled;
+
+    public AdaptiveConcurrencyLimiter(String name, OpenAIConfig.Limiter settings,
+                                      Scheduler scheduler, MeterRegistry meterRegistry) {
+        this.settings = settings;
+        this.scheduler = scheduler;
+        this.limit = Math.clamp(settings.getInitialLimit(), settings.getMinLimit(), settings.getMaxLimit());
+        this.latency = Timer.builder("limiter.latency")
+                .tag("name", name)
+                .register(meterRegistry);
+        this.rejected = Counter.builder("limiter.rejected")
+                .description("Llamadas rechazadas por no poder cumplir su plazo en cola")
+                .tag("name", name)
+                .register(meterRegistry);
+        this.throttled = Counter.builder("limiter.throttled")
+                .tag("name", name)
+                .register(meterRegistry);
+        Gauge.builder("limiter.limit", this, AdaptiveConcurrencyLimiter::getLimit).tag("name", name).register(meterRegistry);
+        Gauge.builder("limiter.inflight", this, AdaptiveConcurrencyLimiter::getInFlight).tag("name", name).register(meterRegistry);
+        Gauge.builder("limiter.queue", this, AdaptiveConcurrencyLimiter::getQueued).tag("name", name).register(meterRegistry);
+    }
+
+    /**
+     * Espera un permiso. El permiso debe completarse una sola vez con el resultado de la llamada.
+     */
+    public Mono<Permit> acquire() {
+        return Mono.defer(() -> {
+            Waiter waiter;
+            synchronized (this) {
+                long now = System.nanoTime();
+                if (queue.isEmpty() && now >= pausedUntilNanos && inFlight < (int) limit) {
+                    inFlight++;
+                    return Mono.just(new Permit(now));
+                }
+                long pauseNanos = Math.max(0, pausedUntilNanos - now);
+                if (queue.size() >= settings.getMaxQueueSize() || pauseNanos > settings.getQueueTimeout().toNanos()) {
+                    rejected.increment();
+                    return Mono.error(overloaded(Duration.ofNanos(Math.max(pauseNanos, settings.getQueueTimeout().toNanos()))));
+                }
+                waiter = new Waiter();
+                queue.addLast(waiter);
+                waiter.expiry = scheduler.schedule(() -> expire(waiter), settings.getQueueTimeout().toNanos(), TimeUnit.NANOSECONDS);
+                scheduleDrain(now);
+            }
+            return waiter.sink.asMono()
+                    .doOnNext(permit -> waiter.delivered = true)
+                    .doOnCancel(() -> abandon(waiter));
+        });
+    }
+
+    public synchronized double getLimit() {
+        return limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    public synchronized int getQueued() {
+        return queue.size();
+    }
+
+    private void complete(Permit permit, Outcome outcome, Duration retryAfter) {
+        long now = System.nanoTime();
+        if (outcome != Outcome.IGNORED) {
+            latency.record(now - permit.startNanos, TimeUnit.NANOSECONDS);
+        }
+        synchronized (this) {
+            boolean saturated = inFlight >= limit / 2;
+            inFlight--;
+            switch (outcome) {
+                case SUCCESS -> {
+                    if (saturated) {
+                        limit = Math.min(settings.getMaxLimit(), limit + 1 / limit);
+                    }
+                }
+                case THROTTLED, DROPPED -> {
+                    if (outcome == Outcome.THROTTLED) {
+                        throttled.increment();
+                    }
+                    // Las llamadas iniciadas antes de la última reducción ya vieron el límite reducido
+                    if (permit.startNanos >= lastDecreaseNanos) {
+                        limit = Math.max(settings.getMinLimit(), limit * settings.getBackoffRatio());
+                        lastDecreaseNanos = now;
+                        log.warn("🔄 Límite de concurrencia de OpenAI reducido a {} por {}", (int) limit, outcome);
+                    }
+                    if (retryAfter != null && !retryAfter.isNegative()) {
+                        long pauseNanos = Math.min(retryAfter.toNanos(), settings.getMaxRetryAfter().toNanos());
+                        pausedUntilNanos = Math.max(pausedUntilNanos, now + pauseNanos);
+                    }
+                }
+                case IGNORED -> {
+                }
+            }
+        }
+        drain();
+    }
+
+    private void drain() {
+        List<Waiter> admitted = new ArrayList<>();
+        synchronized (this) {
+            long now = System.nanoTime();
+            while (!queue.isEmpty() && now >= pausedUntilNanos && inFlight < (int) limit) {
+                Waiter waiter = queue.pollFirst();
+                waiter.expiry.dispose();
+                waiter.permit = new Permit(now);
+                inFlight++;
+                admitted.add(waiter);
+            }
+            scheduleDrain(now);
+        }
+        admitted.forEach(waiter -> waiter.sink.tryEmitValue(waiter.permit));
+    }
+
+    // Las admisiones pausadas por un Retry-After necesitan un despertador, puede que no lleguen liberaciones
+    private void scheduleDrain(long now) {
+        if (!drainScheduled && !queue.isEmpty() && pausedUntilNanos > now) {
+            drainScheduled = true;
+            scheduler.schedule(() -> {
+                synchronized (this) {
+                    drainScheduled = false;
+                }
+                drain();
+            }, pausedUntilNanos - now, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void expire(Waiter waiter) {
+        boolean expired;
+        synchronized (this) {
+            expired = queue.remove(waiter);
+        }
+        if (expired) {
+            rejected.increment();
+            waiter.sink.tryEmitError(overloaded(settings.getQueueTimeout()));
+        }
+    }
+
+    private void abandon(Waiter waiter) {
+        Permit granted;
+        synchronized (this) {
+            if (queue.remove(waiter)) {
+                waiter.expiry.dispose();
+                return;
+            }
+            granted = waiter.delivered ? null : waiter.permit;
+        }
+        if (granted != null) {
+            granted.complete(Outcome.IGNORED, null);
+        }
+    }
+
+    private ServiceOverloadedException overloaded(Duration retryAfter) {
+        return new ServiceOverloadedException(
+                "Azure OpenAI está en su límite de concurrencia, la solicitud no pudo admitirse en " + settings.getQueueTimeout(),
+                retryAfter);
+    }
+
+    /**
+     * Admisión para ejecutar una llamada.
+     */
+    public class Permit {
+
+        private final long startNanos;
+        private final AtomicBoolean completed = new AtomicBoolean();
+
+        private Permit(long startNanos) {
+            this.startNanos = startNanos;
+        }
+
+        /**
+         * Libera el permiso; solo cuenta la primera finalización.
+         *
+         * @param retryAfter Pausa solicitada por el servidor, o null
+         */
+        public void complete(Outcome outcome, Duration retryAfter) {
+            if (completed.compareAndSet(false, true)) {
+                AdaptiveConcurrencyLimiter.this.complete(this, outcome, retryAfter);
+            }
+        }
+    }
+
+    private class Waiter {
+        private final Sinks.One<Permit> sink = Sinks.one();
+        private Disposable expiry;
+        private Permit permit;
+        private volatile boolean delivered;
+    }
+}
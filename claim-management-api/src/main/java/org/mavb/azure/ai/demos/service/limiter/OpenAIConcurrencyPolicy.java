@@ -0,0 +1,80 @@
+package org.mavb.azure.ai.demos.service.limiter;
+
+import com.azure.core.http.HttpHeaderName;
+import com.azure.core.http.HttpHeaders;
+import com.azure.core.http.HttpPipelineCallContext;
+import com.azure.core.http.HttpPipelineNextPolicy;
+import com.azure.core.http.HttpResponse;
+import com.azure.core.http.policy.HttpPipelinePolicy;
+import lombok.RequiredArgsConstructor;
+import org.mavb.azure.ai.demos.service.limiter.AdaptiveConcurrencyLimiter.Outcome;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Política del pipeline HTTP que ejecuta cada intento contra Azure OpenAI bajo el límite de concurrencia adaptativo.
+ * Se agrega por reintento, así cada reintento de la política propia del cliente se admite y mide por separado.
+ */
+@RequiredArgsConstructor
+public class OpenAIConcurrencyPolicy implements HttpPipelinePolicy {
+
+    private static final HttpHeaderName RETRY_AFTER_MS = HttpHeaderName.fromString("retry-after-ms");
+    private static final HttpHeaderName X_MS_RETRY_AFTER_MS = HttpHeaderName.fromString("x-ms-retry-after-ms");
+
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    @Override
+    public Mono<HttpResponse> process(HttpPipelineCallContext context, HttpPipelineNextPolicy next) {
+        return limiter.acquire()
+                .flatMap(permit -> next.process()
+                        .doOnNext(response -> permit.complete(outcome(response.getStatusCode()), retryAfter(response.getHeaders())))
+                        .doOnError(error -> permit.complete(Outcome.DROPPED, null))
+                        .doFinally(signal -> permit.complete(Outcome.IGNORED, null)));
+    }
+
+    static Outcome outcome(int statusCode) {
+        return switch (statusCode) {
+            case 429 -> Outcome.THROTTLED;
+            case 408, 500, 502, 503, 504 -> Outcome.DROPPED;
+            default -> Outcome.SUCCESS;
+        };
+    }
+
+    /**
+     * Lee la pausa solicitada por el servicio: retry-after-ms, x-ms-retry-after-ms, o Retry-After
+     * en segundos o como fecha HTTP.
+     */
+    static Duration retryAfter(HttpHeaders headers) {
+        for (HttpHeaderName name : new HttpHeaderName[]{RETRY_AFTER_MS, X_MS_RETRY_AFTER_MS}) {
+            String millis = headers.getValue(name);
+            if (millis != null) {
+                try {
+                    return Duration.ofMillis(Long.parseLong(millis.trim()));
+                } catch (NumberFormatException ignored) {
+                    // Se intenta con el siguiente encabezado
+                }
+            }
+        }
+
+        String retryAfter = headers.getValue(HttpHeaderName.RETRY_AFTER);
+        if (retryAfter == null) {
+            return null;
+        }
+        try {
+            return Duration.ofSeconds(Long.parseLong(retryAfter.trim()));
+        } catch (NumberFormatException notSeconds) {
+            try {
+                ZonedDateTime until = ZonedDateTime.parse(retryAfter.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                Duration pause = Duration.between(OffsetDateTime.now(), until);
+                return pause.isNegative() ? Duration.ZERO : pause;
+            } catch (DateTimeParseException notDate) {
+                return null;
+            }
+        }
+    }
+}
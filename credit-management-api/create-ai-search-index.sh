@@ -21,6 +21,9 @@ set -a
 source main.env
 set +a
 
+# Dimensiones de los campos vectoriales: deben coincidir con OPEN_AI_EMBEDDING_DIMENSIONS (1536 por defecto)
+EMBEDDING_DIMENSIONS="${OPEN_AI_EMBEDDING_DIMENSIONS:-1536}"
+
 # Verificar que las variables de entorno estén cargadas
 if [ -z "$AI_SEARCH_ENDPOINT" ] || [ -z "$AI_SEARCH_KEY" ]; then
     echo "❌ Error: Variables de entorno AI_SEARCH_ENDPOINT y AI_SEARCH_KEY no encontradas"
@@ -32,6 +35,7 @@ echo "🚀 Creando índices en Azure AI Search"
 echo "======================================"
 echo "📍 Endpoint: $AI_SEARCH_ENDPOINT"
 echo "🔑 Key: ${AI_SEARCH_KEY:0:10}..."
+echo "📐 Dimensiones de embeddings: $EMBEDDING_DIMENSIONS"
 echo ""
 echo "📝 Índices a crear:"
 echo "   - products: Para productos crediticios con embeddings"
@@ -199,7 +203,7 @@ PRODUCTS_INDEX_DEFINITION='{
       "filterable": false,
       "sortable": false,
       "facetable": false,
-      "dimensions": 1536,
+      "dimensions": '"$EMBEDDING_DIMENSIONS"',
       "vectorSearchProfile": "vector-config"
     }
   ],
@@ -290,7 +294,7 @@ RANKS_INDEX_DEFINITION='{
       "filterable": false,
       "sortable": false,
       "facetable": false,
-      "dimensions": 1536,
+      "dimensions": '"$EMBEDDING_DIMENSIONS"',
       "vectorSearchProfile": "vector-config"
     }
   ],
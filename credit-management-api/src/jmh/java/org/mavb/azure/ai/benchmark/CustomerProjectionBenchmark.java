@@ -0,0 +1,39 @@
+package org.mavb.azure.ai.benchmark;
+
+import org.mavb.azure.ai.dto.projection.CustomerEmploymentProjection;
+import org.mavb.azure.ai.dto.projection.EmploymentGapAnalysis;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Employment gap and semantic description computed for every evaluated customer before rank resolution.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CustomerProjectionBenchmark {
+
+    @Param({"1", "3"})
+    private int employments;
+
+    private CustomerEmploymentProjection customer;
+
+    @Setup
+    public void setUp() {
+        customer = new EvaluationData().customer(employments);
+    }
+
+    @Benchmark
+    public EmploymentGapAnalysis calculateEmploymentGap() {
+        return customer.calculateEmploymentGap();
+    }
+
+    @Benchmark
+    public String generateSemanticDescription() {
+        return customer.generateSemanticDescription();
+    }
+}
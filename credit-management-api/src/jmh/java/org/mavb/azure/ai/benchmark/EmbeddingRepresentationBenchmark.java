@@ -0,0 +1,77 @@
+package org.mavb.azure.ai.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.mavb.azure.ai.vector.EmbeddingVector;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the boxed List&lt;Float&gt; embedding path with the float[]-backed {@link EmbeddingVector}
+ * for one evaluation (rank query + product query). Run with {@code ./gradlew jmh -Pjmh.includes=EmbeddingRepresentation}
+ * and compare {@code gc.alloc.rate.norm} between both benchmarks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmbeddingRepresentationBenchmark {
+
+    private static final int EMBEDDINGS_PER_EVALUATION = 2;
+
+    @Param({"1536"})
+    private int dimensions;
+
+    private List<Double> sdkEmbedding;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        sdkEmbedding = new ArrayList<>(dimensions);
+        for (int i = 0; i < dimensions; i++) {
+            sdkEmbedding.add(random.nextGaussian());
+        }
+        objectMapper = new ObjectMapper();
+    }
+
+    @Benchmark
+    public void boxedConversion(Blackhole blackhole) {
+        for (int i = 0; i < EMBEDDINGS_PER_EVALUATION; i++) {
+            blackhole.consume(sdkEmbedding.stream()
+                    .map(Double::floatValue)
+                    .toList());
+        }
+    }
+
+    @Benchmark
+    public void primitiveConversion(Blackhole blackhole) {
+        for (int i = 0; i < EMBEDDINGS_PER_EVALUATION; i++) {
+            blackhole.consume(EmbeddingVector.fromDoubles(sdkEmbedding));
+        }
+    }
+
+    @Benchmark
+    public void boxedFloatList(Blackhole blackhole) throws Exception {
+        for (int i = 0; i < EMBEDDINGS_PER_EVALUATION; i++) {
+            List<Float> embedding = sdkEmbedding.stream()
+                    .map(Double::floatValue)
+                    .toList();
+            blackhole.consume(objectMapper.writeValueAsBytes(embedding));
+        }
+    }
+
+    @Benchmark
+    public void primitiveEmbeddingVector(Blackhole blackhole) throws Exception {
+        for (int i = 0; i < EMBEDDINGS_PER_EVALUATION; i++) {
+            EmbeddingVector embedding = EmbeddingVector.fromDoubles(sdkEmbedding);
+            blackhole.consume(objectMapper.writeValueAsBytes(embedding));
+        }
+    }
+}
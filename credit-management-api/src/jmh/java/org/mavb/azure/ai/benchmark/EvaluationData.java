@@ -0,0 +1,158 @@
+package org.mavb.azure.ai.benchmark;
+
+import org.mavb.azure.ai.dto.projection.CustomerEmploymentProjection;
+import org.mavb.azure.ai.dto.request.EvaluationRequestDTO;
+import org.mavb.azure.ai.dto.response.EvaluationResponseDTO;
+import org.mavb.azure.ai.entity.CreditProductEntity;
+import org.mavb.azure.ai.entity.ProductDocument;
+import org.mavb.azure.ai.entity.RankDocument;
+import org.mavb.azure.ai.service.AISearchClient;
+import org.mavb.azure.ai.service.index.RankMatch;
+import org.mavb.azure.ai.vector.EmbeddingVector;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seed-like customers, products and responses shared by the evaluation hot path benchmarks.
+ */
+public final class EvaluationData {
+
+    public static final int DIMENSIONS = 1536;
+    public static final BigDecimal REQUESTED_AMOUNT = new BigDecimal("15000");
+
+    private final Random random = new Random(42);
+
+    public EvaluationRequestDTO request() {
+        return EvaluationRequestDTO.builder()
+                .identityDocument("12345678")
+                .requestedAmount(REQUESTED_AMOUNT)
+                .build();
+    }
+
+    /**
+     * Customer with the current job first and older jobs after it, as returned by the employment query.
+     */
+    public CustomerEmploymentProjection customer(int employments) {
+        CustomerEmploymentProjection customer = new CustomerEmploymentProjection("12345678",
+                new BigDecimal("5500.00"), new BigDecimal("1200.00"));
+        LocalDate start = LocalDate.of(2025, 3, 1);
+        for (int i = 0; i < employments; i++) {
+            LocalDate end = i == 0 ? null : start.minusMonths(4);
+            LocalDate jobStart = (end != null ? end : start).minusYears(2);
+            customer.addEmploymentRecord(i == 0 ? start : jobStart, end, new BigDecimal("5000.00"));
+            start = jobStart;
+        }
+        return customer;
+    }
+
+    public RankMatch rankMatch() {
+        return new RankMatch(RankDocument.builder()
+                .id("ORO")
+                .name("Oro")
+                .description("Clientes con ingresos estables y bajo endeudamiento")
+                .build(), 0.87);
+    }
+
+    public CreditProductEntity productEntity() {
+        return CreditProductEntity.builder()
+                .id("PROD-001")
+                .name("Préstamo Personal Flexible")
+                .description("Préstamo personal de libre disponibilidad con cuotas fijas y desembolso inmediato")
+                .category("PERSONAL")
+                .subcategory("LIBRE_DISPONIBILIDAD")
+                .currency("PEN")
+                .term("6 a 60 meses")
+                .minimumAmount(new BigDecimal("1000.00"))
+                .maximumAmount(new BigDecimal("50000.00"))
+                .minimumRate(new BigDecimal("12.50"))
+                .maximumRate(new BigDecimal("35.90"))
+                .requirements(List.of("DNI vigente", "Ingresos mínimos de 1500 soles", "Sin deudas vencidas"))
+                .features(List.of("Cuotas fijas", "Desembolso en 24 horas", "Prepago sin penalidad"))
+                .benefits(List.of("Seguro de desgravamen incluido", "Tasa preferencial para clientes Oro"))
+                .build();
+    }
+
+    public List<ProductDocument> products(int count, boolean withEmbeddings) {
+        List<ProductDocument> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            CreditProductEntity entity = productEntity();
+            products.add(ProductDocument.builder()
+                    .id("PROD-" + i)
+                    .name(entity.getName() + " " + i)
+                    .description(entity.getDescription())
+                    .category(entity.getCategory())
+                    .subcategory(entity.getSubcategory())
+                    .currency(entity.getCurrency())
+                    .term(entity.getTerm())
+                    .minimumAmount(entity.getMinimumAmount())
+                    .maximumAmount(entity.getMaximumAmount())
+                    .minimumRate(entity.getMinimumRate())
+                    .maximumRate(entity.getMaximumRate())
+                    .requirements(entity.getRequirements())
+                    .features(entity.getFeatures())
+                    .benefits(entity.getBenefits())
+                    .active(true)
+                    .allowedRanks(List.of("PLATA", "ORO", "PLATINO", "PREMIUM"))
+                    .embedding(withEmbeddings ? embedding() : null)
+                    .build());
+        }
+        return products;
+    }
+
+    public List<AISearchClient.ProductSearchResult> searchResults(int count) {
+        return products(count, false).stream()
+                .map(product -> new AISearchClient.ProductSearchResult(product, random.nextDouble()))
+                .toList();
+    }
+
+    /**
+     * Response shaped like the one built by the evaluation service for the given products.
+     */
+    public EvaluationResponseDTO response(int products) {
+        List<EvaluationResponseDTO.EligibleProductDTO> eligibleProducts = searchResults(products).stream()
+                .map(result -> EvaluationResponseDTO.EligibleProductDTO.builder()
+                        .id(result.getProduct().getId())
+                        .name(result.getProduct().getName())
+                        .approvedAmount(REQUESTED_AMOUNT)
+                        .approvedRate(result.getProduct().getMinimumRate())
+                        .eligibilityScore((int) (result.getRelevanceScore() * 100))
+                        .recommendation(String.format("Producto recomendado por AI Search (relevancia: %.2f)", result.getRelevanceScore()))
+                        .conditions(result.getProduct().getRequirements())
+                        .build())
+                .toList();
+        return EvaluationResponseDTO.builder()
+                .clientProfile(EvaluationResponseDTO.ClientProfileDTO.builder()
+                        .identityDocument("12345678")
+                        .creditScore(700)
+                        .riskLevel("Medio")
+                        .approvedAmount(new BigDecimal("12000.00"))
+                        .recommendedTerm("12 meses")
+                        .semanticRank("ORO")
+                        .semanticConfidence(0.87)
+                        .semanticDescription(customer(3).generateSemanticDescription())
+                        .build())
+                .eligibleProducts(eligibleProducts)
+                .summary(EvaluationResponseDTO.EvaluationSummaryDTO.builder()
+                        .totalEligibleProducts(eligibleProducts.size())
+                        .bestOption(EvaluationResponseDTO.BestOptionDTO.builder()
+                                .productId(eligibleProducts.get(0).getId())
+                                .reason("Mejor relevancia semántica")
+                                .build())
+                        .evaluationDate(LocalDateTime.of(2025, 6, 1, 10, 30))
+                        .build())
+                .build();
+    }
+
+    private EmbeddingVector embedding() {
+        float[] values = new float[DIMENSIONS];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (float) random.nextGaussian();
+        }
+        return EmbeddingVector.wrap(values);
+    }
+}
@@ -0,0 +1,49 @@
+package org.mavb.azure.ai.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.mavb.azure.ai.dto.response.EvaluationResponseDTO;
+import org.mavb.azure.ai.entity.ProductDocument;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the evaluation response written by the API and of the product documents
+ * uploaded to AI Search, embeddings included.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"10"})
+    private int products;
+
+    private ObjectMapper objectMapper;
+    private EvaluationResponseDTO response;
+    private List<ProductDocument> documents;
+
+    @Setup
+    public void setUp() {
+        EvaluationData data = new EvaluationData();
+        // Same modules as the Spring Boot managed mapper (java.time among them)
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        response = data.response(products);
+        documents = data.products(products, true);
+    }
+
+    @Benchmark
+    public byte[] evaluationResponse() throws Exception {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] productDocuments() throws Exception {
+        return objectMapper.writeValueAsBytes(documents);
+    }
+}
@@ -0,0 +1,82 @@
+package org.mavb.azure.ai.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mavb.azure.ai.config.EvaluationProperties;
+import org.mavb.azure.ai.entity.ProductDocument;
+import org.mavb.azure.ai.service.index.ProductFilter;
+import org.mavb.azure.ai.service.index.IndexFileStore;
+import org.mavb.azure.ai.service.index.ProductMatch;
+import org.mavb.azure.ai.service.index.ProductVectorIndex;
+import org.mavb.azure.ai.vector.EmbeddingVector;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local filtered product search latency for catalog sizes well above the current seed data.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductVectorIndexBenchmark {
+
+    private static final int DIMENSIONS = 1536;
+    private static final List<String> RANKS = List.of("BRONCE", "PLATA", "ORO", "PLATINO", "PREMIUM");
+
+    @Param({"100", "1000"})
+    private int products;
+
+    private ProductVectorIndex index;
+    private EmbeddingVector query;
+    private ProductFilter filter;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<ProductDocument> documents = new ArrayList<>(products);
+        for (int i = 0; i < products; i++) {
+            int minimum = 1000 * (1 + random.nextInt(50));
+            documents.add(ProductDocument.builder()
+                    .id("PROD-" + i)
+                    .active(random.nextInt(10) > 0)
+                    .currency(random.nextBoolean() ? "PEN" : "USD")
+                    .minimumAmount(BigDecimal.valueOf(minimum))
+                    .maximumAmount(BigDecimal.valueOf(minimum * (2L + random.nextInt(20))))
+                    .allowedRanks(RANKS.subList(random.nextInt(RANKS.size()), RANKS.size()))
+                    .embedding(randomVector(random))
+                    .build());
+        }
+
+        index = new ProductVectorIndex(null, null, null, new SimpleMeterRegistry(), new EvaluationProperties(),
+                new IndexFileStore(new EvaluationProperties(), null, null));
+        index.init();
+        index.upsertAll(documents);
+        query = randomVector(random);
+        filter = new ProductFilter("ORO", new BigDecimal("25000"), "PEN");
+    }
+
+    @Benchmark
+    public List<ProductMatch> filteredTop10() {
+        return index.search(query, filter, 10);
+    }
+
+    @Benchmark
+    public List<ProductMatch> unfilteredTop10() {
+        return index.search(query, null, 10);
+    }
+
+    private static EmbeddingVector randomVector(Random random) {
+        float[] values = new float[DIMENSIONS];
+        for (int i = 0; i < DIMENSIONS; i++) {
+            values[i] = (float) random.nextGaussian();
+        }
+        return EmbeddingVector.wrap(values);
+    }
+}
@@ -0,0 +1,97 @@
+package org.mavb.azure.ai.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mavb.azure.ai.config.EvaluationProperties;
+import org.mavb.azure.ai.entity.ProductDocument;
+import org.mavb.azure.ai.service.index.IndexFileStore;
+import org.mavb.azure.ai.service.index.ProductVectorIndex;
+import org.mavb.azure.ai.vector.EmbeddingVector;
+import org.mavb.azure.ai.vector.VectorEncoding;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Synthetic catalog shared by the quantization benchmark and recall report.
+ * Vectors are drawn around a few dozen centroids, closer to real embedding distributions than pure noise.
+ */
+final class QuantizationData {
+
+    static final int DIMENSIONS = 1536;
+    private static final int CENTROIDS = 40;
+    private static final double NOISE = 0.6;
+
+    private final Random random = new Random(42);
+    private final float[][] centroids = new float[CENTROIDS][];
+
+    QuantizationData() {
+        for (int c = 0; c < CENTROIDS; c++) {
+            centroids[c] = gaussian(1.0);
+        }
+    }
+
+    List<ProductDocument> documents(int count) {
+        List<ProductDocument> documents = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            documents.add(ProductDocument.builder()
+                    .id("PROD-" + i)
+                    .active(true)
+                    .currency("PEN")
+                    .minimumAmount(BigDecimal.ONE)
+                    .maximumAmount(BigDecimal.valueOf(1_000_000))
+                    .allowedRanks(List.of("ORO"))
+                    .embedding(nearCentroid())
+                    .build());
+        }
+        return documents;
+    }
+
+    List<EmbeddingVector> queries(int count) {
+        List<EmbeddingVector> queries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            queries.add(nearCentroid());
+        }
+        return queries;
+    }
+
+    static ProductVectorIndex index(VectorEncoding encoding, int rescoreMultiplier, List<ProductDocument> documents) {
+        EvaluationProperties properties = new EvaluationProperties();
+        properties.getProductSearch().setEncoding(encoding);
+        properties.getProductSearch().setRescoreMultiplier(rescoreMultiplier);
+        ProductVectorIndex index = new ProductVectorIndex(null, null, null, new SimpleMeterRegistry(), properties,
+                new IndexFileStore(new EvaluationProperties(), null, null));
+        index.init();
+        index.upsertAll(documents);
+        return index;
+    }
+
+    /**
+     * Bytes scanned per vector by the first pass of each encoding.
+     */
+    static int bytesPerVector(VectorEncoding encoding) {
+        return switch (encoding) {
+            case FLOAT32 -> DIMENSIONS * Float.BYTES;
+            case INT8 -> DIMENSIONS + Float.BYTES;
+            case BINARY -> (DIMENSIONS + 63) / 64 * Long.BYTES;
+        };
+    }
+
+    private EmbeddingVector nearCentroid() {
+        float[] centroid = centroids[random.nextInt(CENTROIDS)];
+        float[] noise = gaussian(NOISE);
+        for (int d = 0; d < DIMENSIONS; d++) {
+            noise[d] += centroid[d];
+        }
+        return EmbeddingVector.wrap(noise);
+    }
+
+    private float[] gaussian(double sigma) {
+        float[] values = new float[DIMENSIONS];
+        for (int d = 0; d < DIMENSIONS; d++) {
+            values[d] = (float) (random.nextGaussian() * sigma);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,77 @@
+package org.mavb.azure.ai.benchmark;
+
+import org.mavb.azure.ai.entity.ProductDocument;
+import org.mavb.azure.ai.service.index.ProductMatch;
+import org.mavb.azure.ai.service.index.ProductVectorIndex;
+import org.mavb.azure.ai.vector.EmbeddingVector;
+import org.mavb.azure.ai.vector.VectorEncoding;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Prints recall@10 against the exact FLOAT32 scan, mean latency, bytes scanned per vector and bytes
+ * resident per product (scanned structure plus the float embeddings kept for rescoring) for each
+ * encoding and rescore multiplier.
+ * Latency here is a quick wall-clock average; use {@link VectorQuantizationBenchmark} for rigorous numbers.
+ *
+ * <p>Usage: ./gradlew quantizationReport [-Pproducts=10000]</p>
+ */
+public final class QuantizationRecallReport {
+
+    private static final int TOP = 10;
+    private static final int QUERIES = 200;
+    private static final int[] RESCORE_MULTIPLIERS = {1, 2, 4, 8};
+
+    private QuantizationRecallReport() {
+    }
+
+    public static void main(String[] args) {
+        int products = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        QuantizationData data = new QuantizationData();
+        List<ProductDocument> documents = data.documents(products);
+        List<EmbeddingVector> queries = data.queries(QUERIES);
+
+        ProductVectorIndex exact = QuantizationData.index(VectorEncoding.FLOAT32, 1, documents);
+        List<Set<String>> truth = queries.stream().map(query -> ids(exact.search(query, null, TOP))).toList();
+
+        System.out.printf("%d products, %d dimensions, %d queries, recall@%d%n%n",
+                products, QuantizationData.DIMENSIONS, QUERIES, TOP);
+        System.out.printf("%-8s %8s %8s %12s %12s %18s%n", "encoding", "rescore", "recall", "us/query", "scan B/vec",
+                "resident B/product");
+        report(VectorEncoding.FLOAT32, 1, exact, queries, truth);
+        for (VectorEncoding encoding : List.of(VectorEncoding.INT8, VectorEncoding.BINARY)) {
+            for (int multiplier : RESCORE_MULTIPLIERS) {
+                report(encoding, multiplier, QuantizationData.index(encoding, multiplier, documents), queries, truth);
+            }
+        }
+    }
+
+    private static void report(VectorEncoding encoding, int multiplier, ProductVectorIndex index,
+                               List<EmbeddingVector> queries, List<Set<String>> truth) {
+        // Warm-up so the JIT has compiled the scan before timing
+        for (int round = 0; round < 3; round++) {
+            queries.forEach(query -> index.search(query, null, TOP));
+        }
+
+        long hits = 0;
+        long started = System.nanoTime();
+        for (int i = 0; i < queries.size(); i++) {
+            Set<String> found = ids(index.search(queries.get(i), null, TOP));
+            found.retainAll(truth.get(i));
+            hits += found.size();
+        }
+        double microsPerQuery = (System.nanoTime() - started) / 1000.0 / queries.size();
+        double recall = (double) hits / ((long) queries.size() * TOP);
+
+        System.out.printf("%-8s %8s %8.3f %12.1f %12d %18d%n", encoding, encoding == VectorEncoding.FLOAT32 ? "-" : multiplier + "x",
+                recall, microsPerQuery, QuantizationData.bytesPerVector(encoding), index.residentVectorBytes() / index.size());
+    }
+
+    private static Set<String> ids(List<ProductMatch> matches) {
+        Set<String> ids = new HashSet<>();
+        matches.forEach(match -> ids.add(match.product().getId()));
+        return ids;
+    }
+}
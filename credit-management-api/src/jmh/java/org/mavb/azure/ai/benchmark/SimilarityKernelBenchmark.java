@@ -0,0 +1,81 @@
+package org.mavb.azure.ai.benchmark;
+
+import org.mavb.azure.ai.vector.ScalarSimilarityKernel;
+import org.mavb.azure.ai.vector.SimilarityKernel;
+import org.mavb.azure.ai.vector.SimdSimilarityKernel;
+import org.mavb.azure.ai.vector.TopK;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Scalar vs Vector API throughput of the similarity kernels: a single dot product, and one query scored
+ * against a contiguous matrix followed by top-10 selection (the exact scan of the local product index).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class SimilarityKernelBenchmark {
+
+    private static final int ROWS = 1000;
+
+    @Param({"scalar", "simd"})
+    private String kernel;
+
+    @Param({"384", "1536"})
+    private int dimensions;
+
+    private SimilarityKernel similarityKernel;
+    private float[] query;
+    private float[] matrix;
+    private byte[] queryCodes;
+    private byte[] codes;
+    private int[] rows;
+    private float[] scores;
+
+    @Setup
+    public void setUp() {
+        similarityKernel = kernel.equals("simd") ? new SimdSimilarityKernel() : new ScalarSimilarityKernel();
+        Random random = new Random(42);
+        query = new float[dimensions];
+        matrix = new float[ROWS * dimensions];
+        for (int i = 0; i < query.length; i++) {
+            query[i] = (float) random.nextGaussian();
+        }
+        for (int i = 0; i < matrix.length; i++) {
+            matrix[i] = (float) random.nextGaussian();
+        }
+        queryCodes = new byte[dimensions];
+        codes = new byte[dimensions];
+        random.nextBytes(queryCodes);
+        random.nextBytes(codes);
+        rows = IntStream.range(0, ROWS).toArray();
+        scores = new float[ROWS];
+    }
+
+    @Benchmark
+    public float dot() {
+        return similarityKernel.dot(query, 0, matrix, 0, dimensions);
+    }
+
+    @Benchmark
+    public int dotInt8() {
+        return similarityKernel.dot(queryCodes, 0, codes, 0, dimensions);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public TopK top10OfMatrix() {
+        similarityKernel.dotRows(query, matrix, dimensions, rows, ROWS, scores);
+        TopK best = new TopK(10);
+        for (int i = 0; i < ROWS; i++) {
+            best.offer(rows[i], scores[i]);
+        }
+        return best;
+    }
+}
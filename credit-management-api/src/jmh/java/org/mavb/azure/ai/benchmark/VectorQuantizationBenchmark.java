@@ -0,0 +1,46 @@
+package org.mavb.azure.ai.benchmark;
+
+import org.mavb.azure.ai.service.index.ProductMatch;
+import org.mavb.azure.ai.service.index.ProductVectorIndex;
+import org.mavb.azure.ai.vector.EmbeddingVector;
+import org.mavb.azure.ai.vector.VectorEncoding;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Top-10 latency of the local product index per vector encoding (quantized encodings include rescoring).
+ * Recall for the same data is printed by {@link QuantizationRecallReport}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VectorQuantizationBenchmark {
+
+    @Param({"FLOAT32", "INT8", "BINARY"})
+    private VectorEncoding encoding;
+
+    @Param({"1000", "10000"})
+    private int products;
+
+    private ProductVectorIndex index;
+    private List<EmbeddingVector> queries;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        QuantizationData data = new QuantizationData();
+        index = QuantizationData.index(encoding, 4, data.documents(products));
+        queries = data.queries(64);
+    }
+
+    @Benchmark
+    public List<ProductMatch> top10() {
+        next = (next + 1) & 63;
+        return index.search(queries.get(next), null, 10);
+    }
+}
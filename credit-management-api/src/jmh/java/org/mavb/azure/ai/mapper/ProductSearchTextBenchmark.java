@@ -0,0 +1,34 @@
+package org.mavb.azure.ai.mapper;
+
+import org.mavb.azure.ai.benchmark.EvaluationData;
+import org.mavb.azure.ai.entity.CreditProductEntity;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search text built for every product on sync and reindex, hashed to decide whether it needs a new embedding.
+ * Lives in the mapper package to reach the package-private {@code buildSearchText}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductSearchTextBenchmark {
+
+    private ProductDocumentMapper mapper;
+    private CreditProductEntity product;
+
+    @Setup
+    public void setUp() {
+        mapper = new ProductDocumentMapper(null, null, null);
+        product = new EvaluationData().productEntity();
+    }
+
+    @Benchmark
+    public String buildSearchText() {
+        return mapper.buildSearchText(product);
+    }
+}
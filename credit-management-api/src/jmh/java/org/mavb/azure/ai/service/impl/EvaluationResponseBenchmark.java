@@ -0,0 +1,48 @@
+package org.mavb.azure.ai.service.impl;
+
+import org.mavb.azure.ai.benchmark.EvaluationData;
+import org.mavb.azure.ai.dto.projection.CustomerEmploymentProjection;
+import org.mavb.azure.ai.dto.request.EvaluationRequestDTO;
+import org.mavb.azure.ai.service.AISearchClient;
+import org.mavb.azure.ai.service.index.RankMatch;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response of a single evaluation once the AI calls returned: scoring, mapping and sorting of the products.
+ * Lives in the service package to reach the package-private {@code buildEvaluationResponse}. Run with {@code ./gradlew jmh -Pjmh.includes=EvaluationResponseBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EvaluationResponseBenchmark {
+
+    @Param({"10", "50"})
+    private int products;
+
+    private AISearchEvaluationServiceImpl service;
+    private EvaluationRequestDTO request;
+    private CustomerEmploymentProjection customer;
+    private RankMatch rankMatch;
+    private List<AISearchClient.ProductSearchResult> productResults;
+
+    @Setup
+    public void setUp() {
+        EvaluationData data = new EvaluationData();
+        service = new AISearchEvaluationServiceImpl(null, null, null, null, null, null);
+        request = data.request();
+        customer = data.customer(3);
+        rankMatch = data.rankMatch();
+        productResults = data.searchResults(products);
+    }
+
+    @Benchmark
+    public Object buildEvaluationResponse() {
+        return service.buildEvaluationResponse(request, customer, rankMatch, productResults);
+    }
+}
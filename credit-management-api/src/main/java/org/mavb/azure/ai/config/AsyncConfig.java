@@ -3,20 +3,24 @@ package org.mavb.azure.ai.config;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
 
 /**
  * Configuration for asynchronous operations.
- * Enables async execution for product synchronization to AI Search.
+ * Enables async execution for AI Search indexing, bulk reindex runs
+ * and scheduled maintenance tasks such as index consistency checks.
  */
 @Configuration
 @EnableAsync
+@EnableScheduling
 public class AsyncConfig {
 
     /**
      * Thread pool executor for AI Search synchronization operations.
+     * Also runs the upload workers of bulk reindex jobs.
      */
     @Bean(name = "aiSearchSyncExecutor")
     public Executor aiSearchSyncExecutor() {
@@ -28,4 +32,18 @@ public class AsyncConfig {
         executor.initialize();
         return executor;
     }
-}
\ No newline at end of file
+
+    /**
+     * Runs reindex jobs themselves (cursor reading and batching), one thread per target index.
+     */
+    @Bean(name = "searchReindexExecutor")
+    public Executor searchReindexExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("SearchReindex-");
+        executor.initialize();
+        return executor;
+    }
+}
@@ -1,12 +1,22 @@
 package org.mavb.azure.ai.config;
 
+import com.azure.ai.openai.OpenAIAsyncClient;
 import com.azure.ai.openai.OpenAIClient;
 import com.azure.ai.openai.OpenAIClientBuilder;
 import com.azure.core.credential.AzureKeyCredential;
+import com.azure.core.http.HttpClient;
+import com.azure.search.documents.SearchAsyncClient;
 import com.azure.search.documents.SearchClient;
 import com.azure.search.documents.SearchClientBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.mavb.azure.ai.service.flight.RequestHedger;
+import org.mavb.azure.ai.service.limiter.AdaptiveConcurrencyLimiter;
+import org.mavb.azure.ai.service.limiter.OpenAIConcurrencyPolicy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.*;
+import reactor.core.scheduler.Schedulers;
 
 @Configuration
 @RequiredArgsConstructor
@@ -14,29 +24,82 @@ public class AzureClientsConfig {
 
     private final AzureProperties azure;
 
+    /**
+     * Optional transport for the AI Search clients. Tests and {@code bootTestRun} register the in-process
+     * search emulator as an azure-core {@link HttpClient} bean; the SDK default HTTP client is used otherwise.
+     */
+    private final ObjectProvider<HttpClient> searchHttpClient;
+
+    /**
+     * Shared by the sync and async OpenAI clients so the limit reflects all calls to the deployment.
+     */
     @Bean
-    public OpenAIClient openAIClient() {
-        return new OpenAIClientBuilder()
-                .endpoint(azure.getOpenai().getEndpoint())
-                .credential(new AzureKeyCredential(azure.getOpenai().getKey()))
-                .buildClient();
+    public AdaptiveConcurrencyLimiter openAIConcurrencyLimiter(MeterRegistry meterRegistry) {
+        return new AdaptiveConcurrencyLimiter("openai", azure.getOpenai().getLimiter(), Schedulers.parallel(), meterRegistry);
+    }
+
+    /**
+     * OpenAI clients are only created for the Azure embedding provider, so the local provider runs without
+     * {@code azure.openai} credentials.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "embedding", name = "provider", havingValue = "azure", matchIfMissing = true)
+    public OpenAIClient openAIClient(AdaptiveConcurrencyLimiter openAIConcurrencyLimiter) {
+        return openAIClientBuilder(openAIConcurrencyLimiter).buildClient();
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "embedding", name = "provider", havingValue = "azure", matchIfMissing = true)
+    public OpenAIAsyncClient openAIAsyncClient(AdaptiveConcurrencyLimiter openAIConcurrencyLimiter) {
+        return openAIClientBuilder(openAIConcurrencyLimiter).buildAsyncClient();
     }
 
     @Bean(name = "rankSearchClient")
     public SearchClient rankSearchClient() {
-        return new SearchClientBuilder()
-                .endpoint(azure.getSearch().getEndpoint())
-                .credential(new AzureKeyCredential(azure.getSearch().getKey()))
-                .indexName(azure.getSearch().getIndices().getRanks())
-                .buildClient();
+        return searchClientBuilder(azure.getSearch().getIndices().getRanks()).buildClient();
     }
 
     @Bean(name = "productSearchClient")
     public SearchClient productSearchClient() {
-        return new SearchClientBuilder()
+        return searchClientBuilder(azure.getSearch().getIndices().getProducts()).buildClient();
+    }
+
+    @Bean(name = "rankSearchAsyncClient")
+    public SearchAsyncClient rankSearchAsyncClient() {
+        return searchClientBuilder(azure.getSearch().getIndices().getRanks()).buildAsyncClient();
+    }
+
+    @Bean(name = "productSearchAsyncClient")
+    public SearchAsyncClient productSearchAsyncClient() {
+        return searchClientBuilder(azure.getSearch().getIndices().getProducts()).buildAsyncClient();
+    }
+
+    @Bean(name = "rankSearchHedger")
+    public RequestHedger rankSearchHedger(MeterRegistry meterRegistry) {
+        return new RequestHedger("ranks", azure.getSearch().getHedge(), meterRegistry);
+    }
+
+    @Bean(name = "productSearchHedger")
+    public RequestHedger productSearchHedger(MeterRegistry meterRegistry) {
+        return new RequestHedger("products", azure.getSearch().getHedge(), meterRegistry);
+    }
+
+    private OpenAIClientBuilder openAIClientBuilder(AdaptiveConcurrencyLimiter limiter) {
+        OpenAIClientBuilder builder = new OpenAIClientBuilder()
+                .endpoint(azure.getOpenai().getEndpoint())
+                .credential(new AzureKeyCredential(azure.getOpenai().getKey()));
+        if (azure.getOpenai().getLimiter().isEnabled()) {
+            builder.addPolicy(new OpenAIConcurrencyPolicy(limiter));
+        }
+        return builder;
+    }
+
+    private SearchClientBuilder searchClientBuilder(String indexName) {
+        SearchClientBuilder builder = new SearchClientBuilder()
                 .endpoint(azure.getSearch().getEndpoint())
                 .credential(new AzureKeyCredential(azure.getSearch().getKey()))
-                .indexName(azure.getSearch().getIndices().getProducts())
-                .buildClient();
+                .indexName(indexName);
+        searchHttpClient.ifUnique(builder::httpClient);
+        return builder;
     }
 }
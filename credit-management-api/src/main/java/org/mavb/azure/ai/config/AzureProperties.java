@@ -4,6 +4,8 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
 @Data
 @Configuration
 @ConfigurationProperties(prefix = "azure")
@@ -16,6 +18,53 @@ public class AzureProperties {
         private String endpoint;
         private String key;
         private String embeddingModel;
+        /**
+         * Output dimensions requested from models that support shortening (text-embedding-3-*).
+         * Null keeps the model default. The AI Search vector fields must be created with the same size.
+         */
+        private Integer embeddingDimensions;
+        private EmbeddingCache embeddingCache = new EmbeddingCache();
+        private EmbeddingBatch embeddingBatch = new EmbeddingBatch();
+        private Limiter limiter = new Limiter();
+
+        /**
+         * Identifies the vector space produced by the current settings, e.g. "text-embedding-3-small@512".
+         * Vectors from different versions must never be compared, cached or reused for each other.
+         */
+        public String embeddingVersion() {
+            return embeddingDimensions == null ? embeddingModel : embeddingModel + "@" + embeddingDimensions;
+        }
+
+        @Data
+        public static class EmbeddingCache {
+            private boolean enabled = true;
+            private long maxSizeMb = 64;
+            private String persistencePath;
+        }
+
+        @Data
+        public static class EmbeddingBatch {
+            private boolean enabled = true;
+            private int maxBatchSize = 16;
+            private Duration maxDelay = Duration.ofMillis(10);
+            private int maxConcurrentBatches = 4;
+        }
+
+        /**
+         * AIMD concurrency limit shared by every OpenAI call: grows by one per window of successful calls,
+         * shrinks by backoffRatio on throttling or server errors.
+         */
+        @Data
+        public static class Limiter {
+            private boolean enabled = true;
+            private int initialLimit = 8;
+            private int minLimit = 1;
+            private int maxLimit = 64;
+            private double backoffRatio = 0.5;
+            private int maxQueueSize = 256;
+            private Duration queueTimeout = Duration.ofSeconds(2);
+            private Duration maxRetryAfter = Duration.ofSeconds(30);
+        }
     }
 
     @Data
@@ -23,11 +72,47 @@ public class AzureProperties {
         private String endpoint;
         private String key;
         private Indices indices = new Indices();
+        private Sync sync = new Sync();
+        private Reindex reindex = new Reindex();
+        private Hedge hedge = new Hedge();
 
         @Data
         public static class Indices {
             private String ranks;
             private String products;
         }
+
+        @Data
+        public static class Sync {
+            private Duration pollInterval = Duration.ofSeconds(2);
+            private int batchSize = 200;
+            private Duration initialBackoff = Duration.ofSeconds(5);
+            private Duration maxBackoff = Duration.ofMinutes(10);
+        }
+
+        @Data
+        public static class Reindex {
+            private int batchSize = 100;
+            private int parallelism = 4;
+            private int maxAttempts = 3;
+            private Duration retryBackoff = Duration.ofSeconds(2);
+        }
+
+        /**
+         * Hedging of vector queries: a duplicate is sent once a query is slower than the given percentile
+         * of recent latencies, with at most budgetRatio extra queries per query.
+         */
+        @Data
+        public static class Hedge {
+            private boolean enabled = false;
+            private double percentile = 0.95;
+            private Duration initialDelay = Duration.ofMillis(200);
+            private Duration minDelay = Duration.ofMillis(10);
+            private Duration maxDelay = Duration.ofSeconds(1);
+            private int window = 1024;
+            private int minSamples = 50;
+            private double budgetRatio = 0.1;
+            private double maxBudget = 10;
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,53 @@
+package org.mavb.azure.ai.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "embedding")
+public class EmbeddingProperties {
+    private Provider provider = Provider.AZURE;
+    private Local local = new Local();
+
+    /**
+     * AZURE calls the Azure OpenAI deployment, LOCAL runs a sentence-embedding model in-process on CPU.
+     */
+    public enum Provider {
+        AZURE,
+        LOCAL
+    }
+
+    @Data
+    public static class Local {
+        /**
+         * Model name used in the embedding version, e.g. "all-MiniLM-L6-v2".
+         */
+        private String modelName = "all-MiniLM-L6-v2";
+        /**
+         * ONNX export of a BERT-style sentence encoder and its WordPiece vocabulary (vocab.txt).
+         */
+        private String modelPath;
+        private String vocabularyPath;
+        private boolean lowerCase = true;
+        /**
+         * Longer inputs are truncated; all-MiniLM-L6-v2 was trained on 256 tokens.
+         */
+        private int maxSequenceLength = 256;
+        private int maxBatchSize = 32;
+        /**
+         * Inference workers, each running one batch at a time. Zero uses half the available processors.
+         */
+        private int workers = 0;
+        /**
+         * ONNX Runtime intra-op threads per batch.
+         */
+        private int intraOpThreads = 1;
+        private int maxQueueSize = 1024;
+
+        public int effectiveWorkers() {
+            return workers > 0 ? workers : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package org.mavb.azure.ai.config;
+
+import lombok.Data;
+import org.mavb.azure.ai.vector.VectorEncoding;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "evaluation")
+public class EvaluationProperties {
+    private RankResolution rankResolution = new RankResolution();
+    private ProductSearch productSearch = new ProductSearch();
+    private QueryGrid queryGrid = new QueryGrid();
+    private Batch batch = new Batch();
+    private Cache cache = new Cache();
+    private Fallback fallback = new Fallback();
+    private Timings timings = new Timings();
+    private VectorStore vectorStore = new VectorStore();
+    private IndexFiles indexFiles = new IndexFiles();
+
+    /**
+     * LOCAL serves from the in-process vector index, REMOTE always queries Azure AI Search,
+     * DATABASE runs the filtered kNN with pgvector in the credit database (requires {@code vector-store.enabled}).
+     */
+    public enum SearchMode {
+        LOCAL,
+        REMOTE,
+        DATABASE
+    }
+
+    @Data
+    public static class RankResolution {
+        private SearchMode mode = SearchMode.LOCAL;
+        private boolean remoteFallback = true;
+    }
+
+    @Data
+    public static class ProductSearch {
+        private SearchMode mode = SearchMode.LOCAL;
+        private int top = 10;
+        private Duration consistencyCheckInterval = Duration.ofMinutes(10);
+        /**
+         * Quantized encodings shrink the scanned matrix, but the float embeddings stay resident for rescoring.
+         */
+        private VectorEncoding encoding = VectorEncoding.FLOAT32;
+        /**
+         * Candidates preselected with quantized vectors per requested result, rescored at full precision.
+         */
+        private int rescoreMultiplier = 4;
+    }
+
+    @Data
+    public static class QueryGrid {
+        private boolean enabled = true;
+        private List<BigDecimal> amountBuckets = Stream.of(
+                        "1000", "2000", "5000", "10000", "20000", "50000", "100000", "200000", "500000")
+                .map(BigDecimal::new)
+                .toList();
+        /**
+         * Maximum relative distance between the requested amount and the nearest grid amount
+         * before falling back to embedding the exact query.
+         */
+        private double maxDeviation = 0.5;
+        private boolean includeProductLimits = true;
+    }
+
+    @Data
+    public static class Batch {
+        private int concurrency = 8;
+        /**
+         * Maximum identity documents per IN (...) query.
+         */
+        private int queryChunkSize = 1000;
+    }
+
+    @Data
+    public static class Cache {
+        private boolean enabled = true;
+        private Duration ttl = Duration.ofMinutes(10);
+        private long maxSize = 10_000;
+    }
+
+    /**
+     * Last known good results for rank resolution and product search, served while a circuit is open,
+     * after a failure, or once a call exceeds the latency budget.
+     */
+    @Data
+    public static class Fallback {
+        private boolean enabled = true;
+        private Duration latencyBudget = Duration.ofMillis(800);
+        private Duration staleTtl = Duration.ofHours(24);
+        private long maxSize = 10_000;
+        private int slidingWindow = 20;
+        private int minimumCalls = 10;
+        private double failureRateThreshold = 0.5;
+        private Duration openDuration = Duration.ofSeconds(30);
+    }
+
+    /**
+     * Adds the per-stage durations of POST /products/evaluate as a Server-Timing response header.
+     */
+    @Data
+    public static class Timings {
+        private boolean responseHeader = false;
+    }
+
+    /**
+     * Embedding columns of credit_products and ranks (changeset v_1_8_0). Only written and queried when enabled
+     * and the columns exist, i.e. pgvector was available when the migration ran.
+     */
+    @Data
+    public static class VectorStore {
+        private boolean enabled = false;
+    }
+
+    /**
+     * Memory-mapped vector files that let the local rank and product indexes start without re-embedding.
+     * Written as changes are synced and compacted periodically.
+     */
+    @Data
+    public static class IndexFiles {
+        private boolean enabled = false;
+        private String directory = "data/index";
+        private VectorEncoding encoding = VectorEncoding.FLOAT32;
+        private Duration compactionInterval = Duration.ofMinutes(10);
+    }
+}
@@ -3,12 +3,18 @@ package org.mavb.azure.ai.controller;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.mavb.azure.ai.config.EvaluationProperties;
+import org.mavb.azure.ai.dto.request.EvaluationBatchRequestDTO;
 import org.mavb.azure.ai.dto.request.EvaluationRequestDTO;
 import org.mavb.azure.ai.dto.response.EvaluationResponseDTO;
 import org.mavb.azure.ai.service.EvaluationService;
+import org.mavb.azure.ai.service.timing.StageTimings;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
 
 /**
  * REST Controller for credit evaluation operations.
@@ -20,6 +26,7 @@ import reactor.core.publisher.Mono;
 public class EvaluationController {
 
     private final EvaluationService evaluationService;
+    private final EvaluationProperties evaluationProperties;
 
     /**
      * Evaluates client credit eligibility using AI Search (Reactive).
@@ -34,14 +41,36 @@ public class EvaluationController {
         log.debug("POST /products/evaluate - Starting AI Search evaluation for customer: {}", 
                 request.getIdentityDocument());
 
-        return evaluationService.evaluateClientEligibility(request)
+        StageTimings timings = evaluationProperties.getTimings().isResponseHeader() ? new StageTimings() : null;
+        Mono<ResponseEntity<EvaluationResponseDTO>> evaluation = evaluationService.evaluateClientEligibility(request)
                 .map(response -> {
                     log.info("AI Search evaluation completed for customer: {}, eligible products: {}, semantic rank: {}",
                             request.getIdentityDocument(),
                             response.getEligibleProducts().size(),
                             response.getClientProfile().getSemanticRank());
                     
+                    if (timings != null) {
+                        return ResponseEntity.ok()
+                                .header("Server-Timing", timings.toServerTiming())
+                                .body(response);
+                    }
                     return ResponseEntity.ok(response);
                 });
+        return timings != null ? evaluation.contextWrite(Context.of(StageTimings.class, timings)) : evaluation;
     }
-}
\ No newline at end of file
+
+    /**
+     * Evaluates many customers and streams each result as soon as it is ready (NDJSON).
+     *
+     * @param request Batch of evaluation requests
+     * @return Flux with one evaluation response per request, in completion order
+     */
+    @PostMapping(value = "/evaluate/batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<EvaluationResponseDTO> evaluateBatch(@Valid @RequestBody EvaluationBatchRequestDTO request) {
+
+        log.debug("POST /products/evaluate/batch - Starting AI Search evaluation for {} customers",
+                request.getEvaluations().size());
+
+        return evaluationService.evaluateBatch(request.getEvaluations());
+    }
+}
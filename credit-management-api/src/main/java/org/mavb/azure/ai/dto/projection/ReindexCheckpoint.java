@@ -0,0 +1,21 @@
+package org.mavb.azure.ai.dto.projection;
+
+/**
+ * Row of the search_reindex_checkpoint table.
+ *
+ * @param lastId    Highest id indexed with no gaps before it ("" before the first batch)
+ * @param processed Documents indexed up to lastId
+ */
+public record ReindexCheckpoint(Target target, String lastId, long processed, Status status, String lastError) {
+
+    public enum Target {
+        PRODUCTS,
+        RANKS
+    }
+
+    public enum Status {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+}
@@ -0,0 +1,17 @@
+package org.mavb.azure.ai.dto.projection;
+
+/**
+ * Row of the search_sync_outbox table.
+ */
+public record SearchSyncOutboxEntry(long id, AggregateType aggregateType, String aggregateId, Operation operation, int attempts) {
+
+    public enum AggregateType {
+        PRODUCT,
+        RANK
+    }
+
+    public enum Operation {
+        UPSERT,
+        DELETE
+    }
+}
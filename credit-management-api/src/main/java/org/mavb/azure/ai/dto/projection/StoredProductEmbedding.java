@@ -0,0 +1,18 @@
+package org.mavb.azure.ai.dto.projection;
+
+import org.mavb.azure.ai.vector.EmbeddingVector;
+
+/**
+ * Row of the credit_product_embeddings table.
+ *
+ * @param searchTextHash SHA-256 (hex) of the search text the embedding was generated from
+ */
+public record StoredProductEmbedding(String productId, String searchTextHash, String embeddingModel, EmbeddingVector embedding) {
+
+    /**
+     * @return true if the stored vector can be reused for the given search text hash and model
+     */
+    public boolean matches(String searchTextHash, String embeddingModel) {
+        return this.searchTextHash.equals(searchTextHash) && this.embeddingModel.equals(embeddingModel);
+    }
+}
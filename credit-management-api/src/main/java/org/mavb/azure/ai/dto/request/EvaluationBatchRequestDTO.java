@@ -0,0 +1,26 @@
+package org.mavb.azure.ai.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for evaluating multiple customers in one request.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EvaluationBatchRequestDTO {
+
+    @NotEmpty(message = "La lista de evaluaciones no puede estar vacía")
+    @Size(min = 1, max = 10000, message = "El lote debe contener entre 1 y 10000 evaluaciones")
+    @Valid
+    private List<EvaluationRequestDTO> evaluations;
+}
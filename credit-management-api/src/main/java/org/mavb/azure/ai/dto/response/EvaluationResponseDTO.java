@@ -1,5 +1,6 @@
 package org.mavb.azure.ai.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -29,6 +30,13 @@ public class EvaluationResponseDTO {
     @JsonProperty("summary")
     private EvaluationSummaryDTO summary;
 
+    /**
+     * Only set on batch results for items that could not be evaluated.
+     */
+    @JsonProperty("error")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String error;
+
     /**
      * DTO for customer profile information in evaluation response.
      */
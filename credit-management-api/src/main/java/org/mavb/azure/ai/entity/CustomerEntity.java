@@ -2,6 +2,7 @@ package org.mavb.azure.ai.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.mavb.azure.ai.listener.CustomerCacheListener;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -16,6 +17,7 @@ import java.util.ArrayList;
  * Not directly exposed through API endpoints but essential for credit evaluation logic.
  */
 @Entity
+@EntityListeners(CustomerCacheListener.class)
 @Table(name = "customers")
 @Data
 @Builder
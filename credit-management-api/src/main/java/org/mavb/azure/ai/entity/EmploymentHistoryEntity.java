@@ -3,6 +3,7 @@ package org.mavb.azure.ai.entity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
+import org.mavb.azure.ai.listener.EmploymentHistoryCacheListener;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -16,6 +17,7 @@ import java.time.LocalDateTime;
  * Tracks employment periods, positions, and income history.
  */
 @Entity
+@EntityListeners(EmploymentHistoryCacheListener.class)
 @Table(name = "employment_history")
 @Data
 @Builder
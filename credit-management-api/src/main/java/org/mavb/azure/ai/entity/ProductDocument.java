@@ -3,6 +3,7 @@ package org.mavb.azure.ai.entity;
 import com.azure.search.documents.indexes.SearchableField;
 import com.azure.search.documents.indexes.SimpleField;
 import lombok.*;
+import org.mavb.azure.ai.vector.EmbeddingVector;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -60,6 +61,6 @@ public class ProductDocument {
     @SearchableField
     private List<String> allowedRanks;
 
-    @SearchableField(vectorSearchDimensions = 1536, vectorSearchProfileName = "vector-config")
-    private List<Float> embedding;
+    // Vector field created by create-ai-search-index.sh, sized by OPEN_AI_EMBEDDING_DIMENSIONS
+    private EmbeddingVector embedding;
 }
\ No newline at end of file
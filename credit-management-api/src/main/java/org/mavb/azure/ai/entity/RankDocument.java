@@ -3,8 +3,7 @@ package org.mavb.azure.ai.entity;
 import com.azure.search.documents.indexes.SearchableField;
 import com.azure.search.documents.indexes.SimpleField;
 import lombok.*;
-
-import java.util.List;
+import org.mavb.azure.ai.vector.EmbeddingVector;
 
 @Data
 @Builder
@@ -20,6 +19,6 @@ public class RankDocument {
     @SearchableField
     private String description;
 
-    @SearchableField(vectorSearchDimensions = 1536, vectorSearchProfileName = "vector-config")
-    private List<Float> embedding;
+    // Vector field created by create-ai-search-index.sh, sized by OPEN_AI_EMBEDDING_DIMENSIONS
+    private EmbeddingVector embedding;
 }
\ No newline at end of file
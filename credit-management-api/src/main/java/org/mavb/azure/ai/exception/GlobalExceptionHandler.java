@@ -2,6 +2,7 @@ package org.mavb.azure.ai.exception;
 
 import lombok.extern.slf4j.Slf4j;
 import org.mavb.azure.ai.dto.response.ErrorResponseDTO;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
@@ -69,6 +70,11 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(EvaluationException.class)
     public ResponseEntity<ErrorResponseDTO> handleEvaluationException(EvaluationException ex) {
+        ServiceOverloadedException overloaded = findCause(ex, ServiceOverloadedException.class);
+        if (overloaded != null) {
+            return handleServiceOverloaded(overloaded);
+        }
+
         log.error("Credit evaluation failed: {}", ex.getMessage());
 
         ErrorResponseDTO error = ErrorResponseDTO.builder()
@@ -79,6 +85,24 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
     }
 
+    /**
+     * Handle ServiceOverloadedException.
+     * Thrown when an AI service call is shed by the concurrency limiter.
+     */
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<ErrorResponseDTO> handleServiceOverloaded(ServiceOverloadedException ex) {
+        log.warn("Request shed by concurrency limiter: {}", ex.getMessage());
+
+        ErrorResponseDTO error = ErrorResponseDTO.builder()
+                .error("Service Overloaded")
+                .message("El servicio está al límite de su capacidad, intente nuevamente en unos segundos")
+                .build();
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, (ex.getRetryAfter().toMillis() + 999) / 1000)))
+                .body(error);
+    }
+
     /**
      * Handle WebExchangeBindException for WebFlux validation errors.
      * Thrown when request body validation fails in WebFlux.
@@ -224,4 +248,16 @@ public class GlobalExceptionHandler {
         String propertyPath = violation.getPropertyPath().toString();
         return propertyPath.substring(propertyPath.lastIndexOf('.') + 1);
     }
-}
\ No newline at end of file
+
+    /**
+     * Find the first exception of the given type in the cause chain.
+     */
+    private <T extends Throwable> T findCause(Throwable ex, Class<T> type) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (type.isInstance(cause)) {
+                return type.cast(cause);
+            }
+        }
+        return null;
+    }
+}
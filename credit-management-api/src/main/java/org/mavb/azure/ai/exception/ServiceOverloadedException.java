@@ -0,0 +1,24 @@
+package org.mavb.azure.ai.exception;
+
+import java.time.Duration;
+
+/**
+ * Exception thrown when a call to an upstream AI service is shed because it could not be
+ * admitted before its queue deadline.
+ */
+public class ServiceOverloadedException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public ServiceOverloadedException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * @return Suggested wait before retrying
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,27 @@
+package org.mavb.azure.ai.listener;
+
+import jakarta.persistence.*;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.mavb.azure.ai.entity.CustomerEntity;
+import org.mavb.azure.ai.service.cache.EvaluationResultCache;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA Entity Listener that drops the cached evaluations of a customer once a change to it commits.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class CustomerCacheListener {
+
+    private final EvaluationResultCache evaluationResultCache;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void afterChange(CustomerEntity customer) {
+        log.debug("Customer {} changed, evicting cached evaluations", customer.getIdentityDocument());
+        evaluationResultCache.evictCustomerAfterCommit(customer.getIdentityDocument());
+    }
+}
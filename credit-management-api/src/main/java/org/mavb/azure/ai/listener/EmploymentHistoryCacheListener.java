@@ -0,0 +1,32 @@
+package org.mavb.azure.ai.listener;
+
+import jakarta.persistence.*;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.mavb.azure.ai.entity.EmploymentHistoryEntity;
+import org.mavb.azure.ai.service.cache.EvaluationResultCache;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA Entity Listener that drops the cached evaluations of a customer once a change to its
+ * employment history commits.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class EmploymentHistoryCacheListener {
+
+    private final EvaluationResultCache evaluationResultCache;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void afterChange(EmploymentHistoryEntity employment) {
+        if (employment.getCustomer() == null) {
+            return;
+        }
+        String identityDocument = employment.getCustomer().getIdentityDocument();
+        log.debug("Employment history of customer {} changed, evicting cached evaluations", identityDocument);
+        evaluationResultCache.evictCustomerAfterCommit(identityDocument);
+    }
+}
@@ -1,18 +1,20 @@
 package org.mavb.azure.ai.mapper;
 
-import com.azure.ai.openai.OpenAIClient;
-import com.azure.ai.openai.models.Embeddings;
-import com.azure.ai.openai.models.EmbeddingsOptions;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.mavb.azure.ai.config.AzureProperties;
+import org.mavb.azure.ai.dto.projection.StoredProductEmbedding;
 import org.mavb.azure.ai.entity.CreditProductEntity;
 import org.mavb.azure.ai.entity.ProductDocument;
+import org.mavb.azure.ai.repository.ProductEmbeddingRepository;
+import org.mavb.azure.ai.service.EmbeddingService;
+import org.mavb.azure.ai.vector.EmbeddingVector;
 import org.springframework.stereotype.Component;
 
-import java.util.Arrays;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
 
 /**
  * Mapper component for converting CreditProductEntity to ProductDocument.
@@ -23,8 +25,9 @@ import java.util.stream.Collectors;
 @Slf4j
 public class ProductDocumentMapper {
 
-    private final OpenAIClient openAIClient;
-    private final AzureProperties azureProperties;
+    private final EmbeddingService embeddingService;
+    private final ProductEmbeddingRepository productEmbeddingRepository;
+    private final MeterRegistry meterRegistry;
 
     /**
      * Maps a CreditProductEntity to a ProductDocument.
@@ -37,38 +40,92 @@ public class ProductDocumentMapper {
         log.debug("Mapping CreditProductEntity to ProductDocument: {}", entity.getId());
 
         try {
-            List<String> allowedRanks = generateAllowedRanks(entity);
-
-            String searchText = buildSearchText(entity);
-            
-            List<Float> embeddings = generateEmbeddings(searchText);
-
-            return ProductDocument.builder()
-                    .id(entity.getId())
-                    .name(entity.getName())
-                    .description(entity.getDescription())
-                    .category(entity.getCategory())
-                    .subcategory(entity.getSubcategory())
-                    .minimumAmount(entity.getMinimumAmount())
-                    .maximumAmount(entity.getMaximumAmount())
-                    .currency(entity.getCurrency())
-                    .term(entity.getTerm())
-                    .minimumRate(entity.getMinimumRate())
-                    .maximumRate(entity.getMaximumRate())
-                    .requirements(entity.getRequirements())
-                    .features(entity.getFeatures())
-                    .benefits(entity.getBenefits())
-                    .active(entity.getActive())
-                    .allowedRanks(allowedRanks)
-                    .embedding(embeddings)
-                    .build();
-
+            return toProductDocuments(List.of(entity)).get(0);
         } catch (Exception e) {
             log.error("Error mapping CreditProductEntity to ProductDocument: {}", e.getMessage(), e);
             return createBasicDocument(entity);
         }
     }
 
+    /**
+     * Maps a product with an embedding obtained elsewhere (e.g. the local index files), without embedding requests.
+     */
+    public ProductDocument toProductDocument(CreditProductEntity entity, EmbeddingVector embedding) {
+        ProductDocument document = createBasicDocument(entity);
+        document.setEmbedding(embedding);
+        return document;
+    }
+
+    /**
+     * Maps several products with one bulk embedding request.
+     * Stored embeddings are reused when the product's search text and the embedding model are unchanged,
+     * so only new or semantically edited products reach OpenAI.
+     * Unlike {@link #toProductDocument}, embedding failures are propagated so callers can retry.
+     *
+     * @param entities The credit product entities to map
+     * @return ProductDocuments with embeddings, in input order
+     */
+    public List<ProductDocument> toProductDocuments(List<CreditProductEntity> entities) {
+        String model = embeddingService.version();
+        Map<String, StoredProductEmbedding> stored = productEmbeddingRepository.findByProductIds(entities.stream()
+                .map(CreditProductEntity::getId)
+                .toList());
+
+        List<ProductDocument> documents = new ArrayList<>(entities.size());
+        String[] searchTexts = new String[entities.size()];
+        String[] hashes = new String[entities.size()];
+        List<Integer> stale = new ArrayList<>();
+        for (int i = 0; i < entities.size(); i++) {
+            documents.add(createBasicDocument(entities.get(i)));
+            searchTexts[i] = buildSearchText(documents.get(i));
+            hashes[i] = searchTextHash(searchTexts[i]);
+            StoredProductEmbedding previous = stored.get(entities.get(i).getId());
+            if (previous != null && previous.matches(hashes[i], model)) {
+                documents.get(i).setEmbedding(previous.embedding());
+            } else {
+                stale.add(i);
+            }
+        }
+
+        if (!stale.isEmpty()) {
+            List<EmbeddingVector> fresh = embeddingService.getEmbeddings(stale.stream()
+                    .map(i -> searchTexts[i])
+                    .toList());
+            List<StoredProductEmbedding> updates = new ArrayList<>(stale.size());
+            for (int j = 0; j < stale.size(); j++) {
+                int i = stale.get(j);
+                documents.get(i).setEmbedding(fresh.get(j));
+                updates.add(new StoredProductEmbedding(entities.get(i).getId(), hashes[i], model, fresh.get(j)));
+            }
+            productEmbeddingRepository.saveAll(updates);
+        }
+
+        meterRegistry.counter("product.embedding.documents", "source", "stored").increment(entities.size() - stale.size());
+        meterRegistry.counter("product.embedding.documents", "source", "openai").increment(stale.size());
+        log.debug("Mapped {} products, {} re-embedded", entities.size(), stale.size());
+        return documents;
+    }
+
+    /**
+     * Hash of the search text a product document's embedding is generated from, as stored next to the
+     * vector so readers can tell whether it is still current.
+     */
+    public static String searchTextHash(ProductDocument document) {
+        return searchTextHash(buildSearchText(document));
+    }
+
+    /**
+     * SHA-256 of the search text, hex encoded. Identifies the semantic content an embedding was generated from.
+     */
+    static String searchTextHash(String searchText) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(searchText.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
     /**
      * Generates allowed ranks based on product characteristics.
      * Uses business rules to determine which customer ranks can access the product.
@@ -86,75 +143,44 @@ public class ProductDocumentMapper {
     /**
      * Builds comprehensive search text for embedding generation.
      */
-    private String buildSearchText(CreditProductEntity entity) {
+    String buildSearchText(CreditProductEntity entity) {
+        return buildSearchText(createBasicDocument(entity));
+    }
+
+    /**
+     * Same text from the mapped document, whose searchable fields are copied unchanged from the entity.
+     */
+    private static String buildSearchText(ProductDocument document) {
         StringBuilder searchText = new StringBuilder();
         
-        searchText.append(entity.getName()).append(" ");
-        searchText.append(entity.getDescription()).append(" ");
-        searchText.append("Categoría: ").append(entity.getCategory()).append(" ");
+        searchText.append(document.getName()).append(" ");
+        searchText.append(document.getDescription()).append(" ");
+        searchText.append("Categoría: ").append(document.getCategory()).append(" ");
         
-        if (entity.getSubcategory() != null) {
-            searchText.append("Subcategoría: ").append(entity.getSubcategory()).append(" ");
+        if (document.getSubcategory() != null) {
+            searchText.append("Subcategoría: ").append(document.getSubcategory()).append(" ");
         }
         
         // Add financial details
-        searchText.append("Moneda: ").append(entity.getCurrency()).append(" ");
-        searchText.append("Monto mínimo: ").append(entity.getMinimumAmount()).append(" ");
-        searchText.append("Monto máximo: ").append(entity.getMaximumAmount()).append(" ");
+        searchText.append("Moneda: ").append(document.getCurrency()).append(" ");
+        searchText.append("Monto mínimo: ").append(document.getMinimumAmount()).append(" ");
+        searchText.append("Monto máximo: ").append(document.getMaximumAmount()).append(" ");
         
-        if (entity.getRequirements() != null && !entity.getRequirements().isEmpty()) {
-            searchText.append("Requisitos: ").append(String.join(", ", entity.getRequirements())).append(" ");
+        if (document.getRequirements() != null && !document.getRequirements().isEmpty()) {
+            searchText.append("Requisitos: ").append(String.join(", ", document.getRequirements())).append(" ");
         }
         
-        if (entity.getFeatures() != null && !entity.getFeatures().isEmpty()) {
-            searchText.append("Características: ").append(String.join(", ", entity.getFeatures())).append(" ");
+        if (document.getFeatures() != null && !document.getFeatures().isEmpty()) {
+            searchText.append("Características: ").append(String.join(", ", document.getFeatures())).append(" ");
         }
         
-        if (entity.getBenefits() != null && !entity.getBenefits().isEmpty()) {
-            searchText.append("Beneficios: ").append(String.join(", ", entity.getBenefits())).append(" ");
+        if (document.getBenefits() != null && !document.getBenefits().isEmpty()) {
+            searchText.append("Beneficios: ").append(String.join(", ", document.getBenefits())).append(" ");
         }
         
         return searchText.toString().trim();
     }
 
-    /**
-     * Generates embeddings for the given text using OpenAI.
-     */
-    private List<Float> generateEmbeddings(String text) {
-        try {
-            log.debug("Generating embeddings for product text");
-            
-            // Validate text input
-            if (text == null || text.trim().isEmpty()) {
-                text = "Financial product for credit services";
-            }
-            
-            // Create options with proper user field
-            EmbeddingsOptions options = new EmbeddingsOptions(List.of(text.trim()));
-            options.setUser("credit-management-system");
-            options.setInputType("text");
-            
-            log.debug("Calling Azure OpenAI for embeddings with model: {}", azureProperties.getOpenai().getEmbeddingModel());
-            
-            Embeddings embeddings = openAIClient.getEmbeddings(
-                    azureProperties.getOpenai().getEmbeddingModel(),
-                    options
-            );
-
-            List<Float> embeddingVector = embeddings.getData().get(0).getEmbedding()
-                    .stream()
-                    .map(Double::floatValue)
-                    .collect(Collectors.toList());
-            
-            log.debug("Generated embeddings vector with {} dimensions", embeddingVector.size());
-            return embeddingVector;
-
-        } catch (Exception e) {
-            log.error("Error generating embeddings for product: {}", e.getMessage(), e);
-            return List.of();
-        }
-    }
-
     /**
      * Creates a basic document without embeddings in case of errors.
      */
@@ -178,7 +204,7 @@ public class ProductDocumentMapper {
                 .benefits(entity.getBenefits())
                 .active(entity.getActive())
                 .allowedRanks(allowedRanks)
-                .embedding(List.of())
+                .embedding(EmbeddingVector.EMPTY)
                 .build();
     }
 }
\ No newline at end of file
@@ -1,16 +1,16 @@
 package org.mavb.azure.ai.mapper;
 
-import com.azure.ai.openai.OpenAIClient;
-import com.azure.ai.openai.models.Embeddings;
-import com.azure.ai.openai.models.EmbeddingsOptions;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.mavb.azure.ai.config.AzureProperties;
 import org.mavb.azure.ai.entity.RankDocument;
 import org.mavb.azure.ai.entity.RankEntity;
+import org.mavb.azure.ai.service.EmbeddingService;
+import org.mavb.azure.ai.vector.EmbeddingVector;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * Mapper component for converting RankEntity to RankDocument.
@@ -21,8 +21,7 @@ import java.util.List;
 @Slf4j
 public class RankDocumentMapper {
 
-    private final OpenAIClient openAIClient;
-    private final AzureProperties azureProperties;
+    private final EmbeddingService embeddingService;
 
     /**
      * Synchronous version for JPA listeners.
@@ -32,7 +31,7 @@ public class RankDocumentMapper {
         log.debug("Mapping rank entity to RankDocument (sync): {}", rankEntity.getId());
 
         try {
-            List<Float> embeddings = generateEmbeddingsSync(rankEntity.getDescription());
+            EmbeddingVector embeddings = generateEmbeddingsSync(rankEntity.getDescription());
 
             return RankDocument.builder()
                     .id(rankEntity.getId())
@@ -47,29 +46,51 @@ public class RankDocumentMapper {
         }
     }
 
+    /**
+     * Maps a rank with an embedding obtained elsewhere (e.g. the local index files), without embedding requests.
+     */
+    public RankDocument toRankDocument(RankEntity rankEntity, EmbeddingVector embedding) {
+        RankDocument document = createBasicDocument(rankEntity);
+        document.setEmbedding(embedding);
+        return document;
+    }
+
+    /**
+     * Maps several ranks with one bulk embedding request.
+     * Embedding failures are propagated so callers can retry.
+     */
+    public List<RankDocument> toRankDocuments(List<RankEntity> rankEntities) {
+        List<EmbeddingVector> embeddings = embeddingService.getEmbeddings(rankEntities.stream()
+                .map(RankEntity::getDescription)
+                .toList());
+
+        List<RankDocument> documents = new ArrayList<>(rankEntities.size());
+        for (int i = 0; i < rankEntities.size(); i++) {
+            RankDocument document = createBasicDocument(rankEntities.get(i));
+            document.setEmbedding(embeddings.get(i));
+            documents.add(document);
+        }
+        return documents;
+    }
+
+    /**
+     * Hash of the description a rank's embedding is generated from, as stored next to the vector so
+     * readers can tell whether it is still current.
+     */
+    public static String searchTextHash(RankDocument document) {
+        return ProductDocumentMapper.searchTextHash(Objects.toString(document.getDescription(), ""));
+    }
+
     /**
      * Generates embeddings for the rank description using OpenAI (Synchronous).
      */
-    private List<Float> generateEmbeddingsSync(String description) {
+    private EmbeddingVector generateEmbeddingsSync(String description) {
         try {
             log.info("🔍 Generating embeddings for: '{}'", description);
             
-            EmbeddingsOptions options = new EmbeddingsOptions(List.of(description));
-            options.setUser("credit-system");
-            options.setInputType("text");
-            
-            Embeddings embeddings = openAIClient.getEmbeddings(
-                    azureProperties.getOpenai().getEmbeddingModel(),
-                    options
-            );
-            
-            List<Float> result = embeddings.getData().get(0)
-                    .getEmbedding()
-                    .stream()
-                    .map(Double::floatValue)
-                    .toList();
+            EmbeddingVector result = embeddingService.getEmbedding(description);
 
-            log.info("✅ Generated {} embeddings", result.size());
+            log.info("✅ Generated {} embeddings", result.dimensions());
             return result;
 
         } catch (Exception e) {
@@ -86,7 +107,7 @@ public class RankDocumentMapper {
                 .id(rankEntity.getId())
                 .name(rankEntity.getName())
                 .description(rankEntity.getDescription())
-                .embedding(List.of())
+                .embedding(EmbeddingVector.EMPTY)
                 .build();
     }
 }
\ No newline at end of file
@@ -1,16 +1,23 @@
 package org.mavb.azure.ai.repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.mavb.azure.ai.entity.CreditProductEntity;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for CreditProduct entity operations.
@@ -53,4 +60,20 @@ public interface CreditProductRepository extends JpaRepository<CreditProductEnti
             @Param("category") String category
     );
 
-}
\ No newline at end of file
+    /**
+     * Streams all products after the given id in id order through a server-side cursor.
+     * Must be consumed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT p FROM CreditProductEntity p WHERE p.id > :afterId ORDER BY p.id")
+    Stream<CreditProductEntity> streamAfter(@Param("afterId") String afterId);
+
+    /**
+     * Reads the products with a shared row lock (FOR SHARE), so concurrent edits wait until the caller's
+     * transaction ends. Must be called inside a read-write transaction.
+     */
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT p FROM CreditProductEntity p WHERE p.id IN :ids ORDER BY p.id")
+    List<CreditProductEntity> findAllByIdForShare(@Param("ids") Collection<String> ids);
+
+}
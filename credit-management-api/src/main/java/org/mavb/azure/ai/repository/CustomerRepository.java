@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -53,4 +54,29 @@ public interface CustomerRepository extends JpaRepository<CustomerEntity, Long>
           AND c.active = true
         """, nativeQuery = true)
     List<CustomerEmploymentData> findCustomerEmploymentDataForSemanticAnalysis(@Param("identityDocument") String identityDocument);
-}
\ No newline at end of file
+
+    /**
+     * Set-based variant of {@link #findCustomerEmploymentDataForSemanticAnalysis(String)} for batch evaluations.
+     * Rows are ordered by customer so each customer's employment records stay contiguous.
+     */
+    @Query(value = """
+        SELECT c.identity_document as identityDocument,
+               c.monthly_income as monthlyIncome, 
+               c.current_debt as currentDebt, 
+               eh.start_date as startDate,
+               eh.end_date as endDate,
+               eh.income as income
+        FROM customers c
+        LEFT JOIN LATERAL (
+            SELECT start_date, end_date, income
+            FROM employment_history
+            WHERE customer_id = c.id
+            ORDER BY end_date DESC NULLS FIRST, start_date DESC
+            LIMIT 2
+        ) eh ON TRUE
+        WHERE c.identity_document IN (:identityDocuments)
+          AND c.active = true
+        ORDER BY c.identity_document, eh.end_date DESC NULLS FIRST, eh.start_date DESC
+        """, nativeQuery = true)
+    List<CustomerEmploymentData> findCustomerEmploymentDataForSemanticAnalysis(@Param("identityDocuments") Collection<String> identityDocuments);
+}
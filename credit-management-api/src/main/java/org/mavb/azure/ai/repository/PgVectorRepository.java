@@ -0,0 +1,290 @@
+package org.mavb.azure.ai.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.mavb.azure.ai.entity.ProductDocument;
+import org.mavb.azure.ai.entity.RankDocument;
+import org.mavb.azure.ai.service.index.ProductFilter;
+import org.mavb.azure.ai.service.index.ProductMatch;
+import org.mavb.azure.ai.service.index.RankMatch;
+import org.mavb.azure.ai.vector.EmbeddingVector;
+import org.mavb.azure.ai.vector.VectorMath;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+
+/**
+ * JDBC access to the pgvector columns of credit_products and ranks (changeset v_1_8_0).
+ * <p>
+ * Product searches run as one statement: the active/rank/amount/currency predicates and the cosine
+ * ordering over the HNSW index are resolved together in the credit database. Like
+ * {@link ProductEmbeddingRepository}, writes bypass JPA so they do not fire the entity listeners.
+ * <p>
+ * pgvector applies the WHERE clause after the HNSW scan, which only yields {@code hnsw.ef_search}
+ * candidates; searches must run in a transaction after {@link #configureScan} so selective filters
+ * still return {@code top} rows.
+ */
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class PgVectorRepository {
+
+    // pgvector default; the HNSW scan never returns more candidates than this
+    static final int DEFAULT_EF_SEARCH = 40;
+
+    private static final String PRODUCT_COLUMNS = """
+            id, name, description, category, subcategory, minimum_amount, maximum_amount, currency, term,
+            minimum_rate, maximum_rate, active, allowed_ranks,
+            ARRAY(SELECT jsonb_array_elements_text(requirements)) AS requirements,
+            ARRAY(SELECT jsonb_array_elements_text(features)) AS features,
+            ARRAY(SELECT jsonb_array_elements_text(benefits)) AS benefits
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * @return Dimensions of credit_products.embedding, or empty when the column does not exist
+     * (pgvector was not available when the migrations ran, or the database is not PostgreSQL)
+     */
+    public OptionalInt dimensions() {
+        try {
+            List<Integer> dimensions = jdbcTemplate.queryForList("""
+                    SELECT atttypmod
+                    FROM pg_attribute
+                    WHERE attrelid = to_regclass('credit_products') AND attname = 'embedding' AND NOT attisdropped
+                    """, Map.of(), Integer.class);
+            return dimensions.isEmpty() ? OptionalInt.empty() : OptionalInt.of(dimensions.get(0));
+        } catch (RuntimeException e) {
+            log.debug("pgvector columns not available: {}", e.getMessage());
+            return OptionalInt.empty();
+        }
+    }
+
+    /**
+     * @return true when the installed pgvector (0.8 or later) supports iterative HNSW scans
+     */
+    public boolean supportsIterativeScan() {
+        List<String> versions = jdbcTemplate.queryForList(
+                "SELECT extversion FROM pg_extension WHERE extname = 'vector'", Map.of(), String.class);
+        return !versions.isEmpty() && supportsIterativeScan(versions.get(0));
+    }
+
+    /**
+     * Sets the HNSW scan parameters for the rest of the current transaction. With iterative scans the
+     * index keeps producing candidates until the filtered query has {@code top} rows; without them the
+     * index is bypassed and the query is answered by an exact scan.
+     */
+    public void configureScan(boolean iterativeScan, int top) {
+        scanSettings(iterativeScan, top).forEach((name, value) -> jdbcTemplate.queryForObject(
+                "SELECT set_config(:name, :value, true)",
+                new MapSqlParameterSource().addValue("name", name).addValue("value", value), String.class));
+    }
+
+    /**
+     * Stores the embedding and allowed ranks of each product, tagged with the embedding model.
+     */
+    public void saveProductEmbeddings(List<ProductDocument> documents, String embeddingModel) {
+        if (documents.isEmpty()) {
+            return;
+        }
+        SqlParameterSource[] batch = documents.stream()
+                .map(document -> new MapSqlParameterSource()
+                        .addValue("id", document.getId())
+                        .addValue("embedding", toVectorLiteral(document.getEmbedding()))
+                        .addValue("embeddingModel", embeddingModel)
+                        .addValue("allowedRanks", document.getAllowedRanks() != null ? String.join(",", document.getAllowedRanks()) : ""))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate("""
+                UPDATE credit_products
+                SET embedding = CAST(:embedding AS vector),
+                    embedding_model = :embeddingModel,
+                    allowed_ranks = string_to_array(:allowedRanks, ',')
+                WHERE id = :id
+                """, batch);
+    }
+
+    public void saveRankEmbeddings(List<RankDocument> documents, String embeddingModel) {
+        if (documents.isEmpty()) {
+            return;
+        }
+        SqlParameterSource[] batch = documents.stream()
+                .map(document -> new MapSqlParameterSource()
+                        .addValue("id", document.getId())
+                        .addValue("embedding", toVectorLiteral(document.getEmbedding()))
+                        .addValue("embeddingModel", embeddingModel))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate("""
+                UPDATE ranks
+                SET embedding = CAST(:embedding AS vector), embedding_model = :embeddingModel
+                WHERE id = :id
+                """, batch);
+    }
+
+    /**
+     * Filtered kNN over the products embedded with the given model.
+     *
+     * @param query Query embedding
+     * @param filter Predicates applied in the same statement; null fields are not applied
+     * @param top Maximum number of results
+     * @param embeddingModel Only vectors of this model are compared
+     * @return Matches ordered by descending score (same scale as Azure AI Search @search.score)
+     */
+    public List<ProductMatch> searchProducts(EmbeddingVector query, ProductFilter filter, int top, String embeddingModel) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("query", toVectorLiteral(query))
+                .addValue("embeddingModel", embeddingModel)
+                .addValue("top", top);
+        return jdbcTemplate.query(searchProductsSql(filter, params), params, productMatchMapper());
+    }
+
+    /**
+     * @return Active rank closest to the query, or empty when no rank has an embedding of the given model
+     */
+    public Optional<RankMatch> nearestRank(EmbeddingVector query, String embeddingModel) {
+        return jdbcTemplate.query("""
+                WITH candidates AS MATERIALIZED (
+                    SELECT id, name, description, embedding <=> CAST(:query AS vector) AS distance
+                    FROM ranks
+                    WHERE active = TRUE AND embedding_model = :embeddingModel
+                    ORDER BY embedding <=> CAST(:query AS vector)
+                    LIMIT 1
+                )
+                SELECT * FROM candidates ORDER BY distance
+                """, new MapSqlParameterSource()
+                .addValue("query", toVectorLiteral(query))
+                .addValue("embeddingModel", embeddingModel), (rs, rowNum) -> new RankMatch(
+                RankDocument.builder()
+                        .id(rs.getString("id"))
+                        .name(rs.getString("name"))
+                        .description(rs.getString("description"))
+                        .embedding(EmbeddingVector.EMPTY)
+                        .build(),
+                score(rs))).stream().findFirst();
+    }
+
+    /**
+     * The inner query may come back slightly out of order with relaxed iterative scans; the outer
+     * query restores the exact distance order.
+     */
+    static String searchProductsSql(ProductFilter filter, MapSqlParameterSource params) {
+        return "WITH candidates AS MATERIALIZED (\n"
+                + "SELECT " + PRODUCT_COLUMNS + ", embedding <=> CAST(:query AS vector) AS distance\n"
+                + "FROM credit_products\n"
+                + "WHERE " + productPredicates(filter, params) + "\n"
+                + "ORDER BY embedding <=> CAST(:query AS vector)\n"
+                + "LIMIT :top\n"
+                + ")\n"
+                + "SELECT * FROM candidates ORDER BY distance";
+    }
+
+    static Map<String, String> scanSettings(boolean iterativeScan, int top) {
+        Map<String, String> settings = new LinkedHashMap<>();
+        if (iterativeScan) {
+            settings.put("hnsw.iterative_scan", "relaxed_order");
+            settings.put("hnsw.ef_search", String.valueOf(Math.max(DEFAULT_EF_SEARCH, top)));
+        } else {
+            // Older pgvector cannot continue a filtered HNSW scan; an exact scan over the catalog is still cheap
+            settings.put("enable_indexscan", "off");
+        }
+        return settings;
+    }
+
+    static boolean supportsIterativeScan(String version) {
+        String[] parts = version.split("\\.");
+        try {
+            int major = Integer.parseInt(parts[0]);
+            int minor = parts.length > 1 ? Integer.parseInt(parts[1]) : 0;
+            return major > 0 || minor >= 8;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    static String productPredicates(ProductFilter filter, MapSqlParameterSource params) {
+        StringBuilder where = new StringBuilder("active = TRUE AND embedding_model = :embeddingModel");
+        if (filter == null) {
+            return where.toString();
+        }
+        if (filter.rank() != null && !filter.rank().isBlank()) {
+            // Containment instead of = ANY(...) so the GIN index on allowed_ranks can be used
+            where.append(" AND allowed_ranks @> ARRAY[CAST(:rank AS VARCHAR)]");
+            params.addValue("rank", filter.rank());
+        }
+        if (filter.amount() != null) {
+            where.append(" AND minimum_amount <= :amount AND maximum_amount >= :amount");
+            params.addValue("amount", filter.amount());
+        }
+        if (filter.currency() != null && !filter.currency().isBlank()) {
+            where.append(" AND currency = :currency");
+            params.addValue("currency", filter.currency());
+        }
+        return where.toString();
+    }
+
+    /**
+     * @return pgvector text representation, e.g. {@code [0.1,-0.2,0.3]}
+     */
+    static String toVectorLiteral(EmbeddingVector vector) {
+        StringBuilder literal = new StringBuilder(vector.dimensions() * 12).append('[');
+        for (int i = 0; i < vector.dimensions(); i++) {
+            if (i > 0) {
+                literal.append(',');
+            }
+            literal.append(vector.get(i));
+        }
+        return literal.append(']').toString();
+    }
+
+    private static RowMapper<ProductMatch> productMatchMapper() {
+        return (rs, rowNum) -> new ProductMatch(ProductDocument.builder()
+                .id(rs.getString("id"))
+                .name(rs.getString("name"))
+                .description(rs.getString("description"))
+                .category(rs.getString("category"))
+                .subcategory(rs.getString("subcategory"))
+                .minimumAmount(rs.getBigDecimal("minimum_amount"))
+                .maximumAmount(rs.getBigDecimal("maximum_amount"))
+                .currency(rs.getString("currency"))
+                .term(rs.getString("term"))
+                .minimumRate(rs.getBigDecimal("minimum_rate"))
+                .maximumRate(rs.getBigDecimal("maximum_rate"))
+                .requirements(strings(rs, "requirements"))
+                .features(strings(rs, "features"))
+                .benefits(strings(rs, "benefits"))
+                .active(rs.getBoolean("active"))
+                .allowedRanks(strings(rs, "allowed_ranks"))
+                .embedding(EmbeddingVector.EMPTY)
+                .build(), score(rs));
+    }
+
+    /**
+     * pgvector returns the cosine distance; converts it to the score scale of the other search paths.
+     */
+    private static double score(ResultSet rs) throws SQLException {
+        return VectorMath.cosineToSearchScore(1 - rs.getDouble("distance"));
+    }
+
+    private static List<String> strings(ResultSet rs, String column) throws SQLException {
+        Array array = rs.getArray(column);
+        if (array == null) {
+            return List.of();
+        }
+        try {
+            return Arrays.stream((Object[]) array.getArray()).map(String::valueOf).toList();
+        } finally {
+            array.free();
+        }
+    }
+}
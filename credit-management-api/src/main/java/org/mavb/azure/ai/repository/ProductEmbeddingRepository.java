@@ -0,0 +1,66 @@
+package org.mavb.azure.ai.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.mavb.azure.ai.dto.projection.StoredProductEmbedding;
+import org.mavb.azure.ai.vector.EmbeddingVector;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.util.*;
+
+/**
+ * JDBC access to the stored product embeddings.
+ * Written outside JPA so that storing a vector does not fire the product entity listeners.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProductEmbeddingRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * @return Stored embeddings by product id; products without one are absent
+     */
+    public Map<String, StoredProductEmbedding> findByProductIds(Collection<String> productIds) {
+        if (productIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, StoredProductEmbedding> stored = new HashMap<>();
+        jdbcTemplate.query("""
+                SELECT product_id, search_text_hash, embedding_model, embedding
+                FROM credit_product_embeddings
+                WHERE product_id IN (:productIds)
+                """, Map.of("productIds", productIds), rs -> {
+            stored.put(rs.getString("product_id"), new StoredProductEmbedding(
+                    rs.getString("product_id"),
+                    rs.getString("search_text_hash"),
+                    rs.getString("embedding_model"),
+                    EmbeddingVector.fromBytes(rs.getBytes("embedding"))));
+        });
+        return stored;
+    }
+
+    public void saveAll(List<StoredProductEmbedding> embeddings) {
+        if (embeddings.isEmpty()) {
+            return;
+        }
+        SqlParameterSource[] batch = embeddings.stream()
+                .map(embedding -> new MapSqlParameterSource()
+                        .addValue("productId", embedding.productId())
+                        .addValue("searchTextHash", embedding.searchTextHash())
+                        .addValue("embeddingModel", embedding.embeddingModel())
+                        .addValue("embedding", embedding.embedding().toBytes()))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO credit_product_embeddings (product_id, search_text_hash, embedding_model, embedding)
+                VALUES (:productId, :searchTextHash, :embeddingModel, :embedding)
+                ON CONFLICT (product_id) DO UPDATE
+                SET search_text_hash = EXCLUDED.search_text_hash,
+                    embedding_model = EXCLUDED.embedding_model,
+                    embedding = EXCLUDED.embedding,
+                    updated_at = CURRENT_TIMESTAMP
+                """, batch);
+    }
+}
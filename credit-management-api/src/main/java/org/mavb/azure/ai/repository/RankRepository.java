@@ -1,12 +1,23 @@
 package org.mavb.azure.ai.repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.mavb.azure.ai.entity.RankEntity;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
 /**
  * Repository interface for Rank entity operations.
  * Extends JpaSpecificationExecutor for dynamic query building with Specifications.
@@ -31,4 +42,20 @@ public interface RankRepository extends JpaRepository<RankEntity, String>, JpaSp
      * @return page of active ranks
      */
     Page<RankEntity> findByActiveTrue(Pageable pageable);
-}
\ No newline at end of file
+
+    /**
+     * Streams all ranks after the given id in id order through a server-side cursor.
+     * Must be consumed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT r FROM RankEntity r WHERE r.id > :afterId ORDER BY r.id")
+    Stream<RankEntity> streamAfter(@Param("afterId") String afterId);
+
+    /**
+     * Reads the ranks with a shared row lock (FOR SHARE), so concurrent edits wait until the caller's
+     * transaction ends. Must be called inside a read-write transaction.
+     */
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT r FROM RankEntity r WHERE r.id IN :ids ORDER BY r.id")
+    List<RankEntity> findAllByIdForShare(@Param("ids") Collection<String> ids);
+}
@@ -0,0 +1,75 @@
+package org.mavb.azure.ai.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.mavb.azure.ai.dto.projection.ReindexCheckpoint;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * JDBC access to the reindex checkpoints, one row per target index.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ReindexCheckpointRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public Optional<ReindexCheckpoint> find(ReindexCheckpoint.Target target) {
+        return jdbcTemplate.query("""
+                SELECT target, last_id, processed, status, last_error
+                FROM search_reindex_checkpoint
+                WHERE target = :target
+                """, Map.of("target", target.name()), (rs, rowNum) -> new ReindexCheckpoint(
+                ReindexCheckpoint.Target.valueOf(rs.getString("target")),
+                rs.getString("last_id"),
+                rs.getLong("processed"),
+                ReindexCheckpoint.Status.valueOf(rs.getString("status")),
+                rs.getString("last_error"))).stream().findFirst();
+    }
+
+    /**
+     * Starts a run from the given position, replacing any previous checkpoint.
+     */
+    public void begin(ReindexCheckpoint.Target target, String lastId, long processed) {
+        jdbcTemplate.update("""
+                INSERT INTO search_reindex_checkpoint (target, last_id, processed, status)
+                VALUES (:target, :lastId, :processed, 'RUNNING')
+                ON CONFLICT (target) DO UPDATE
+                SET last_id = EXCLUDED.last_id,
+                    processed = EXCLUDED.processed,
+                    status = 'RUNNING',
+                    last_error = NULL,
+                    started_at = CURRENT_TIMESTAMP,
+                    updated_at = CURRENT_TIMESTAMP
+                """, new MapSqlParameterSource()
+                .addValue("target", target.name())
+                .addValue("lastId", lastId)
+                .addValue("processed", processed));
+    }
+
+    public void advance(ReindexCheckpoint.Target target, String lastId, long processed) {
+        jdbcTemplate.update("""
+                UPDATE search_reindex_checkpoint
+                SET last_id = :lastId, processed = :processed, updated_at = CURRENT_TIMESTAMP
+                WHERE target = :target
+                """, new MapSqlParameterSource()
+                .addValue("target", target.name())
+                .addValue("lastId", lastId)
+                .addValue("processed", processed));
+    }
+
+    public void finish(ReindexCheckpoint.Target target, ReindexCheckpoint.Status status, String error) {
+        jdbcTemplate.update("""
+                UPDATE search_reindex_checkpoint
+                SET status = :status, last_error = :error, updated_at = CURRENT_TIMESTAMP
+                WHERE target = :target
+                """, new MapSqlParameterSource()
+                .addValue("target", target.name())
+                .addValue("status", status.name())
+                .addValue("error", error));
+    }
+}
@@ -0,0 +1,93 @@
+package org.mavb.azure.ai.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.mavb.azure.ai.dto.projection.SearchSyncOutboxEntry;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC access to the AI Search synchronization outbox.
+ * Uses the caller's transaction so entries commit or roll back together with the entity change.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SearchSyncOutboxRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public void enqueue(SearchSyncOutboxEntry.AggregateType aggregateType, String aggregateId, SearchSyncOutboxEntry.Operation operation) {
+        jdbcTemplate.update("""
+                INSERT INTO search_sync_outbox (aggregate_type, aggregate_id, operation)
+                VALUES (:aggregateType, :aggregateId, :operation)
+                """, new MapSqlParameterSource()
+                .addValue("aggregateType", aggregateType.name())
+                .addValue("aggregateId", aggregateId)
+                .addValue("operation", operation.name()));
+    }
+
+    /**
+     * Locks the oldest due entries. Rows locked by another instance are skipped.
+     */
+    public List<SearchSyncOutboxEntry> claimDue(int limit) {
+        return jdbcTemplate.query("""
+                SELECT id, aggregate_type, aggregate_id, operation, attempts
+                FROM search_sync_outbox
+                WHERE next_attempt_at <= CURRENT_TIMESTAMP
+                ORDER BY id
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED
+                """, Map.of("limit", limit), (rs, rowNum) -> new SearchSyncOutboxEntry(
+                rs.getLong("id"),
+                SearchSyncOutboxEntry.AggregateType.valueOf(rs.getString("aggregate_type")),
+                rs.getString("aggregate_id"),
+                SearchSyncOutboxEntry.Operation.valueOf(rs.getString("operation")),
+                rs.getInt("attempts")));
+    }
+
+    public void delete(Collection<Long> ids) {
+        if (!ids.isEmpty()) {
+            jdbcTemplate.update("DELETE FROM search_sync_outbox WHERE id IN (:ids)", Map.of("ids", ids));
+        }
+    }
+
+    /**
+     * Records a failed attempt and schedules the next one with exponential backoff.
+     */
+    public void markFailed(Collection<Long> ids, String error, Duration initialBackoff, Duration maxBackoff) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update("""
+                UPDATE search_sync_outbox
+                SET attempts = attempts + 1,
+                    last_error = :error,
+                    next_attempt_at = CURRENT_TIMESTAMP
+                        + LEAST(:maxSeconds, :initialSeconds * POWER(2, attempts)) * INTERVAL '1 second'
+                WHERE id IN (:ids)
+                """, new MapSqlParameterSource()
+                .addValue("ids", ids)
+                .addValue("error", error)
+                .addValue("initialSeconds", initialBackoff.toSeconds())
+                .addValue("maxSeconds", maxBackoff.toSeconds()));
+    }
+
+    /**
+     * @return Pending entry count and age in seconds of the oldest one (0 when empty)
+     */
+    public Backlog backlog() {
+        return jdbcTemplate.queryForObject("""
+                SELECT COUNT(*) AS depth,
+                       COALESCE(EXTRACT(EPOCH FROM (LOCALTIMESTAMP - MIN(created_at))), 0) AS lag_seconds
+                FROM search_sync_outbox
+                """, Map.of(), (rs, rowNum) -> new Backlog(rs.getLong("depth"), rs.getDouble("lag_seconds")));
+    }
+
+    public record Backlog(long depth, double lagSeconds) {
+    }
+}
@@ -1,18 +1,30 @@
 package org.mavb.azure.ai.service;
 
-import com.azure.ai.openai.OpenAIClient;
-import com.azure.ai.openai.models.Embeddings;
-import com.azure.ai.openai.models.EmbeddingsOptions;
-import com.azure.search.documents.SearchClient;
+import com.azure.search.documents.SearchAsyncClient;
 import com.azure.search.documents.models.*;
-import com.azure.search.documents.util.SearchPagedIterable;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.mavb.azure.ai.config.AzureProperties;
+import org.mavb.azure.ai.config.EvaluationProperties;
 import org.mavb.azure.ai.entity.ProductDocument;
 import org.mavb.azure.ai.entity.RankDocument;
+import org.mavb.azure.ai.exception.ServiceOverloadedException;
+import org.mavb.azure.ai.service.embedding.ProductQueryEmbeddingGrid;
+import org.mavb.azure.ai.service.fallback.LastKnownGoodStore;
+import org.mavb.azure.ai.service.flight.RequestHedger;
+import org.mavb.azure.ai.service.flight.SingleFlight;
+import org.mavb.azure.ai.service.index.DatabaseVectorIndex;
+import org.mavb.azure.ai.service.index.ProductFilter;
+import org.mavb.azure.ai.service.index.ProductVectorIndex;
+import org.mavb.azure.ai.service.index.RankMatch;
+import org.mavb.azure.ai.service.index.RankVectorIndex;
+import org.mavb.azure.ai.service.timing.EvaluationStage;
+import org.mavb.azure.ai.service.timing.StageTimer;
+import org.mavb.azure.ai.vector.EmbeddingVector;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
+import reactor.core.scheduler.Schedulers;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -27,154 +39,249 @@ import java.util.stream.Collectors;
 @Slf4j
 public class AISearchClient {
 
-    private final OpenAIClient openAIClient;
-    @Qualifier("rankSearchClient")
-    private final SearchClient rankSearchClient;
-    @Qualifier("productSearchClient")
-    private final SearchClient productSearchClient;
-    private final AzureProperties azureProperties;
+    private final EmbeddingService embeddingService;
+    private final RankVectorIndex rankVectorIndex;
+    private final ProductVectorIndex productVectorIndex;
+    private final DatabaseVectorIndex databaseVectorIndex;
+    private final ProductQueryEmbeddingGrid productQueryEmbeddingGrid;
+    private final EvaluationProperties evaluationProperties;
+    @Qualifier("rankSearchAsyncClient")
+    private final SearchAsyncClient rankSearchAsyncClient;
+    @Qualifier("productSearchAsyncClient")
+    private final SearchAsyncClient productSearchAsyncClient;
+    @Qualifier("rankSearchHedger")
+    private final RequestHedger rankSearchHedger;
+    @Qualifier("productSearchHedger")
+    private final RequestHedger productSearchHedger;
+    private final StageTimer stageTimer;
+    private final MeterRegistry meterRegistry;
+
+    private SingleFlight<String, RankMatch> rankResolutions;
+    private SingleFlight<String, List<ProductSearchResult>> productSearches;
+    private LastKnownGoodStore<String, RankMatch> rankFallback;
+    private LastKnownGoodStore<String, List<ProductSearchResult>> productFallback;
+
+    @PostConstruct
+    public void init() {
+        rankResolutions = new SingleFlight<>("rank.resolution", meterRegistry);
+        productSearches = new SingleFlight<>("product.search", meterRegistry);
+        rankFallback = new LastKnownGoodStore<>("rank.resolution", evaluationProperties.getFallback(), meterRegistry);
+        productFallback = new LastKnownGoodStore<>("product.search", evaluationProperties.getFallback(), meterRegistry);
+    }
 
     /**
      * Resolves the most appropriate rank using semantic search (Reactive).
+     * Uses the in-process rank index or pgvector when enabled, falling back to Azure AI Search.
+     * Concurrent resolutions of the same description share one call, and the last resolution of the
+     * description is served while OpenAI or AI Search are failing or slow.
      * 
      * @param clientSemanticDescription Description generated from customer data
-     * @return Mono with best matching rank document or null if none found
+     * @return Mono with best matching rank and its similarity score, or empty if none found
      */
-    public reactor.core.publisher.Mono<RankDocument> resolveRankReactive(String clientSemanticDescription) {
+    public reactor.core.publisher.Mono<RankMatch> resolveRankReactive(String clientSemanticDescription) {
+        return rankResolutions.execute(clientSemanticDescription,
+                        () -> rankFallback.execute(clientSemanticDescription, () -> resolveRank(clientSemanticDescription)))
+                // Shed calls surface as such instead of degrading to a result without rank
+                .onErrorResume(e -> !(e instanceof ServiceOverloadedException), e -> {
+                    log.error("Error resolving rank for client description: {}", e.getMessage(), e);
+                    return reactor.core.publisher.Mono.empty();
+                });
+    }
+
+    private reactor.core.publisher.Mono<RankMatch> resolveRank(String clientSemanticDescription) {
         log.info("Resolving rank using semantic description: {}", clientSemanticDescription);
         
         return generateEmbeddingsReactive(clientSemanticDescription)
-                .flatMap(clientEmbedding -> reactor.core.publisher.Mono.fromCallable(() -> {
-                    // Create vector query
-                    VectorizedQuery vectorQuery = new VectorizedQuery(clientEmbedding)
-                            .setKNearestNeighborsCount(1)
-                            .setFields("embedding");
-                    
-                    // Search options - no filter needed for ranks, all ranks are active by default
-                    SearchOptions searchOptions = new SearchOptions()
-                            .setVectorSearchOptions(new VectorSearchOptions().setQueries(vectorQuery))
-                            .setTop(1)
-                            .setIncludeTotalCount(true);
-
-                    // Execute search
-                    SearchPagedIterable results = rankSearchClient.search(null, searchOptions, null);
-                    
-                    Optional<RankDocument> resolvedRank = results.stream()
-                            .findFirst()
-                            .map(r -> r.getDocument(RankDocument.class));
-
-                    if (resolvedRank.isPresent()) {
-                        log.info("Successfully resolved rank: {} for client description", resolvedRank.get().getId());
-                        return resolvedRank.get();
-                    } else {
-                        log.warn("No rank resolved for client description");
-                        return null;
+                .flatMap(clientEmbedding -> stageTimer.time(EvaluationStage.RANK_SEARCH, match -> match.rank().getId(),
+                        reactor.core.publisher.Mono.defer(() -> {
+                    EvaluationProperties.RankResolution settings = evaluationProperties.getRankResolution();
+                    if (settings.getMode() == EvaluationProperties.SearchMode.LOCAL && rankVectorIndex.isReady()) {
+                        Optional<RankMatch> localMatch = rankVectorIndex.nearest(clientEmbedding);
+                        if (localMatch.isPresent()) {
+                            log.info("Resolved rank locally: {} (score {})", localMatch.get().rank().getId(), localMatch.get().score());
+                            return reactor.core.publisher.Mono.just(localMatch.get());
+                        }
+                        if (!settings.isRemoteFallback()) {
+                            log.warn("No rank resolved locally and remote fallback is disabled");
+                            return reactor.core.publisher.Mono.<RankMatch>empty();
+                        }
+                        log.debug("Local rank index had no match, falling back to AI Search");
                     }
-                }).subscribeOn(reactor.core.scheduler.Schedulers.boundedElastic()))
-                .onErrorResume(e -> {
-                    log.error("Error resolving rank for client description: {}", e.getMessage(), e);
-                    return reactor.core.publisher.Mono.just(null);
+                    if (settings.getMode() == EvaluationProperties.SearchMode.DATABASE && databaseVectorIndex.isReady()) {
+                        return resolveRankInDatabase(clientEmbedding, settings.isRemoteFallback());
+                    }
+                    return resolveRankRemote(clientEmbedding);
+                })));
+    }
+
+    /**
+     * Resolves the nearest active rank with one pgvector query, off the event loop since JDBC blocks.
+     */
+    private reactor.core.publisher.Mono<RankMatch> resolveRankInDatabase(EmbeddingVector clientEmbedding, boolean remoteFallback) {
+        return reactor.core.publisher.Mono.fromCallable(() -> databaseVectorIndex.nearestRank(clientEmbedding))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(databaseMatch -> {
+                    if (databaseMatch.isPresent()) {
+                        log.info("Resolved rank in database: {} (score {})", databaseMatch.get().rank().getId(), databaseMatch.get().score());
+                        return reactor.core.publisher.Mono.just(databaseMatch.get());
+                    }
+                    if (!remoteFallback) {
+                        log.warn("No rank resolved in database and remote fallback is disabled");
+                        return reactor.core.publisher.Mono.<RankMatch>empty();
+                    }
+                    log.debug("Database rank search had no match, falling back to AI Search");
+                    return resolveRankRemote(clientEmbedding);
                 });
     }
 
+    /**
+     * Resolves the nearest rank with a k=1 vector query against the ranks index.
+     */
+    private reactor.core.publisher.Mono<RankMatch> resolveRankRemote(EmbeddingVector clientEmbedding) {
+        // Create vector query
+        VectorizedQuery vectorQuery = new VectorizedQuery(clientEmbedding.asList())
+                .setKNearestNeighborsCount(1)
+                .setFields("embedding");
+
+        // Search options - no filter needed for ranks, all ranks are active by default
+        SearchOptions searchOptions = new SearchOptions()
+                .setVectorSearchOptions(new VectorSearchOptions().setQueries(vectorQuery))
+                .setTop(1)
+                .setIncludeTotalCount(true);
+
+        // Execute search
+        return rankSearchHedger.execute(() -> rankSearchAsyncClient.search(null, searchOptions).next())
+                .map(r -> new RankMatch(r.getDocument(RankDocument.class), r.getScore()))
+                .doOnNext(match -> log.info("Successfully resolved rank: {} for client description", match.rank().getId()))
+                .switchIfEmpty(reactor.core.publisher.Mono.fromRunnable(() -> log.warn("No rank resolved for client description")));
+    }
+
     /**
      * Searches for products using rank and amount criteria via semantic search (Reactive).
+     * Concurrent searches for the same rank and amount share one call, and the last results for the
+     * rank and amount bucket are served while OpenAI or AI Search are failing or slow.
      * 
      * @param rankId The resolved rank ID
      * @param requestedAmount The amount requested by customer
      * @return Mono with list of matching product documents with relevance scores
      */
     public reactor.core.publisher.Mono<List<ProductSearchResult>> searchProductsByRankAndAmountReactive(String rankId, BigDecimal requestedAmount) {
-        String productSemanticQuery = String.format("Cliente con Rank %s solicita un crédito de %s soles", 
-                rankId, requestedAmount);
-        
-        log.info("Searching products using semantic query: {}", productSemanticQuery);
-        
-        return generateEmbeddingsReactive(productSemanticQuery)
-                .flatMap(queryEmbedding -> reactor.core.publisher.Mono.fromCallable(() -> {
-                    // Create vector query
-                    VectorizedQuery vectorQuery = new VectorizedQuery(queryEmbedding)
-                            .setKNearestNeighborsCount(10)
-                            .setFields("embedding");
-                    
-                    // Build filter for active products and amount range
-                    String filter = String.format("active eq true and minimumAmount le %s and maximumAmount ge %s", 
-                            requestedAmount, requestedAmount);
-                    
-                    // Search options
-                    SearchOptions searchOptions = new SearchOptions()
-                            .setVectorSearchOptions(new VectorSearchOptions().setQueries(vectorQuery))
-                            .setTop(10)
-                            .setFilter(filter)
-                            .setIncludeTotalCount(true);
-
-                    // Execute search
-                    SearchPagedIterable results = productSearchClient.search(null, searchOptions, null);
-                    
-                    List<ProductSearchResult> productResults = results.stream()
-                            .map(this::mapToProductSearchResult)
-                            .collect(Collectors.toList());
-
-                    log.info("Found {} products matching criteria for rank {} and amount {}", 
-                            productResults.size(), rankId, requestedAmount);
-                    
-                    return productResults;
-                }).subscribeOn(reactor.core.scheduler.Schedulers.boundedElastic()))
-                .onErrorResume(e -> {
+        String searchKey = rankId + "|" + requestedAmount.stripTrailingZeros().toPlainString();
+        String fallbackKey = rankId + "|" + productQueryEmbeddingGrid.queryAmount(requestedAmount).stripTrailingZeros().toPlainString();
+        return productSearches.execute(searchKey, () -> productFallback.execute(fallbackKey, () -> searchProducts(rankId, requestedAmount))
+                        // A stale result may come from another amount of the same bucket
+                        .map(productResults -> withinAmount(productResults, requestedAmount)))
+                .onErrorResume(e -> !(e instanceof ServiceOverloadedException), e -> {
                     log.error("Error searching products by rank and amount: {}", e.getMessage(), e);
                     return reactor.core.publisher.Mono.just(List.of());
                 });
     }
 
     /**
-     * Generates embeddings for text using OpenAI (Synchronous - for internal use).
+     * @return Stale results served so far by the rank and product fallbacks
      */
-    private List<Float> generateEmbeddings(String text) {
-        try {
-            log.debug("Generating embeddings for text: {}", text);
-            
-            // Validate text input
-            if (text == null || text.trim().isEmpty()) {
-                throw new IllegalArgumentException("Text cannot be null or empty");
-            }
-            
-            // Create embeddings options
-            EmbeddingsOptions options = new EmbeddingsOptions(List.of(text.trim()));
-            options.setUser("ai-search-evaluation-system");
-            options.setInputType("text");
-            
-            // Call OpenAI
-            Embeddings embeddings = openAIClient.getEmbeddings(
-                    azureProperties.getOpenai().getEmbeddingModel(),
-                    options
-            );
-
-            List<Float> embeddingVector = embeddings.getData().get(0).getEmbedding()
-                    .stream()
-                    .map(Double::floatValue)
-                    .collect(Collectors.toList());
-            
-            log.debug("Generated embeddings vector with {} dimensions", embeddingVector.size());
-            return embeddingVector;
-
-        } catch (Exception e) {
-            log.error("Error generating embeddings for text '{}': {}", text, e.getMessage(), e);
-            throw new RuntimeException("Failed to generate embeddings", e);
-        }
+    public long staleResultsServed() {
+        return rankFallback.staleServed() + productFallback.staleServed();
+    }
+
+    private reactor.core.publisher.Mono<List<ProductSearchResult>> searchProducts(String rankId, BigDecimal requestedAmount) {
+        String productSemanticQuery = ProductQueryEmbeddingGrid.queryText(rankId, requestedAmount);
+        
+        log.info("Searching products using semantic query: {}", productSemanticQuery);
+        
+        // Precomputed rank x amount bucket embedding when available, exact query embedding otherwise
+        reactor.core.publisher.Mono<EmbeddingVector> embeddingSource = productQueryEmbeddingGrid.lookup(rankId, requestedAmount)
+                .map(reactor.core.publisher.Mono::just)
+                .orElseGet(() -> generateEmbeddingsReactive(productSemanticQuery));
+
+        return embeddingSource
+                .flatMap(queryEmbedding -> stageTimer.time(EvaluationStage.PRODUCT_SEARCH, rankId,
+                        reactor.core.publisher.Mono.defer(() -> {
+                    if (evaluationProperties.getProductSearch().getMode() == EvaluationProperties.SearchMode.LOCAL
+                            && productVectorIndex.isReady()) {
+                        // Same predicates as the remote filter: active products within the amount range
+                        ProductFilter filter = new ProductFilter(null, requestedAmount, null);
+                        List<ProductSearchResult> productResults = productVectorIndex
+                                .search(queryEmbedding, filter, evaluationProperties.getProductSearch().getTop())
+                                .stream()
+                                .map(match -> new ProductSearchResult(match.product(), match.score()))
+                                .collect(Collectors.toList());
+                        log.info("Found {} products locally for rank {} and amount {}", productResults.size(), rankId, requestedAmount);
+                        return reactor.core.publisher.Mono.just(productResults);
+                    }
+                    if (evaluationProperties.getProductSearch().getMode() == EvaluationProperties.SearchMode.DATABASE
+                            && databaseVectorIndex.isReady()) {
+                        return searchProductsInDatabase(queryEmbedding, rankId, requestedAmount);
+                    }
+                    return searchProductsRemote(queryEmbedding, rankId, requestedAmount);
+                })));
+    }
+
+    private List<ProductSearchResult> withinAmount(List<ProductSearchResult> productResults, BigDecimal requestedAmount) {
+        return productResults.stream()
+                .filter(result -> {
+                    ProductDocument product = result.getProduct();
+                    return (product.getMinimumAmount() == null || product.getMinimumAmount().compareTo(requestedAmount) <= 0)
+                            && (product.getMaximumAmount() == null || product.getMaximumAmount().compareTo(requestedAmount) >= 0);
+                })
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Runs the filtered kNN as one pgvector statement, off the event loop since JDBC blocks.
+     */
+    private reactor.core.publisher.Mono<List<ProductSearchResult>> searchProductsInDatabase(EmbeddingVector queryEmbedding, String rankId, BigDecimal requestedAmount) {
+        // Same predicates as the remote filter: active products within the amount range
+        ProductFilter filter = new ProductFilter(null, requestedAmount, null);
+        return reactor.core.publisher.Mono.fromCallable(() -> databaseVectorIndex
+                        .search(queryEmbedding, filter, evaluationProperties.getProductSearch().getTop())
+                        .stream()
+                        .map(match -> new ProductSearchResult(match.product(), match.score()))
+                        .collect(Collectors.toList()))
+                .subscribeOn(Schedulers.boundedElastic())
+                .doOnNext(productResults -> log.info("Found {} products in database for rank {} and amount {}",
+                        productResults.size(), rankId, requestedAmount));
+    }
+
+    /**
+     * Runs the filtered vector query against the products index, with the same top as the local index.
+     */
+    private reactor.core.publisher.Mono<List<ProductSearchResult>> searchProductsRemote(EmbeddingVector queryEmbedding, String rankId, BigDecimal requestedAmount) {
+        int top = evaluationProperties.getProductSearch().getTop();
+
+        // Create vector query
+        VectorizedQuery vectorQuery = new VectorizedQuery(queryEmbedding.asList())
+                .setKNearestNeighborsCount(top)
+                .setFields("embedding");
+
+        // Build filter for active products and amount range
+        String filter = String.format("active eq true and minimumAmount le %s and maximumAmount ge %s",
+                requestedAmount, requestedAmount);
+
+        // Search options
+        SearchOptions searchOptions = new SearchOptions()
+                .setVectorSearchOptions(new VectorSearchOptions().setQueries(vectorQuery))
+                .setTop(top)
+                .setFilter(filter)
+                .setIncludeTotalCount(true);
+
+        // Execute search
+        return productSearchHedger.execute(() -> productSearchAsyncClient.search(null, searchOptions)
+                        .map(this::mapToProductSearchResult)
+                        .collectList())
+                .doOnNext(productResults -> log.info("Found {} products matching criteria for rank {} and amount {}",
+                        productResults.size(), rankId, requestedAmount));
     }
 
     /**
-     * Generates embeddings for text using OpenAI (Reactive version).
+     * Generates embeddings for text using the shared embedding service (Reactive version).
      */
-    private reactor.core.publisher.Mono<List<Float>> generateEmbeddingsReactive(String text) {
-        return reactor.core.publisher.Mono.<List<Float>>create(sink -> {
-            try {
-                List<Float> embeddings = generateEmbeddings(text);
-                sink.success(embeddings);
-            } catch (Exception e) {
-                sink.error(e);
-            }
-        }).subscribeOn(reactor.core.scheduler.Schedulers.boundedElastic());
+    private reactor.core.publisher.Mono<EmbeddingVector> generateEmbeddingsReactive(String text) {
+        return stageTimer.time(EvaluationStage.EMBEDDING, embeddingService.getEmbeddingReactive(text))
+                .onErrorMap(e -> !(e instanceof ServiceOverloadedException), e -> {
+                    log.error("Error generating embeddings for text '{}': {}", text, e.getMessage(), e);
+                    return new RuntimeException("Failed to generate embeddings", e);
+                });
     }
 
     /**
@@ -0,0 +1,137 @@
+package org.mavb.azure.ai.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.mavb.azure.ai.config.AzureProperties;
+import org.mavb.azure.ai.service.embedding.EmbeddingCache;
+import org.mavb.azure.ai.service.embedding.EmbeddingCoalescer;
+import org.mavb.azure.ai.service.embedding.EmbeddingProvider;
+import org.mavb.azure.ai.vector.EmbeddingVector;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.*;
+
+/**
+ * Single entry point for embeddings with shared caching, whichever {@link EmbeddingProvider} produces them.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EmbeddingService {
+
+    private final EmbeddingProvider embeddingProvider;
+    private final AzureProperties azureProperties;
+    private final EmbeddingCache embeddingCache;
+    private final MeterRegistry meterRegistry;
+
+    private EmbeddingCoalescer coalescer;
+
+    @PostConstruct
+    public void init() {
+        AzureProperties.OpenAI.EmbeddingBatch batch = azureProperties.getOpenai().getEmbeddingBatch();
+        if (batch.isEnabled()) {
+            coalescer = new EmbeddingCoalescer(batch.getMaxBatchSize(), batch.getMaxDelay(),
+                    batch.getMaxConcurrentBatches(), embeddingProvider::embedAsync, meterRegistry);
+        }
+        log.info("✅ Embeddings served by {} ({})", embeddingProvider.getClass().getSimpleName(), version());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (coalescer != null) {
+            coalescer.dispose();
+        }
+    }
+
+    /**
+     * Vector space of the configured provider; embeddings stored under another version must be recomputed.
+     */
+    public String version() {
+        return embeddingProvider.version();
+    }
+
+    /**
+     * Returns the embedding for the given text, calling the provider only on cache miss.
+     *
+     * @param text Input text
+     * @return Embedding vector
+     * @throws IllegalArgumentException if text is null or blank
+     */
+    public EmbeddingVector getEmbedding(String text) {
+        validate(text);
+
+        String normalizedText = EmbeddingCache.normalize(text);
+        return embeddingCache.get(version(), normalizedText, () -> embeddingProvider.embed(List.of(normalizedText)).get(0));
+    }
+
+    /**
+     * Bulk variant of {@link #getEmbedding(String)}: cache misses are sent in multi-input requests
+     * of at most {@code embedding-batch.max-batch-size} texts.
+     *
+     * @param texts Input texts
+     * @return Embeddings in the same order as the input
+     * @throws IllegalArgumentException if any text is null or blank
+     */
+    public List<EmbeddingVector> getEmbeddings(List<String> texts) {
+        texts.forEach(this::validate);
+
+        List<String> normalizedTexts = texts.stream().map(EmbeddingCache::normalize).toList();
+        Map<String, EmbeddingVector> resolved = new HashMap<>();
+        Set<String> pending = new LinkedHashSet<>();
+        for (String normalizedText : normalizedTexts) {
+            EmbeddingVector cached = embeddingCache.getIfPresent(version(), normalizedText);
+            if (cached != null) {
+                resolved.put(normalizedText, cached);
+            } else {
+                pending.add(normalizedText);
+            }
+        }
+        List<String> misses = new ArrayList<>(pending);
+
+        int chunkSize = Math.max(1, azureProperties.getOpenai().getEmbeddingBatch().getMaxBatchSize());
+        for (int from = 0; from < misses.size(); from += chunkSize) {
+            List<String> chunk = misses.subList(from, Math.min(from + chunkSize, misses.size()));
+            List<EmbeddingVector> vectors = embeddingProvider.embed(chunk);
+            for (int i = 0; i < chunk.size(); i++) {
+                embeddingCache.put(version(), chunk.get(i), vectors.get(i));
+                resolved.put(chunk.get(i), vectors.get(i));
+            }
+        }
+
+        return normalizedTexts.stream().map(resolved::get).toList();
+    }
+
+    /**
+     * Reactive variant of {@link #getEmbedding(String)} backed by the provider's non-blocking path.
+     * Cache hits complete without a thread hop; misses are coalesced into multi-input requests when enabled.
+     */
+    public Mono<EmbeddingVector> getEmbeddingReactive(String text) {
+        try {
+            validate(text);
+        } catch (IllegalArgumentException e) {
+            return Mono.error(e);
+        }
+
+        String normalizedText = EmbeddingCache.normalize(text);
+        EmbeddingVector cached = embeddingCache.getIfPresent(version(), normalizedText);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+
+        Mono<EmbeddingVector> pending = coalescer != null
+                ? coalescer.submit(normalizedText)
+                : embeddingProvider.embedAsync(List.of(normalizedText)).map(vectors -> vectors.get(0));
+
+        return pending.doOnNext(embedding -> embeddingCache.put(version(), normalizedText, embedding));
+    }
+
+    private void validate(String text) {
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException("Text cannot be null or empty");
+        }
+    }
+}
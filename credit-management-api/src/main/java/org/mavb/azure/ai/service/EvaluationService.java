@@ -2,8 +2,11 @@ package org.mavb.azure.ai.service;
 
 import org.mavb.azure.ai.dto.request.EvaluationRequestDTO;
 import org.mavb.azure.ai.dto.response.EvaluationResponseDTO;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 /**
  * Service interface for credit evaluation operations.
  * Defines business logic methods for customer eligibility assessment.
@@ -19,4 +22,13 @@ public interface EvaluationService {
      * @throws org.mavb.azure.ai.exception.EvaluationException if evaluation cannot be completed
      */
     Mono<EvaluationResponseDTO> evaluateClientEligibility(EvaluationRequestDTO request);
-}
\ No newline at end of file
+
+    /**
+     * Evaluate many customers at once (Reactive).
+     * Results are emitted as they complete, so their order may differ from the request order.
+     *
+     * @param requests Evaluation requests
+     * @return Flux with one evaluation response per request; failed items carry an error message
+     */
+    Flux<EvaluationResponseDTO> evaluateBatch(List<EvaluationRequestDTO> requests);
+}
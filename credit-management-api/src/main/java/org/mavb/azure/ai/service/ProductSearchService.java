@@ -1,15 +1,16 @@
 package org.mavb.azure.ai.service;
 
-import com.azure.ai.openai.OpenAIClient;
-import com.azure.ai.openai.models.Embeddings;
-import com.azure.ai.openai.models.EmbeddingsOptions;
-import com.azure.search.documents.SearchClient;
+import com.azure.search.documents.SearchAsyncClient;
 import com.azure.search.documents.models.*;
-import com.azure.search.documents.util.SearchPagedIterable;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.mavb.azure.ai.config.AzureProperties;
+import org.mavb.azure.ai.config.EvaluationProperties;
 import org.mavb.azure.ai.entity.ProductDocument;
+import org.mavb.azure.ai.service.flight.RequestHedger;
+import org.mavb.azure.ai.service.index.DatabaseVectorIndex;
+import org.mavb.azure.ai.service.index.ProductFilter;
+import org.mavb.azure.ai.service.index.ProductVectorIndex;
+import org.mavb.azure.ai.vector.EmbeddingVector;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
@@ -26,10 +27,14 @@ import java.util.stream.Collectors;
 @Slf4j
 public class ProductSearchService {
 
-    private final OpenAIClient openAIClient;
-    @Qualifier("productSearchClient")
-    private final SearchClient productSearchClient;
-    private final AzureProperties azureProperties;
+    private final EmbeddingService embeddingService;
+    private final ProductVectorIndex productVectorIndex;
+    private final DatabaseVectorIndex databaseVectorIndex;
+    private final EvaluationProperties evaluationProperties;
+    @Qualifier("productSearchAsyncClient")
+    private final SearchAsyncClient productSearchAsyncClient;
+    @Qualifier("productSearchHedger")
+    private final RequestHedger productSearchHedger;
 
     /**
      * Search for products using semantic similarity and filters.
@@ -39,11 +44,7 @@ public class ProductSearchService {
 
         try {
             SearchOptions searchOptions = buildSearchOptions(customerRank, requestedAmount, currency, searchText);
-            SearchPagedIterable results = productSearchClient.search(searchText, searchOptions, null);
-
-            return results.stream()
-                    .map(this::mapSearchResult)
-                    .collect(Collectors.toList());
+            return search(searchText, searchOptions);
 
         } catch (Exception e) {
             log.error("Error searching products in AI Search: {}", e.getMessage(), e);
@@ -58,10 +59,26 @@ public class ProductSearchService {
         log.debug("Searching products by rank: {} and needs: {}", customerRank, customerNeeds);
 
         try {
-            List<Float> needsEmbedding = generateEmbeddings(customerNeeds);
+            EmbeddingVector needsEmbedding = generateEmbeddings(customerNeeds);
+            int top = evaluationProperties.getProductSearch().getTop();
+
+            if (evaluationProperties.getProductSearch().getMode() == EvaluationProperties.SearchMode.LOCAL
+                    && productVectorIndex.isReady()) {
+                return productVectorIndex.search(needsEmbedding, ProductFilter.of(customerRank, requestedAmount), top)
+                        .stream()
+                        .map(match -> new ProductSearchResult(match.product(), match.score()))
+                        .collect(Collectors.toList());
+            }
+            if (evaluationProperties.getProductSearch().getMode() == EvaluationProperties.SearchMode.DATABASE
+                    && databaseVectorIndex.isReady()) {
+                return databaseVectorIndex.search(needsEmbedding, ProductFilter.of(customerRank, requestedAmount), top)
+                        .stream()
+                        .map(match -> new ProductSearchResult(match.product(), match.score()))
+                        .collect(Collectors.toList());
+            }
             
-            VectorizedQuery vectorQuery = new VectorizedQuery(needsEmbedding)
-                    .setKNearestNeighborsCount(10)
+            VectorizedQuery vectorQuery = new VectorizedQuery(needsEmbedding.asList())
+                    .setKNearestNeighborsCount(top)
                     .setFields("embedding");
 
             String filter = buildRankAndAmountFilter(customerRank, requestedAmount);
@@ -69,14 +86,10 @@ public class ProductSearchService {
             SearchOptions searchOptions = new SearchOptions()
                     .setVectorSearchOptions(new VectorSearchOptions().setQueries(vectorQuery))
                     .setFilter(filter)
-                    .setTop(10)
+                    .setTop(top)
                     .setIncludeTotalCount(true);
 
-            SearchPagedIterable results = productSearchClient.search(null, searchOptions, null);
-
-            return results.stream()
-                    .map(this::mapSearchResult)
-                    .collect(Collectors.toList());
+            return search(null, searchOptions);
 
         } catch (Exception e) {
             log.error("Error in semantic product search: {}", e.getMessage(), e);
@@ -84,6 +97,17 @@ public class ProductSearchService {
         }
     }
 
+    /**
+     * Runs a query against the products index, hedged when it is slow.
+     */
+    private List<ProductSearchResult> search(String searchText, SearchOptions searchOptions) {
+        return productSearchHedger.execute(() -> productSearchAsyncClient.search(searchText, searchOptions)
+                        .map(this::mapSearchResult)
+                        .collectList())
+                .blockOptional()
+                .orElse(List.of());
+    }
+
     /**
      * Builds search options with filters and vector queries.
      */
@@ -98,8 +122,8 @@ public class ProductSearchService {
         }
 
         if (searchText != null && !searchText.trim().isEmpty()) {
-            List<Float> searchEmbedding = generateEmbeddings(searchText);
-            VectorizedQuery vectorQuery = new VectorizedQuery(searchEmbedding)
+            EmbeddingVector searchEmbedding = generateEmbeddings(searchText);
+            VectorizedQuery vectorQuery = new VectorizedQuery(searchEmbedding.asList())
                     .setKNearestNeighborsCount(5)
                     .setFields("embedding");
 
@@ -156,7 +180,7 @@ public class ProductSearchService {
     /**
      * Generates embeddings for text using OpenAI.
      */
-    private List<Float> generateEmbeddings(String text) {
+    private EmbeddingVector generateEmbeddings(String text) {
         try {
             log.debug("Generating embeddings for search text");
             
@@ -165,29 +189,11 @@ public class ProductSearchService {
                 text = "Financial product search query";
             }
             
-            // Create options with proper user field
-            EmbeddingsOptions options = new EmbeddingsOptions(List.of(text.trim()));
-            options.setUser("credit-management-system");
-            options.setInputType("text");
-            
-            log.debug("Calling Azure OpenAI for embeddings with model: {}", azureProperties.getOpenai().getEmbeddingModel());
-            
-            Embeddings embeddings = openAIClient.getEmbeddings(
-                    azureProperties.getOpenai().getEmbeddingModel(),
-                    options
-            );
-
-            List<Float> embeddingVector = embeddings.getData().get(0).getEmbedding()
-                    .stream()
-                    .map(Double::floatValue)
-                    .collect(Collectors.toList());
-            
-            log.debug("Generated embeddings vector with {} dimensions", embeddingVector.size());
-            return embeddingVector;
+            return embeddingService.getEmbedding(text);
 
         } catch (Exception e) {
             log.error("Error generating embeddings for search text: {}", e.getMessage(), e);
-            return List.of();
+            return EmbeddingVector.EMPTY;
         }
     }
 
@@ -0,0 +1,20 @@
+package org.mavb.azure.ai.service.cache;
+
+import org.mavb.azure.ai.dto.projection.CustomerEmploymentProjection;
+import org.mavb.azure.ai.service.AISearchClient;
+import org.mavb.azure.ai.service.index.RankMatch;
+
+import java.util.List;
+
+/**
+ * Amount-independent result of an evaluation: the customer projection and the outcome of both AI calls.
+ * The response is rebuilt from it for the exact requested amount on every hit.
+ *
+ * @param rankMatch   Resolved rank, null when no rank matched
+ * @param computeNanos Time the evaluation took when it was computed, reported as saved on each hit
+ */
+public record CachedEvaluation(CustomerEmploymentProjection customerData,
+                               RankMatch rankMatch,
+                               List<AISearchClient.ProductSearchResult> productResults,
+                               long computeNanos) {
+}
@@ -0,0 +1,199 @@
+package org.mavb.azure.ai.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.mavb.azure.ai.config.EvaluationProperties;
+import org.mavb.azure.ai.entity.CreditProductEntity;
+import org.mavb.azure.ai.repository.CreditProductRepository;
+import org.mavb.azure.ai.service.embedding.ProductQueryEmbeddingGrid;
+import org.mavb.azure.ai.service.sync.SearchIndexChangedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches evaluations per customer and amount bucket.
+ * <p>
+ * A bucket groups the amounts that produce the same product search: the same query-grid amount and the
+ * same side of every product minimum/maximum limit. The cached value is amount-independent, so a hit
+ * returns exactly what a fresh evaluation of that amount would.
+ * <p>
+ * Entries expire after a TTL and are dropped when the customer or its employment history change and
+ * whenever the product or rank indexes change.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EvaluationResultCache {
+
+    private final EvaluationProperties evaluationProperties;
+    private final CreditProductRepository productRepository;
+    private final ProductQueryEmbeddingGrid productQueryEmbeddingGrid;
+    private final MeterRegistry meterRegistry;
+
+    // Bumped on every invalidation; results computed across a bump are not stored
+    private final AtomicLong generation = new AtomicLong();
+    private volatile ProductLimits productLimits;
+    private Cache<Key, CachedEvaluation> cache;
+    private Counter hits;
+    private Counter misses;
+    private Counter savedSeconds;
+
+    @PostConstruct
+    public void init() {
+        EvaluationProperties.Cache settings = evaluationProperties.getCache();
+        cache = Caffeine.newBuilder()
+                .expireAfterWrite(settings.getTtl())
+                .maximumSize(settings.getMaxSize())
+                .build();
+        hits = Counter.builder("evaluation.cache.requests").tag("result", "hit").register(meterRegistry);
+        misses = Counter.builder("evaluation.cache.requests").tag("result", "miss").register(meterRegistry);
+        savedSeconds = Counter.builder("evaluation.cache.saved")
+                .description("Evaluation time avoided by cache hits")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("evaluation.cache.size", cache, Cache::estimatedSize).register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return evaluationProperties.getCache().isEnabled();
+    }
+
+    /**
+     * Builds the cache key. May load the product limits from the database, so call it off the event loop.
+     */
+    public Key keyFor(String identityDocument, BigDecimal requestedAmount) {
+        BigDecimal queryAmount = productQueryEmbeddingGrid.queryAmount(requestedAmount);
+        return new Key(identityDocument, queryAmount.stripTrailingZeros().toPlainString() + "|" + limits().interval(requestedAmount));
+    }
+
+    public Optional<CachedEvaluation> get(Key key) {
+        CachedEvaluation cached = cache.getIfPresent(key);
+        if (cached == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        savedSeconds.increment(cached.computeNanos() / 1e9);
+        return Optional.of(cached);
+    }
+
+    /**
+     * @return Token to pass to {@link #put} for a result computed from now on
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Stores a result unless an invalidation happened since {@code generation} was read.
+     */
+    public void put(Key key, long generation, CachedEvaluation evaluation) {
+        if (this.generation.get() == generation) {
+            cache.put(key, evaluation);
+        }
+    }
+
+    /**
+     * Drops a customer's entries once the current transaction commits, or immediately without one.
+     */
+    public void evictCustomerAfterCommit(String identityDocument) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictCustomer(identityDocument);
+                }
+            });
+        } else {
+            evictCustomer(identityDocument);
+        }
+    }
+
+    public void evictCustomer(String identityDocument) {
+        generation.incrementAndGet();
+        cache.asMap().keySet().removeIf(key -> key.identityDocument().equals(identityDocument));
+        log.debug("Evaluation cache entries of customer {} evicted", identityDocument);
+    }
+
+    @EventListener
+    public void onSearchIndexChanged(SearchIndexChangedEvent event) {
+        generation.incrementAndGet();
+        productLimits = null;
+        cache.invalidateAll();
+        log.debug("Evaluation cache cleared after {} index change", event.aggregateType());
+    }
+
+    private ProductLimits limits() {
+        ProductLimits limits = productLimits;
+        if (limits == null) {
+            limits = ProductLimits.of(productRepository.findAll());
+            productLimits = limits;
+        }
+        return limits;
+    }
+
+    public record Key(String identityDocument, String amountBucket) {
+    }
+
+    /**
+     * Sorted product minimum and maximum amounts. Two amounts with the same number of minimums at or below
+     * them and maximums strictly below them are inside exactly the same product ranges.
+     */
+    record ProductLimits(double[] minimums, double[] maximums) {
+
+        static ProductLimits of(List<CreditProductEntity> products) {
+            double[] minimums = products.stream()
+                    .filter(product -> product.getMinimumAmount() != null)
+                    .mapToDouble(product -> product.getMinimumAmount().doubleValue())
+                    .sorted()
+                    .toArray();
+            double[] maximums = products.stream()
+                    .filter(product -> product.getMaximumAmount() != null)
+                    .mapToDouble(product -> product.getMaximumAmount().doubleValue())
+                    .sorted()
+                    .toArray();
+            return new ProductLimits(minimums, maximums);
+        }
+
+        String interval(BigDecimal amount) {
+            double value = amount.doubleValue();
+            return countAtOrBelow(minimums, value) + ":" + countBelow(maximums, value);
+        }
+
+        private static int countAtOrBelow(double[] sorted, double value) {
+            int index = Arrays.binarySearch(sorted, value);
+            if (index < 0) {
+                return -index - 1;
+            }
+            while (index < sorted.length && sorted[index] == value) {
+                index++;
+            }
+            return index;
+        }
+
+        private static int countBelow(double[] sorted, double value) {
+            int index = Arrays.binarySearch(sorted, value);
+            if (index < 0) {
+                return -index - 1;
+            }
+            while (index > 0 && sorted[index - 1] == value) {
+                index--;
+            }
+            return index;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package org.mavb.azure.ai.service.embedding;
+
+import com.azure.ai.openai.OpenAIAsyncClient;
+import com.azure.ai.openai.OpenAIClient;
+import com.azure.ai.openai.models.EmbeddingItem;
+import com.azure.ai.openai.models.Embeddings;
+import com.azure.ai.openai.models.EmbeddingsOptions;
+import com.azure.core.http.rest.RequestOptions;
+import com.azure.core.util.BinaryData;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.mavb.azure.ai.config.AzureProperties;
+import org.mavb.azure.ai.vector.EmbeddingVector;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Embeddings from the Azure OpenAI deployment configured under {@code azure.openai}. Default provider.
+ */
+@Component
+@ConditionalOnProperty(prefix = "embedding", name = "provider", havingValue = "azure", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class AzureOpenAIEmbeddingProvider implements EmbeddingProvider {
+
+    private static final String EMBEDDING_USER = "credit-management-system";
+
+    private final OpenAIClient openAIClient;
+    private final OpenAIAsyncClient openAIAsyncClient;
+    private final AzureProperties azureProperties;
+
+    @Override
+    public String version() {
+        return azureProperties.getOpenai().embeddingVersion();
+    }
+
+    @Override
+    public List<EmbeddingVector> embed(List<String> normalizedTexts) {
+        log.debug("Calling Azure OpenAI for {} embeddings with model: {}", normalizedTexts.size(), version());
+        Embeddings embeddings = dimensions() == null
+                ? openAIClient.getEmbeddings(model(), embeddingsOptions(normalizedTexts))
+                : openAIClient.getEmbeddingsWithResponse(model(), embeddingsRequest(normalizedTexts), new RequestOptions())
+                        .getValue().toObject(Embeddings.class);
+        return toVectors(embeddings, normalizedTexts.size());
+    }
+
+    @Override
+    public Mono<List<EmbeddingVector>> embedAsync(List<String> normalizedTexts) {
+        log.debug("Calling Azure OpenAI (async) for {} embeddings with model: {}", normalizedTexts.size(), version());
+        Mono<Embeddings> embeddings = dimensions() == null
+                ? openAIAsyncClient.getEmbeddings(model(), embeddingsOptions(normalizedTexts))
+                : openAIAsyncClient.getEmbeddingsWithResponse(model(), embeddingsRequest(normalizedTexts), new RequestOptions())
+                        .map(response -> response.getValue().toObject(Embeddings.class));
+        return embeddings.map(result -> toVectors(result, normalizedTexts.size()));
+    }
+
+    private EmbeddingsOptions embeddingsOptions(List<String> normalizedTexts) {
+        EmbeddingsOptions options = new EmbeddingsOptions(normalizedTexts);
+        options.setUser(EMBEDDING_USER);
+        options.setInputType("text");
+        return options;
+    }
+
+    /**
+     * Raw request body for the protocol method, needed because EmbeddingsOptions in this SDK version
+     * has no dimensions property.
+     */
+    private BinaryData embeddingsRequest(List<String> normalizedTexts) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("input", normalizedTexts);
+        body.put("user", EMBEDDING_USER);
+        body.put("input_type", "text");
+        body.put("dimensions", dimensions());
+        return BinaryData.fromObject(body);
+    }
+
+    private List<EmbeddingVector> toVectors(Embeddings embeddings, int expected) {
+        EmbeddingVector[] vectors = new EmbeddingVector[expected];
+        for (EmbeddingItem item : embeddings.getData()) {
+            vectors[item.getPromptIndex()] = EmbeddingVector.fromDoubles(item.getEmbedding());
+        }
+
+        log.debug("Generated {} embedding vectors", vectors.length);
+        return Arrays.asList(vectors);
+    }
+
+    private String model() {
+        return azureProperties.getOpenai().getEmbeddingModel();
+    }
+
+    private Integer dimensions() {
+        return azureProperties.getOpenai().getEmbeddingDimensions();
+    }
+}
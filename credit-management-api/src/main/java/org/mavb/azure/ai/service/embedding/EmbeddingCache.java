@@ -0,0 +1,184 @@
+package org.mavb.azure.ai.service.embedding;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.mavb.azure.ai.config.AzureProperties;
+import org.mavb.azure.ai.vector.EmbeddingVector;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Bounded in-memory cache of embeddings keyed by model and normalized text hash.
+ * Optionally persisted to disk so restarts do not pay for already known texts.
+ */
+@Component
+@Slf4j
+public class EmbeddingCache {
+
+    private static final int FILE_MAGIC = 0x454D4243;
+    private static final int FILE_VERSION = 1;
+    private static final int BYTES_PER_DIMENSION = Float.BYTES;
+    private static final int ENTRY_OVERHEAD_BYTES = 128;
+
+    private final AzureProperties.OpenAI.EmbeddingCache properties;
+    private final MeterRegistry meterRegistry;
+    private final Cache<String, EmbeddingVector> cache;
+
+    public EmbeddingCache(AzureProperties azureProperties, MeterRegistry meterRegistry) {
+        this.properties = azureProperties.getOpenai().getEmbeddingCache();
+        this.meterRegistry = meterRegistry;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxSizeMb() * 1024 * 1024)
+                .weigher((String key, EmbeddingVector value) ->
+                        ENTRY_OVERHEAD_BYTES + key.length() * 2 + value.dimensions() * BYTES_PER_DIMENSION)
+                .recordStats()
+                .build();
+    }
+
+    @PostConstruct
+    public void init() {
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "embeddings");
+        loadFromDisk();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        saveToDisk();
+    }
+
+    /**
+     * Returns the cached embedding or computes it with the given loader.
+     *
+     * @param model Embedding model name
+     * @param normalizedText Normalized input text
+     * @param loader Loader invoked on cache miss
+     * @return Embedding vector
+     */
+    public EmbeddingVector get(String model, String normalizedText, Supplier<EmbeddingVector> loader) {
+        if (!properties.isEnabled()) {
+            return loader.get();
+        }
+        return cache.get(buildKey(model, normalizedText), key -> loader.get());
+    }
+
+    /**
+     * Returns the cached embedding or null when absent.
+     */
+    public EmbeddingVector getIfPresent(String model, String normalizedText) {
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        return cache.getIfPresent(buildKey(model, normalizedText));
+    }
+
+    /**
+     * Stores an embedding computed outside of {@link #get}.
+     */
+    public void put(String model, String normalizedText, EmbeddingVector embedding) {
+        if (properties.isEnabled()) {
+            cache.put(buildKey(model, normalizedText), embedding);
+        }
+    }
+
+    /**
+     * Normalizes text so equivalent inputs share the same cache entry.
+     */
+    public static String normalize(String text) {
+        return text.strip().replaceAll("\\s+", " ");
+    }
+
+    private String buildKey(String model, String normalizedText) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(normalizedText.getBytes(StandardCharsets.UTF_8));
+            return model + ":" + HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private void loadFromDisk() {
+        Path path = persistencePath();
+        if (path == null || !Files.exists(path)) {
+            return;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != FILE_MAGIC || in.readInt() != FILE_VERSION) {
+                log.warn("Ignoring embedding cache file with unknown format: {}", path);
+                return;
+            }
+
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String key = in.readUTF();
+                int dimensions = in.readInt();
+                float[] vector = new float[dimensions];
+                for (int d = 0; d < dimensions; d++) {
+                    vector[d] = in.readFloat();
+                }
+                cache.put(key, EmbeddingVector.wrap(vector));
+            }
+            log.info("Loaded {} embeddings from cache file {}", count, path);
+
+        } catch (IOException e) {
+            log.warn("Could not load embedding cache from {}: {}", path, e.getMessage());
+        }
+    }
+
+    private void saveToDisk() {
+        Path path = persistencePath();
+        if (path == null) {
+            return;
+        }
+
+        Map<String, EmbeddingVector> snapshot = Map.copyOf(cache.asMap());
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(FILE_MAGIC);
+                out.writeInt(FILE_VERSION);
+                out.writeInt(snapshot.size());
+                for (Map.Entry<String, EmbeddingVector> entry : snapshot.entrySet()) {
+                    EmbeddingVector vector = entry.getValue();
+                    out.writeUTF(entry.getKey());
+                    out.writeInt(vector.dimensions());
+                    for (int d = 0; d < vector.dimensions(); d++) {
+                        out.writeFloat(vector.get(d));
+                    }
+                }
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("Persisted {} embeddings to cache file {}", snapshot.size(), path);
+
+        } catch (IOException e) {
+            log.warn("Could not persist embedding cache to {}: {}", path, e.getMessage());
+        }
+    }
+
+    private Path persistencePath() {
+        String configured = properties.getPersistencePath();
+        if (!properties.isEnabled() || configured == null || configured.isBlank()) {
+            return null;
+        }
+        return Path.of(configured);
+    }
+}
@@ -0,0 +1,103 @@
+package org.mavb.azure.ai.service.embedding;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.mavb.azure.ai.vector.EmbeddingVector;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Collects concurrent embedding requests over a short window and sends them as one multi-input call.
+ */
+@Slf4j
+public class EmbeddingCoalescer {
+
+    private final Function<List<String>, Mono<List<EmbeddingVector>>> batchLoader;
+    private final Sinks.Many<PendingEmbedding> requests;
+    private final Disposable subscription;
+    private final DistributionSummary batchSizes;
+    private final Counter batchFailures;
+
+    public EmbeddingCoalescer(int maxBatchSize,
+                              Duration maxDelay,
+                              int maxConcurrentBatches,
+                              Function<List<String>, Mono<List<EmbeddingVector>>> batchLoader,
+                              MeterRegistry meterRegistry) {
+        this.batchLoader = batchLoader;
+        // Unsafe unicast over a multi-producer queue: callers emit concurrently without serialization
+        // failures; the managed sink would reject overlapping emissions with FAIL_NON_SERIALIZED
+        this.requests = Sinks.unsafe().many().unicast()
+                .onBackpressureBuffer(Queues.<PendingEmbedding>unboundedMultiproducer().get());
+        this.batchSizes = DistributionSummary.builder("embedding.coalescer.batch.size")
+                .description("Distinct texts sent per coalesced embeddings request")
+                .register(meterRegistry);
+        this.batchFailures = Counter.builder("embedding.coalescer.batch.failures")
+                .register(meterRegistry);
+        // Fair backpressure: windows are only cut when a dispatch slot is free, texts wait in the sink meanwhile
+        this.subscription = requests.asFlux()
+                .bufferTimeout(maxBatchSize, maxDelay, true)
+                .flatMap(this::dispatch, maxConcurrentBatches)
+                .subscribe(null,
+                        e -> log.error("❌ Embedding coalescer stopped, new requests will fail: {}", e.getMessage(), e),
+                        () -> log.info("🔄 Embedding coalescer stopped"));
+    }
+
+    /**
+     * Queues a text for the next batch.
+     *
+     * @param normalizedText Normalized input text
+     * @return Mono completing with the embedding once its batch returns
+     */
+    public Mono<EmbeddingVector> submit(String normalizedText) {
+        return Mono.defer(() -> {
+            PendingEmbedding pending = new PendingEmbedding(normalizedText, Sinks.one());
+            Sinks.EmitResult result = requests.tryEmitNext(pending);
+            if (result.isFailure()) {
+                return Mono.error(new IllegalStateException("Embedding coalescer rejected the request: " + result));
+            }
+            return pending.result().asMono();
+        });
+    }
+
+    public void dispose() {
+        subscription.dispose();
+    }
+
+    private Mono<Void> dispatch(List<PendingEmbedding> batch) {
+        List<String> texts = batch.stream()
+                .map(PendingEmbedding::text)
+                .distinct()
+                .toList();
+        batchSizes.record(texts.size());
+        log.debug("Dispatching coalesced embeddings request: {} callers, {} distinct texts", batch.size(), texts.size());
+
+        return Mono.defer(() -> batchLoader.apply(texts))
+                .doOnNext(vectors -> {
+                    Map<String, EmbeddingVector> byText = new HashMap<>();
+                    for (int i = 0; i < texts.size(); i++) {
+                        byText.put(texts.get(i), vectors.get(i));
+                    }
+                    batch.forEach(pending -> pending.result().tryEmitValue(byText.get(pending.text())));
+                })
+                .doOnError(e -> {
+                    batchFailures.increment();
+                    batch.forEach(pending -> pending.result().tryEmitError(e));
+                })
+                .onErrorResume(e -> Mono.empty())
+                // An empty or cancelled load must not leave callers waiting forever
+                .doFinally(signal -> batch.forEach(pending -> pending.result()
+                        .tryEmitError(new IllegalStateException("Embedding batch ended without a result (" + signal + ")"))))
+                .then();
+    }
+
+    private record PendingEmbedding(String text, Sinks.One<EmbeddingVector> result) {
+    }
+}
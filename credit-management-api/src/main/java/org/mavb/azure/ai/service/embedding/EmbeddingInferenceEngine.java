@@ -0,0 +1,143 @@
+package org.mavb.azure.ai.service.embedding;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.mavb.azure.ai.vector.EmbeddingVector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Batched, thread-pooled front end for an in-process embedding model.
+ * <p>
+ * Texts are queued and a fixed pool of inference workers drains the queue, each taking whatever is waiting
+ * (up to {@code maxBatchSize}) as one batch. Batching is therefore adaptive without any added delay:
+ * a lone request runs immediately, while under load callers share model invocations.
+ * A full queue rejects new texts instead of letting latency grow without bound.
+ */
+@Slf4j
+public class EmbeddingInferenceEngine implements AutoCloseable {
+
+    private final Function<List<String>, List<EmbeddingVector>> model;
+    private final int maxBatchSize;
+    private final BlockingQueue<PendingEmbedding> queue;
+    private final ExecutorService workers;
+    private final DistributionSummary batchSizes;
+    private final Timer inferenceTimer;
+    private volatile boolean running = true;
+
+    public EmbeddingInferenceEngine(Function<List<String>, List<EmbeddingVector>> model,
+                                    int maxBatchSize,
+                                    int workerCount,
+                                    int maxQueueSize,
+                                    MeterRegistry meterRegistry) {
+        this.model = model;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, maxQueueSize));
+        this.batchSizes = DistributionSummary.builder("embedding.local.batch.size")
+                .description("Texts per local model invocation")
+                .register(meterRegistry);
+        this.inferenceTimer = Timer.builder("embedding.local.inference")
+                .description("Local model invocation time per batch")
+                .register(meterRegistry);
+        Gauge.builder("embedding.local.queue.size", queue, BlockingQueue::size)
+                .register(meterRegistry);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "embedding-inference-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < workerCount; i++) {
+            workers.execute(this::work);
+        }
+    }
+
+    /**
+     * Queues a text for the next batch.
+     *
+     * @param normalizedText Normalized input text
+     * @return Future completing with the embedding once its batch has run
+     */
+    public CompletableFuture<EmbeddingVector> submit(String normalizedText) {
+        PendingEmbedding pending = new PendingEmbedding(normalizedText, new CompletableFuture<>());
+        if (!running) {
+            pending.result().completeExceptionally(new RejectedExecutionException("Embedding inference engine is closed"));
+        } else if (!queue.offer(pending)) {
+            pending.result().completeExceptionally(new RejectedExecutionException(
+                    "Embedding inference queue is full (" + queue.size() + " texts waiting)"));
+        }
+        return pending.result();
+    }
+
+    /**
+     * Queues several texts; the returned future completes when all of them are embedded, in input order.
+     */
+    public CompletableFuture<List<EmbeddingVector>> submitAll(List<String> normalizedTexts) {
+        List<CompletableFuture<EmbeddingVector>> results = normalizedTexts.stream().map(this::submit).toList();
+        return CompletableFuture.allOf(results.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> results.stream().map(CompletableFuture::join).toList());
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        workers.shutdownNow();
+        try {
+            if (!workers.awaitTermination(10, TimeUnit.SECONDS)) {
+                log.warn("Embedding inference workers did not stop within 10s");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<PendingEmbedding> abandoned = new ArrayList<>();
+        queue.drainTo(abandoned);
+        abandoned.forEach(pending -> pending.result()
+                .completeExceptionally(new RejectedExecutionException("Embedding inference engine is closed")));
+    }
+
+    private void work() {
+        List<PendingEmbedding> batch = new ArrayList<>(maxBatchSize);
+        while (running) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            queue.drainTo(batch, maxBatchSize - 1);
+            run(batch);
+            batch.clear();
+        }
+    }
+
+    private void run(List<PendingEmbedding> batch) {
+        batchSizes.record(batch.size());
+        try {
+            List<EmbeddingVector> vectors = inferenceTimer.record(() ->
+                    model.apply(batch.stream().map(PendingEmbedding::text).toList()));
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result().complete(vectors.get(i));
+            }
+        } catch (RuntimeException e) {
+            log.error("❌ Local embedding batch of {} texts failed: {}", batch.size(), e.getMessage(), e);
+            batch.forEach(pending -> pending.result().completeExceptionally(e));
+        }
+    }
+
+    private record PendingEmbedding(String text, CompletableFuture<EmbeddingVector> result) {
+    }
+}
@@ -0,0 +1,30 @@
+package org.mavb.azure.ai.service.embedding;
+
+import org.mavb.azure.ai.vector.EmbeddingVector;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Model backend behind {@link org.mavb.azure.ai.service.EmbeddingService}, selected with {@code embedding.provider}.
+ * Implementations receive normalized, non-blank texts; caching, validation and batching policy stay in the service.
+ */
+public interface EmbeddingProvider {
+
+    /**
+     * Identifies the vector space produced by this provider, e.g. "text-embedding-3-small@512".
+     * Used in cache keys and stored embeddings, so it must change whenever the vectors would.
+     */
+    String version();
+
+    /**
+     * @param normalizedTexts Input texts
+     * @return One embedding per input, in input order
+     */
+    List<EmbeddingVector> embed(List<String> normalizedTexts);
+
+    /**
+     * Non-blocking variant of {@link #embed(List)}.
+     */
+    Mono<List<EmbeddingVector>> embedAsync(List<String> normalizedTexts);
+}
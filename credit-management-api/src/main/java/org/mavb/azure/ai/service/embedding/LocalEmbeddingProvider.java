@@ -0,0 +1,76 @@
+package org.mavb.azure.ai.service.embedding;
+
+import ai.onnxruntime.OrtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.mavb.azure.ai.config.EmbeddingProperties;
+import org.mavb.azure.ai.vector.EmbeddingVector;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Embeddings from a sentence-transformers model running in-process with ONNX Runtime on CPU, so evaluations
+ * need neither network calls nor Azure OpenAI quota.
+ * <p>
+ * Vectors live in a different space (and usually have fewer dimensions) than the Azure deployment's:
+ * stored embeddings are recomputed on the next sync and the AI Search vector fields must match the model size.
+ */
+@Component
+@ConditionalOnProperty(prefix = "embedding", name = "provider", havingValue = "local")
+@RequiredArgsConstructor
+@Slf4j
+public class LocalEmbeddingProvider implements EmbeddingProvider {
+
+    private final EmbeddingProperties embeddingProperties;
+    private final MeterRegistry meterRegistry;
+
+    private OnnxSentenceEncoder encoder;
+    private EmbeddingInferenceEngine engine;
+
+    @PostConstruct
+    public void init() throws IOException, OrtException {
+        EmbeddingProperties.Local local = embeddingProperties.getLocal();
+        encoder = OnnxSentenceEncoder.load(local);
+        engine = new EmbeddingInferenceEngine(encoder::encode, local.getMaxBatchSize(), local.effectiveWorkers(),
+                local.getMaxQueueSize(), meterRegistry);
+        log.info("✅ Local embedding provider ready: {} workers, batches of up to {} texts",
+                local.effectiveWorkers(), local.getMaxBatchSize());
+    }
+
+    @PreDestroy
+    public void shutdown() throws OrtException {
+        if (engine != null) {
+            engine.close();
+        }
+        if (encoder != null) {
+            encoder.close();
+        }
+    }
+
+    @Override
+    public String version() {
+        return "local:" + embeddingProperties.getLocal().getModelName();
+    }
+
+    @Override
+    public List<EmbeddingVector> embed(List<String> normalizedTexts) {
+        try {
+            return engine.submitAll(normalizedTexts).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    @Override
+    public Mono<List<EmbeddingVector>> embedAsync(List<String> normalizedTexts) {
+        return Mono.fromFuture(() -> engine.submitAll(normalizedTexts));
+    }
+}
@@ -0,0 +1,165 @@
+package org.mavb.azure.ai.service.embedding;
+
+import ai.onnxruntime.OnnxTensor;
+import ai.onnxruntime.OrtEnvironment;
+import ai.onnxruntime.OrtException;
+import ai.onnxruntime.OrtSession;
+import lombok.extern.slf4j.Slf4j;
+import org.mavb.azure.ai.config.EmbeddingProperties;
+import org.mavb.azure.ai.vector.EmbeddingVector;
+
+import java.io.IOException;
+import java.nio.FloatBuffer;
+import java.nio.LongBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Runs an ONNX export of a BERT-style sentence-transformers model on CPU.
+ * <p>
+ * Inputs are padded to the longest text of the batch. When the export has a pooled {@code sentence_embedding}
+ * output it is used as is, otherwise the token states are mean-pooled over the attention mask. Vectors are
+ * L2-normalized, like the sentence-transformers {@code Normalize} module.
+ * <p>
+ * {@link #encode(List)} may be called from several threads; ONNX Runtime sessions are thread-safe.
+ */
+@Slf4j
+public class OnnxSentenceEncoder implements AutoCloseable {
+
+    private static final String INPUT_IDS = "input_ids";
+    private static final String ATTENTION_MASK = "attention_mask";
+    private static final String TOKEN_TYPE_IDS = "token_type_ids";
+    private static final String SENTENCE_EMBEDDING = "sentence_embedding";
+
+    private final OrtEnvironment environment;
+    private final OrtSession session;
+    private final WordPieceTokenizer tokenizer;
+    private final Set<String> inputNames;
+
+    private OnnxSentenceEncoder(OrtEnvironment environment, OrtSession session, WordPieceTokenizer tokenizer) throws OrtException {
+        this.environment = environment;
+        this.session = session;
+        this.tokenizer = tokenizer;
+        this.inputNames = session.getInputNames();
+    }
+
+    public static OnnxSentenceEncoder load(EmbeddingProperties.Local local) throws IOException, OrtException {
+        if (local.getModelPath() == null || local.getVocabularyPath() == null) {
+            throw new IllegalStateException("embedding.local.model-path and embedding.local.vocabulary-path are required by the local provider");
+        }
+        WordPieceTokenizer tokenizer = WordPieceTokenizer.load(Path.of(local.getVocabularyPath()),
+                local.isLowerCase(), local.getMaxSequenceLength());
+
+        OrtEnvironment environment = OrtEnvironment.getEnvironment();
+        try (OrtSession.SessionOptions options = new OrtSession.SessionOptions()) {
+            options.setOptimizationLevel(OrtSession.SessionOptions.OptLevel.ALL_OPT);
+            options.setIntraOpNumThreads(Math.max(1, local.getIntraOpThreads()));
+            options.setInterOpNumThreads(1);
+            OrtSession session = environment.createSession(local.getModelPath(), options);
+            log.info("✅ Loaded ONNX sentence encoder {} (inputs {}, outputs {})",
+                    local.getModelPath(), session.getInputNames(), session.getOutputNames());
+            return new OnnxSentenceEncoder(environment, session, tokenizer);
+        }
+    }
+
+    /**
+     * @param texts Normalized input texts
+     * @return One unit-length embedding per input, in input order
+     */
+    public List<EmbeddingVector> encode(List<String> texts) {
+        int batch = texts.size();
+        long[][] tokens = new long[batch][];
+        int length = 0;
+        for (int i = 0; i < batch; i++) {
+            tokens[i] = tokenizer.encode(texts.get(i));
+            length = Math.max(length, tokens[i].length);
+        }
+
+        long[] inputIds = new long[batch * length];
+        long[] attentionMask = new long[batch * length];
+        for (int i = 0; i < batch; i++) {
+            System.arraycopy(tokens[i], 0, inputIds, i * length, tokens[i].length);
+            for (int t = 0; t < tokens[i].length; t++) {
+                attentionMask[i * length + t] = 1;
+            }
+        }
+
+        long[] shape = {batch, length};
+        Map<String, OnnxTensor> inputs = new HashMap<>();
+        try {
+            inputs.put(INPUT_IDS, OnnxTensor.createTensor(environment, LongBuffer.wrap(inputIds), shape));
+            inputs.put(ATTENTION_MASK, OnnxTensor.createTensor(environment, LongBuffer.wrap(attentionMask), shape));
+            if (inputNames.contains(TOKEN_TYPE_IDS)) {
+                inputs.put(TOKEN_TYPE_IDS, OnnxTensor.createTensor(environment, LongBuffer.wrap(new long[batch * length]), shape));
+            }
+            try (OrtSession.Result result = session.run(inputs)) {
+                OnnxTensor output = (OnnxTensor) result.get(SENTENCE_EMBEDDING).orElse(result.get(0));
+                long[] outputShape = output.getInfo().getShape();
+                FloatBuffer values = output.getFloatBuffer();
+                return outputShape.length == 2
+                        ? pooled(values, batch, (int) outputShape[1])
+                        : meanPooled(values, attentionMask, batch, length, (int) outputShape[2]);
+            }
+        } catch (OrtException e) {
+            throw new IllegalStateException("ONNX inference failed for a batch of " + batch + " texts", e);
+        } finally {
+            inputs.values().forEach(OnnxTensor::close);
+        }
+    }
+
+    @Override
+    public void close() throws OrtException {
+        session.close();
+    }
+
+    private static List<EmbeddingVector> pooled(FloatBuffer values, int batch, int dimensions) {
+        List<EmbeddingVector> vectors = new ArrayList<>(batch);
+        for (int i = 0; i < batch; i++) {
+            float[] vector = new float[dimensions];
+            values.get(i * dimensions, vector);
+            vectors.add(EmbeddingVector.wrap(normalize(vector)));
+        }
+        return vectors;
+    }
+
+    private static List<EmbeddingVector> meanPooled(FloatBuffer values, long[] attentionMask, int batch, int length, int dimensions) {
+        List<EmbeddingVector> vectors = new ArrayList<>(batch);
+        for (int i = 0; i < batch; i++) {
+            float[] vector = new float[dimensions];
+            int tokens = 0;
+            for (int t = 0; t < length; t++) {
+                if (attentionMask[i * length + t] == 0) {
+                    continue;
+                }
+                int offset = (i * length + t) * dimensions;
+                for (int d = 0; d < dimensions; d++) {
+                    vector[d] += values.get(offset + d);
+                }
+                tokens++;
+            }
+            for (int d = 0; d < dimensions; d++) {
+                vector[d] /= Math.max(1, tokens);
+            }
+            vectors.add(EmbeddingVector.wrap(normalize(vector)));
+        }
+        return vectors;
+    }
+
+    private static float[] normalize(float[] vector) {
+        double norm = 0;
+        for (float value : vector) {
+            norm += value * value;
+        }
+        if (norm > 0) {
+            float scale = (float) (1 / Math.sqrt(norm));
+            for (int d = 0; d < vector.length; d++) {
+                vector[d] *= scale;
+            }
+        }
+        return vector;
+    }
+}
@@ -0,0 +1,199 @@
+package org.mavb.azure.ai.service.embedding;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.mavb.azure.ai.config.EvaluationProperties;
+import org.mavb.azure.ai.entity.CreditProductEntity;
+import org.mavb.azure.ai.entity.RankEntity;
+import org.mavb.azure.ai.repository.CreditProductRepository;
+import org.mavb.azure.ai.repository.RankRepository;
+import org.mavb.azure.ai.service.EmbeddingService;
+import org.mavb.azure.ai.vector.EmbeddingVector;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Precomputed embeddings of the product search query for every rank × amount bucket.
+ * The query text only depends on those two values, so the common case needs no embedding call.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductQueryEmbeddingGrid {
+
+    /**
+     * Rank id used by the evaluation when no rank could be resolved.
+     */
+    public static final String UNDEFINED_RANK = "UNDEFINED";
+
+    private static final String QUERY_TEMPLATE = "Cliente con Rank %s solicita un crédito de %s soles";
+
+    private final EmbeddingService embeddingService;
+    private final EvaluationProperties evaluationProperties;
+    private final RankRepository rankRepository;
+    private final CreditProductRepository productRepository;
+    private final MeterRegistry meterRegistry;
+
+    private final Set<String> ranks = ConcurrentHashMap.newKeySet();
+    private final NavigableSet<BigDecimal> amounts = new ConcurrentSkipListSet<>();
+    private final Map<String, EmbeddingVector> embeddings = new ConcurrentHashMap<>();
+    private Counter gridHits;
+    private Counter exactFallbacks;
+
+    @PostConstruct
+    public void init() {
+        gridHits = Counter.builder("product.query.grid")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        exactFallbacks = Counter.builder("product.query.grid")
+                .tag("result", "exact")
+                .register(meterRegistry);
+        Gauge.builder("product.query.grid.size", embeddings, Map::size)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Builds the grid from the configured buckets, the active ranks and the product amount limits.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        if (!settings().isEnabled()) {
+            return;
+        }
+        try {
+            ranks.add(UNDEFINED_RANK);
+            rankRepository.findAll().stream()
+                    .filter(rank -> Boolean.TRUE.equals(rank.getActive()))
+                    .map(RankEntity::getId)
+                    .forEach(ranks::add);
+            amounts.addAll(settings().getAmountBuckets());
+            if (settings().isIncludeProductLimits()) {
+                productRepository.findAll().forEach(this::addProductLimits);
+            }
+            refresh();
+        } catch (Exception e) {
+            log.error("Failed to build product query embedding grid: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Adds a rank to the grid and embeds its row.
+     */
+    public void onRankChanged(String rankId) {
+        if (settings().isEnabled() && ranks.add(rankId)) {
+            refresh();
+        }
+    }
+
+    /**
+     * Adds the product amount limits to the grid and embeds the new columns.
+     */
+    public void onProductChanged(CreditProductEntity product) {
+        if (settings().isEnabled() && settings().isIncludeProductLimits() && addProductLimits(product)) {
+            refresh();
+        }
+    }
+
+    /**
+     * Returns the precomputed query embedding for the nearest amount bucket.
+     *
+     * @param rankId Resolved rank id
+     * @param requestedAmount Requested amount
+     * @return Grid embedding, or empty if the caller should embed the exact query text
+     */
+    public Optional<EmbeddingVector> lookup(String rankId, BigDecimal requestedAmount) {
+        if (!settings().isEnabled() || requestedAmount == null || requestedAmount.signum() <= 0) {
+            return Optional.empty();
+        }
+
+        Optional<EmbeddingVector> embedding = nearestAmount(requestedAmount)
+                .map(amount -> embeddings.get(queryText(rankId, amount)));
+        (embedding.isPresent() ? gridHits : exactFallbacks).increment();
+        return embedding;
+    }
+
+    /**
+     * Amount whose query embedding {@link #lookup} serves for the requested amount,
+     * or the requested amount itself when it falls outside the grid.
+     */
+    public BigDecimal queryAmount(BigDecimal requestedAmount) {
+        if (!settings().isEnabled() || requestedAmount == null || requestedAmount.signum() <= 0) {
+            return requestedAmount;
+        }
+        return nearestAmount(requestedAmount).orElse(requestedAmount);
+    }
+
+    /**
+     * Product search query for a rank and amount. Shared with the exact-amount path so both hit the same cache entries.
+     */
+    public static String queryText(String rankId, BigDecimal amount) {
+        return String.format(QUERY_TEMPLATE, rankId, amount.toPlainString());
+    }
+
+    private Optional<BigDecimal> nearestAmount(BigDecimal requestedAmount) {
+        BigDecimal floor = amounts.floor(requestedAmount);
+        BigDecimal ceiling = amounts.ceiling(requestedAmount);
+        BigDecimal nearest;
+        if (floor == null || ceiling == null) {
+            nearest = floor != null ? floor : ceiling;
+        } else {
+            nearest = requestedAmount.subtract(floor).compareTo(ceiling.subtract(requestedAmount)) <= 0 ? floor : ceiling;
+        }
+        if (nearest == null) {
+            return Optional.empty();
+        }
+
+        double deviation = nearest.subtract(requestedAmount).abs()
+                .divide(requestedAmount, 6, RoundingMode.HALF_UP)
+                .doubleValue();
+        return deviation <= settings().getMaxDeviation() ? Optional.of(nearest) : Optional.empty();
+    }
+
+    private boolean addProductLimits(CreditProductEntity product) {
+        boolean added = false;
+        if (product.getMinimumAmount() != null && product.getMinimumAmount().signum() > 0) {
+            added |= amounts.add(product.getMinimumAmount().stripTrailingZeros());
+        }
+        if (product.getMaximumAmount() != null && product.getMaximumAmount().signum() > 0) {
+            added |= amounts.add(product.getMaximumAmount().stripTrailingZeros());
+        }
+        return added;
+    }
+
+    private synchronized void refresh() {
+        List<String> missing = new ArrayList<>();
+        for (String rank : ranks) {
+            for (BigDecimal amount : amounts) {
+                String text = queryText(rank, amount);
+                if (!embeddings.containsKey(text)) {
+                    missing.add(text);
+                }
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        List<EmbeddingVector> vectors = embeddingService.getEmbeddings(missing);
+        for (int i = 0; i < missing.size(); i++) {
+            embeddings.put(missing.get(i), vectors.get(i));
+        }
+        log.info("Product query embedding grid updated: {} ranks x {} amounts ({} new embeddings)",
+                ranks.size(), amounts.size(), missing.size());
+    }
+
+    private EvaluationProperties.QueryGrid settings() {
+        return evaluationProperties.getQueryGrid();
+    }
+}
@@ -0,0 +1,183 @@
+package org.mavb.azure.ai.service.embedding;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * BERT tokenizer (basic pre-tokenization plus greedy longest-match WordPiece) for the local sentence encoders.
+ * Produces the same ids as the Hugging Face {@code BertTokenizer} for the vocabulary it was built with.
+ */
+public class WordPieceTokenizer {
+
+    private static final String CLS = "[CLS]";
+    private static final String SEP = "[SEP]";
+    private static final String UNK = "[UNK]";
+    private static final String CONTINUATION = "##";
+    private static final int MAX_WORD_CHARS = 100;
+
+    private final Map<String, Integer> vocabulary;
+    private final boolean lowerCase;
+    private final int maxSequenceLength;
+    private final int clsId;
+    private final int sepId;
+    private final int unkId;
+
+    public WordPieceTokenizer(Map<String, Integer> vocabulary, boolean lowerCase, int maxSequenceLength) {
+        if (maxSequenceLength < 3) {
+            throw new IllegalArgumentException("maxSequenceLength must leave room for [CLS], one token and [SEP]");
+        }
+        this.vocabulary = Map.copyOf(vocabulary);
+        this.lowerCase = lowerCase;
+        this.maxSequenceLength = maxSequenceLength;
+        this.clsId = requireToken(CLS);
+        this.sepId = requireToken(SEP);
+        this.unkId = requireToken(UNK);
+    }
+
+    /**
+     * Reads a {@code vocab.txt} file: one token per line, the line number is the token id.
+     */
+    public static WordPieceTokenizer load(Path vocabularyFile, boolean lowerCase, int maxSequenceLength) throws IOException {
+        List<String> tokens = Files.readAllLines(vocabularyFile, StandardCharsets.UTF_8);
+        Map<String, Integer> vocabulary = new HashMap<>(tokens.size() * 2);
+        for (int i = 0; i < tokens.size(); i++) {
+            vocabulary.putIfAbsent(tokens.get(i).strip(), i);
+        }
+        return new WordPieceTokenizer(vocabulary, lowerCase, maxSequenceLength);
+    }
+
+    /**
+     * @return Token ids framed by [CLS] and [SEP], truncated to the maximum sequence length
+     */
+    public long[] encode(String text) {
+        List<Integer> ids = new ArrayList<>();
+        ids.add(clsId);
+        int limit = maxSequenceLength - 1;
+        for (String word : basicTokens(text)) {
+            for (int id : wordPieces(word)) {
+                if (ids.size() == limit) {
+                    break;
+                }
+                ids.add(id);
+            }
+            if (ids.size() == limit) {
+                break;
+            }
+        }
+        ids.add(sepId);
+
+        long[] encoded = new long[ids.size()];
+        for (int i = 0; i < encoded.length; i++) {
+            encoded[i] = ids.get(i);
+        }
+        return encoded;
+    }
+
+    /**
+     * Whitespace and punctuation split, with lower-casing and accent stripping for uncased vocabularies.
+     */
+    List<String> basicTokens(String text) {
+        String normalized = lowerCase
+                ? Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD)
+                : text;
+
+        List<String> tokens = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < normalized.length(); ) {
+            int codePoint = normalized.codePointAt(i);
+            i += Character.charCount(codePoint);
+
+            if (codePoint == 0 || codePoint == 0xFFFD || isControl(codePoint)
+                    || (lowerCase && Character.getType(codePoint) == Character.NON_SPACING_MARK)) {
+                continue;
+            }
+            if (Character.isWhitespace(codePoint) || Character.isSpaceChar(codePoint)) {
+                flush(current, tokens);
+            } else if (isPunctuation(codePoint) || isCjk(codePoint)) {
+                flush(current, tokens);
+                tokens.add(new String(Character.toChars(codePoint)));
+            } else {
+                current.appendCodePoint(codePoint);
+            }
+        }
+        flush(current, tokens);
+        return tokens;
+    }
+
+    private List<Integer> wordPieces(String word) {
+        if (word.length() > MAX_WORD_CHARS) {
+            return List.of(unkId);
+        }
+        List<Integer> pieces = new ArrayList<>();
+        int start = 0;
+        while (start < word.length()) {
+            int end = word.length();
+            Integer match = null;
+            while (start < end) {
+                String candidate = start > 0 ? CONTINUATION + word.substring(start, end) : word.substring(start, end);
+                match = vocabulary.get(candidate);
+                if (match != null) {
+                    break;
+                }
+                end = word.offsetByCodePoints(end, -1);
+            }
+            if (match == null) {
+                return List.of(unkId);
+            }
+            pieces.add(match);
+            start = end;
+        }
+        return pieces;
+    }
+
+    private int requireToken(String token) {
+        Integer id = vocabulary.get(token);
+        if (id == null) {
+            throw new IllegalArgumentException("Vocabulary has no " + token + " token");
+        }
+        return id;
+    }
+
+    private static void flush(StringBuilder current, List<String> tokens) {
+        if (!current.isEmpty()) {
+            tokens.add(current.toString());
+            current.setLength(0);
+        }
+    }
+
+    private static boolean isControl(int codePoint) {
+        if (codePoint == '\t' || codePoint == '\n' || codePoint == '\r') {
+            return false;
+        }
+        int type = Character.getType(codePoint);
+        return type == Character.CONTROL || type == Character.FORMAT;
+    }
+
+    /**
+     * BERT treats all non-alphanumeric ASCII as punctuation, e.g. "$" and "^", besides the Unicode P* classes.
+     */
+    private static boolean isPunctuation(int codePoint) {
+        if ((codePoint >= 33 && codePoint <= 47) || (codePoint >= 58 && codePoint <= 64)
+                || (codePoint >= 91 && codePoint <= 96) || (codePoint >= 123 && codePoint <= 126)) {
+            return true;
+        }
+        return switch (Character.getType(codePoint)) {
+            case Character.CONNECTOR_PUNCTUATION, Character.DASH_PUNCTUATION, Character.START_PUNCTUATION,
+                 Character.END_PUNCTUATION, Character.INITIAL_QUOTE_PUNCTUATION, Character.FINAL_QUOTE_PUNCTUATION,
+                 Character.OTHER_PUNCTUATION -> true;
+            default -> false;
+        };
+    }
+
+    private static boolean isCjk(int codePoint) {
+        return Character.UnicodeScript.of(codePoint) == Character.UnicodeScript.HAN;
+    }
+}
@@ -0,0 +1,139 @@
+package org.mavb.azure.ai.service.fallback;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.mavb.azure.ai.config.EvaluationProperties;
+
+/**
+ * Count-based circuit breaker.
+ * <p>
+ * Opens when the failure rate over the last {@code slidingWindow} calls reaches the threshold, rejects
+ * calls while open, and after {@code openDuration} lets a single probe through: its success closes the
+ * circuit, its failure opens it again.
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final String name;
+    private final EvaluationProperties.Fallback settings;
+    private final Ticker ticker;
+    private final boolean[] outcomes;
+
+    // Guarded by this
+    private State state = State.CLOSED;
+    private int calls;
+    private int failures;
+    private int next;
+    private long openedAtNanos;
+    private boolean probeInFlight;
+
+    public CircuitBreaker(String name, EvaluationProperties.Fallback settings, MeterRegistry meterRegistry) {
+        this(name, settings, Ticker.systemTicker(), meterRegistry);
+    }
+
+    /**
+     * @param ticker Nanosecond time source for the open duration
+     */
+    public CircuitBreaker(String name, EvaluationProperties.Fallback settings, Ticker ticker, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.settings = settings;
+        this.ticker = ticker;
+        this.outcomes = new boolean[Math.max(1, settings.getSlidingWindow())];
+        Gauge.builder("circuit.state", this, breaker -> breaker.state().ordinal())
+                .description("0 closed, 1 open, 2 half-open")
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return Whether a call may go to the dependency now; a true answer must be followed by
+     * {@link #onSuccess()} or {@link #onFailure()}
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN && ticker.read() - openedAtNanos >= settings.getOpenDuration().toNanos()) {
+            state = State.HALF_OPEN;
+            probeInFlight = false;
+        }
+        return switch (state) {
+            case CLOSED -> true;
+            case OPEN -> false;
+            case HALF_OPEN -> {
+                if (probeInFlight) {
+                    yield false;
+                }
+                probeInFlight = true;
+                yield true;
+            }
+        };
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            log.info("✅ Circuit {} closed after successful probe", name);
+            reset(State.CLOSED);
+            return;
+        }
+        record(false);
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+            return;
+        }
+        record(true);
+        if (calls >= settings.getMinimumCalls() && failures >= settings.getFailureRateThreshold() * calls) {
+            open();
+        }
+    }
+
+    /**
+     * Gives back a permit whose call was abandoned before it completed.
+     */
+    public synchronized void onCancel() {
+        if (state == State.HALF_OPEN) {
+            probeInFlight = false;
+        }
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    private void record(boolean failure) {
+        if (calls == outcomes.length) {
+            if (outcomes[next]) {
+                failures--;
+            }
+        } else {
+            calls++;
+        }
+        outcomes[next] = failure;
+        if (failure) {
+            failures++;
+        }
+        next = (next + 1) % outcomes.length;
+    }
+
+    private void open() {
+        log.warn("❌ Circuit {} opened for {}", name, settings.getOpenDuration());
+        reset(State.OPEN);
+        openedAtNanos = ticker.read();
+    }
+
+    private void reset(State newState) {
+        state = newState;
+        calls = 0;
+        failures = 0;
+        next = 0;
+        probeInFlight = false;
+    }
+}
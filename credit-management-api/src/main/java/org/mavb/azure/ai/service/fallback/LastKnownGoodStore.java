@@ -0,0 +1,125 @@
+package org.mavb.azure.ai.service.fallback;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.mavb.azure.ai.config.EvaluationProperties;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Stale-while-revalidate wrapper around a degradable dependency call.
+ * <p>
+ * Every successful result is kept as the last known good value for its key. The stale value is served
+ * instead of the call when the circuit breaker is open, when the call fails, or when it is still running
+ * after the latency budget; in the last case the call keeps running in the background and refreshes the
+ * store. Without a stored value callers simply wait for the call or get its error.
+ */
+@Slf4j
+public class LastKnownGoodStore<K, V> {
+
+    private final EvaluationProperties.Fallback settings;
+    private final CircuitBreaker circuitBreaker;
+    private final Cache<K, V> values;
+    private final AtomicLong staleServed = new AtomicLong();
+    private final Counter fresh;
+    private final Counter staleOpen;
+    private final Counter staleSlow;
+    private final Counter staleError;
+
+    /**
+     * @param name Value of the {@code name} tag on the fallback and circuit metrics
+     */
+    public LastKnownGoodStore(String name, EvaluationProperties.Fallback settings, MeterRegistry meterRegistry) {
+        this(name, settings, Ticker.systemTicker(), meterRegistry);
+    }
+
+    /**
+     * @param ticker Nanosecond time source for the stale TTL and the circuit's open duration
+     */
+    public LastKnownGoodStore(String name, EvaluationProperties.Fallback settings, Ticker ticker, MeterRegistry meterRegistry) {
+        this.settings = settings;
+        this.circuitBreaker = new CircuitBreaker(name, settings, ticker, meterRegistry);
+        this.values = Caffeine.newBuilder()
+                .ticker(ticker)
+                .expireAfterWrite(settings.getStaleTtl())
+                .maximumSize(settings.getMaxSize())
+                .build();
+        this.fresh = counter(name, "fresh", meterRegistry);
+        this.staleOpen = counter(name, "stale_circuit_open", meterRegistry);
+        this.staleSlow = counter(name, "stale_slow", meterRegistry);
+        this.staleError = counter(name, "stale_error", meterRegistry);
+        Gauge.builder("fallback.store.size", values, Cache::estimatedSize).tag("name", name).register(meterRegistry);
+    }
+
+    public Mono<V> execute(K key, Supplier<Mono<V>> call) {
+        if (!settings.isEnabled()) {
+            return Mono.defer(call);
+        }
+
+        return Mono.defer(() -> {
+            V stale = values.getIfPresent(key);
+            if (!circuitBreaker.tryAcquire()) {
+                if (stale != null) {
+                    return serveStale(staleOpen, stale);
+                }
+                return Mono.error(new IllegalStateException("Circuit open and no last known good value"));
+            }
+
+            Mono<V> attempt = Mono.defer(call)
+                    .doOnSuccess(value -> {
+                        circuitBreaker.onSuccess();
+                        if (value != null) {
+                            values.put(key, value);
+                        }
+                    })
+                    .doOnError(error -> circuitBreaker.onFailure());
+            if (stale == null) {
+                return attempt.doOnSuccess(value -> fresh.increment())
+                        .doOnCancel(circuitBreaker::onCancel);
+            }
+
+            // Runs to completion even when the caller is answered from the store
+            Mono<V> refresh = attempt.cache();
+            refresh.subscribe(value -> { }, error -> log.debug("Background refresh failed: {}", error.getMessage()));
+            return refresh
+                    .timeout(settings.getLatencyBudget(), Mono.defer(() -> serveStale(staleSlow, stale)))
+                    .doOnSuccess(value -> {
+                        if (value != stale) {
+                            fresh.increment();
+                        }
+                    })
+                    .onErrorResume(error -> {
+                        log.warn("🔄 Serving last known good value after failure: {}", error.getMessage());
+                        return serveStale(staleError, stale);
+                    });
+        });
+    }
+
+    /**
+     * @return Number of stale values served so far; callers compare it around a computation to tell
+     * whether it saw degraded data
+     */
+    public long staleServed() {
+        return staleServed.get();
+    }
+
+    private Mono<V> serveStale(Counter reason, V stale) {
+        reason.increment();
+        staleServed.incrementAndGet();
+        return Mono.just(stale);
+    }
+
+    private static Counter counter(String name, String result, MeterRegistry meterRegistry) {
+        return Counter.builder("fallback.requests")
+                .tag("name", name)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,169 @@
+package org.mavb.azure.ai.service.flight;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.mavb.azure.ai.config.AzureProperties;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Hedges slow calls: when the primary call has not answered after a delay taken from a high percentile
+ * of recent latencies, an identical call is issued and the first value wins, cancelling the other.
+ * <p>
+ * Hedges are paid from a token budget that earns {@code budgetRatio} tokens per call, so the extra load
+ * stays under that fraction of traffic. A primary that fails or completes empty before the hedge fires
+ * decides the call; once both are running the first value wins.
+ * <p>
+ * A primary cancelled after its hedge delay is slower than that delay by an unknown amount, so it enters
+ * the latency window as the slowest possible sample ({@code maxDelay}) rather than its time up to the
+ * cancellation; otherwise winning hedges would keep lowering the delay. A primary cancelled earlier, by
+ * the caller, says nothing about latency and is left out of the window.
+ */
+public class RequestHedger {
+
+    private final AzureProperties.Search.Hedge settings;
+    private final long[] latencies;
+    private final Timer latency;
+    private final Timer attemptLatency;
+    private final Counter hedged;
+    private final Counter hedgeWins;
+    private final Counter budgetExhausted;
+
+    // Guarded by this
+    private int samples;
+    private int next;
+    private int sinceRecompute;
+    private long delayNanos;
+    private double budget;
+
+    /**
+     * @param name Value of the {@code name} tag on the hedge metrics
+     */
+    public RequestHedger(String name, AzureProperties.Search.Hedge settings, MeterRegistry meterRegistry) {
+        this.settings = settings;
+        this.latencies = new long[Math.max(1, settings.getWindow())];
+        this.delayNanos = settings.getInitialDelay().toNanos();
+        this.budget = settings.getMaxBudget();
+        this.latency = Timer.builder("search.hedge.latency")
+                .description("Latency seen by callers, with hedging")
+                .tag("name", name)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.attemptLatency = Timer.builder("search.hedge.attempt.latency")
+                .description("Latency of primary attempts, cancelled ones counted up to the cancellation")
+                .tag("name", name)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.hedged = Counter.builder("search.hedge.hedged").tag("name", name).register(meterRegistry);
+        this.hedgeWins = Counter.builder("search.hedge.wins").tag("name", name).register(meterRegistry);
+        this.budgetExhausted = Counter.builder("search.hedge.budget.exhausted").tag("name", name).register(meterRegistry);
+        Gauge.builder("search.hedge.delay", this, hedger -> hedger.currentDelay().toMillis())
+                .tag("name", name)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs the call, hedging it if it is slower than the current delay and the budget allows.
+     *
+     * @param call Supplies a fresh, independent call each time it is invoked
+     */
+    public <T> Mono<T> execute(Supplier<Mono<T>> call) {
+        if (!settings.isEnabled()) {
+            return Mono.defer(call);
+        }
+
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            Duration delay = currentDelay();
+            deposit();
+            AtomicReference<Throwable> primaryError = new AtomicReference<>();
+            Sinks.One<Boolean> primaryDone = Sinks.one();
+
+            Mono<T> primary = Mono.defer(call)
+                    .doOnError(error -> {
+                        primaryError.set(error);
+                        primaryDone.tryEmitValue(true);
+                    })
+                    .doOnSuccess(value -> {
+                        recordAttempt(start);
+                        primaryDone.tryEmitValue(true);
+                    })
+                    .doOnCancel(() -> recordCancelled(start, delay));
+
+            Mono<T> hedge = Mono.delay(delay)
+                    .takeUntilOther(primaryDone.asMono())
+                    .filter(tick -> withdraw())
+                    .flatMap(tick -> {
+                        hedged.increment();
+                        return Mono.defer(call).doOnSuccess(value -> hedgeWins.increment());
+                    });
+
+            return Mono.firstWithValue(primary, hedge)
+                    // Neither produced a value: report the primary's outcome, not the race
+                    .onErrorResume(NoSuchElementException.class, error -> primaryError.get() != null
+                            ? Mono.error(primaryError.get())
+                            : Mono.empty())
+                    .doOnSuccess(value -> latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+        });
+    }
+
+    /**
+     * Current hedge delay: the configured percentile of the latency window, within the min/max bounds.
+     */
+    public synchronized Duration currentDelay() {
+        return Duration.ofNanos(delayNanos);
+    }
+
+    private void recordAttempt(long start) {
+        long elapsed = System.nanoTime() - start;
+        attemptLatency.record(elapsed, TimeUnit.NANOSECONDS);
+        addSample(elapsed);
+    }
+
+    private void recordCancelled(long start, Duration delay) {
+        long elapsed = System.nanoTime() - start;
+        attemptLatency.record(elapsed, TimeUnit.NANOSECONDS);
+        if (elapsed >= delay.toNanos()) {
+            addSample(settings.getMaxDelay().toNanos());
+        }
+    }
+
+    private void addSample(long elapsed) {
+        synchronized (this) {
+            latencies[next] = elapsed;
+            next = (next + 1) % latencies.length;
+            samples = Math.min(samples + 1, latencies.length);
+            // Sorting the window on every call would cost more than the searches it hedges
+            if (samples >= settings.getMinSamples() && ++sinceRecompute >= Math.max(1, latencies.length / 16)) {
+                sinceRecompute = 0;
+                long[] window = Arrays.copyOf(latencies, samples);
+                Arrays.sort(window);
+                long percentile = window[Math.min(samples - 1, (int) Math.ceil(settings.getPercentile() * samples) - 1)];
+                delayNanos = Math.clamp(percentile, settings.getMinDelay().toNanos(), settings.getMaxDelay().toNanos());
+            }
+        }
+    }
+
+    private synchronized void deposit() {
+        budget = Math.min(settings.getMaxBudget(), budget + settings.getBudgetRatio());
+    }
+
+    private synchronized boolean withdraw() {
+        if (budget >= 1) {
+            budget -= 1;
+            return true;
+        }
+        budgetExhausted.increment();
+        return false;
+    }
+}
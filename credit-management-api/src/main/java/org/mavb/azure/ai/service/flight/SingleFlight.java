@@ -0,0 +1,68 @@
+package org.mavb.azure.ai.service.flight;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent calls with the same key into one execution.
+ * <p>
+ * The first caller for a key runs the call; callers arriving while it is in flight get the same result,
+ * or the same error. The key is released once the call terminates, so later callers run it again.
+ * A waiter cancelling does not cancel the shared call.
+ */
+public class SingleFlight<K, V> {
+
+    private final Map<K, Mono<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter executed;
+    private final Counter collapsed;
+
+    /**
+     * @param name Value of the {@code name} tag on the singleflight metrics
+     */
+    public SingleFlight(String name, MeterRegistry meterRegistry) {
+        this.executed = Counter.builder("singleflight.requests")
+                .tag("name", name)
+                .tag("result", "executed")
+                .register(meterRegistry);
+        this.collapsed = Counter.builder("singleflight.requests")
+                .description("Calls served by an identical call already in flight")
+                .tag("name", name)
+                .tag("result", "collapsed")
+                .register(meterRegistry);
+        Gauge.builder("singleflight.inflight", inFlight, Map::size)
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs the call, or joins the identical call already in flight for the key.
+     */
+    public Mono<V> execute(K key, Supplier<Mono<V>> call) {
+        return Mono.defer(() -> {
+            AtomicReference<Mono<V>> created = new AtomicReference<>();
+            Mono<V> shared = inFlight.computeIfAbsent(key, k -> {
+                Mono<V> flight = share(k, call);
+                created.set(flight);
+                return flight;
+            });
+            (created.get() == shared ? executed : collapsed).increment();
+            return shared;
+        });
+    }
+
+    private Mono<V> share(K key, Supplier<Mono<V>> call) {
+        AtomicReference<Mono<V>> self = new AtomicReference<>();
+        Mono<V> flight = Mono.defer(call)
+                .doFinally(signal -> inFlight.remove(key, self.get()))
+                .cache();
+        self.set(flight);
+        return flight;
+    }
+}
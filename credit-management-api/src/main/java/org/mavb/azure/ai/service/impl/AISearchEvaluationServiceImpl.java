@@ -1,7 +1,10 @@
 package org.mavb.azure.ai.service.impl;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.mavb.azure.ai.config.EvaluationProperties;
 import org.mavb.azure.ai.dto.projection.CustomerEmploymentData;
 import org.mavb.azure.ai.dto.projection.CustomerEmploymentProjection;
 import org.mavb.azure.ai.dto.request.EvaluationRequestDTO;
@@ -9,18 +12,27 @@ import org.mavb.azure.ai.dto.response.EvaluationResponseDTO;
 import org.mavb.azure.ai.entity.ProductDocument;
 import org.mavb.azure.ai.entity.RankDocument;
 import org.mavb.azure.ai.exception.EvaluationException;
+import org.mavb.azure.ai.exception.ServiceOverloadedException;
 import org.mavb.azure.ai.repository.CustomerRepository;
 import org.mavb.azure.ai.service.AISearchClient;
 import org.mavb.azure.ai.service.EvaluationService;
+import org.mavb.azure.ai.service.cache.CachedEvaluation;
+import org.mavb.azure.ai.service.cache.EvaluationResultCache;
+import org.mavb.azure.ai.service.embedding.ProductQueryEmbeddingGrid;
+import org.mavb.azure.ai.service.flight.SingleFlight;
+import org.mavb.azure.ai.service.index.RankMatch;
+import org.mavb.azure.ai.service.timing.EvaluationStage;
+import org.mavb.azure.ai.service.timing.StageTimer;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.Comparator;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
@@ -34,6 +46,17 @@ public class AISearchEvaluationServiceImpl implements EvaluationService {
     
     private final CustomerRepository customerRepository;
     private final AISearchClient aiSearchClient;
+    private final EvaluationProperties evaluationProperties;
+    private final EvaluationResultCache evaluationResultCache;
+    private final StageTimer stageTimer;
+    private final MeterRegistry meterRegistry;
+
+    private SingleFlight<String, CachedEvaluation> evaluations;
+
+    @PostConstruct
+    public void init() {
+        evaluations = new SingleFlight<>("evaluation", meterRegistry);
+    }
 
     @Override
     @Transactional
@@ -41,8 +64,41 @@ public class AISearchEvaluationServiceImpl implements EvaluationService {
         log.info("Starting AI Search-based credit evaluation for customer: {}, amount: {}", 
                 request.getIdentityDocument(), request.getRequestedAmount());
 
-        return Mono.fromCallable(() -> getCustomerEmploymentProjection(request.getIdentityDocument()))
+        if (!evaluationResultCache.isEnabled()) {
+            String flightKey = request.getIdentityDocument() + "|" + request.getRequestedAmount().stripTrailingZeros().toPlainString();
+            return evaluations.execute(flightKey, () -> evaluate(request))
+                    .flatMap(evaluation -> buildResponse(request, evaluation))
+                    .onErrorMap(e -> new EvaluationException("Error processing AI Search evaluation: " + e.getMessage(), e));
+        }
+
+        return Mono.fromCallable(() -> evaluationResultCache.keyFor(request.getIdentityDocument(), request.getRequestedAmount()))
                 .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(key -> Mono.justOrEmpty(evaluationResultCache.get(key))
+                        .doOnNext(cached -> log.debug("Evaluation cache hit for customer {}", request.getIdentityDocument()))
+                        // Requests in the same bucket get the same evaluation, so they can share the one in flight
+                        .switchIfEmpty(evaluations.execute(key.identityDocument() + "|" + key.amountBucket(), () -> {
+                            long generation = evaluationResultCache.generation();
+                            long staleServed = aiSearchClient.staleResultsServed();
+                            return evaluate(request)
+                                    // Evaluations built from fallback results are served but never cached
+                                    .doOnNext(evaluation -> {
+                                        if (aiSearchClient.staleResultsServed() == staleServed) {
+                                            evaluationResultCache.put(key, generation, evaluation);
+                                        }
+                                    });
+                        })))
+                .flatMap(evaluation -> buildResponse(request, evaluation))
+                .onErrorMap(e -> new EvaluationException("Error processing AI Search evaluation: " + e.getMessage(), e));
+    }
+
+    /**
+     * Loads the customer and runs both AI calls, the part of an evaluation that does not depend on the exact amount.
+     */
+    private Mono<CachedEvaluation> evaluate(EvaluationRequestDTO request) {
+        long startNanos = System.nanoTime();
+        return stageTimer.time(EvaluationStage.CUSTOMER_LOOKUP,
+                        Mono.fromCallable(() -> getCustomerEmploymentProjection(request.getIdentityDocument()))
+                                .subscribeOn(Schedulers.boundedElastic()))
                 .flatMap(customerData -> {
                     // Generate semantic description
                     String semanticDescription = customerData.generateSemanticDescription();
@@ -50,15 +106,81 @@ public class AISearchEvaluationServiceImpl implements EvaluationService {
                     
                     // Resolve rank reactively
                     return aiSearchClient.resolveRankReactive(semanticDescription)
-                            .flatMap(resolvedRank -> {
-                                String rankId = resolvedRank != null ? resolvedRank.getId() : "UNDEFINED";
+                            .map(Optional::of)
+                            .defaultIfEmpty(Optional.empty())
+                            .flatMap(rankMatch -> {
+                                RankMatch match = rankMatch.orElse(null);
+                                String rankId = match != null ? match.rank().getId() : ProductQueryEmbeddingGrid.UNDEFINED_RANK;
                                 
                                 // Search products reactively
                                 return aiSearchClient.searchProductsByRankAndAmountReactive(rankId, request.getRequestedAmount())
-                                        .map(productResults -> buildEvaluationResponse(request, customerData, resolvedRank, productResults));
+                                        .map(productResults -> new CachedEvaluation(customerData, match, productResults,
+                                                System.nanoTime() - startNanos));
                             });
+                });
+    }
+
+    private Mono<EvaluationResponseDTO> buildResponse(EvaluationRequestDTO request, CachedEvaluation evaluation) {
+        return stageTimer.time(EvaluationStage.RESPONSE_BUILD, response -> response.getClientProfile().getSemanticRank(),
+                Mono.fromSupplier(() -> buildEvaluationResponse(request, evaluation.customerData(), evaluation.rankMatch(),
+                        evaluation.productResults())));
+    }
+
+    @Override
+    public Flux<EvaluationResponseDTO> evaluateBatch(List<EvaluationRequestDTO> requests) {
+        log.info("Starting AI Search-based batch evaluation for {} requests", requests.size());
+
+        List<String> identityDocuments = requests.stream()
+                .map(EvaluationRequestDTO::getIdentityDocument)
+                .distinct()
+                .toList();
+
+        return stageTimer.time(EvaluationStage.CUSTOMER_LOOKUP,
+                        Mono.fromCallable(() -> getCustomerEmploymentProjections(identityDocuments))
+                                .subscribeOn(Schedulers.boundedElastic()))
+                .flatMapMany(projections -> {
+                    // Customers with the same profile share one rank resolution, same rank/amount pairs share one product search
+                    Map<String, Mono<Optional<RankMatch>>> rankResolutions = new ConcurrentHashMap<>();
+                    Map<String, Mono<List<AISearchClient.ProductSearchResult>>> productSearches = new ConcurrentHashMap<>();
+
+                    return Flux.fromIterable(requests)
+                            .flatMap(request -> evaluateBatchItem(request, projections.get(request.getIdentityDocument()),
+                                    rankResolutions, productSearches), evaluationProperties.getBatch().getConcurrency());
                 })
-                .onErrorMap(e -> new EvaluationException("Error processing AI Search evaluation: " + e.getMessage(), e));
+                .doOnComplete(() -> log.info("Batch evaluation completed for {} requests", requests.size()));
+    }
+
+    private Mono<EvaluationResponseDTO> evaluateBatchItem(
+            EvaluationRequestDTO request,
+            CustomerEmploymentProjection customerData,
+            Map<String, Mono<Optional<RankMatch>>> rankResolutions,
+            Map<String, Mono<List<AISearchClient.ProductSearchResult>>> productSearches) {
+
+        if (customerData == null) {
+            return Mono.just(buildFailedResponse(request, "Customer not found: " + request.getIdentityDocument()));
+        }
+
+        String semanticDescription = customerData.generateSemanticDescription();
+        return rankResolutions.computeIfAbsent(semanticDescription, description -> aiSearchClient.resolveRankReactive(description)
+                        .map(Optional::of)
+                        .defaultIfEmpty(Optional.empty())
+                        .onErrorResume(e -> !(e instanceof ServiceOverloadedException), e -> Mono.just(Optional.empty()))
+                        .cache())
+                .flatMap(rankMatch -> {
+                    RankMatch match = rankMatch.orElse(null);
+                    String rankId = match != null ? match.rank().getId() : ProductQueryEmbeddingGrid.UNDEFINED_RANK;
+                    String searchKey = rankId + "|" + request.getRequestedAmount().stripTrailingZeros().toPlainString();
+
+                    return productSearches.computeIfAbsent(searchKey, key -> aiSearchClient
+                                    .searchProductsByRankAndAmountReactive(rankId, request.getRequestedAmount())
+                                    .cache())
+                            .flatMap(productResults -> stageTimer.time(EvaluationStage.RESPONSE_BUILD, rankId,
+                                    Mono.fromSupplier(() -> buildEvaluationResponse(request, customerData, match, productResults))));
+                })
+                .onErrorResume(e -> {
+                    log.error("Batch evaluation failed for customer {}: {}", request.getIdentityDocument(), e.getMessage(), e);
+                    return Mono.just(buildFailedResponse(request, "Error processing AI Search evaluation: " + e.getMessage()));
+                });
     }
 
     /**
@@ -73,18 +195,40 @@ public class AISearchEvaluationServiceImpl implements EvaluationService {
             throw new EvaluationException("Customer not found: " + identityDocument);
         }
         
-        // Build projection from JPA interface projection results
-        CustomerEmploymentProjection projection = null;
+        CustomerEmploymentProjection projection = toProjections(rawData).get(identityDocument);
         
-        for (CustomerEmploymentData data : rawData) {
+        log.debug("Built customer projection with {} employment records", 
+                projection.getEmploymentHistory().size());
+        
+        return projection;
+    }
+
+    /**
+     * Gets employment projections for many customers, one LATERAL query per chunk of identity documents.
+     */
+    private Map<String, CustomerEmploymentProjection> getCustomerEmploymentProjections(List<String> identityDocuments) {
+        int chunkSize = evaluationProperties.getBatch().getQueryChunkSize();
+        Map<String, CustomerEmploymentProjection> projections = new HashMap<>();
+
+        for (int from = 0; from < identityDocuments.size(); from += chunkSize) {
+            List<String> chunk = identityDocuments.subList(from, Math.min(from + chunkSize, identityDocuments.size()));
+            projections.putAll(toProjections(customerRepository.findCustomerEmploymentDataForSemanticAnalysis(chunk)));
+        }
+
+        log.debug("Built {} customer projections for {} identity documents", projections.size(), identityDocuments.size());
+        return projections;
+    }
+
+    /**
+     * Builds projections from JPA interface projection rows, keeping each customer's row order.
+     */
+    private Map<String, CustomerEmploymentProjection> toProjections(List<CustomerEmploymentData> rows) {
+        Map<String, CustomerEmploymentProjection> projections = new LinkedHashMap<>();
+
+        for (CustomerEmploymentData data : rows) {
             // Initialize projection with customer data (first row)
-            if (projection == null) {
-                projection = new CustomerEmploymentProjection(
-                    data.getIdentityDocument(), 
-                    data.getMonthlyIncome(), 
-                    data.getCurrentDebt()
-                );
-            }
+            CustomerEmploymentProjection projection = projections.computeIfAbsent(data.getIdentityDocument(),
+                    id -> new CustomerEmploymentProjection(id, data.getMonthlyIncome(), data.getCurrentDebt()));
             
             // Add employment record if exists
             if (data.getStartDate() != null) {
@@ -96,26 +240,36 @@ public class AISearchEvaluationServiceImpl implements EvaluationService {
             }
         }
         
-        log.debug("Built customer projection with {} employment records", 
-                projection.getEmploymentHistory().size());
-        
-        return projection;
+        return projections;
+    }
+
+    /**
+     * Builds the batch result line for a request that could not be evaluated.
+     */
+    private EvaluationResponseDTO buildFailedResponse(EvaluationRequestDTO request, String error) {
+        return EvaluationResponseDTO.builder()
+                .clientProfile(EvaluationResponseDTO.ClientProfileDTO.builder()
+                        .identityDocument(request.getIdentityDocument())
+                        .build())
+                .eligibleProducts(List.of())
+                .error(error)
+                .build();
     }
 
     /**
      * Builds evaluation response.
      */
-    private EvaluationResponseDTO buildEvaluationResponse(
+    EvaluationResponseDTO buildEvaluationResponse(
             EvaluationRequestDTO request,
             CustomerEmploymentProjection customerData,
-            RankDocument resolvedRank,
+            RankMatch rankMatch,
             List<AISearchClient.ProductSearchResult> productResults) {
         
         log.debug("Building evaluation response");
         
         // Build client profile with semantic analysis
         EvaluationResponseDTO.ClientProfileDTO clientProfile = buildClientProfile(
-                customerData, resolvedRank, request.getRequestedAmount());
+                customerData, rankMatch, request.getRequestedAmount());
         
         // Convert product search results to eligible products
         List<EvaluationResponseDTO.EligibleProductDTO> eligibleProducts = productResults.stream()
@@ -138,9 +292,11 @@ public class AISearchEvaluationServiceImpl implements EvaluationService {
      */
     private EvaluationResponseDTO.ClientProfileDTO buildClientProfile(
             CustomerEmploymentProjection customerData,
-            RankDocument resolvedRank,
+            RankMatch rankMatch,
             BigDecimal requestedAmount) {
         
+        RankDocument resolvedRank = rankMatch != null ? rankMatch.rank() : null;
+        
         // Calculate basic credit score based on semantic rank
         int creditScore = calculateSemanticCreditScore(resolvedRank, customerData);
         
@@ -159,7 +315,7 @@ public class AISearchEvaluationServiceImpl implements EvaluationService {
                 .approvedAmount(approvedAmount)
                 .recommendedTerm("12 meses") // Default term
                 .semanticRank(resolvedRank != null ? resolvedRank.getId() : "UNDEFINED")
-                .semanticConfidence(resolvedRank != null ? 0.85 : 0.5) // High confidence if rank resolved
+                .semanticConfidence(rankMatch != null ? rankMatch.score() : 0.5) // Vector similarity of the resolved rank
                 .semanticDescription(customerData.generateSemanticDescription())
                 .build();
     }
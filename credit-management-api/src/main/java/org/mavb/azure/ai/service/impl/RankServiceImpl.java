@@ -1,14 +1,10 @@
 package org.mavb.azure.ai.service.impl;
 
-import com.azure.ai.openai.OpenAIClient;
-import com.azure.ai.openai.models.Embeddings;
-import com.azure.ai.openai.models.EmbeddingsOptions;
 import com.azure.search.documents.SearchClient;
 import com.azure.search.documents.models.*;
 import com.azure.search.documents.util.SearchPagedIterable;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.mavb.azure.ai.config.AzureProperties;
 import org.mavb.azure.ai.dto.request.CreateRankDTO;
 import org.mavb.azure.ai.dto.request.CreateRanksBatchDTO;
 import org.mavb.azure.ai.dto.request.RankFilterDTO;
@@ -22,7 +18,9 @@ import org.mavb.azure.ai.exception.RankNotFoundException;
 import org.mavb.azure.ai.mapper.RankMapper;
 import org.mavb.azure.ai.repository.RankRepository;
 import org.mavb.azure.ai.repository.RankSpecifications;
+import org.mavb.azure.ai.service.EmbeddingService;
 import org.mavb.azure.ai.service.RankService;
+import org.mavb.azure.ai.vector.EmbeddingVector;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -45,18 +43,15 @@ public class RankServiceImpl implements RankService {
 
     private final RankRepository rankRepository;
     private final RankMapper rankMapper;
-    private final OpenAIClient openAI;
+    private final EmbeddingService embeddingService;
     private final SearchClient rankSearch;
-    private final AzureProperties azure;
 
     public RankServiceImpl(RankRepository rankRepository, RankMapper rankMapper, 
-                          OpenAIClient openAI, @Qualifier("rankSearchClient") SearchClient rankSearch, 
-                          AzureProperties azure) {
+                          EmbeddingService embeddingService, @Qualifier("rankSearchClient") SearchClient rankSearch) {
         this.rankRepository = rankRepository;
         this.rankMapper = rankMapper;
-        this.openAI = openAI;
+        this.embeddingService = embeddingService;
         this.rankSearch = rankSearch;
-        this.azure = azure;
     }
 
     @Override
@@ -176,18 +171,9 @@ public class RankServiceImpl implements RankService {
         log.info("Resolving rank for client description using AI semantic search");
         
         try {
-            // Create embeddings options with proper configuration
-            EmbeddingsOptions options = new EmbeddingsOptions(List.of(clientDescription));
-            options.setUser("rank-resolution-system");
-            options.setInputType("text");
-            
-            Embeddings emb = openAI.getEmbeddings(
-                    azure.getOpenai().getEmbeddingModel(),
-                    options
-            );
-            List<Float> vector = emb.getData().get(0).getEmbedding().stream().map(Double::floatValue).toList();
+            EmbeddingVector vector = embeddingService.getEmbedding(clientDescription);
 
-            VectorizedQuery vectorQuery = new VectorizedQuery(vector)
+            VectorizedQuery vectorQuery = new VectorizedQuery(vector.asList())
                     .setKNearestNeighborsCount(1)
                     .setFields("embedding");
             
@@ -0,0 +1,170 @@
+package org.mavb.azure.ai.service.index;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.mavb.azure.ai.config.EvaluationProperties;
+import org.mavb.azure.ai.entity.ProductDocument;
+import org.mavb.azure.ai.entity.RankDocument;
+import org.mavb.azure.ai.mapper.ProductDocumentMapper;
+import org.mavb.azure.ai.mapper.RankDocumentMapper;
+import org.mavb.azure.ai.repository.CreditProductRepository;
+import org.mavb.azure.ai.repository.PgVectorRepository;
+import org.mavb.azure.ai.repository.RankRepository;
+import org.mavb.azure.ai.service.EmbeddingService;
+import org.mavb.azure.ai.vector.EmbeddingVector;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.function.Consumer;
+
+/**
+ * Vector search served by pgvector inside the credit database ({@code evaluation.vector-store.enabled}).
+ * Rank resolution and the filtered product search are each one SQL round trip, with no in-memory copy
+ * of the catalog and no AI Search call.
+ * <p>
+ * Embeddings are written alongside the AI Search sync and backfilled at startup, reusing the stored
+ * embeddings so unchanged products do not reach OpenAI again.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DatabaseVectorIndex {
+
+    private final PgVectorRepository pgVectorRepository;
+    private final CreditProductRepository productRepository;
+    private final RankRepository rankRepository;
+    private final ProductDocumentMapper productDocumentMapper;
+    private final RankDocumentMapper rankDocumentMapper;
+    private final EmbeddingService embeddingService;
+    private final EvaluationProperties evaluationProperties;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    private TransactionTemplate writeTemplate;
+    private TransactionTemplate searchTemplate;
+    private Timer productSearchTimer;
+    private Timer rankSearchTimer;
+    private volatile int dimensions;
+    private volatile boolean iterativeScan;
+    private volatile boolean loaded;
+
+    @PostConstruct
+    public void init() {
+        // Own transaction, so a failed vector write does not roll back the outbox batch that triggered it
+        writeTemplate = new TransactionTemplate(transactionManager);
+        writeTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        // Scan settings are SET LOCAL, so each search needs a transaction around it
+        searchTemplate = new TransactionTemplate(transactionManager);
+        searchTemplate.setReadOnly(true);
+        productSearchTimer = Timer.builder("vector.store.search")
+                .tag("index", "products")
+                .description("pgvector filtered kNN latency")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        rankSearchTimer = Timer.builder("vector.store.search")
+                .tag("index", "ranks")
+                .description("pgvector filtered kNN latency")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!evaluationProperties.getVectorStore().isEnabled()) {
+            return;
+        }
+        OptionalInt columnDimensions = pgVectorRepository.dimensions();
+        if (columnDimensions.isEmpty()) {
+            log.warn("Vector store enabled but the pgvector columns do not exist; install pgvector and restart to apply v_1_8_0");
+            return;
+        }
+        dimensions = columnDimensions.getAsInt();
+        try {
+            iterativeScan = pgVectorRepository.supportsIterativeScan();
+            if (!iterativeScan) {
+                log.warn("pgvector older than 0.8 has no iterative HNSW scans; filtered searches will use exact scans");
+            }
+            upsertProducts(productDocumentMapper.toProductDocuments(productRepository.findAll()));
+            upsertRanks(rankDocumentMapper.toRankDocuments(rankRepository.findAll()));
+            loaded = true;
+            log.info("✅ pgvector store loaded ({} dimensions, model {})", dimensions, embeddingService.version());
+        } catch (Exception e) {
+            log.error("❌ Failed to load pgvector store: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @return true once the startup backfill finished against existing pgvector columns
+     */
+    public boolean isReady() {
+        return loaded;
+    }
+
+    /**
+     * Stores product embeddings. Documents without an embedding of the column size are skipped.
+     */
+    public void upsertProducts(Collection<ProductDocument> documents) {
+        List<ProductDocument> compatible = documents.stream().filter(document -> fits(document.getEmbedding())).toList();
+        write(compatible, batch -> pgVectorRepository.saveProductEmbeddings(batch, embeddingService.version()));
+    }
+
+    public void upsertRanks(Collection<RankDocument> documents) {
+        List<RankDocument> compatible = documents.stream().filter(document -> fits(document.getEmbedding())).toList();
+        write(compatible, batch -> pgVectorRepository.saveRankEmbeddings(batch, embeddingService.version()));
+    }
+
+    /**
+     * Filtered top-k product search in one statement.
+     *
+     * @return Matches ordered by descending score; empty if the query does not fit the column
+     */
+    public List<ProductMatch> search(EmbeddingVector query, ProductFilter filter, int top) {
+        if (!fits(query) || top <= 0) {
+            return List.of();
+        }
+        return productSearchTimer.record(() -> searchTemplate.execute(status -> {
+            pgVectorRepository.configureScan(iterativeScan, top);
+            return pgVectorRepository.searchProducts(query, filter, top, embeddingService.version());
+        }));
+    }
+
+    /**
+     * @return Active rank closest to the query, or empty if none has a compatible embedding
+     */
+    public Optional<RankMatch> nearestRank(EmbeddingVector query) {
+        if (!fits(query)) {
+            return Optional.empty();
+        }
+        return rankSearchTimer.record(() -> searchTemplate.execute(status -> {
+            pgVectorRepository.configureScan(iterativeScan, 1);
+            return pgVectorRepository.nearestRank(query, embeddingService.version());
+        }));
+    }
+
+    private <T> void write(List<T> documents, Consumer<List<T>> save) {
+        if (dimensions == 0 || documents.isEmpty()) {
+            return;
+        }
+        try {
+            writeTemplate.executeWithoutResult(status -> save.accept(documents));
+        } catch (Exception e) {
+            // AI Search and the in-memory indexes stay authoritative; the next startup backfill repairs this
+            log.error("❌ Failed to store {} embeddings in pgvector: {}", documents.size(), e.getMessage(), e);
+        }
+    }
+
+    private boolean fits(EmbeddingVector vector) {
+        return vector != null && dimensions > 0 && vector.dimensions() == dimensions;
+    }
+}
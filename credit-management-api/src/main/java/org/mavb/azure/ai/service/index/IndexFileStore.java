@@ -0,0 +1,178 @@
+package org.mavb.azure.ai.service.index;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.mavb.azure.ai.config.EvaluationProperties;
+import org.mavb.azure.ai.entity.ProductDocument;
+import org.mavb.azure.ai.entity.RankDocument;
+import org.mavb.azure.ai.mapper.ProductDocumentMapper;
+import org.mavb.azure.ai.mapper.RankDocumentMapper;
+import org.mavb.azure.ai.service.EmbeddingService;
+import org.mavb.azure.ai.vector.EmbeddingVector;
+import org.mavb.azure.ai.vector.StoredVector;
+import org.mavb.azure.ai.vector.VectorFileStore;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Persists the embeddings of the local rank and product indexes in memory-mapped vector files
+ * ({@code evaluation.index-files}), so after a restart the indexes are filled from disk instead of
+ * re-embedding every rank and reading every stored product embedding.
+ * <p>
+ * Each vector is stored with the hash of the text it was embedded from. Replicas only refresh their own
+ * files for the changes they dispatch, and rows can be edited outside JPA, so a stored vector is only
+ * served while its hash matches the current text; otherwise the caller embeds the document again.
+ * <p>
+ * Files follow the synced changes; pending changes are folded into the files every compaction interval.
+ * When disabled, or if the files cannot be opened, every method is a no-op.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IndexFileStore {
+
+    private final EvaluationProperties evaluationProperties;
+    private final EmbeddingService embeddingService;
+    private final MeterRegistry meterRegistry;
+
+    private VectorFileStore ranks;
+    private VectorFileStore products;
+
+    @PostConstruct
+    public void init() {
+        EvaluationProperties.IndexFiles settings = evaluationProperties.getIndexFiles();
+        if (!settings.isEnabled()) {
+            return;
+        }
+        try {
+            Path directory = Path.of(settings.getDirectory());
+            ranks = VectorFileStore.open(directory, "ranks", embeddingService.version(), settings.getEncoding());
+            products = VectorFileStore.open(directory, "products", embeddingService.version(), settings.getEncoding());
+            Gauge.builder("index.files.pending", ranks, VectorFileStore::pendingChanges).tag("index", "ranks").register(meterRegistry);
+            Gauge.builder("index.files.pending", products, VectorFileStore::pendingChanges).tag("index", "products").register(meterRegistry);
+            log.info("✅ Index files opened in {}: {} ranks, {} products", directory.toAbsolutePath(), ranks.size(), products.size());
+        } catch (IOException | RuntimeException e) {
+            log.error("❌ Could not open index files, local indexes will load without them: {}", e.getMessage(), e);
+            ranks = null;
+            products = null;
+        }
+    }
+
+    /**
+     * @param current Rank mapped from the current row, without embedding
+     * @return The stored vector, if it was embedded from the rank's current description
+     */
+    public Optional<EmbeddingVector> rank(RankDocument current) {
+        return ranks != null ? find(ranks, current.getId(), RankDocumentMapper.searchTextHash(current)) : Optional.empty();
+    }
+
+    /**
+     * @param current Product mapped from the current row, without embedding
+     * @return The stored vector, if it was embedded from the product's current search text
+     */
+    public Optional<EmbeddingVector> product(ProductDocument current) {
+        return products != null ? find(products, current.getId(), ProductDocumentMapper.searchTextHash(current)) : Optional.empty();
+    }
+
+    public void saveRanks(Collection<RankDocument> documents) {
+        save(ranks, documents, RankDocument::getId, RankDocument::getEmbedding, RankDocumentMapper::searchTextHash);
+    }
+
+    public void saveProducts(Collection<ProductDocument> documents) {
+        save(products, documents, ProductDocument::getId, ProductDocument::getEmbedding, ProductDocumentMapper::searchTextHash);
+    }
+
+    public void removeRank(String rankId) {
+        remove(ranks, rankId);
+    }
+
+    public void removeProduct(String productId) {
+        remove(products, productId);
+    }
+
+    @Scheduled(fixedDelayString = "${evaluation.index-files.compaction-interval:PT10M}",
+            initialDelayString = "${evaluation.index-files.compaction-interval:PT10M}")
+    public void compact() {
+        compact(ranks);
+        compact(products);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (VectorFileStore store : new VectorFileStore[]{ranks, products}) {
+            if (store == null) {
+                continue;
+            }
+            try {
+                store.compact();
+                store.close();
+            } catch (IOException e) {
+                log.warn("Could not close index file cleanly, its change log will be replayed on startup: {}", e.getMessage());
+            }
+        }
+    }
+
+    private Optional<EmbeddingVector> find(VectorFileStore store, String id, String sourceHash) {
+        StoredVector stored = store.find(id);
+        if (stored == null) {
+            return Optional.empty();
+        }
+        if (!sourceHash.equals(stored.sourceHash())) {
+            log.debug("Stored vector of {} was embedded from another text, ignoring it", id);
+            return Optional.empty();
+        }
+        return Optional.of(stored.vector());
+    }
+
+    private <T> void save(VectorFileStore store, Collection<T> documents, Function<T, String> id,
+                          Function<T, EmbeddingVector> embedding, Function<T, String> sourceHash) {
+        if (store == null || documents.isEmpty()) {
+            return;
+        }
+        Map<String, StoredVector> vectors = new LinkedHashMap<>();
+        documents.forEach(document -> vectors.put(id.apply(document),
+                new StoredVector(embedding.apply(document), sourceHash.apply(document))));
+        try {
+            store.putAll(vectors);
+        } catch (IOException e) {
+            // The index in memory is still up to date; only the next warm start falls back to embedding
+            log.error("❌ Failed to write {} vectors to index file: {}", vectors.size(), e.getMessage(), e);
+        }
+    }
+
+    private void remove(VectorFileStore store, String id) {
+        if (store == null) {
+            return;
+        }
+        try {
+            store.remove(id);
+        } catch (IOException e) {
+            log.error("❌ Failed to remove vector {} from index file: {}", id, e.getMessage(), e);
+        }
+    }
+
+    private void compact(VectorFileStore store) {
+        if (store == null || store.pendingChanges() == 0) {
+            return;
+        }
+        try {
+            int pending = store.pendingChanges();
+            store.compact();
+            log.info("✅ Compacted index file: {} changes applied, {} vectors", pending, store.size());
+        } catch (IOException e) {
+            log.error("❌ Index file compaction failed: {}", e.getMessage(), e);
+        }
+    }
+}
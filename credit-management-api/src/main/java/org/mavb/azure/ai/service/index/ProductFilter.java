@@ -0,0 +1,14 @@
+package org.mavb.azure.ai.service.index;
+
+import java.math.BigDecimal;
+
+/**
+ * Local equivalent of the OData product filter: active products, optionally restricted
+ * by allowed rank, amount range and currency. Null fields are not applied.
+ */
+public record ProductFilter(String rank, BigDecimal amount, String currency) {
+
+    public static ProductFilter of(String rank, BigDecimal amount) {
+        return new ProductFilter(rank, amount, null);
+    }
+}
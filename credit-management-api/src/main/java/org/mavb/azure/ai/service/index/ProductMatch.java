@@ -0,0 +1,9 @@
+package org.mavb.azure.ai.service.index;
+
+import org.mavb.azure.ai.entity.ProductDocument;
+
+/**
+ * Product hit from the local index with its similarity score (same scale as Azure AI Search @search.score).
+ */
+public record ProductMatch(ProductDocument product, double score) {
+}
@@ -0,0 +1,417 @@
+package org.mavb.azure.ai.service.index;
+
+import com.azure.search.documents.SearchClient;
+import com.azure.search.documents.SearchDocument;
+import com.azure.search.documents.models.SearchOptions;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.mavb.azure.ai.config.EvaluationProperties;
+import org.mavb.azure.ai.entity.CreditProductEntity;
+import org.mavb.azure.ai.entity.ProductDocument;
+import org.mavb.azure.ai.mapper.ProductDocumentMapper;
+import org.mavb.azure.ai.repository.CreditProductRepository;
+import org.mavb.azure.ai.vector.EmbeddingVector;
+import org.mavb.azure.ai.vector.TopK;
+import org.mavb.azure.ai.vector.VectorEncoding;
+import org.mavb.azure.ai.vector.VectorMath;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory product vector index.
+ * Vectors live in one contiguous row-major array (float, int8 or sign bits depending on
+ * {@code evaluation.product-search.encoding}) and the active/rank/currency/amount predicates are
+ * evaluated as bitsets before the similarity scan over the survivors.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductVectorIndex {
+
+    private static final int REMOTE_CHECK_PAGE_SIZE = 1000;
+
+    private final CreditProductRepository productRepository;
+    private final ProductDocumentMapper productDocumentMapper;
+    @Qualifier("productSearchClient")
+    private final SearchClient productSearchClient;
+    private final MeterRegistry meterRegistry;
+    private final EvaluationProperties evaluationProperties;
+    private final IndexFileStore indexFileStore;
+
+    private final Map<String, ProductDocument> documents = new ConcurrentHashMap<>();
+    private final AtomicInteger remoteDrift = new AtomicInteger();
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    private volatile boolean loaded;
+    private Timer searchTimer;
+
+    @PostConstruct
+    public void init() {
+        searchTimer = Timer.builder("product.index.search")
+                .description("Local filtered vector search latency")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("product.index.size", this, index -> index.snapshot.size())
+                .register(meterRegistry);
+        Gauge.builder("product.index.vector.bytes", this, ProductVectorIndex::residentVectorBytes)
+                .description("Bytes held for product vectors, scanned structure plus the embeddings kept for rescoring")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("product.index.skipped", this, index -> index.snapshot.skipped.size())
+                .description("Products left out because their embedding dimensions differ from the index")
+                .register(meterRegistry);
+        Gauge.builder("product.index.remote.drift", remoteDrift, AtomicInteger::get)
+                .description("Documents missing on either side in the last consistency check")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try {
+            // Vectors in the index file are served right away when they were embedded from the product's
+            // current search text; the rest (edited on another replica or outside JPA) go through the mapper
+            List<ProductDocument> fromFile = new ArrayList<>();
+            List<CreditProductEntity> pending = new ArrayList<>();
+            for (CreditProductEntity product : productRepository.findAll()) {
+                ProductDocument current = productDocumentMapper.toProductDocument(product, EmbeddingVector.EMPTY);
+                indexFileStore.product(current).ifPresentOrElse(embedding -> {
+                    current.setEmbedding(embedding);
+                    fromFile.add(current);
+                }, () -> pending.add(product));
+            }
+            putAll(fromFile);
+            loaded = !fromFile.isEmpty();
+            // Stored embeddings are reused, so only products changed since they were last embedded reach OpenAI
+            if (!pending.isEmpty()) {
+                upsertAll(productDocumentMapper.toProductDocuments(pending));
+            }
+            loaded = true;
+            log.info("Product vector index loaded with {} products ({} kernel)", snapshot.size(), VectorMath.kernel());
+        } catch (Exception e) {
+            log.error("Failed to load product vector index: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Adds or replaces a product. Documents without an embedding are ignored.
+     */
+    public void upsert(ProductDocument document) {
+        if (!hasEmbedding(document)) {
+            return;
+        }
+        documents.put(document.getId(), document);
+        rebuild();
+        indexFileStore.saveProducts(List.of(document));
+        log.debug("Product {} added to local vector index", document.getId());
+    }
+
+    /**
+     * Bulk variant of {@link #upsert(ProductDocument)} that rebuilds the index once.
+     */
+    public void upsertAll(Collection<ProductDocument> batch) {
+        indexFileStore.saveProducts(putAll(batch));
+    }
+
+    public void remove(String productId) {
+        if (documents.remove(productId) != null) {
+            rebuild();
+        }
+        indexFileStore.removeProduct(productId);
+    }
+
+    /**
+     * @return true once the startup load finished and at least one product is available
+     */
+    public boolean isReady() {
+        return loaded && snapshot.size() > 0;
+    }
+
+    public int size() {
+        return snapshot.size();
+    }
+
+    /**
+     * @return Bytes held for the indexed vectors, including the float embeddings quantized encodings rescore with
+     */
+    public long residentVectorBytes() {
+        return snapshot.residentVectorBytes();
+    }
+
+    /**
+     * Exact top-k search restricted to the products that pass the filter.
+     *
+     * @param query Query embedding
+     * @param filter Pre-filter predicates
+     * @param top Maximum number of results
+     * @return Matches ordered by descending score
+     */
+    public List<ProductMatch> search(EmbeddingVector query, ProductFilter filter, int top) {
+        return searchTimer.record(() -> doSearch(snapshot, query, filter, top));
+    }
+
+    /**
+     * Compares the local id set with the remote products index and records the drift.
+     */
+    @Scheduled(fixedDelayString = "${evaluation.product-search.consistency-check-interval:PT10M}",
+            initialDelayString = "${evaluation.product-search.consistency-check-interval:PT10M}")
+    public void verifyAgainstRemote() {
+        if (!loaded) {
+            return;
+        }
+        try {
+            Set<String> remoteIds = productSearchClient.search("*", new SearchOptions()
+                            .setSelect("id")
+                            .setTop(REMOTE_CHECK_PAGE_SIZE), null)
+                    .stream()
+                    .map(result -> (String) result.getDocument(SearchDocument.class).get("id"))
+                    .collect(Collectors.toSet());
+            Set<String> localIds = new HashSet<>(documents.keySet());
+
+            Set<String> missingLocally = new HashSet<>(remoteIds);
+            missingLocally.removeAll(localIds);
+            Set<String> missingRemotely = new HashSet<>(localIds);
+            missingRemotely.removeAll(remoteIds);
+
+            remoteDrift.set(missingLocally.size() + missingRemotely.size());
+            if (missingLocally.isEmpty() && missingRemotely.isEmpty()) {
+                log.debug("Product vector index consistent with AI Search ({} documents)", localIds.size());
+            } else {
+                log.warn("Product vector index drift: missing locally {}, missing in AI Search {}",
+                        missingLocally, missingRemotely);
+            }
+        } catch (Exception e) {
+            log.error("Product index consistency check failed: {}", e.getMessage(), e);
+        }
+    }
+
+    static List<ProductMatch> doSearch(Snapshot snapshot, EmbeddingVector query, ProductFilter filter, int top) {
+        if (query == null || query.dimensions() != snapshot.dimensions || top <= 0) {
+            return List.of();
+        }
+
+        BitSet candidates = snapshot.candidates(filter);
+        float[] unitQuery = VectorMath.normalize(query);
+
+        TopK best;
+        if (snapshot.encoding == VectorEncoding.FLOAT32) {
+            best = exactScan(snapshot, unitQuery, candidates, top);
+        } else {
+            // Quantized codes only preselect candidates; their order is settled at full precision
+            TopK shortlist = approximateScan(snapshot, unitQuery, candidates, top * snapshot.rescoreMultiplier);
+            best = new TopK(top);
+            for (int i = 0; i < shortlist.size(); i++) {
+                int row = shortlist.row(i);
+                best.offer(row, VectorMath.cosine(unitQuery, snapshot.products.get(row).getEmbedding(), snapshot.inverseNorms[row]));
+            }
+        }
+
+        List<ProductMatch> matches = new ArrayList<>(best.size());
+        for (int i = 0; i < best.size(); i++) {
+            matches.add(new ProductMatch(snapshot.products.get(best.row(i)), VectorMath.cosineToSearchScore(best.score(i))));
+        }
+        return matches;
+    }
+
+    private static TopK exactScan(Snapshot snapshot, float[] unitQuery, BitSet candidates, int top) {
+        // Surviving rows are scored in one batched kernel call, then selected
+        int[] rows = candidates.stream().toArray();
+        float[] scores = new float[rows.length];
+        VectorMath.dotRows(unitQuery, snapshot.vectors, snapshot.dimensions, rows, rows.length, scores);
+        TopK best = new TopK(top);
+        for (int i = 0; i < rows.length; i++) {
+            best.offer(rows[i], scores[i]);
+        }
+        return best;
+    }
+
+    private static TopK approximateScan(Snapshot snapshot, float[] unitQuery, BitSet candidates, int limit) {
+        TopK shortlist = new TopK(limit);
+        if (snapshot.encoding == VectorEncoding.INT8) {
+            int dims = snapshot.dimensions;
+            byte[] queryCodes = new byte[dims];
+            VectorMath.quantizeInt8(unitQuery, queryCodes, 0);
+            for (int row = candidates.nextSetBit(0); row >= 0; row = candidates.nextSetBit(row + 1)) {
+                // The query scale is shared by every row, so it does not change the ranking
+                shortlist.offer(row, VectorMath.dot(queryCodes, 0, snapshot.codes, row * dims, dims) * snapshot.scales[row]);
+            }
+        } else {
+            int words = VectorMath.binaryWords(snapshot.dimensions);
+            long[] queryBits = new long[words];
+            VectorMath.binarize(unitQuery, queryBits, 0);
+            for (int row = candidates.nextSetBit(0); row >= 0; row = candidates.nextSetBit(row + 1)) {
+                shortlist.offer(row, -VectorMath.hamming(queryBits, 0, snapshot.bits, row * words, words));
+            }
+        }
+        return shortlist;
+    }
+
+    private List<ProductDocument> putAll(Collection<ProductDocument> batch) {
+        List<ProductDocument> indexed = batch.stream().filter(this::hasEmbedding).toList();
+        indexed.forEach(document -> documents.put(document.getId(), document));
+        rebuild();
+        return indexed;
+    }
+
+    private synchronized void rebuild() {
+        EvaluationProperties.ProductSearch settings = evaluationProperties.getProductSearch();
+        List<String> previouslySkipped = snapshot.skipped;
+        snapshot = Snapshot.of(new ArrayList<>(documents.values()), settings.getEncoding(), settings.getRescoreMultiplier());
+        if (!snapshot.skipped.isEmpty() && !snapshot.skipped.equals(previouslySkipped)) {
+            log.warn("Product vector index left out {} products whose embeddings do not have {} dimensions: {}",
+                    snapshot.skipped.size(), snapshot.dimensions, snapshot.skipped);
+        }
+    }
+
+    private boolean hasEmbedding(ProductDocument document) {
+        return document != null && document.getEmbedding() != null && !document.getEmbedding().isEmpty();
+    }
+
+    /**
+     * Immutable view of the index. Rebuilt on every change, which is fine for catalog-sized data.
+     * Only the structure selected by the encoding is populated; quantized encodings keep no normalized
+     * float copy and rescore against the documents' own embeddings, which therefore stay resident.
+     */
+    static final class Snapshot {
+
+        static final Snapshot EMPTY = of(List.of(), VectorEncoding.FLOAT32, 1);
+
+        final List<ProductDocument> products;
+        // Ids left out because their embedding has other dimensions, e.g. while a model change is re-embedding
+        final List<String> skipped;
+        final int dimensions;
+        final VectorEncoding encoding;
+        final int rescoreMultiplier;
+        final float[] vectors;
+        final byte[] codes;
+        final float[] scales;
+        final long[] bits;
+        final float[] inverseNorms;
+        final double[] minimumAmounts;
+        final double[] maximumAmounts;
+        final BitSet active;
+        final Map<String, BitSet> byRank;
+        final Map<String, BitSet> byCurrency;
+
+        private Snapshot(List<ProductDocument> products, List<String> skipped, int dimensions, VectorEncoding encoding,
+                         int rescoreMultiplier) {
+            int rows = products.size();
+            this.products = products;
+            this.skipped = skipped;
+            this.dimensions = dimensions;
+            this.encoding = encoding;
+            this.rescoreMultiplier = Math.max(1, rescoreMultiplier);
+            this.vectors = encoding == VectorEncoding.FLOAT32 ? new float[rows * dimensions] : null;
+            this.codes = encoding == VectorEncoding.INT8 ? new byte[rows * dimensions] : null;
+            this.scales = encoding == VectorEncoding.INT8 ? new float[rows] : null;
+            this.bits = encoding == VectorEncoding.BINARY ? new long[rows * VectorMath.binaryWords(dimensions)] : null;
+            this.inverseNorms = encoding != VectorEncoding.FLOAT32 ? new float[rows] : null;
+            this.minimumAmounts = new double[rows];
+            this.maximumAmounts = new double[rows];
+            this.active = new BitSet(rows);
+            this.byRank = new HashMap<>();
+            this.byCurrency = new HashMap<>();
+        }
+
+        static Snapshot of(List<ProductDocument> documents, VectorEncoding encoding, int rescoreMultiplier) {
+            int dimensions = majorityDimensions(documents);
+            Map<Boolean, List<ProductDocument>> byFit = documents.stream()
+                    .collect(Collectors.partitioningBy(document -> document.getEmbedding().dimensions() == dimensions));
+            List<ProductDocument> products = byFit.get(true);
+            List<String> skipped = byFit.get(false).stream().map(ProductDocument::getId).sorted().toList();
+
+            Snapshot snapshot = new Snapshot(products, skipped, dimensions, encoding, rescoreMultiplier);
+            int words = VectorMath.binaryWords(dimensions);
+            for (int row = 0; row < products.size(); row++) {
+                ProductDocument product = products.get(row);
+                float[] unit = VectorMath.normalize(product.getEmbedding());
+                switch (encoding) {
+                    case FLOAT32 -> System.arraycopy(unit, 0, snapshot.vectors, row * dimensions, dimensions);
+                    case INT8 -> snapshot.scales[row] = VectorMath.quantizeInt8(unit, snapshot.codes, row * dimensions);
+                    case BINARY -> VectorMath.binarize(unit, snapshot.bits, row * words);
+                }
+                if (snapshot.inverseNorms != null) {
+                    snapshot.inverseNorms[row] = VectorMath.inverseNorm(product.getEmbedding());
+                }
+
+                snapshot.minimumAmounts[row] = amountOrDefault(product.getMinimumAmount(), Double.NEGATIVE_INFINITY);
+                snapshot.maximumAmounts[row] = amountOrDefault(product.getMaximumAmount(), Double.POSITIVE_INFINITY);
+                if (Boolean.TRUE.equals(product.getActive())) {
+                    snapshot.active.set(row);
+                }
+                if (product.getAllowedRanks() != null) {
+                    for (String rank : product.getAllowedRanks()) {
+                        snapshot.byRank.computeIfAbsent(rank, key -> new BitSet()).set(row);
+                    }
+                }
+                if (product.getCurrency() != null) {
+                    snapshot.byCurrency.computeIfAbsent(product.getCurrency(), key -> new BitSet()).set(row);
+                }
+            }
+            return snapshot;
+        }
+
+        /**
+         * Dimension count shared by most documents, independent of their order; ties go to the larger count.
+         */
+        static int majorityDimensions(List<ProductDocument> documents) {
+            Map<Integer, Long> counts = documents.stream()
+                    .collect(Collectors.groupingBy(document -> document.getEmbedding().dimensions(), Collectors.counting()));
+            return counts.entrySet().stream()
+                    .max(Map.Entry.<Integer, Long>comparingByValue().thenComparing(Map.Entry.comparingByKey()))
+                    .map(Map.Entry::getKey)
+                    .orElse(0);
+        }
+
+        int size() {
+            return products.size();
+        }
+
+        long residentVectorBytes() {
+            long bytes = (long) products.size() * dimensions * Float.BYTES;
+            bytes += vectors != null ? (long) vectors.length * Float.BYTES : 0;
+            bytes += codes != null ? codes.length : 0;
+            bytes += scales != null ? (long) scales.length * Float.BYTES : 0;
+            bytes += bits != null ? (long) bits.length * Long.BYTES : 0;
+            bytes += inverseNorms != null ? (long) inverseNorms.length * Float.BYTES : 0;
+            return bytes;
+        }
+
+        BitSet candidates(ProductFilter filter) {
+            BitSet candidates = (BitSet) active.clone();
+            if (filter == null) {
+                return candidates;
+            }
+            if (filter.rank() != null && !filter.rank().isBlank()) {
+                candidates.and(byRank.getOrDefault(filter.rank(), new BitSet()));
+            }
+            if (filter.currency() != null && !filter.currency().isBlank()) {
+                candidates.and(byCurrency.getOrDefault(filter.currency(), new BitSet()));
+            }
+            if (filter.amount() != null) {
+                double amount = filter.amount().doubleValue();
+                for (int row = candidates.nextSetBit(0); row >= 0; row = candidates.nextSetBit(row + 1)) {
+                    if (minimumAmounts[row] > amount || maximumAmounts[row] < amount) {
+                        candidates.clear(row);
+                    }
+                }
+            }
+            return candidates;
+        }
+
+        private static double amountOrDefault(BigDecimal amount, double defaultValue) {
+            return amount != null ? amount.doubleValue() : defaultValue;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package org.mavb.azure.ai.service.index;
+
+import org.mavb.azure.ai.entity.RankDocument;
+
+/**
+ * Resolved rank with its similarity score (same scale as Azure AI Search @search.score).
+ */
+public record RankMatch(RankDocument rank, double score) {
+}
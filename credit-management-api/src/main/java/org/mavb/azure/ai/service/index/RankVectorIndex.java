@@ -0,0 +1,129 @@
+package org.mavb.azure.ai.service.index;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.mavb.azure.ai.entity.RankDocument;
+import org.mavb.azure.ai.entity.RankEntity;
+import org.mavb.azure.ai.mapper.RankDocumentMapper;
+import org.mavb.azure.ai.repository.RankRepository;
+import org.mavb.azure.ai.vector.EmbeddingVector;
+import org.mavb.azure.ai.vector.VectorMath;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory nearest-rank lookup over the rank embeddings.
+ * The ranks table is tiny, so an exact cosine scan is cheaper than a search round trip.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RankVectorIndex {
+
+    private final RankRepository rankRepository;
+    private final RankDocumentMapper rankDocumentMapper;
+    private final IndexFileStore indexFileStore;
+
+    private final Map<String, IndexedRank> ranks = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try {
+            int fromFile = 0;
+            for (RankEntity rank : rankRepository.findAll()) {
+                if (!Boolean.TRUE.equals(rank.getActive())) {
+                    continue;
+                }
+                // Stored vectors embedded from another description (edited on another replica or outside JPA) are not trusted
+                RankDocument current = rankDocumentMapper.toRankDocument(rank, EmbeddingVector.EMPTY);
+                Optional<EmbeddingVector> stored = indexFileStore.rank(current);
+                if (stored.isPresent()) {
+                    current.setEmbedding(stored.get());
+                    put(current);
+                    fromFile++;
+                } else {
+                    upsert(rankDocumentMapper.toRankDocumentSync(rank));
+                }
+            }
+            loaded = true;
+            log.info("Rank vector index loaded with {} ranks ({} from index file)", ranks.size(), fromFile);
+        } catch (Exception e) {
+            log.error("Failed to load rank vector index: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Adds or replaces a rank. Documents without an embedding are ignored.
+     */
+    public void upsert(RankDocument document) {
+        if (put(document)) {
+            indexFileStore.saveRanks(List.of(document));
+        }
+    }
+
+    public void remove(String rankId) {
+        ranks.remove(rankId);
+        indexFileStore.removeRank(rankId);
+    }
+
+    /**
+     * @return true once the startup load finished and at least one rank is available
+     */
+    public boolean isReady() {
+        return loaded && !ranks.isEmpty();
+    }
+
+    public int size() {
+        return ranks.size();
+    }
+
+    /**
+     * Finds the rank closest to the query embedding by cosine similarity.
+     *
+     * @param query Query embedding
+     * @return Best match, or empty if the index holds no compatible vector
+     */
+    public Optional<RankMatch> nearest(EmbeddingVector query) {
+        if (query == null || query.isEmpty()) {
+            return Optional.empty();
+        }
+
+        float[] unitQuery = VectorMath.normalize(query);
+        IndexedRank best = null;
+        float bestSimilarity = Float.NEGATIVE_INFINITY;
+        for (IndexedRank candidate : ranks.values()) {
+            if (candidate.unitVector().length != unitQuery.length) {
+                continue;
+            }
+            float similarity = VectorMath.dot(unitQuery, 0, candidate.unitVector(), 0, unitQuery.length);
+            if (similarity > bestSimilarity) {
+                bestSimilarity = similarity;
+                best = candidate;
+            }
+        }
+
+        if (best == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new RankMatch(best.document(), VectorMath.cosineToSearchScore(bestSimilarity)));
+    }
+
+    private boolean put(RankDocument document) {
+        if (document == null || document.getEmbedding() == null || document.getEmbedding().isEmpty()) {
+            return false;
+        }
+        ranks.put(document.getId(), new IndexedRank(document, VectorMath.normalize(document.getEmbedding())));
+        log.debug("Rank {} added to local vector index", document.getId());
+        return true;
+    }
+
+    private record IndexedRank(RankDocument document, float[] unitVector) {
+    }
+}
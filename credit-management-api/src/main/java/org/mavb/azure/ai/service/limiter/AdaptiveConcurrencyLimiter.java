@@ -0,0 +1,245 @@
+package org.mavb.azure.ai.service.limiter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.mavb.azure.ai.config.AzureProperties;
+import org.mavb.azure.ai.exception.ServiceOverloadedException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * AIMD concurrency limiter.
+ * <p>
+ * The limit grows by one per limit-sized window of successful calls while callers are using it, and
+ * shrinks by the backoff ratio on throttling or server errors, once per limit change so a burst of
+ * rejections from the same wave only counts once. A Retry-After from the server pauses admissions
+ * until it elapses. Callers over the limit wait in a FIFO queue; a caller that cannot be admitted
+ * before its queue deadline fails fast with {@link ServiceOverloadedException}.
+ */
+@Slf4j
+public class AdaptiveConcurrencyLimiter {
+
+    /**
+     * How a call ended, as far as the capacity of the service is concerned.
+     */
+    public enum Outcome {
+        SUCCESS,
+        THROTTLED,
+        DROPPED,
+        IGNORED
+    }
+
+    private final AzureProperties.OpenAI.Limiter settings;
+    private final Scheduler scheduler;
+    private final Deque<Waiter> queue = new ArrayDeque<>();
+    private final Timer latency;
+    private final Counter rejected;
+    private final Counter throttled;
+
+    // Guarded by this
+    private double limit;
+    private int inFlight;
+    private long pausedUntilNanos = System.nanoTime();
+    private long lastDecreaseNanos = System.nanoTime();
+    private boolean drainScheduled;
+
+    public AdaptiveConcurrencyLimiter(String name, AzureProperties.OpenAI.Limiter settings,
+                                      Scheduler scheduler, MeterRegistry meterRegistry) {
+        this.settings = settings;
+        this.scheduler = scheduler;
+        this.limit = Math.clamp(settings.getInitialLimit(), settings.getMinLimit(), settings.getMaxLimit());
+        this.latency = Timer.builder("limiter.latency")
+                .tag("name", name)
+                .register(meterRegistry);
+        this.rejected = Counter.builder("limiter.rejected")
+                .description("Calls shed because their queue deadline could not be met")
+                .tag("name", name)
+                .register(meterRegistry);
+        this.throttled = Counter.builder("limiter.throttled")
+                .tag("name", name)
+                .register(meterRegistry);
+        Gauge.builder("limiter.limit", this, AdaptiveConcurrencyLimiter::getLimit).tag("name", name).register(meterRegistry);
+        Gauge.builder("limiter.inflight", this, AdaptiveConcurrencyLimiter::getInFlight).tag("name", name).register(meterRegistry);
+        Gauge.builder("limiter.queue", this, AdaptiveConcurrencyLimiter::getQueued).tag("name", name).register(meterRegistry);
+    }
+
+    /**
+     * Waits for a permit. The permit must be completed exactly once with the outcome of the call.
+     */
+    public Mono<Permit> acquire() {
+        return Mono.defer(() -> {
+            Waiter waiter;
+            synchronized (this) {
+                long now = System.nanoTime();
+                if (queue.isEmpty() && now >= pausedUntilNanos && inFlight < (int) limit) {
+                    inFlight++;
+                    return Mono.just(new Permit(now));
+                }
+                long pauseNanos = Math.max(0, pausedUntilNanos - now);
+                if (queue.size() >= settings.getMaxQueueSize() || pauseNanos > settings.getQueueTimeout().toNanos()) {
+                    rejected.increment();
+                    return Mono.error(overloaded(Duration.ofNanos(Math.max(pauseNanos, settings.getQueueTimeout().toNanos()))));
+                }
+                waiter = new Waiter();
+                queue.addLast(waiter);
+                waiter.expiry = scheduler.schedule(() -> expire(waiter), settings.getQueueTimeout().toNanos(), TimeUnit.NANOSECONDS);
+                scheduleDrain(now);
+            }
+            return waiter.sink.asMono()
+                    .doOnNext(permit -> waiter.delivered = true)
+                    .doOnCancel(() -> abandon(waiter));
+        });
+    }
+
+    public synchronized double getLimit() {
+        return limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    public synchronized int getQueued() {
+        return queue.size();
+    }
+
+    private void complete(Permit permit, Outcome outcome, Duration retryAfter) {
+        long now = System.nanoTime();
+        if (outcome != Outcome.IGNORED) {
+            latency.record(now - permit.startNanos, TimeUnit.NANOSECONDS);
+        }
+        synchronized (this) {
+            boolean saturated = inFlight >= limit / 2;
+            inFlight--;
+            switch (outcome) {
+                case SUCCESS -> {
+                    if (saturated) {
+                        limit = Math.min(settings.getMaxLimit(), limit + 1 / limit);
+                    }
+                }
+                case THROTTLED, DROPPED -> {
+                    if (outcome == Outcome.THROTTLED) {
+                        throttled.increment();
+                    }
+                    // Calls started before the last decrease already saw the reduced limit
+                    if (permit.startNanos >= lastDecreaseNanos) {
+                        limit = Math.max(settings.getMinLimit(), limit * settings.getBackoffRatio());
+                        lastDecreaseNanos = now;
+                        log.warn("🔄 OpenAI concurrency limit reduced to {} after {}", (int) limit, outcome);
+                    }
+                    if (retryAfter != null && !retryAfter.isNegative()) {
+                        long pauseNanos = Math.min(retryAfter.toNanos(), settings.getMaxRetryAfter().toNanos());
+                        pausedUntilNanos = Math.max(pausedUntilNanos, now + pauseNanos);
+                    }
+                }
+                case IGNORED -> {
+                }
+            }
+        }
+        drain();
+    }
+
+    private void drain() {
+        List<Waiter> admitted = new ArrayList<>();
+        synchronized (this) {
+            long now = System.nanoTime();
+            while (!queue.isEmpty() && now >= pausedUntilNanos && inFlight < (int) limit) {
+                Waiter waiter = queue.pollFirst();
+                waiter.expiry.dispose();
+                waiter.permit = new Permit(now);
+                inFlight++;
+                admitted.add(waiter);
+            }
+            scheduleDrain(now);
+        }
+        admitted.forEach(waiter -> waiter.sink.tryEmitValue(waiter.permit));
+    }
+
+    // Admissions paused by a Retry-After need a wake-up, releases alone may never come
+    private void scheduleDrain(long now) {
+        if (!drainScheduled && !queue.isEmpty() && pausedUntilNanos > now) {
+            drainScheduled = true;
+            scheduler.schedule(() -> {
+                synchronized (this) {
+                    drainScheduled = false;
+                }
+                drain();
+            }, pausedUntilNanos - now, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void expire(Waiter waiter) {
+        boolean expired;
+        synchronized (this) {
+            expired = queue.remove(waiter);
+        }
+        if (expired) {
+            rejected.increment();
+            waiter.sink.tryEmitError(overloaded(settings.getQueueTimeout()));
+        }
+    }
+
+    private void abandon(Waiter waiter) {
+        Permit granted;
+        synchronized (this) {
+            if (queue.remove(waiter)) {
+                waiter.expiry.dispose();
+                return;
+            }
+            granted = waiter.delivered ? null : waiter.permit;
+        }
+        if (granted != null) {
+            granted.complete(Outcome.IGNORED, null);
+        }
+    }
+
+    private ServiceOverloadedException overloaded(Duration retryAfter) {
+        return new ServiceOverloadedException(
+                "Azure OpenAI is at its concurrency limit, request could not be admitted within " + settings.getQueueTimeout(),
+                retryAfter);
+    }
+
+    /**
+     * Admission to run one call.
+     */
+    public class Permit {
+
+        private final long startNanos;
+        private final AtomicBoolean completed = new AtomicBoolean();
+
+        private Permit(long startNanos) {
+            this.startNanos = startNanos;
+        }
+
+        /**
+         * Releases the permit; only the first completion counts.
+         *
+         * @param retryAfter Server-requested pause, or null
+         */
+        public void complete(Outcome outcome, Duration retryAfter) {
+            if (completed.compareAndSet(false, true)) {
+                AdaptiveConcurrencyLimiter.this.complete(this, outcome, retryAfter);
+            }
+        }
+    }
+
+    private class Waiter {
+        private final Sinks.One<Permit> sink = Sinks.one();
+        private Disposable expiry;
+        private Permit permit;
+        private volatile boolean delivered;
+    }
+}
@@ -0,0 +1,25 @@
+package org.mavb.azure.ai.service.sync;
+
+import org.mavb.azure.ai.dto.projection.ReindexCheckpoint;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Snapshot of a reindex run as reported by the reindex actuator endpoint.
+ *
+ * @param processed     Documents indexed so far, including those of resumed runs
+ * @param total         Rows in the source table when the run started
+ * @param docsPerSecond Throughput of the current run
+ * @param eta           Estimated time left, null when unknown
+ */
+public record ReindexProgress(ReindexCheckpoint.Target target,
+                              String state,
+                              long processed,
+                              long total,
+                              double docsPerSecond,
+                              Duration eta,
+                              String lastId,
+                              Instant startedAt,
+                              String error) {
+}
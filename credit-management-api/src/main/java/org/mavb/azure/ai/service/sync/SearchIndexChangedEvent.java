@@ -0,0 +1,10 @@
+package org.mavb.azure.ai.service.sync;
+
+import org.mavb.azure.ai.dto.projection.SearchSyncOutboxEntry;
+
+/**
+ * Published after documents of an index were written to AI Search and the local vector indexes,
+ * i.e. once searches can return different results.
+ */
+public record SearchIndexChangedEvent(SearchSyncOutboxEntry.AggregateType aggregateType, int documents) {
+}
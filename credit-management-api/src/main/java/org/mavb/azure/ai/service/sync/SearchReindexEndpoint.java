@@ -0,0 +1,47 @@
+package org.mavb.azure.ai.service.sync;
+
+import lombok.RequiredArgsConstructor;
+import org.mavb.azure.ai.dto.projection.ReindexCheckpoint;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Actuator endpoint to trigger and monitor bulk reindex runs.
+ * <ul>
+ *     <li>GET /actuator/reindex: progress, throughput and ETA per index</li>
+ *     <li>POST /actuator/reindex/{products|ranks}: starts or resumes a run ({"restart": true} starts over)</li>
+ * </ul>
+ */
+@Component
+@Endpoint(id = "reindex")
+@RequiredArgsConstructor
+public class SearchReindexEndpoint {
+
+    private final SearchReindexJob searchReindexJob;
+
+    @ReadOperation
+    public Map<ReindexCheckpoint.Target, ReindexProgress> status() {
+        return searchReindexJob.status();
+    }
+
+    @WriteOperation
+    public ReindexProgress start(@Selector String target, @Nullable Boolean restart) {
+        return searchReindexJob.start(parseTarget(target), Boolean.TRUE.equals(restart));
+    }
+
+    private ReindexCheckpoint.Target parseTarget(String target) {
+        try {
+            return ReindexCheckpoint.Target.valueOf(target.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidEndpointRequestException("Unknown reindex target: " + target,
+                    "Expected one of: products, ranks");
+        }
+    }
+}
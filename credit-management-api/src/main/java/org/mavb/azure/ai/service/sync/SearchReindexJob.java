@@ -0,0 +1,376 @@
+package org.mavb.azure.ai.service.sync;
+
+import com.azure.search.documents.SearchClient;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.mavb.azure.ai.config.AzureProperties;
+import org.mavb.azure.ai.dto.projection.ReindexCheckpoint;
+import org.mavb.azure.ai.dto.projection.ReindexCheckpoint.Status;
+import org.mavb.azure.ai.dto.projection.ReindexCheckpoint.Target;
+import org.mavb.azure.ai.dto.projection.SearchSyncOutboxEntry.AggregateType;
+import org.mavb.azure.ai.entity.CreditProductEntity;
+import org.mavb.azure.ai.entity.ProductDocument;
+import org.mavb.azure.ai.entity.RankDocument;
+import org.mavb.azure.ai.entity.RankEntity;
+import org.mavb.azure.ai.mapper.ProductDocumentMapper;
+import org.mavb.azure.ai.mapper.RankDocumentMapper;
+import org.mavb.azure.ai.repository.CreditProductRepository;
+import org.mavb.azure.ai.repository.RankRepository;
+import org.mavb.azure.ai.repository.ReindexCheckpointRepository;
+import org.mavb.azure.ai.service.index.ProductVectorIndex;
+import org.mavb.azure.ai.service.index.RankVectorIndex;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Rebuilds the products or ranks index from the database.
+ * Rows are read with a server-side cursor in id order, embedded in bulk per batch and uploaded by a bounded
+ * number of parallel workers. The checkpoint only advances past batches whose predecessors are all indexed,
+ * so an interrupted run resumes without gaps.
+ * <p>
+ * The cursor only decides which ids go into a batch. Each worker re-reads its rows under a shared lock and
+ * uploads them before committing. An edit made meanwhile waits for that commit, and its outbox entry is
+ * dispatched afterwards, so the reindex never overwrites a newer version synced by the dispatcher.
+ */
+@Component
+@Slf4j
+public class SearchReindexJob {
+
+    private final ReindexCheckpointRepository checkpointRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate lockingTransaction;
+    private final Executor jobExecutor;
+    private final Executor workerExecutor;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AzureProperties.Search.Reindex settings;
+    private final Map<Target, Source<?, ?>> sources = new EnumMap<>(Target.class);
+    private final Map<Target, Run> runs = new ConcurrentHashMap<>();
+
+    public SearchReindexJob(CreditProductRepository productRepository,
+                            RankRepository rankRepository,
+                            ProductDocumentMapper productDocumentMapper,
+                            RankDocumentMapper rankDocumentMapper,
+                            @Qualifier("productSearchClient") SearchClient productSearchClient,
+                            @Qualifier("rankSearchClient") SearchClient rankSearchClient,
+                            ProductVectorIndex productVectorIndex,
+                            RankVectorIndex rankVectorIndex,
+                            ReindexCheckpointRepository checkpointRepository,
+                            EntityManager entityManager,
+                            PlatformTransactionManager transactionManager,
+                            @Qualifier("searchReindexExecutor") Executor jobExecutor,
+                            @Qualifier("aiSearchSyncExecutor") Executor workerExecutor,
+                            ApplicationEventPublisher eventPublisher,
+                            AzureProperties azureProperties) {
+        this.checkpointRepository = checkpointRepository;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // Read-write, since PostgreSQL rejects SELECT ... FOR SHARE in read-only transactions
+        this.lockingTransaction = new TransactionTemplate(transactionManager);
+        this.jobExecutor = jobExecutor;
+        this.workerExecutor = workerExecutor;
+        this.eventPublisher = eventPublisher;
+        this.settings = azureProperties.getSearch().getReindex();
+
+        sources.put(Target.PRODUCTS, new Source<>(AggregateType.PRODUCT, productRepository::count, productRepository::streamAfter,
+                productRepository::findAllByIdForShare, CreditProductEntity::getId, productDocumentMapper::toProductDocuments, productSearchClient,
+                productVectorIndex::upsertAll));
+        sources.put(Target.RANKS, new Source<>(AggregateType.RANK, rankRepository::count, rankRepository::streamAfter,
+                rankRepository::findAllByIdForShare, RankEntity::getId, rankDocumentMapper::toRankDocuments, rankSearchClient,
+                documents -> documents.forEach(rankVectorIndex::upsert)));
+    }
+
+    /**
+     * Starts a reindex of the target in the background, resuming an unfinished run unless restart is set.
+     * Calling it while the target is being reindexed returns the progress of the current run.
+     */
+    public ReindexProgress start(Target target, boolean restart) {
+        Run run = runs.compute(target, (key, current) ->
+                current != null && current.isRunning() ? current : new Run(target));
+        if (run.claim()) {
+            jobExecutor.execute(() -> execute(run, restart));
+        }
+        return run.progress();
+    }
+
+    /**
+     * @return Progress of the current or last run per target, falling back to the stored checkpoint
+     */
+    public Map<Target, ReindexProgress> status() {
+        Map<Target, ReindexProgress> status = new EnumMap<>(Target.class);
+        for (Target target : Target.values()) {
+            Run run = runs.get(target);
+            if (run != null) {
+                status.put(target, run.progress());
+            } else {
+                checkpointRepository.find(target).ifPresent(checkpoint -> status.put(target, fromCheckpoint(checkpoint)));
+            }
+        }
+        return status;
+    }
+
+    void execute(Run run, boolean restart) {
+        Target target = run.target;
+        Source<?, ?> source = sources.get(target);
+        try {
+            Optional<ReindexCheckpoint> resumable = restart ? Optional.empty() : checkpointRepository.find(target)
+                    .filter(checkpoint -> checkpoint.status() != Status.COMPLETED);
+            String afterId = resumable.map(ReindexCheckpoint::lastId).orElse("");
+            long processed = resumable.map(ReindexCheckpoint::processed).orElse(0L);
+
+            checkpointRepository.begin(target, afterId, processed);
+            run.begin(source.count().get(), afterId, processed);
+            log.info("🔄 Reindexing {} from id '{}' ({} documents already indexed)", target, afterId, processed);
+
+            process(run, source, afterId);
+
+            checkpointRepository.finish(target, Status.COMPLETED, null);
+            run.complete();
+            log.info("✅ Reindex of {} completed: {} documents at {} docs/s", target,
+                    run.processed.get(), String.format("%.1f", run.progress().docsPerSecond()));
+        } catch (Exception e) {
+            log.error("❌ Reindex of {} stopped at id '{}': {}", target, run.lastId, e.getMessage(), e);
+            run.fail(e);
+            try {
+                checkpointRepository.finish(target, Status.FAILED, String.valueOf(e.getMessage()));
+            } catch (Exception checkpointError) {
+                log.warn("Could not record failure of reindex {}: {}", target, checkpointError.getMessage());
+            }
+        }
+    }
+
+    private <E, D> void process(Run run, Source<E, D> source, String afterId) throws Exception {
+        int batchSize = Math.max(1, settings.getBatchSize());
+        int parallelism = Math.max(1, settings.getParallelism());
+        Semaphore permits = new Semaphore(parallelism);
+        Watermark watermark = new Watermark(run);
+
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<E> rows = source.stream().apply(afterId)) {
+                Iterator<E> iterator = rows.iterator();
+                List<String> batch = new ArrayList<>(batchSize);
+                while (iterator.hasNext() && run.failure.get() == null) {
+                    batch.add(source.id().apply(iterator.next()));
+                    if (batch.size() == batchSize || !iterator.hasNext()) {
+                        permits.acquireUninterruptibly();
+                        submit(run, source, watermark, permits, batch);
+                        batch = new ArrayList<>(batchSize);
+                        // Workers re-read their rows, the streamed ones are no longer needed
+                        entityManager.clear();
+                    }
+                }
+            }
+        });
+
+        permits.acquireUninterruptibly(parallelism);
+        if (run.failure.get() != null) {
+            throw run.failure.get();
+        }
+    }
+
+    private <E, D> void submit(Run run, Source<E, D> source, Watermark watermark, Semaphore permits, List<String> batch) {
+        long sequence = watermark.register(batch.get(batch.size() - 1), batch.size());
+        CompletableFuture.runAsync(() -> index(source, batch), workerExecutor)
+                .whenComplete((ignored, error) -> {
+                    try {
+                        if (error != null) {
+                            run.failure.compareAndSet(null, error instanceof Exception exception
+                                    ? exception : new IllegalStateException(error));
+                        } else {
+                            watermark.complete(sequence);
+                        }
+                    } finally {
+                        permits.release();
+                    }
+                });
+    }
+
+    private <E, D> void index(Source<E, D> source, List<String> ids) {
+        int attempts = Math.max(1, settings.getMaxAttempts());
+        for (int attempt = 1; ; attempt++) {
+            try {
+                lockingTransaction.executeWithoutResult(status -> {
+                    // Rows deleted since they were streamed are left to the outbox delete
+                    List<E> rows = source.reload().apply(ids);
+                    if (rows.isEmpty()) {
+                        return;
+                    }
+                    List<D> documents = source.toDocuments().apply(rows);
+                    source.searchClient().mergeOrUploadDocuments(documents);
+                    source.localIndex().accept(documents);
+                    eventPublisher.publishEvent(new SearchIndexChangedEvent(source.aggregateType(), documents.size()));
+                });
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= attempts) {
+                    throw e;
+                }
+                long backoff = settings.getRetryBackoff().toMillis() << (attempt - 1);
+                log.warn("Reindex batch failed (attempt {}/{}), retrying in {} ms: {}", attempt, attempts, backoff, e.getMessage());
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private ReindexProgress fromCheckpoint(ReindexCheckpoint checkpoint) {
+        // A RUNNING checkpoint without an in-memory run belongs to a process that stopped mid-run
+        String state = checkpoint.status() == Status.RUNNING ? "INTERRUPTED" : checkpoint.status().name();
+        return new ReindexProgress(checkpoint.target(), state, checkpoint.processed(), -1, 0, null,
+                checkpoint.lastId(), null, checkpoint.lastError());
+    }
+
+    /**
+     * How to read, embed and publish one kind of document.
+     */
+    private record Source<E, D>(AggregateType aggregateType,
+                                Supplier<Long> count,
+                                Function<String, Stream<E>> stream,
+                                Function<List<String>, List<E>> reload,
+                                Function<E, String> id,
+                                Function<List<E>, List<D>> toDocuments,
+                                SearchClient searchClient,
+                                Consumer<List<D>> localIndex) {
+    }
+
+    /**
+     * Advances the checkpoint to the end of the longest prefix of completed batches.
+     */
+    private class Watermark {
+
+        private final Run run;
+        private final TreeMap<Long, Batch> pending = new TreeMap<>();
+        private long nextSequence;
+
+        Watermark(Run run) {
+            this.run = run;
+        }
+
+        synchronized long register(String lastId, int size) {
+            pending.put(nextSequence, new Batch(lastId, size));
+            return nextSequence++;
+        }
+
+        synchronized void complete(long sequence) {
+            pending.get(sequence).done = true;
+            run.indexed.addAndGet(pending.get(sequence).size);
+
+            Batch last = null;
+            long processed = run.processed.get();
+            while (!pending.isEmpty() && pending.firstEntry().getValue().done) {
+                last = pending.pollFirstEntry().getValue();
+                processed += last.size;
+            }
+            if (last != null) {
+                checkpointRepository.advance(run.target, last.lastId, processed);
+                run.lastId = last.lastId;
+                run.processed.set(processed);
+            }
+        }
+
+        private static final class Batch {
+            private final String lastId;
+            private final int size;
+            private boolean done;
+
+            Batch(String lastId, int size) {
+                this.lastId = lastId;
+                this.size = size;
+            }
+        }
+    }
+
+    /**
+     * In-memory state of one run, read by the actuator endpoint.
+     */
+    static final class Run {
+
+        private final Target target;
+        private final AtomicReference<Exception> failure = new AtomicReference<>();
+        private final AtomicLong processed = new AtomicLong();
+        private final AtomicLong indexed = new AtomicLong();
+        private volatile String state = "PENDING";
+        private volatile boolean claimed;
+        private volatile long total = -1;
+        private volatile String lastId = "";
+        private volatile Instant startedAt;
+        private volatile Instant finishedAt;
+
+        Run(Target target) {
+            this.target = target;
+        }
+
+        synchronized boolean claim() {
+            if (claimed) {
+                return false;
+            }
+            claimed = true;
+            return true;
+        }
+
+        boolean isRunning() {
+            return "PENDING".equals(state) || "RUNNING".equals(state);
+        }
+
+        void begin(long total, String lastId, long processed) {
+            this.total = total;
+            this.lastId = lastId;
+            this.processed.set(processed);
+            this.startedAt = Instant.now();
+            this.state = "RUNNING";
+        }
+
+        void complete() {
+            finishedAt = Instant.now();
+            state = Status.COMPLETED.name();
+        }
+
+        void fail(Exception e) {
+            failure.compareAndSet(null, e);
+            finishedAt = Instant.now();
+            state = Status.FAILED.name();
+        }
+
+        ReindexProgress progress() {
+            Instant started = startedAt;
+            double docsPerSecond = 0;
+            Duration eta = null;
+            if (started != null) {
+                Instant end = finishedAt != null ? finishedAt : Instant.now();
+                double elapsedSeconds = Math.max(0.001, Duration.between(started, end).toMillis() / 1000.0);
+                docsPerSecond = indexed.get() / elapsedSeconds;
+                long remaining = Math.max(0, total - processed.get());
+                if (finishedAt != null) {
+                    eta = Duration.ZERO;
+                } else if (docsPerSecond > 0) {
+                    eta = Duration.ofMillis(Math.round(remaining / docsPerSecond * 1000));
+                }
+            }
+            Exception error = failure.get();
+            return new ReindexProgress(target, state, processed.get(), total, docsPerSecond, eta, lastId,
+                    started, error != null ? error.getMessage() : null);
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package org.mavb.azure.ai.service.sync;
+
+import com.azure.core.util.Context;
+import com.azure.search.documents.SearchClient;
+import com.azure.search.documents.indexes.models.IndexDocumentsBatch;
+import com.azure.search.documents.models.IndexDocumentsOptions;
+import com.azure.search.documents.models.IndexDocumentsResult;
+import com.azure.search.documents.models.IndexingResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.mavb.azure.ai.config.AzureProperties;
+import org.mavb.azure.ai.dto.projection.SearchSyncOutboxEntry;
+import org.mavb.azure.ai.dto.projection.SearchSyncOutboxEntry.AggregateType;
+import org.mavb.azure.ai.dto.projection.SearchSyncOutboxEntry.Operation;
+import org.mavb.azure.ai.entity.CreditProductEntity;
+import org.mavb.azure.ai.entity.ProductDocument;
+import org.mavb.azure.ai.entity.RankDocument;
+import org.mavb.azure.ai.entity.RankEntity;
+import org.mavb.azure.ai.mapper.ProductDocumentMapper;
+import org.mavb.azure.ai.mapper.RankDocumentMapper;
+import org.mavb.azure.ai.repository.CreditProductRepository;
+import org.mavb.azure.ai.repository.RankRepository;
+import org.mavb.azure.ai.repository.SearchSyncOutboxRepository;
+import org.mavb.azure.ai.service.embedding.ProductQueryEmbeddingGrid;
+import org.mavb.azure.ai.service.index.DatabaseVectorIndex;
+import org.mavb.azure.ai.service.index.ProductVectorIndex;
+import org.mavb.azure.ai.service.index.RankVectorIndex;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Drains the search_sync_outbox table into the AI Search indexes in batches.
+ * Each batch embeds all changed documents with bulk OpenAI requests and sends one
+ * IndexDocumentsBatch per index; failed entries are retried with exponential backoff.
+ */
+@Component
+@Slf4j
+public class SearchSyncDispatcher {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final SearchSyncOutboxRepository outboxRepository;
+    private final CreditProductRepository productRepository;
+    private final RankRepository rankRepository;
+    private final ProductDocumentMapper productDocumentMapper;
+    private final RankDocumentMapper rankDocumentMapper;
+    private final SearchClient productSearchClient;
+    private final SearchClient rankSearchClient;
+    private final ProductVectorIndex productVectorIndex;
+    private final RankVectorIndex rankVectorIndex;
+    private final DatabaseVectorIndex databaseVectorIndex;
+    private final ProductQueryEmbeddingGrid productQueryEmbeddingGrid;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AzureProperties.Search.Sync settings;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicLong backlogDepth = new AtomicLong();
+    private final AtomicLong lagMillis = new AtomicLong();
+    private Counter dispatched;
+    private Counter failed;
+
+    public SearchSyncDispatcher(SearchSyncOutboxRepository outboxRepository,
+                                CreditProductRepository productRepository,
+                                RankRepository rankRepository,
+                                ProductDocumentMapper productDocumentMapper,
+                                RankDocumentMapper rankDocumentMapper,
+                                @Qualifier("productSearchClient") SearchClient productSearchClient,
+                                @Qualifier("rankSearchClient") SearchClient rankSearchClient,
+                                ProductVectorIndex productVectorIndex,
+                                RankVectorIndex rankVectorIndex,
+                                DatabaseVectorIndex databaseVectorIndex,
+                                ProductQueryEmbeddingGrid productQueryEmbeddingGrid,
+                                PlatformTransactionManager transactionManager,
+                                ApplicationEventPublisher eventPublisher,
+                                AzureProperties azureProperties,
+                                MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.productRepository = productRepository;
+        this.rankRepository = rankRepository;
+        this.productDocumentMapper = productDocumentMapper;
+        this.rankDocumentMapper = rankDocumentMapper;
+        this.productSearchClient = productSearchClient;
+        this.rankSearchClient = rankSearchClient;
+        this.productVectorIndex = productVectorIndex;
+        this.rankVectorIndex = rankVectorIndex;
+        this.databaseVectorIndex = databaseVectorIndex;
+        this.productQueryEmbeddingGrid = productQueryEmbeddingGrid;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.settings = azureProperties.getSearch().getSync();
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void init() {
+        Gauge.builder("search.sync.outbox.backlog", backlogDepth, AtomicLong::get)
+                .description("Outbox entries waiting to be indexed")
+                .register(meterRegistry);
+        Gauge.builder("search.sync.outbox.lag", lagMillis, value -> value.get() / 1000.0)
+                .description("Age of the oldest pending outbox entry")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        dispatched = Counter.builder("search.sync.documents").tag("outcome", "success").register(meterRegistry);
+        failed = Counter.builder("search.sync.documents").tag("outcome", "failure").register(meterRegistry);
+    }
+
+    /**
+     * Processes due outbox entries until a batch comes back smaller than the batch size.
+     */
+    @Scheduled(fixedDelayString = "${azure.search.sync.poll-interval:PT2S}")
+    public void dispatch() {
+        try {
+            Integer claimed;
+            do {
+                claimed = transactionTemplate.execute(status -> dispatchBatch());
+            } while (claimed != null && claimed >= settings.getBatchSize());
+        } catch (Exception e) {
+            log.error("❌ AI Search outbox dispatch failed: {}", e.getMessage(), e);
+        } finally {
+            refreshBacklogMetrics();
+        }
+    }
+
+    int dispatchBatch() {
+        List<SearchSyncOutboxEntry> entries = outboxRepository.claimDue(settings.getBatchSize());
+        if (entries.isEmpty()) {
+            return 0;
+        }
+
+        Map<AggregateType, List<SearchSyncOutboxEntry>> byType = entries.stream()
+                .collect(Collectors.groupingBy(SearchSyncOutboxEntry::aggregateType));
+
+        syncAggregates(byType.getOrDefault(AggregateType.PRODUCT, List.of()), this::syncProducts);
+        syncAggregates(byType.getOrDefault(AggregateType.RANK, List.of()), this::syncRanks);
+
+        return entries.size();
+    }
+
+    /**
+     * Applies the latest operation per aggregate and settles every claimed entry of that aggregate.
+     */
+    private void syncAggregates(List<SearchSyncOutboxEntry> entries, Function<Map<String, Operation>, Map<String, String>> sync) {
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        // Entries are ordered by id, so the last operation for an aggregate wins
+        Map<String, Operation> latest = new LinkedHashMap<>();
+        entries.forEach(entry -> latest.put(entry.aggregateId(), entry.operation()));
+
+        Map<String, String> failures;
+        try {
+            failures = sync.apply(latest);
+        } catch (Exception e) {
+            log.error("❌ AI Search sync of {} {} documents failed: {}", latest.size(),
+                    entries.get(0).aggregateType(), e.getMessage(), e);
+            failures = latest.keySet().stream().collect(Collectors.toMap(Function.identity(), id -> describe(e)));
+        }
+
+        List<Long> succeededIds = new ArrayList<>();
+        Map<String, List<Long>> failedIdsByError = new HashMap<>();
+        for (SearchSyncOutboxEntry entry : entries) {
+            String error = failures.get(entry.aggregateId());
+            if (error == null) {
+                succeededIds.add(entry.id());
+            } else {
+                failedIdsByError.computeIfAbsent(error, key -> new ArrayList<>()).add(entry.id());
+            }
+        }
+
+        outboxRepository.delete(succeededIds);
+        failedIdsByError.forEach((error, ids) ->
+                outboxRepository.markFailed(ids, error, settings.getInitialBackoff(), settings.getMaxBackoff()));
+
+        if (failures.size() < latest.size()) {
+            eventPublisher.publishEvent(new SearchIndexChangedEvent(entries.get(0).aggregateType(), latest.size() - failures.size()));
+        }
+        dispatched.increment(latest.size() - failures.size());
+        failed.increment(failures.size());
+        log.info("✅ AI Search sync of {} documents: {} succeeded, {} failed",
+                entries.get(0).aggregateType(), latest.size() - failures.size(), failures.size());
+    }
+
+    private Map<String, String> syncProducts(Map<String, Operation> operations) {
+        List<CreditProductEntity> products = productRepository.findAllById(idsWith(operations, Operation.UPSERT));
+        Set<String> existing = products.stream().map(CreditProductEntity::getId).collect(Collectors.toSet());
+        // Upserts whose row is gone by now are applied as deletes
+        List<String> deletes = operations.keySet().stream().filter(id -> !existing.contains(id)).toList();
+        List<ProductDocument> documents = products.isEmpty() ? List.of() : productDocumentMapper.toProductDocuments(products);
+
+        IndexDocumentsBatch<ProductDocument> batch = new IndexDocumentsBatch<ProductDocument>()
+                .addMergeOrUploadActions(documents);
+        if (!deletes.isEmpty()) {
+            batch.addDeleteActions("id", deletes);
+        }
+        Map<String, String> failures = index(productSearchClient, batch);
+
+        List<ProductDocument> indexed = documents.stream().filter(document -> !failures.containsKey(document.getId())).toList();
+        indexed.forEach(productVectorIndex::upsert);
+        databaseVectorIndex.upsertProducts(indexed);
+        deletes.stream().filter(id -> !failures.containsKey(id)).forEach(productVectorIndex::remove);
+        products.stream().filter(product -> !failures.containsKey(product.getId())).forEach(productQueryEmbeddingGrid::onProductChanged);
+        return failures;
+    }
+
+    private Map<String, String> syncRanks(Map<String, Operation> operations) {
+        List<RankEntity> ranks = rankRepository.findAllById(idsWith(operations, Operation.UPSERT));
+        Set<String> existing = ranks.stream().map(RankEntity::getId).collect(Collectors.toSet());
+        List<String> deletes = operations.keySet().stream().filter(id -> !existing.contains(id)).toList();
+        List<RankDocument> documents = ranks.isEmpty() ? List.of() : rankDocumentMapper.toRankDocuments(ranks);
+
+        IndexDocumentsBatch<RankDocument> batch = new IndexDocumentsBatch<RankDocument>()
+                .addMergeOrUploadActions(documents);
+        if (!deletes.isEmpty()) {
+            batch.addDeleteActions("id", deletes);
+        }
+        Map<String, String> failures = index(rankSearchClient, batch);
+
+        // Like the startup load, only active ranks are matchable locally; pgvector filters on the row's own active flag
+        Set<String> inactive = ranks.stream()
+                .filter(rank -> !Boolean.TRUE.equals(rank.getActive()))
+                .map(RankEntity::getId)
+                .collect(Collectors.toSet());
+        List<RankDocument> indexed = documents.stream()
+                .filter(document -> !failures.containsKey(document.getId()) && !inactive.contains(document.getId()))
+                .toList();
+        indexed.forEach(rankVectorIndex::upsert);
+        databaseVectorIndex.upsertRanks(indexed);
+        inactive.stream().filter(id -> !failures.containsKey(id)).forEach(rankVectorIndex::remove);
+        deletes.stream().filter(id -> !failures.containsKey(id)).forEach(rankVectorIndex::remove);
+        ranks.stream().filter(rank -> !failures.containsKey(rank.getId())).forEach(rank -> productQueryEmbeddingGrid.onRankChanged(rank.getId()));
+        return failures;
+    }
+
+    /**
+     * Sends one batch without throwing on partial failures.
+     *
+     * @return Error message per document key that was not indexed
+     */
+    private <T> Map<String, String> index(SearchClient searchClient, IndexDocumentsBatch<T> batch) {
+        if (batch.getActions().isEmpty()) {
+            return Map.of();
+        }
+
+        IndexDocumentsResult result = searchClient.indexDocumentsWithResponse(batch,
+                new IndexDocumentsOptions().setThrowOnAnyError(false), Context.NONE).getValue();
+
+        Map<String, String> failures = new HashMap<>();
+        for (IndexingResult indexResult : result.getResults()) {
+            if (!indexResult.isSucceeded()) {
+                failures.put(indexResult.getKey(), "HTTP " + indexResult.getStatusCode() + ": " + indexResult.getErrorMessage());
+            }
+        }
+        return failures;
+    }
+
+    private void refreshBacklogMetrics() {
+        try {
+            SearchSyncOutboxRepository.Backlog backlog = outboxRepository.backlog();
+            backlogDepth.set(backlog.depth());
+            lagMillis.set(Math.round(backlog.lagSeconds() * 1000));
+        } catch (Exception e) {
+            log.warn("Could not read AI Search outbox backlog: {}", e.getMessage());
+        }
+    }
+
+    private List<String> idsWith(Map<String, Operation> operations, Operation operation) {
+        return operations.entrySet().stream()
+                .filter(entry -> entry.getValue() == operation)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    private String describe(Exception e) {
+        String message = e.getClass().getSimpleName() + ": " + e.getMessage();
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+}
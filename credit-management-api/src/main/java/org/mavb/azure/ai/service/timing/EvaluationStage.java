@@ -0,0 +1,19 @@
+package org.mavb.azure.ai.service.timing;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Stages of a credit evaluation, used as the {@code stage} tag of the stage timers.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum EvaluationStage {
+    CUSTOMER_LOOKUP("customer_lookup"),
+    EMBEDDING("embedding"),
+    RANK_SEARCH("rank_search"),
+    PRODUCT_SEARCH("product_search"),
+    RESPONSE_BUILD("response_build");
+
+    private final String tag;
+}
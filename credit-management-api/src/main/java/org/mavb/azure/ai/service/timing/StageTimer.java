@@ -0,0 +1,70 @@
+package org.mavb.azure.ai.service.timing;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Times evaluation stages into {@code evaluation.stage.latency} (tags stage, outcome, rank), with percentile
+ * histograms so dashboards can tell which stage a latency regression comes from.
+ * The duration is also added to the request {@link StageTimings} when the subscriber context carries one.
+ */
+@Component
+@RequiredArgsConstructor
+public class StageTimer {
+
+    private static final String NO_RANK = "none";
+
+    private final MeterRegistry meterRegistry;
+
+    public <T> Mono<T> time(EvaluationStage stage, Mono<T> mono) {
+        return time(stage, NO_RANK, value -> NO_RANK, mono);
+    }
+
+    public <T> Mono<T> time(EvaluationStage stage, String rankId, Mono<T> mono) {
+        return time(stage, rankId, value -> rankId, mono);
+    }
+
+    /**
+     * @param rankOf Rank tag derived from the emitted value; empty or failed stages are tagged with the rank "none"
+     */
+    public <T> Mono<T> time(EvaluationStage stage, Function<? super T, String> rankOf, Mono<T> mono) {
+        return time(stage, NO_RANK, rankOf, mono);
+    }
+
+    private <T> Mono<T> time(EvaluationStage stage, String initialRank, Function<? super T, String> rankOf, Mono<T> mono) {
+        return Mono.deferContextual(context -> {
+            StageTimings timings = context.getOrDefault(StageTimings.class, null);
+            long startNanos = System.nanoTime();
+            // Recorded before the value reaches downstream operators, so a response built from it sees every stage
+            return mono
+                    .doOnSuccess(value -> record(stage, value != null ? "success" : "empty",
+                            value != null ? rankOf.apply(value) : initialRank, startNanos, timings))
+                    .doOnError(error -> record(stage, "error", initialRank, startNanos, timings))
+                    .doOnCancel(() -> record(stage, "cancelled", initialRank, startNanos, timings));
+        });
+    }
+
+    private void record(EvaluationStage stage, String outcome, String rankId, long startNanos, StageTimings timings) {
+        long nanos = System.nanoTime() - startNanos;
+        if (timings != null) {
+            timings.add(stage, nanos);
+        }
+        Timer.builder("evaluation.stage.latency")
+                .description("Duration of each credit evaluation stage")
+                .tag("stage", stage.getTag())
+                .tag("outcome", outcome)
+                .tag("rank", rankId != null ? rankId : NO_RANK)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+}
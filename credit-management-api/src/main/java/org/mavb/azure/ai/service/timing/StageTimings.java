@@ -0,0 +1,36 @@
+package org.mavb.azure.ai.service.timing;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+
+/**
+ * Stage durations of a single request, collected when an instance is present in the Reactor context
+ * under the {@code StageTimings.class} key.
+ */
+public class StageTimings {
+
+    private final Queue<Entry> entries = new ConcurrentLinkedQueue<>();
+
+    public void add(EvaluationStage stage, long nanos) {
+        entries.add(new Entry(stage, nanos));
+    }
+
+    public List<Entry> entries() {
+        return List.copyOf(entries);
+    }
+
+    /**
+     * Formats the timings as a Server-Timing header value, e.g. {@code customer_lookup;dur=12.40, embedding;dur=85.10}.
+     */
+    public String toServerTiming() {
+        return entries.stream()
+                .map(entry -> String.format(Locale.ROOT, "%s;dur=%.2f", entry.stage().getTag(), entry.nanos() / 1_000_000.0))
+                .collect(Collectors.joining(", "));
+    }
+
+    public record Entry(EvaluationStage stage, long nanos) {
+    }
+}
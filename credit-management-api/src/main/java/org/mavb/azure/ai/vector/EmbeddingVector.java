@@ -0,0 +1,134 @@
+package org.mavb.azure.ai.vector;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Immutable embedding vector backed by a primitive float array.
+ */
+@JsonSerialize(using = EmbeddingVectorSerializer.class)
+@JsonDeserialize(using = EmbeddingVectorDeserializer.class)
+public final class EmbeddingVector {
+
+    public static final EmbeddingVector EMPTY = new EmbeddingVector(new float[0]);
+
+    private final float[] values;
+
+    private EmbeddingVector(float[] values) {
+        this.values = values;
+    }
+
+    /**
+     * Wraps the given array without copying; callers must not modify it afterwards.
+     */
+    public static EmbeddingVector wrap(float[] values) {
+        return values.length == 0 ? EMPTY : new EmbeddingVector(values);
+    }
+
+    /**
+     * Converts the double values returned by Azure OpenAI.
+     */
+    public static EmbeddingVector fromDoubles(List<Double> values) {
+        float[] floats = new float[values.size()];
+        for (int i = 0; i < floats.length; i++) {
+            floats[i] = values.get(i).floatValue();
+        }
+        return wrap(floats);
+    }
+
+    /**
+     * Reads float32 little-endian values as written by {@link #toBytes()}.
+     */
+    public static EmbeddingVector fromBytes(byte[] bytes) {
+        float[] floats = new float[bytes.length / Float.BYTES];
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().get(floats);
+        return wrap(floats);
+    }
+
+    public int dimensions() {
+        return values.length;
+    }
+
+    public boolean isEmpty() {
+        return values.length == 0;
+    }
+
+    public float get(int index) {
+        return values[index];
+    }
+
+    /**
+     * Copies the values into a larger array, e.g. a row of a contiguous matrix.
+     */
+    public void copyInto(float[] target, int offset) {
+        System.arraycopy(values, 0, target, offset, values.length);
+    }
+
+    /**
+     * Backing array for the similarity kernels in this package; must not be modified.
+     */
+    float[] values() {
+        return values;
+    }
+
+    public float[] toArray() {
+        return values.clone();
+    }
+
+    /**
+     * Compact float32 little-endian encoding for storage.
+     */
+    public byte[] toBytes() {
+        ByteBuffer buffer = ByteBuffer.allocate(values.length * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asFloatBuffer().put(values);
+        return buffer.array();
+    }
+
+    /**
+     * Read-only list view for SDK APIs that only accept {@code List<Float>}.
+     */
+    public List<Float> asList() {
+        return new FloatListView(values);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof EmbeddingVector other && Arrays.equals(values, other.values));
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(values);
+    }
+
+    @Override
+    public String toString() {
+        return "EmbeddingVector[dimensions=" + values.length + "]";
+    }
+
+    private static final class FloatListView extends AbstractList<Float> implements RandomAccess {
+
+        private final float[] values;
+
+        private FloatListView(float[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public Float get(int index) {
+            return values[index];
+        }
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package org.mavb.azure.ai.vector;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Reads a JSON number array straight into the float array of an {@link EmbeddingVector}.
+ */
+public class EmbeddingVectorDeserializer extends StdDeserializer<EmbeddingVector> {
+
+    private static final int INITIAL_CAPACITY = 1536;
+
+    public EmbeddingVectorDeserializer() {
+        super(EmbeddingVector.class);
+    }
+
+    @Override
+    public EmbeddingVector deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        if (!parser.isExpectedStartArrayToken()) {
+            return (EmbeddingVector) context.handleUnexpectedToken(EmbeddingVector.class, parser);
+        }
+
+        float[] values = new float[INITIAL_CAPACITY];
+        int size = 0;
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token != JsonToken.VALUE_NUMBER_FLOAT && token != JsonToken.VALUE_NUMBER_INT) {
+                return (EmbeddingVector) context.handleUnexpectedToken(EmbeddingVector.class, parser);
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = parser.getFloatValue();
+        }
+
+        return EmbeddingVector.wrap(size == values.length ? values : Arrays.copyOf(values, size));
+    }
+
+    @Override
+    public EmbeddingVector getNullValue(DeserializationContext context) {
+        return EmbeddingVector.EMPTY;
+    }
+}
@@ -0,0 +1,27 @@
+package org.mavb.azure.ai.vector;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Writes an {@link EmbeddingVector} as a plain JSON number array without boxing.
+ */
+public class EmbeddingVectorSerializer extends StdSerializer<EmbeddingVector> {
+
+    public EmbeddingVectorSerializer() {
+        super(EmbeddingVector.class);
+    }
+
+    @Override
+    public void serialize(EmbeddingVector vector, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        int dimensions = vector.dimensions();
+        generator.writeStartArray(vector, dimensions);
+        for (int i = 0; i < dimensions; i++) {
+            generator.writeNumber(vector.get(i));
+        }
+        generator.writeEndArray();
+    }
+}
@@ -0,0 +1,117 @@
+package org.mavb.azure.ai.vector;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Kernels on the JDK Vector API ({@code jdk.incubator.vector}) using the widest registers of the CPU.
+ * Only instantiated through {@link SimilarityKernel#detect()}, which checks the module is present.
+ * <p>
+ * Results can differ from {@link ScalarSimilarityKernel} in the last bits, since lanes are summed
+ * in a different order and with fused multiply-adds.
+ */
+public final class SimdSimilarityKernel implements SimilarityKernel {
+
+    private static final VectorSpecies<Float> FLOATS = FloatVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+    // int8 codes are widened to int lanes, so they are loaded a quarter of the register width at a time
+    private static final VectorSpecies<Byte> BYTES = INTS.length() >= 8
+            ? VectorSpecies.of(byte.class, VectorShape.forBitSize(INTS.length() * Byte.SIZE))
+            : null;
+
+    private final ScalarSimilarityKernel scalar = new ScalarSimilarityKernel();
+
+    @Override
+    public String name() {
+        return "simd-" + FLOATS.vectorBitSize();
+    }
+
+    @Override
+    public float dot(float[] a, int aOffset, float[] b, int bOffset, int length) {
+        FloatVector s0 = FloatVector.zero(FLOATS);
+        FloatVector s1 = FloatVector.zero(FLOATS);
+        int step = FLOATS.length();
+        int i = 0;
+        for (int bound = length - 2 * step; i <= bound; i += 2 * step) {
+            s0 = FloatVector.fromArray(FLOATS, a, aOffset + i).fma(FloatVector.fromArray(FLOATS, b, bOffset + i), s0);
+            s1 = FloatVector.fromArray(FLOATS, a, aOffset + i + step).fma(FloatVector.fromArray(FLOATS, b, bOffset + i + step), s1);
+        }
+        for (int bound = length - step; i <= bound; i += step) {
+            s0 = FloatVector.fromArray(FLOATS, a, aOffset + i).fma(FloatVector.fromArray(FLOATS, b, bOffset + i), s0);
+        }
+        float sum = s0.add(s1).reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++) {
+            sum += a[aOffset + i] * b[bOffset + i];
+        }
+        return sum;
+    }
+
+    @Override
+    public int dot(byte[] a, int aOffset, byte[] b, int bOffset, int length) {
+        if (BYTES == null) {
+            return scalar.dot(a, aOffset, b, bOffset, length);
+        }
+        IntVector sum = IntVector.zero(INTS);
+        int step = BYTES.length();
+        int i = 0;
+        for (int bound = length - step; i <= bound; i += step) {
+            IntVector left = (IntVector) ByteVector.fromArray(BYTES, a, aOffset + i).convertShape(VectorOperators.B2I, INTS, 0);
+            IntVector right = (IntVector) ByteVector.fromArray(BYTES, b, bOffset + i).convertShape(VectorOperators.B2I, INTS, 0);
+            sum = left.mul(right).add(sum);
+        }
+        int total = sum.reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++) {
+            total += a[aOffset + i] * b[bOffset + i];
+        }
+        return total;
+    }
+
+    /**
+     * Scores four rows per pass so each query chunk is loaded once for all of them.
+     */
+    @Override
+    public void dotRows(float[] query, float[] matrix, int dimensions, int[] rows, int count, float[] scores) {
+        int step = FLOATS.length();
+        int bound = FLOATS.loopBound(dimensions);
+        int i = 0;
+        for (; i + 4 <= count; i += 4) {
+            int r0 = rows[i] * dimensions;
+            int r1 = rows[i + 1] * dimensions;
+            int r2 = rows[i + 2] * dimensions;
+            int r3 = rows[i + 3] * dimensions;
+            FloatVector s0 = FloatVector.zero(FLOATS);
+            FloatVector s1 = FloatVector.zero(FLOATS);
+            FloatVector s2 = FloatVector.zero(FLOATS);
+            FloatVector s3 = FloatVector.zero(FLOATS);
+            int d = 0;
+            for (; d < bound; d += step) {
+                FloatVector q = FloatVector.fromArray(FLOATS, query, d);
+                s0 = q.fma(FloatVector.fromArray(FLOATS, matrix, r0 + d), s0);
+                s1 = q.fma(FloatVector.fromArray(FLOATS, matrix, r1 + d), s1);
+                s2 = q.fma(FloatVector.fromArray(FLOATS, matrix, r2 + d), s2);
+                s3 = q.fma(FloatVector.fromArray(FLOATS, matrix, r3 + d), s3);
+            }
+            float t0 = s0.reduceLanes(VectorOperators.ADD);
+            float t1 = s1.reduceLanes(VectorOperators.ADD);
+            float t2 = s2.reduceLanes(VectorOperators.ADD);
+            float t3 = s3.reduceLanes(VectorOperators.ADD);
+            for (; d < dimensions; d++) {
+                t0 += query[d] * matrix[r0 + d];
+                t1 += query[d] * matrix[r1 + d];
+                t2 += query[d] * matrix[r2 + d];
+                t3 += query[d] * matrix[r3 + d];
+            }
+            scores[i] = t0;
+            scores[i + 1] = t1;
+            scores[i + 2] = t2;
+            scores[i + 3] = t3;
+        }
+        for (; i < count; i++) {
+            scores[i] = dot(query, 0, matrix, rows[i] * dimensions, dimensions);
+        }
+    }
+}
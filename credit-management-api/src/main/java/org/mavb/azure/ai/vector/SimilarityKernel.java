@@ -0,0 +1,46 @@
+package org.mavb.azure.ai.vector;
+
+/**
+ * Dot-product kernels behind {@link VectorMath}.
+ * <p>
+ * {@link #detect()} picks the SIMD implementation when the JVM was started with
+ * {@code --add-modules jdk.incubator.vector} and the scalar one otherwise, so the module stays optional.
+ */
+public interface SimilarityKernel {
+
+    /**
+     * Set to {@code false} to force the scalar kernel even when the Vector API is available.
+     */
+    String SIMD_PROPERTY = "vector.simd";
+
+    String name();
+
+    float dot(float[] a, int aOffset, float[] b, int bOffset, int length);
+
+    int dot(byte[] a, int aOffset, byte[] b, int bOffset, int length);
+
+    /**
+     * Scores one query against several rows of a contiguous row-major matrix:
+     * {@code scores[i] = query · matrix[rows[i]]} for the first {@code count} rows.
+     */
+    default void dotRows(float[] query, float[] matrix, int dimensions, int[] rows, int count, float[] scores) {
+        for (int i = 0; i < count; i++) {
+            scores[i] = dot(query, 0, matrix, rows[i] * dimensions, dimensions);
+        }
+    }
+
+    static SimilarityKernel detect() {
+        if (Boolean.parseBoolean(System.getProperty(SIMD_PROPERTY, "true"))
+                && ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                // Loaded reflectively so the scalar path never links against the incubator module
+                return (SimilarityKernel) Class.forName("org.mavb.azure.ai.vector.SimdSimilarityKernel")
+                        .getDeclaredConstructor()
+                        .newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                return new ScalarSimilarityKernel();
+            }
+        }
+        return new ScalarSimilarityKernel();
+    }
+}
@@ -0,0 +1,10 @@
+package org.mavb.azure.ai.vector;
+
+/**
+ * An embedding as kept in a {@link VectorFileStore}, with the hash of the text it was generated from.
+ *
+ * @param vector     The embedding
+ * @param sourceHash SHA-256 (hex) of the embedded text, so readers can tell whether the vector is still current
+ */
+public record StoredVector(EmbeddingVector vector, String sourceHash) {
+}
@@ -0,0 +1,47 @@
+package org.mavb.azure.ai.vector;
+
+/**
+ * Bounded top-k of (row, score) pairs kept sorted by descending score in primitive arrays, so selection
+ * allocates nothing per candidate; k is small so insertion is cheaper than a heap.
+ */
+public final class TopK {
+
+    private final int[] rows;
+    private final float[] scores;
+    private int count;
+
+    public TopK(int k) {
+        rows = new int[k];
+        scores = new float[k];
+    }
+
+    public void offer(int row, float score) {
+        int k = rows.length;
+        if (k == 0 || count == k && score <= scores[count - 1]) {
+            return;
+        }
+        int position = count < k ? count++ : count - 1;
+        while (position > 0 && scores[position - 1] < score) {
+            scores[position] = scores[position - 1];
+            rows[position] = rows[position - 1];
+            position--;
+        }
+        scores[position] = score;
+        rows[position] = row;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /**
+     * @param rank Position in the result, 0 being the best
+     */
+    public int row(int rank) {
+        return rows[rank];
+    }
+
+    public float score(int rank) {
+        return scores[rank];
+    }
+}
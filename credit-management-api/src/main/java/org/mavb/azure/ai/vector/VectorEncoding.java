@@ -0,0 +1,19 @@
+package org.mavb.azure.ai.vector;
+
+/**
+ * In-memory representation of the vectors scanned by a local index.
+ */
+public enum VectorEncoding {
+    /**
+     * Full-precision normalized copies, exact scan (4 bytes per dimension).
+     */
+    FLOAT32,
+    /**
+     * Int8 codes with a per-vector scale (1 byte per dimension), candidates rescored at full precision.
+     */
+    INT8,
+    /**
+     * Sign bits compared by Hamming distance (1 bit per dimension), candidates rescored at full precision.
+     */
+    BINARY
+}
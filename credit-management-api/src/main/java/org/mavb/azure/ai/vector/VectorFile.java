@@ -0,0 +1,262 @@
+package org.mavb.azure.ai.vector;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Read-only, memory-mapped file of embedding vectors keyed by document id.
+ * <p>
+ * Layout (little-endian): a {@value #HEADER_BYTES}-byte header (magic, version, encoding, dimensions, count,
+ * embedding model), an id table of {@value #ENTRY_BYTES} bytes per row (id, then the SHA-256 of the text the
+ * vector was embedded from), then the row-major data starting at a 64-byte boundary: {@code count x dimensions} floats for FLOAT32, or {@code count} scales followed by
+ * {@code count x dimensions} int8 codes for INT8.
+ * <p>
+ * The data stays in the mapping, outside the Java heap; rows are copied out only when read.
+ */
+public final class VectorFile {
+
+    static final int MAGIC = 0x46564D43; // "CMVF"
+    static final int VERSION = 2;
+    static final int HEADER_BYTES = 256;
+    static final int ID_BYTES = 32;
+    static final int HASH_BYTES = 32;
+    static final int ENTRY_BYTES = ID_BYTES + HASH_BYTES;
+    private static final int MAX_MODEL_BYTES = HEADER_BYTES - 24;
+    private static final int MAX_ID_BYTES = ID_BYTES - 1;
+
+    private final String model;
+    private final VectorEncoding encoding;
+    private final int dimensions;
+    private final List<String> ids;
+    private final Map<String, Integer> rows;
+    private final ByteBuffer idTable;
+    private final FloatBuffer floats;
+    private final ByteBuffer codes;
+    private final FloatBuffer scales;
+
+    private VectorFile(String model, VectorEncoding encoding, int dimensions, List<String> ids, ByteBuffer idTable,
+                       FloatBuffer floats, ByteBuffer codes, FloatBuffer scales) {
+        this.model = model;
+        this.encoding = encoding;
+        this.dimensions = dimensions;
+        this.ids = ids;
+        this.rows = new HashMap<>(ids.size() * 2);
+        for (int row = 0; row < ids.size(); row++) {
+            rows.put(ids.get(row), row);
+        }
+        this.idTable = idTable;
+        this.floats = floats;
+        this.codes = codes;
+        this.scales = scales;
+    }
+
+    /**
+     * Maps an existing file.
+     *
+     * @throws IOException If the file cannot be read or is not a valid vector file
+     */
+    public static VectorFile map(Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Not a vector file (version " + VERSION + "): " + path);
+        }
+        VectorEncoding encoding = encoding(buffer.getInt(8));
+        int dimensions = buffer.getInt(12);
+        int count = buffer.getInt(16);
+        byte[] modelBytes = new byte[buffer.getInt(20)];
+        buffer.get(24, modelBytes);
+
+        int dataOffset = dataOffset(count);
+        long expectedSize = dataOffset + (long) count * rowBytes(encoding, dimensions);
+        if (buffer.capacity() != expectedSize) {
+            throw new IOException("Truncated vector file " + path + ": " + buffer.capacity() + " bytes, expected " + expectedSize);
+        }
+
+        String[] ids = new String[count];
+        for (int row = 0; row < count; row++) {
+            int offset = HEADER_BYTES + row * ENTRY_BYTES;
+            byte[] id = new byte[buffer.get(offset)];
+            buffer.get(offset + 1, id);
+            ids[row] = new String(id, StandardCharsets.UTF_8);
+        }
+
+        String model = new String(modelBytes, StandardCharsets.UTF_8);
+        ByteBuffer idTable = buffer.slice(HEADER_BYTES, count * ENTRY_BYTES);
+        ByteBuffer data = buffer.slice(dataOffset, buffer.capacity() - dataOffset).order(ByteOrder.LITTLE_ENDIAN);
+        if (encoding == VectorEncoding.FLOAT32) {
+            return new VectorFile(model, encoding, dimensions, List.of(ids), idTable, data.asFloatBuffer(), null, null);
+        }
+        FloatBuffer scales = data.slice(0, count * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
+        return new VectorFile(model, encoding, dimensions, List.of(ids), idTable, null, data.slice(count * Float.BYTES, count * dimensions), scales);
+    }
+
+    /**
+     * Writes the vectors to a temporary file and atomically moves it over {@code path}, so readers
+     * never map a partially written file.
+     */
+    public static void write(Path path, String model, VectorEncoding encoding, int dimensions,
+                             Map<String, StoredVector> vectors) throws IOException {
+        if (encoding == VectorEncoding.BINARY) {
+            throw new IllegalArgumentException("Vector files store FLOAT32 or INT8 rows");
+        }
+        byte[] modelBytes = model.getBytes(StandardCharsets.UTF_8);
+        if (modelBytes.length > MAX_MODEL_BYTES) {
+            throw new IllegalArgumentException("Embedding model name longer than " + MAX_MODEL_BYTES + " bytes: " + model);
+        }
+        int count = vectors.size();
+        int dataOffset = dataOffset(count);
+
+        ByteBuffer header = ByteBuffer.allocate(dataOffset).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putInt(encoding.ordinal()).putInt(dimensions).putInt(count)
+                .putInt(modelBytes.length).put(modelBytes);
+        ByteBuffer scales = ByteBuffer.allocate(encoding == VectorEncoding.INT8 ? count * Float.BYTES : 0).order(ByteOrder.LITTLE_ENDIAN);
+        ByteBuffer data = ByteBuffer.allocate(count * (encoding == VectorEncoding.INT8 ? dimensions : dimensions * Float.BYTES))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        FloatBuffer floats = data.asFloatBuffer();
+        byte[] rowCodes = new byte[dimensions];
+
+        int row = 0;
+        for (Map.Entry<String, StoredVector> entry : vectors.entrySet()) {
+            byte[] id = idBytes(entry.getKey());
+            EmbeddingVector vector = entry.getValue().vector();
+            if (vector.dimensions() != dimensions) {
+                throw new IllegalArgumentException("Vector " + entry.getKey() + " has " + vector.dimensions()
+                        + " dimensions, expected " + dimensions);
+            }
+            int entryOffset = HEADER_BYTES + row * ENTRY_BYTES;
+            header.put(entryOffset, (byte) id.length).put(entryOffset + 1, id)
+                    .put(entryOffset + ID_BYTES, hashBytes(entry.getValue().sourceHash()));
+            if (encoding == VectorEncoding.FLOAT32) {
+                floats.put(row * dimensions, vector.values());
+            } else {
+                scales.putFloat(row * Float.BYTES, VectorMath.quantizeInt8(vector.values(), rowCodes, 0));
+                data.put(row * dimensions, rowCodes);
+            }
+            row++;
+        }
+
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (ByteBuffer part : new ByteBuffer[]{header.clear(), scales.clear(), data.clear()}) {
+                while (part.hasRemaining()) {
+                    channel.write(part);
+                }
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public String model() {
+        return model;
+    }
+
+    public VectorEncoding encoding() {
+        return encoding;
+    }
+
+    public int dimensions() {
+        return dimensions;
+    }
+
+    public int size() {
+        return ids.size();
+    }
+
+    public Set<String> ids() {
+        return Collections.unmodifiableSet(rows.keySet());
+    }
+
+    public boolean contains(String id) {
+        return rows.containsKey(id);
+    }
+
+    /**
+     * Copies a row out of the mapping; INT8 rows are dequantized.
+     *
+     * @return The vector, or null if the id is not in the file
+     */
+    public EmbeddingVector get(String id) {
+        Integer row = rows.get(id);
+        if (row == null) {
+            return null;
+        }
+        float[] values = new float[dimensions];
+        if (encoding == VectorEncoding.FLOAT32) {
+            floats.get(row * dimensions, values);
+        } else {
+            byte[] rowCodes = new byte[dimensions];
+            codes.get(row * dimensions, rowCodes);
+            float scale = scales.get(row);
+            for (int i = 0; i < dimensions; i++) {
+                values[i] = rowCodes[i] * scale;
+            }
+        }
+        return EmbeddingVector.wrap(values);
+    }
+
+    /**
+     * @return SHA-256 (hex) of the text the row was embedded from, or null if the id is not in the file
+     */
+    public String sourceHash(String id) {
+        Integer row = rows.get(id);
+        if (row == null) {
+            return null;
+        }
+        byte[] hash = new byte[HASH_BYTES];
+        idTable.get(row * ENTRY_BYTES + ID_BYTES, hash);
+        return HexFormat.of().formatHex(hash);
+    }
+
+    static byte[] idBytes(String id) {
+        byte[] bytes = id.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_ID_BYTES) {
+            throw new IllegalArgumentException("Document id longer than " + MAX_ID_BYTES + " bytes: " + id);
+        }
+        return bytes;
+    }
+
+    static byte[] hashBytes(String sourceHash) {
+        byte[] bytes = HexFormat.of().parseHex(sourceHash);
+        if (bytes.length != HASH_BYTES) {
+            throw new IllegalArgumentException("Source hash is not a SHA-256: " + sourceHash);
+        }
+        return bytes;
+    }
+
+    private static int dataOffset(int count) {
+        int idTableEnd = HEADER_BYTES + count * ENTRY_BYTES;
+        return (idTableEnd + 63) & ~63;
+    }
+
+    private static long rowBytes(VectorEncoding encoding, int dimensions) {
+        return encoding == VectorEncoding.FLOAT32 ? (long) dimensions * Float.BYTES : dimensions + Float.BYTES;
+    }
+
+    private static VectorEncoding encoding(int ordinal) throws IOException {
+        if (ordinal != VectorEncoding.FLOAT32.ordinal() && ordinal != VectorEncoding.INT8.ordinal()) {
+            throw new IOException("Unsupported vector file encoding " + ordinal);
+        }
+        return VectorEncoding.values()[ordinal];
+    }
+}
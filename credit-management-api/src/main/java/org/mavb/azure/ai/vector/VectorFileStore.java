@@ -0,0 +1,256 @@
+package org.mavb.azure.ai.vector;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Persistent id to embedding map made of a memory-mapped {@link VectorFile} plus an append-only change log.
+ * <p>
+ * Changes are appended to {@code <name>.log}, forced to disk, and kept in a small in-memory overlay;
+ * {@link #compact()} folds them into a new {@code <name>.vec} and truncates the log. On open the log is
+ * replayed, ignoring a record torn by a crash. Files written with another embedding model are discarded,
+ * since their vectors are not comparable with the current ones.
+ * <p>
+ * Reads are lock-free; writes and compaction are serialized.
+ */
+@Slf4j
+public final class VectorFileStore implements AutoCloseable {
+
+    private static final byte PUT = 1;
+    private static final byte REMOVE = 2;
+    private static final StoredVector REMOVED = new StoredVector(EmbeddingVector.EMPTY, null);
+
+    private final Path basePath;
+    private final Path logPath;
+    private final String model;
+    private final VectorEncoding encoding;
+    // A removed id maps to REMOVED until the next compaction
+    private final Map<String, StoredVector> overlay = new ConcurrentHashMap<>();
+    private volatile VectorFile base;
+    private volatile int dimensions;
+    private FileChannel changeLog;
+
+    private VectorFileStore(Path directory, String name, String model, VectorEncoding encoding) {
+        this.basePath = directory.resolve(name + ".vec");
+        this.logPath = directory.resolve(name + ".log");
+        this.model = model;
+        this.encoding = encoding;
+    }
+
+    /**
+     * Opens (or creates) the store {@code name} in the directory for vectors of the given embedding model.
+     *
+     * @param encoding Row encoding of the compacted file; INT8 is 4x smaller but returns approximate vectors
+     */
+    public static VectorFileStore open(Path directory, String name, String model, VectorEncoding encoding) throws IOException {
+        Files.createDirectories(directory);
+        VectorFileStore store = new VectorFileStore(directory, name, model, encoding);
+        store.load();
+        return store;
+    }
+
+    /**
+     * @return The stored vector, or null if the id is unknown or was removed
+     */
+    public EmbeddingVector get(String id) {
+        StoredVector stored = find(id);
+        return stored != null ? stored.vector() : null;
+    }
+
+    /**
+     * @return The stored vector and its source hash, or null if the id is unknown or was removed
+     */
+    public StoredVector find(String id) {
+        StoredVector changed = overlay.get(id);
+        if (changed != null) {
+            return changed == REMOVED ? null : changed;
+        }
+        VectorFile file = base;
+        return file.contains(id) ? new StoredVector(file.get(id), file.sourceHash(id)) : null;
+    }
+
+    /**
+     * Stores the vectors, replacing previous ones. Vectors of other dimensions than the stored ones are skipped.
+     */
+    public synchronized void putAll(Map<String, StoredVector> vectors) throws IOException {
+        int appended = 0;
+        for (Map.Entry<String, StoredVector> entry : vectors.entrySet()) {
+            EmbeddingVector vector = entry.getValue() != null ? entry.getValue().vector() : null;
+            if (vector == null || vector.isEmpty()) {
+                continue;
+            }
+            if (dimensions == 0) {
+                dimensions = vector.dimensions();
+            } else if (vector.dimensions() != dimensions) {
+                log.warn("Skipping vector {} with {} dimensions, store {} holds {}", entry.getKey(), vector.dimensions(), basePath, dimensions);
+                continue;
+            }
+            append(PUT, entry.getKey(), entry.getValue());
+            overlay.put(entry.getKey(), entry.getValue());
+            appended++;
+        }
+        if (appended > 0) {
+            changeLog.force(false);
+        }
+    }
+
+    public synchronized void remove(String id) throws IOException {
+        if (find(id) == null) {
+            return;
+        }
+        append(REMOVE, id, REMOVED);
+        changeLog.force(false);
+        overlay.put(id, REMOVED);
+    }
+
+    /**
+     * @return Changes logged since the last compaction
+     */
+    public int pendingChanges() {
+        return overlay.size();
+    }
+
+    public int size() {
+        int size = base.size();
+        for (Map.Entry<String, StoredVector> entry : overlay.entrySet()) {
+            boolean inBase = base.contains(entry.getKey());
+            if (entry.getValue() == REMOVED && inBase) {
+                size--;
+            } else if (entry.getValue() != REMOVED && !inBase) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Rewrites the vector file with the logged changes applied, remaps it and truncates the log.
+     */
+    public synchronized void compact() throws IOException {
+        if (overlay.isEmpty()) {
+            return;
+        }
+        Map<String, StoredVector> merged = new LinkedHashMap<>();
+        for (String id : base.ids()) {
+            if (!overlay.containsKey(id)) {
+                merged.put(id, new StoredVector(base.get(id), base.sourceHash(id)));
+            }
+        }
+        overlay.forEach((id, stored) -> {
+            if (stored != REMOVED) {
+                merged.put(id, stored);
+            }
+        });
+
+        VectorFile.write(basePath, model, encoding, dimensions, merged);
+        // Swap the base before clearing the overlay so readers always see every vector
+        base = VectorFile.map(basePath);
+        overlay.clear();
+        changeLog.truncate(0);
+        changeLog.force(true);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        changeLog.close();
+    }
+
+    private void load() throws IOException {
+        if (Files.exists(basePath)) {
+            try {
+                VectorFile file = VectorFile.map(basePath);
+                if (file.model().equals(model)) {
+                    base = file;
+                    dimensions = file.dimensions();
+                } else {
+                    log.info("🔄 Discarding vector file {} written with model {} (current {})", basePath, file.model(), model);
+                }
+            } catch (IOException e) {
+                log.error("❌ Discarding unreadable vector file {}: {}", basePath, e.getMessage());
+            }
+        }
+        if (base == null) {
+            // A log without its base belongs to the discarded file
+            Files.deleteIfExists(logPath);
+            VectorFile.write(basePath, model, encoding, 0, Map.of());
+            base = VectorFile.map(basePath);
+        }
+        changeLog = FileChannel.open(logPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        replay();
+    }
+
+    /**
+     * Record: operation byte, id length byte, id, source hash (zeros for REMOVE), dimensions int, then the
+     * float32 values for PUT.
+     */
+    private void append(byte operation, String id, StoredVector stored) throws IOException {
+        byte[] idBytes = VectorFile.idBytes(id);
+        byte[] hash = stored.sourceHash() != null ? VectorFile.hashBytes(stored.sourceHash()) : new byte[VectorFile.HASH_BYTES];
+        EmbeddingVector vector = stored.vector();
+        ByteBuffer record = ByteBuffer.allocate(2 + idBytes.length + VectorFile.HASH_BYTES + Integer.BYTES
+                        + vector.dimensions() * Float.BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        record.put(operation).put((byte) idBytes.length).put(idBytes).put(hash).putInt(vector.dimensions());
+        record.asFloatBuffer().put(vector.values());
+        record.clear();
+        changeLog.position(changeLog.size());
+        while (record.hasRemaining()) {
+            changeLog.write(record);
+        }
+    }
+
+    private void replay() throws IOException {
+        long size = changeLog.size();
+        ByteBuffer buffer = ByteBuffer.allocate((int) size).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining() && changeLog.read(buffer, buffer.position()) >= 0) {
+            // read until the buffer is full
+        }
+        buffer.flip();
+
+        int complete = 0;
+        while (buffer.remaining() >= 2 + Integer.BYTES) {
+            byte operation = buffer.get();
+            byte[] id = new byte[buffer.get()];
+            byte[] hash = new byte[VectorFile.HASH_BYTES];
+            if (buffer.remaining() < id.length + hash.length + Integer.BYTES) {
+                break;
+            }
+            buffer.get(id);
+            buffer.get(hash);
+            int recordDimensions = buffer.getInt();
+            if (buffer.remaining() < recordDimensions * Float.BYTES) {
+                break;
+            }
+            float[] values = new float[recordDimensions];
+            buffer.asFloatBuffer().get(values);
+            buffer.position(buffer.position() + recordDimensions * Float.BYTES);
+
+            String key = new String(id, StandardCharsets.UTF_8);
+            if (operation == PUT) {
+                overlay.put(key, new StoredVector(EmbeddingVector.wrap(values), HexFormat.of().formatHex(hash)));
+                if (dimensions == 0) {
+                    dimensions = recordDimensions;
+                }
+            } else {
+                overlay.put(key, REMOVED);
+            }
+            complete = buffer.position();
+        }
+        if (complete < size) {
+            log.warn("Ignoring {} bytes of incomplete records at the end of {}", size - complete, logPath);
+            changeLog.truncate(complete);
+        }
+    }
+}
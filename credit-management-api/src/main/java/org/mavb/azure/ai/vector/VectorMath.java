@@ -0,0 +1,116 @@
+package org.mavb.azure.ai.vector;
+
+/**
+ * Similarity helpers for locally held embedding vectors.
+ * Dot products run on the {@link SimilarityKernel} detected at class load (SIMD when the Vector API is available).
+ */
+public final class VectorMath {
+
+    private static final SimilarityKernel KERNEL = SimilarityKernel.detect();
+
+    private VectorMath() {
+    }
+
+    /**
+     * @return Name of the active kernel, e.g. {@code scalar} or {@code simd-256}
+     */
+    public static String kernel() {
+        return KERNEL.name();
+    }
+
+    public static float dot(float[] a, int aOffset, float[] b, int bOffset, int length) {
+        return KERNEL.dot(a, aOffset, b, bOffset, length);
+    }
+
+    /**
+     * One query against the given rows of a contiguous row-major matrix, see {@link SimilarityKernel#dotRows}.
+     */
+    public static void dotRows(float[] query, float[] matrix, int dimensions, int[] rows, int count, float[] scores) {
+        KERNEL.dotRows(query, matrix, dimensions, rows, count, scores);
+    }
+
+    /**
+     * Cosine similarity between a unit-length query and a raw (non-normalized) vector given its inverse norm.
+     */
+    public static float cosine(float[] unitQuery, EmbeddingVector vector, float inverseNorm) {
+        return dot(unitQuery, 0, vector.values(), 0, unitQuery.length) * inverseNorm;
+    }
+
+    public static int dot(byte[] a, int aOffset, byte[] b, int bOffset, int length) {
+        return KERNEL.dot(a, aOffset, b, bOffset, length);
+    }
+
+    /**
+     * Number of differing bits between two sign-bit codes of {@code words} longs each.
+     */
+    public static int hamming(long[] a, int aOffset, long[] b, int bOffset, int words) {
+        int distance = 0;
+        for (int i = 0; i < words; i++) {
+            distance += Long.bitCount(a[aOffset + i] ^ b[bOffset + i]);
+        }
+        return distance;
+    }
+
+    /**
+     * Symmetric int8 scalar quantization with a per-vector scale: {@code value ≈ code * scale}.
+     *
+     * @return The scale to multiply integer dot products by
+     */
+    public static float quantizeInt8(float[] values, byte[] target, int offset) {
+        float maxAbs = 0f;
+        for (float value : values) {
+            maxAbs = Math.max(maxAbs, Math.abs(value));
+        }
+        if (maxAbs == 0f) {
+            return 0f;
+        }
+        float scale = maxAbs / 127f;
+        for (int i = 0; i < values.length; i++) {
+            target[offset + i] = (byte) Math.round(values[i] / scale);
+        }
+        return scale;
+    }
+
+    /**
+     * Binary quantization: one sign bit per dimension, packed into {@code binaryWords(values.length)} longs.
+     */
+    public static void binarize(float[] values, long[] target, int offset) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] > 0f) {
+                target[offset + (i >>> 6)] |= 1L << (i & 63);
+            }
+        }
+    }
+
+    public static int binaryWords(int dimensions) {
+        return (dimensions + 63) >>> 6;
+    }
+
+    public static float inverseNorm(EmbeddingVector vector) {
+        float[] values = vector.values();
+        float norm = (float) Math.sqrt(dot(values, 0, values, 0, values.length));
+        return norm > 0f ? 1f / norm : 0f;
+    }
+
+    /**
+     * Returns a unit-length copy of the vector so cosine similarity reduces to a dot product.
+     */
+    public static float[] normalize(EmbeddingVector vector) {
+        float[] values = vector.toArray();
+        float norm = (float) Math.sqrt(dot(values, 0, values, 0, values.length));
+        if (norm > 0f) {
+            for (int i = 0; i < values.length; i++) {
+                values[i] /= norm;
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Converts cosine similarity into the relevance score Azure AI Search reports for the cosine metric,
+     * so local and remote results stay comparable.
+     */
+    public static double cosineToSearchScore(double cosine) {
+        return 1.0 / (2.0 - cosine);
+    }
+}
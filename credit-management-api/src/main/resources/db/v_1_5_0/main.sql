@@ -0,0 +1,36 @@
+-- =============================================
+-- Script de migración v_1_5_0
+-- Outbox transaccional para sincronización con AI Search - DDL
+-- Author: Marco Villarreal
+-- =============================================
+
+-- Tabla: search_sync_outbox
+-- Cambios pendientes de publicar en los índices de AI Search, escritos en la misma transacción que la entidad
+CREATE TABLE search_sync_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    aggregate_type VARCHAR(20) NOT NULL,
+    aggregate_id VARCHAR(20) NOT NULL,
+    operation VARCHAR(10) NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    last_error TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    
+    CONSTRAINT chk_search_sync_outbox_aggregate_type CHECK (aggregate_type IN ('PRODUCT', 'RANK')),
+    CONSTRAINT chk_search_sync_outbox_operation CHECK (operation IN ('UPSERT', 'DELETE'))
+);
+
+-- Índices de rendimiento
+CREATE INDEX idx_search_sync_outbox_due ON search_sync_outbox(next_attempt_at, id);
+
+-- Comentarios de tabla
+COMMENT ON TABLE search_sync_outbox IS 'Outbox transaccional de cambios de productos y rangos pendientes de indexar en AI Search';
+
+-- Comentarios de columnas principales
+COMMENT ON COLUMN search_sync_outbox.aggregate_type IS 'Tipo de entidad modificada (PRODUCT, RANK)';
+COMMENT ON COLUMN search_sync_outbox.aggregate_id IS 'Identificador de la entidad modificada';
+COMMENT ON COLUMN search_sync_outbox.operation IS 'Operación a aplicar en el índice (UPSERT, DELETE)';
+COMMENT ON COLUMN search_sync_outbox.attempts IS 'Número de intentos fallidos de publicación';
+COMMENT ON COLUMN search_sync_outbox.next_attempt_at IS 'Momento a partir del cual el registro puede reintentarse (backoff exponencial)';
+
+$EXECUTE$
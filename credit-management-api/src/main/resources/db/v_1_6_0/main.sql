@@ -0,0 +1,31 @@
+-- =============================================
+-- Script de migración v_1_6_0
+-- Checkpoints de reindexación masiva de AI Search - DDL
+-- Author: Marco Villarreal
+-- =============================================
+
+-- Tabla: search_reindex_checkpoint
+-- Progreso de la última reindexación por índice, permite reanudar una ejecución interrumpida
+CREATE TABLE search_reindex_checkpoint (
+    target VARCHAR(20) PRIMARY KEY,
+    last_id VARCHAR(20) NOT NULL DEFAULT '',
+    processed BIGINT NOT NULL DEFAULT 0,
+    status VARCHAR(20) NOT NULL,
+    last_error TEXT,
+    started_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    
+    CONSTRAINT chk_search_reindex_checkpoint_target CHECK (target IN ('PRODUCTS', 'RANKS')),
+    CONSTRAINT chk_search_reindex_checkpoint_status CHECK (status IN ('RUNNING', 'COMPLETED', 'FAILED'))
+);
+
+-- Comentarios de tabla
+COMMENT ON TABLE search_reindex_checkpoint IS 'Checkpoint de la reindexación masiva de productos y rangos en AI Search';
+
+-- Comentarios de columnas principales
+COMMENT ON COLUMN search_reindex_checkpoint.target IS 'Índice reconstruido (PRODUCTS, RANKS)';
+COMMENT ON COLUMN search_reindex_checkpoint.last_id IS 'Último identificador indexado sin huecos previos; la reanudación continúa después de este valor';
+COMMENT ON COLUMN search_reindex_checkpoint.processed IS 'Documentos indexados hasta last_id';
+COMMENT ON COLUMN search_reindex_checkpoint.status IS 'Estado de la ejecución (RUNNING, COMPLETED, FAILED)';
+
+$EXECUTE$
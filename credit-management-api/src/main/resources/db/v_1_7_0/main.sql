@@ -0,0 +1,29 @@
+-- =============================================
+-- Script de migración v_1_7_0
+-- Embeddings persistidos de productos crediticios - DDL
+-- Author: Marco Villarreal
+-- =============================================
+
+-- Tabla: credit_product_embeddings
+-- Último embedding calculado por producto junto al hash del texto de búsqueda y el modelo usado.
+-- Se mantiene fuera de credit_products para que guardar un embedding no dispare la sincronización del producto.
+CREATE TABLE credit_product_embeddings (
+    product_id VARCHAR(20) PRIMARY KEY,
+    search_text_hash CHAR(64) NOT NULL,
+    embedding_model VARCHAR(100) NOT NULL,
+    embedding BYTEA NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    
+    CONSTRAINT fk_credit_product_embeddings_product FOREIGN KEY (product_id)
+        REFERENCES credit_products(id) ON DELETE CASCADE
+);
+
+-- Comentarios de tabla
+COMMENT ON TABLE credit_product_embeddings IS 'Embeddings de productos reutilizables mientras no cambien el texto de búsqueda ni el modelo';
+
+-- Comentarios de columnas principales
+COMMENT ON COLUMN credit_product_embeddings.search_text_hash IS 'SHA-256 (hex) del texto de búsqueda del que se generó el embedding';
+COMMENT ON COLUMN credit_product_embeddings.embedding_model IS 'Modelo de embeddings con el que se generó el vector';
+COMMENT ON COLUMN credit_product_embeddings.embedding IS 'Vector float32 little-endian';
+
+$EXECUTE$
@@ -0,0 +1,38 @@
+-- =============================================
+-- Script de migración v_1_8_0
+-- Almacén vectorial opcional con pgvector - DDL
+-- Author: Marco Villarreal
+-- =============================================
+
+-- Extensión pgvector (el changeset solo se ejecuta si está disponible en el servidor)
+CREATE EXTENSION IF NOT EXISTS vector;
+
+-- Tabla: credit_products
+-- Embedding del producto y rangos permitidos, para resolver la búsqueda filtrada en una sola consulta SQL.
+-- Se escriben por JDBC fuera de JPA, por lo que no disparan la sincronización con AI Search
+ALTER TABLE credit_products
+    ADD COLUMN embedding vector(${vector_dimensions}),
+    ADD COLUMN embedding_model VARCHAR(100),
+    ADD COLUMN allowed_ranks VARCHAR(20)[];
+
+-- Tabla: ranks
+-- Embedding de la descripción del rango
+ALTER TABLE ranks
+    ADD COLUMN embedding vector(${vector_dimensions}),
+    ADD COLUMN embedding_model VARCHAR(100);
+
+-- Índices HNSW por distancia coseno con los parámetros por defecto de pgvector
+CREATE INDEX idx_credit_products_embedding ON credit_products USING hnsw (embedding vector_cosine_ops) WITH (m = 16, ef_construction = 64);
+CREATE INDEX idx_ranks_embedding ON ranks USING hnsw (embedding vector_cosine_ops) WITH (m = 16, ef_construction = 64);
+
+-- Índice para el predicado de rango permitido (allowed_ranks @> ARRAY[:rank])
+CREATE INDEX idx_credit_products_allowed_ranks ON credit_products USING gin (allowed_ranks);
+
+-- Comentarios de columnas principales
+COMMENT ON COLUMN credit_products.embedding IS 'Embedding del texto de búsqueda del producto (pgvector)';
+COMMENT ON COLUMN credit_products.embedding_model IS 'Modelo de embeddings con el que se generó el vector; solo se comparan vectores del modelo vigente';
+COMMENT ON COLUMN credit_products.allowed_ranks IS 'Rangos de cliente que pueden acceder al producto';
+COMMENT ON COLUMN ranks.embedding IS 'Embedding de la descripción del rango (pgvector)';
+COMMENT ON COLUMN ranks.embedding_model IS 'Modelo de embeddings con el que se generó el vector';
+
+$EXECUTE$
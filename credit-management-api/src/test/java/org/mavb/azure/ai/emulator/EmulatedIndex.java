@@ -0,0 +1,268 @@
+package org.mavb.azure.ai.emulator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory search index: documents keyed by {@code keyField}, searched with an exact (exhaustive) vector scan.
+ * <p>
+ * Vector scores follow AI Search for the cosine metric, {@code 1 / (1 + (1 - cosine))}. Filters are applied before
+ * the k-nearest-neighbour selection (AI Search default {@code preFilter} mode). Full-text search is reduced to
+ * term matching over string fields and is only used when the request has no vector query.
+ */
+public class EmulatedIndex {
+
+    private static final int DEFAULT_TOP = 50;
+
+    private final String name;
+    private final String keyField;
+    private final ObjectMapper objectMapper;
+    private final Map<String, StoredDocument> documents = new ConcurrentHashMap<>();
+
+    /**
+     * Document as received plus its numeric arrays parsed once, so searches do not re-read JSON vectors.
+     */
+    private record StoredDocument(ObjectNode document, Map<String, float[]> vectors) {
+
+        static StoredDocument of(ObjectNode document) {
+            Map<String, float[]> vectors = new HashMap<>();
+            document.properties().forEach(field -> {
+                JsonNode value = field.getValue();
+                if (value.isArray() && !value.isEmpty() && value.get(0).isNumber()) {
+                    vectors.put(field.getKey(), toVector(value));
+                }
+            });
+            return new StoredDocument(document, vectors);
+        }
+    }
+
+    EmulatedIndex(String name, String keyField, ObjectMapper objectMapper) {
+        this.name = name;
+        this.keyField = keyField;
+        this.objectMapper = objectMapper;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    public Optional<ObjectNode> document(String key) {
+        return Optional.ofNullable(documents.get(key)).map(stored -> stored.document().deepCopy());
+    }
+
+    public void clear() {
+        documents.clear();
+    }
+
+    /**
+     * Applies an {@code upload | merge | mergeOrUpload | delete} batch.
+     *
+     * @return Indexing result per action, in the {@code search.index} response format
+     */
+    synchronized ArrayNode index(JsonNode actions) {
+        ArrayNode results = objectMapper.createArrayNode();
+        for (JsonNode action : actions) {
+            ObjectNode document = ((ObjectNode) action).deepCopy();
+            String type = document.path("@search.action").asText("upload");
+            document.remove("@search.action");
+            String key = document.path(keyField).asText(null);
+
+            ObjectNode result = results.addObject();
+            result.put("key", key);
+            if (key == null || key.isEmpty()) {
+                failure(result, 400, "Document key '" + keyField + "' is missing.");
+                continue;
+            }
+
+            ObjectNode existing = Optional.ofNullable(documents.get(key)).map(StoredDocument::document).orElse(null);
+            switch (type) {
+                case "upload" -> {
+                    documents.put(key, StoredDocument.of(document));
+                    success(result, existing == null ? 201 : 200);
+                }
+                case "merge", "mergeOrUpload" -> {
+                    if (existing == null && type.equals("merge")) {
+                        failure(result, 404, "Document not found.");
+                        continue;
+                    }
+                    ObjectNode merged = existing == null ? document : existing.deepCopy().setAll(document);
+                    documents.put(key, StoredDocument.of(merged));
+                    success(result, existing == null ? 201 : 200);
+                }
+                case "delete" -> {
+                    documents.remove(key);
+                    success(result, 200);
+                }
+                default -> failure(result, 400, "Unsupported action '" + type + "'.");
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Runs a {@code search.post.search} request.
+     */
+    ObjectNode search(JsonNode request) {
+        ODataFilter filter = ODataFilter.parse(request.path("filter").asText(null));
+        List<StoredDocument> candidates = documents.values().stream()
+                .filter(stored -> filter.test(stored.document()))
+                .toList();
+
+        List<Map.Entry<ObjectNode, Double>> scored;
+        JsonNode vectorQueries = request.path("vectorQueries");
+        if (vectorQueries.isArray() && !vectorQueries.isEmpty()) {
+            scored = vectorSearch(candidates, vectorQueries);
+        } else {
+            scored = textSearch(candidates, request.path("search").asText("*"));
+        }
+        scored.sort(Map.Entry.<ObjectNode, Double>comparingByValue(Comparator.reverseOrder())
+                .thenComparing(entry -> entry.getKey().path(keyField).asText()));
+
+        int skip = request.path("skip").asInt(0);
+        int top = request.path("top").asInt(DEFAULT_TOP);
+        Set<String> select = fields(request.path("select").asText(null));
+
+        ObjectNode response = objectMapper.createObjectNode();
+        if (request.path("count").asBoolean(false)) {
+            response.put("@odata.count", scored.size());
+        }
+        ArrayNode value = response.putArray("value");
+        scored.stream().skip(skip).limit(top).forEach(entry -> {
+            ObjectNode result = value.addObject();
+            result.put("@search.score", entry.getValue());
+            entry.getKey().properties().forEach(field -> {
+                if (select.isEmpty() || select.contains(field.getKey())) {
+                    result.set(field.getKey(), field.getValue());
+                }
+            });
+        });
+        return response;
+    }
+
+    /**
+     * Exact k-nearest neighbours per query; a document matched by several queries keeps its best score.
+     */
+    private List<Map.Entry<ObjectNode, Double>> vectorSearch(List<StoredDocument> candidates, JsonNode vectorQueries) {
+        Map<ObjectNode, Double> best = new IdentityHashMap<>();
+        for (JsonNode query : vectorQueries) {
+            if (!query.path("kind").asText("vector").equals("vector")) {
+                throw new IllegalArgumentException("Only 'vector' queries are supported, not '" + query.path("kind").asText() + "'");
+            }
+            float[] vector = toVector(query.path("vector"));
+            String field = query.path("fields").asText("embedding").split(",")[0].trim();
+            int k = query.path("k").asInt(DEFAULT_TOP);
+
+            List<Map.Entry<ObjectNode, Double>> matches = new ArrayList<>(candidates.size());
+            for (StoredDocument stored : candidates) {
+                float[] documentVector = stored.vectors().get(field);
+                if (documentVector == null) {
+                    continue;
+                }
+                if (documentVector.length != vector.length) {
+                    throw new IllegalArgumentException(String.format("The vector field '%s' has %d dimensions but the query has %d",
+                            field, documentVector.length, vector.length));
+                }
+                matches.add(Map.entry(stored.document(), 1.0 / (2.0 - cosine(vector, documentVector))));
+            }
+            matches.sort(Map.Entry.<ObjectNode, Double>comparingByValue(Comparator.reverseOrder()));
+            matches.stream().limit(k).forEach(match -> best.merge(match.getKey(), match.getValue(), Math::max));
+        }
+        List<Map.Entry<ObjectNode, Double>> scored = new ArrayList<>(best.size());
+        best.forEach((document, score) -> scored.add(Map.entry(document, score)));
+        return scored;
+    }
+
+    private List<Map.Entry<ObjectNode, Double>> textSearch(List<StoredDocument> candidates, String search) {
+        List<String> terms = Arrays.stream(search.toLowerCase(Locale.ROOT).split("\\W+"))
+                .filter(term -> !term.isEmpty())
+                .toList();
+        List<Map.Entry<ObjectNode, Double>> scored = new ArrayList<>(candidates.size());
+        for (StoredDocument stored : candidates) {
+            ObjectNode document = stored.document();
+            if (terms.isEmpty()) {
+                scored.add(Map.entry(document, 1.0));
+                continue;
+            }
+            String text = text(document);
+            long matched = terms.stream().filter(text::contains).count();
+            if (matched > 0) {
+                scored.add(Map.entry(document, (double) matched / terms.size()));
+            }
+        }
+        return scored;
+    }
+
+    private static String text(JsonNode document) {
+        StringBuilder text = new StringBuilder();
+        document.forEach(value -> {
+            if (value.isTextual()) {
+                text.append(value.asText()).append(' ');
+            } else if (value.isArray()) {
+                value.forEach(element -> {
+                    if (element.isTextual()) {
+                        text.append(element.asText()).append(' ');
+                    }
+                });
+            }
+        });
+        return text.toString().toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> fields(String select) {
+        if (select == null || select.isBlank() || select.trim().equals("*")) {
+            return Set.of();
+        }
+        return Arrays.stream(select.split(",")).map(String::trim).collect(Collectors.toSet());
+    }
+
+    private static float[] toVector(JsonNode values) {
+        float[] vector = new float[values.size()];
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] = (float) values.get(i).asDouble();
+        }
+        return vector;
+    }
+
+    private static double cosine(float[] a, float[] b) {
+        double dot = 0;
+        double normA = 0;
+        double normB = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+            normA += a[i] * a[i];
+            normB += b[i] * b[i];
+        }
+        return normA == 0 || normB == 0 ? 0 : dot / Math.sqrt(normA * normB);
+    }
+
+    private static void success(ObjectNode result, int statusCode) {
+        result.put("status", true);
+        result.putNull("errorMessage");
+        result.put("statusCode", statusCode);
+    }
+
+    private static void failure(ObjectNode result, int statusCode, String message) {
+        result.put("status", false);
+        result.put("errorMessage", message);
+        result.put("statusCode", statusCode);
+    }
+}
@@ -0,0 +1,293 @@
+package org.mavb.azure.ai.emulator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Subset of the AI Search OData filter syntax used by the application:
+ * {@code eq ne lt le gt ge}, {@code and or not}, parentheses, boolean fields and
+ * {@code collection/any(x: ...)} / {@code collection/all(x: ...)} lambdas over string or number collections.
+ * Unsupported syntax fails with {@link IllegalArgumentException}, which the emulator answers with 400.
+ */
+public final class ODataFilter {
+
+    private static final ODataFilter MATCH_ALL = new ODataFilter((document, variables) -> true);
+
+    private final Condition condition;
+
+    private ODataFilter(Condition condition) {
+        this.condition = condition;
+    }
+
+    public static ODataFilter parse(String filter) {
+        if (filter == null || filter.isBlank()) {
+            return MATCH_ALL;
+        }
+        Parser parser = new Parser(tokenize(filter));
+        Condition condition = parser.expression();
+        parser.expectEnd();
+        return new ODataFilter(condition);
+    }
+
+    public boolean test(JsonNode document) {
+        return condition.test(document, Map.of());
+    }
+
+    @FunctionalInterface
+    private interface Condition {
+        boolean test(JsonNode document, Map<String, JsonNode> variables);
+    }
+
+    /**
+     * Field path or lambda variable, resolved against the document or the current collection element.
+     */
+    private record Path(List<String> segments) {
+
+        JsonNode resolve(JsonNode document, Map<String, JsonNode> variables) {
+            JsonNode node = variables.containsKey(segments.get(0)) ? variables.get(segments.get(0)) : document.path(segments.get(0));
+            for (String segment : segments.subList(1, segments.size())) {
+                node = node.path(segment);
+            }
+            return node;
+        }
+    }
+
+    private static final class Parser {
+
+        private final List<String> tokens;
+        private int position;
+
+        Parser(List<String> tokens) {
+            this.tokens = tokens;
+        }
+
+        Condition expression() {
+            Condition left = conjunction();
+            while (accept("or")) {
+                Condition first = left;
+                Condition second = conjunction();
+                left = (document, variables) -> first.test(document, variables) || second.test(document, variables);
+            }
+            return left;
+        }
+
+        private Condition conjunction() {
+            Condition left = unary();
+            while (accept("and")) {
+                Condition first = left;
+                Condition second = unary();
+                left = (document, variables) -> first.test(document, variables) && second.test(document, variables);
+            }
+            return left;
+        }
+
+        private Condition unary() {
+            if (accept("not")) {
+                Condition negated = unary();
+                return (document, variables) -> !negated.test(document, variables);
+            }
+            if (accept("(")) {
+                Condition nested = expression();
+                expect(")");
+                return nested;
+            }
+            if (accept("true")) {
+                return (document, variables) -> true;
+            }
+            if (accept("false")) {
+                return (document, variables) -> false;
+            }
+            return comparison();
+        }
+
+        private Condition comparison() {
+            List<String> segments = new ArrayList<>();
+            segments.add(identifier());
+            while (accept("/")) {
+                String segment = identifier();
+                if ((segment.equals("any") || segment.equals("all")) && peek("(")) {
+                    return lambda(new Path(segments), segment.equals("any"));
+                }
+                segments.add(segment);
+            }
+            Path path = new Path(segments);
+
+            String operator = peek();
+            if (operator == null || !List.of("eq", "ne", "lt", "le", "gt", "ge").contains(operator)) {
+                // Bare boolean field, e.g. "active"
+                return (document, variables) -> path.resolve(document, variables).asBoolean(false);
+            }
+            position++;
+            Object literal = literal();
+            return (document, variables) -> compare(path.resolve(document, variables), operator, literal);
+        }
+
+        private Condition lambda(Path collection, boolean any) {
+            expect("(");
+            if (accept(")")) {
+                // any() without a predicate: the collection is not empty
+                return (document, variables) -> collection.resolve(document, variables).size() > 0;
+            }
+            String variable = identifier();
+            expect(":");
+            Condition predicate = expression();
+            expect(")");
+            return (document, variables) -> {
+                JsonNode elements = collection.resolve(document, variables);
+                if (!elements.isArray()) {
+                    return !any;
+                }
+                for (JsonNode element : elements) {
+                    Map<String, JsonNode> scope = new HashMap<>(variables);
+                    scope.put(variable, element);
+                    if (predicate.test(document, scope) == any) {
+                        return any;
+                    }
+                }
+                return !any;
+            };
+        }
+
+        private Object literal() {
+            String token = next();
+            if (token.startsWith("'")) {
+                return token.substring(1, token.length() - 1).replace("''", "'");
+            }
+            return switch (token) {
+                case "null" -> null;
+                case "true" -> Boolean.TRUE;
+                case "false" -> Boolean.FALSE;
+                default -> {
+                    try {
+                        yield new BigDecimal(token);
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("Invalid literal '" + token + "' in filter");
+                    }
+                }
+            };
+        }
+
+        private String identifier() {
+            String token = next();
+            if (!Character.isLetter(token.charAt(0)) && token.charAt(0) != '_') {
+                throw new IllegalArgumentException("Expected a field name but found '" + token + "'");
+            }
+            return token;
+        }
+
+        private boolean accept(String token) {
+            if (peek(token)) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(String token) {
+            if (!accept(token)) {
+                throw new IllegalArgumentException("Expected '" + token + "' but found '" + peek() + "'");
+            }
+        }
+
+        void expectEnd() {
+            if (position < tokens.size()) {
+                throw new IllegalArgumentException("Unexpected '" + tokens.get(position) + "' in filter");
+            }
+        }
+
+        private boolean peek(String token) {
+            return token.equals(peek());
+        }
+
+        private String peek() {
+            return position < tokens.size() ? tokens.get(position) : null;
+        }
+
+        private String next() {
+            if (position >= tokens.size()) {
+                throw new IllegalArgumentException("Unexpected end of filter");
+            }
+            return tokens.get(position++);
+        }
+    }
+
+    private static boolean compare(JsonNode value, String operator, Object literal) {
+        boolean missing = value.isMissingNode() || value.isNull();
+        if (literal == null || missing) {
+            boolean equal = literal == null && missing;
+            return switch (operator) {
+                case "eq" -> equal;
+                case "ne" -> !equal;
+                default -> false;
+            };
+        }
+
+        int comparison;
+        if (literal instanceof BigDecimal number) {
+            if (!value.isNumber()) {
+                return operator.equals("ne");
+            }
+            comparison = value.decimalValue().compareTo(number);
+        } else if (literal instanceof Boolean bool) {
+            if (!value.isBoolean()) {
+                return operator.equals("ne");
+            }
+            comparison = Boolean.compare(value.booleanValue(), bool);
+        } else {
+            comparison = value.asText().compareTo((String) literal);
+        }
+
+        return switch (operator) {
+            case "eq" -> comparison == 0;
+            case "ne" -> comparison != 0;
+            case "lt" -> comparison < 0;
+            case "le" -> comparison <= 0;
+            case "gt" -> comparison > 0;
+            default -> comparison >= 0;
+        };
+    }
+
+    private static List<String> tokenize(String filter) {
+        List<String> tokens = new ArrayList<>();
+        int i = 0;
+        while (i < filter.length()) {
+            char c = filter.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if ("()/:,".indexOf(c) >= 0) {
+                tokens.add(String.valueOf(c));
+                i++;
+            } else if (c == '\'') {
+                int end = i + 1;
+                while (true) {
+                    if (end >= filter.length()) {
+                        throw new IllegalArgumentException("Unterminated string literal in filter");
+                    }
+                    if (filter.charAt(end) == '\'') {
+                        if (end + 1 < filter.length() && filter.charAt(end + 1) == '\'') {
+                            end += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    end++;
+                }
+                tokens.add(filter.substring(i, end + 1));
+                i = end + 1;
+            } else {
+                int end = i;
+                while (end < filter.length() && !Character.isWhitespace(filter.charAt(end)) && "()/:,'".indexOf(filter.charAt(end)) < 0) {
+                    end++;
+                }
+                tokens.add(filter.substring(i, end));
+                i = end;
+            }
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,62 @@
+package org.mavb.azure.ai.emulator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ODataFilterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testProductFilterBuiltByTheApplication() throws Exception {
+        // Given
+        JsonNode product = objectMapper.readTree("""
+                {"id": "CP-PEN-001", "active": true, "minimumAmount": 1000.00, "maximumAmount": 20000.00,
+                 "currency": "PEN", "allowedRanks": ["BRONCE", "PLATA"]}
+                """);
+        String filter = "active eq true and allowedRanks/any(r: r eq '%s') and minimumAmount le %s and maximumAmount ge %s and currency eq 'PEN'";
+
+        // When / Then
+        assertTrue(ODataFilter.parse(filter.formatted("PLATA", "15000", "15000")).test(product));
+        assertFalse(ODataFilter.parse(filter.formatted("ORO", "15000", "15000")).test(product));
+        assertFalse(ODataFilter.parse(filter.formatted("PLATA", "25000", "25000")).test(product));
+        assertTrue(ODataFilter.parse("minimumAmount le 1000 and maximumAmount ge 20000.00").test(product));
+    }
+
+    @Test
+    void testBooleanOperatorsAndPrecedence() throws Exception {
+        // Given
+        JsonNode rank = objectMapper.readTree("{\"id\": \"ORO\", \"active\": false, \"minScore\": 720}");
+
+        // When / Then
+        assertTrue(ODataFilter.parse("active eq true or id eq 'ORO' and minScore gt 700").test(rank));
+        assertFalse(ODataFilter.parse("(active eq true or id eq 'ORO') and minScore lt 700").test(rank));
+        assertTrue(ODataFilter.parse("not active and id ne 'PLATA'").test(rank));
+        assertTrue(ODataFilter.parse("missing eq null and id ne null").test(rank));
+        assertFalse(ODataFilter.parse("missing ge 1").test(rank));
+    }
+
+    @Test
+    void testLambdasAndQuotedLiterals() throws Exception {
+        // Given
+        JsonNode document = objectMapper.readTree("{\"tags\": [\"O'Brien\", \"vip\"], \"scores\": [10, 20], \"empty\": []}");
+
+        // When / Then
+        assertTrue(ODataFilter.parse("tags/any(t: t eq 'O''Brien')").test(document));
+        assertTrue(ODataFilter.parse("scores/all(s: s ge 10)").test(document));
+        assertFalse(ODataFilter.parse("scores/all(s: s gt 10)").test(document));
+        assertTrue(ODataFilter.parse("tags/any()").test(document));
+        assertFalse(ODataFilter.parse("empty/any()").test(document));
+    }
+
+    @Test
+    void testInvalidFiltersAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> ODataFilter.parse("active eq"));
+        assertThrows(IllegalArgumentException.class, () -> ODataFilter.parse("currency eq 'PEN"));
+        assertThrows(IllegalArgumentException.class, () -> ODataFilter.parse("active eq true)"));
+        assertThrows(IllegalArgumentException.class, () -> ODataFilter.parse("amount le abc"));
+    }
+}
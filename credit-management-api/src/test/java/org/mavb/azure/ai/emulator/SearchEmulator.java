@@ -0,0 +1,217 @@
+package org.mavb.azure.ai.emulator;
+
+import com.azure.core.http.HttpClient;
+import com.azure.core.http.HttpHeaderName;
+import com.azure.core.http.HttpHeaders;
+import com.azure.core.http.HttpMethod;
+import com.azure.core.http.HttpRequest;
+import com.azure.core.http.HttpResponse;
+import com.azure.core.util.BinaryData;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Embeddable Azure AI Search emulator for offline integration and performance tests.
+ * <p>
+ * Speaks the subset of the REST API the application uses through the Azure SDK: {@code search.post.search}
+ * (vector queries, {@code filter}, {@code top}, {@code skip}, {@code select}, {@code count}), {@code search.index}
+ * (upload, merge, mergeOrUpload, delete), document lookup and {@code $count}.
+ * <p>
+ * It is an in-process {@link HttpClient}: plug it into a {@code SearchClientBuilder} together with the
+ * {@link #ENDPOINT} override. No socket is opened, which also avoids the HTTPS requirement the SDK enforces
+ * for key credentials. Index definitions are not emulated: indexes are created with {@link #createIndex(String)}
+ * and accept any document.
+ */
+public class SearchEmulator implements HttpClient {
+
+    public static final String ENDPOINT = "https://search-emulator.localhost";
+
+    private static final Pattern DOCS_PATH = Pattern.compile("/indexes\\('([^']+)'\\)/docs(?:/(search\\.post\\.search|search\\.index|\\$count)|\\('(.+)'\\))?");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, EmulatedIndex> indexes = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> requests = new ConcurrentHashMap<>();
+    private volatile Duration latency = Duration.ZERO;
+
+    public EmulatedIndex createIndex(String name) {
+        return createIndex(name, "id");
+    }
+
+    public EmulatedIndex createIndex(String name, String keyField) {
+        return indexes.computeIfAbsent(name, key -> new EmulatedIndex(name, keyField, objectMapper));
+    }
+
+    public EmulatedIndex index(String name) {
+        return Optional.ofNullable(indexes.get(name))
+                .orElseThrow(() -> new IllegalArgumentException("Unknown index " + name));
+    }
+
+    /**
+     * Delay added to every response, without blocking the caller thread, to approximate the network
+     * and service time of the real service.
+     */
+    public void setLatency(Duration latency) {
+        this.latency = latency;
+    }
+
+    /**
+     * @param operation {@code search}, {@code index}, {@code count} or {@code lookup}
+     * @return Requests received for the operation across all indexes
+     */
+    public long requests(String operation) {
+        LongAdder count = requests.get(operation);
+        return count != null ? count.sum() : 0;
+    }
+
+    @Override
+    public Mono<HttpResponse> send(HttpRequest request) {
+        Mono<HttpResponse> response = Mono.fromCallable(() -> handle(request));
+        return latency.isZero() ? response : response.delaySubscription(latency);
+    }
+
+    private HttpResponse handle(HttpRequest request) throws IOException {
+        String path = URLDecoder.decode(request.getUrl().getPath().replace("+", "%2B"), StandardCharsets.UTF_8);
+        Matcher matcher = DOCS_PATH.matcher(path);
+        if (!matcher.matches()) {
+            return error(request, 404, "Unsupported path " + path);
+        }
+        EmulatedIndex index = indexes.get(matcher.group(1));
+        if (index == null) {
+            return error(request, 404, "The index '" + matcher.group(1) + "' was not found.");
+        }
+
+        try {
+            String operation = matcher.group(2);
+            if (matcher.group(3) != null && request.getHttpMethod() == HttpMethod.GET) {
+                count("lookup");
+                return index.document(matcher.group(3))
+                        .map(document -> json(request, 200, document))
+                        .orElseGet(() -> error(request, 404, "Document not found."));
+            }
+            if ("search.post.search".equals(operation) && request.getHttpMethod() == HttpMethod.POST) {
+                count("search");
+                return json(request, 200, index.search(body(request)));
+            }
+            if ("search.index".equals(operation) && request.getHttpMethod() == HttpMethod.POST) {
+                count("index");
+                ArrayNode results = index.index(body(request).path("value"));
+                boolean allSucceeded = true;
+                for (JsonNode result : results) {
+                    allSucceeded &= result.path("status").asBoolean();
+                }
+                ObjectNode response = objectMapper.createObjectNode();
+                response.set("value", results);
+                return json(request, allSucceeded ? 200 : 207, response);
+            }
+            if ("$count".equals(operation) && request.getHttpMethod() == HttpMethod.GET) {
+                count("count");
+                return new EmulatorResponse(request, 200, "text/plain", String.valueOf(index.size()).getBytes(StandardCharsets.UTF_8));
+            }
+            return error(request, 404, "Unsupported operation " + request.getHttpMethod() + " " + path);
+        } catch (IllegalArgumentException e) {
+            return error(request, 400, e.getMessage());
+        }
+    }
+
+    private void count(String operation) {
+        requests.computeIfAbsent(operation, key -> new LongAdder()).increment();
+    }
+
+    private JsonNode body(HttpRequest request) throws IOException {
+        BinaryData body = request.getBodyAsBinaryData();
+        if (body == null) {
+            throw new IllegalArgumentException("The request body is missing.");
+        }
+        return objectMapper.readTree(body.toBytes());
+    }
+
+    private HttpResponse json(HttpRequest request, int status, JsonNode body) {
+        try {
+            return new EmulatorResponse(request, status, "application/json; odata.metadata=none; charset=utf-8",
+                    objectMapper.writeValueAsBytes(body));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize emulator response", e);
+        }
+    }
+
+    private HttpResponse error(HttpRequest request, int status, String message) {
+        ObjectNode body = objectMapper.createObjectNode();
+        body.putObject("error").put("code", "").put("message", message);
+        return json(request, status, body);
+    }
+
+    private static final class EmulatorResponse extends HttpResponse {
+
+        private final int status;
+        private final HttpHeaders headers;
+        private final byte[] body;
+
+        EmulatorResponse(HttpRequest request, int status, String contentType, byte[] body) {
+            super(request);
+            this.status = status;
+            this.body = body;
+            this.headers = new HttpHeaders()
+                    .set(HttpHeaderName.CONTENT_TYPE, contentType)
+                    .set(HttpHeaderName.CONTENT_LENGTH, String.valueOf(body.length));
+        }
+
+        @Override
+        public int getStatusCode() {
+            return status;
+        }
+
+        @Override
+        @Deprecated
+        public String getHeaderValue(String name) {
+            return headers.getValue(name);
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public Flux<ByteBuffer> getBody() {
+            return Flux.just(ByteBuffer.wrap(body));
+        }
+
+        @Override
+        public Mono<byte[]> getBodyAsByteArray() {
+            return Mono.just(body);
+        }
+
+        @Override
+        public Mono<String> getBodyAsString() {
+            return getBodyAsString(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public Mono<String> getBodyAsString(Charset charset) {
+            return Mono.just(new String(body, charset));
+        }
+
+        @Override
+        public BinaryData getBodyAsBinaryData() {
+            return BinaryData.fromBytes(body);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package org.mavb.azure.ai.emulator;
+
+import org.mavb.azure.ai.Application;
+import org.springframework.boot.SpringApplication;
+
+/**
+ * Runs the application with the in-process AI Search emulator, for local load tests without a search service:
+ * {@code ./gradlew bootTestRun}. Database and Azure OpenAI settings are read as usual.
+ */
+public class SearchEmulatorApplication {
+
+    public static void main(String[] args) {
+        System.setProperty("azure.search.endpoint", SearchEmulator.ENDPOINT);
+        System.setProperty("azure.search.key", System.getProperty("azure.search.key", "emulator"));
+        SpringApplication.from(Application::main)
+                .with(SearchEmulatorConfiguration.class)
+                .run(args);
+    }
+}
@@ -0,0 +1,26 @@
+package org.mavb.azure.ai.emulator;
+
+import org.mavb.azure.ai.config.AzureProperties;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import java.time.Duration;
+
+/**
+ * Replaces the AI Search transport with the in-process emulator and creates the configured indexes.
+ * The emulator starts empty; {@code POST /actuator/reindex/{products|ranks}} fills it from the database.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class SearchEmulatorConfiguration {
+
+    @Bean
+    public SearchEmulator searchEmulator(AzureProperties azure,
+                                         @Value("${azure.search.emulator.latency:0ms}") Duration latency) {
+        SearchEmulator emulator = new SearchEmulator();
+        emulator.createIndex(azure.getSearch().getIndices().getRanks());
+        emulator.createIndex(azure.getSearch().getIndices().getProducts());
+        emulator.setLatency(latency);
+        return emulator;
+    }
+}
@@ -0,0 +1,150 @@
+package org.mavb.azure.ai.emulator;
+
+import com.azure.core.credential.AzureKeyCredential;
+import com.azure.core.exception.HttpResponseException;
+import com.azure.core.util.Context;
+import com.azure.search.documents.SearchClient;
+import com.azure.search.documents.SearchClientBuilder;
+import com.azure.search.documents.indexes.models.IndexDocumentsBatch;
+import com.azure.search.documents.models.IndexDocumentsOptions;
+import com.azure.search.documents.models.IndexDocumentsResult;
+import com.azure.search.documents.models.IndexingResult;
+import com.azure.search.documents.models.SearchOptions;
+import com.azure.search.documents.models.SearchResult;
+import com.azure.search.documents.models.VectorSearchOptions;
+import com.azure.search.documents.models.VectorizedQuery;
+import com.azure.search.documents.util.SearchPagedIterable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mavb.azure.ai.entity.ProductDocument;
+import org.mavb.azure.ai.vector.EmbeddingVector;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchEmulatorTest {
+
+    private SearchEmulator emulator;
+    private SearchClient productSearchClient;
+
+    @BeforeEach
+    void setUp() {
+        emulator = new SearchEmulator();
+        emulator.createIndex("products");
+        productSearchClient = new SearchClientBuilder()
+                .endpoint(SearchEmulator.ENDPOINT)
+                .httpClient(emulator)
+                .credential(new AzureKeyCredential("emulator"))
+                .indexName("products")
+                .buildClient();
+
+        productSearchClient.mergeOrUploadDocuments(List.of(
+                product("PERSONAL", true, "1000", "20000", List.of("BRONCE", "PLATA"), 1f, 0f, 0f),
+                product("VEHICULAR", true, "10000", "80000", List.of("PLATA", "ORO"), 0.8f, 0.6f, 0f),
+                product("HIPOTECARIO", true, "50000", "500000", List.of("ORO", "PREMIUM"), 0f, 1f, 0f),
+                product("INACTIVO", false, "1000", "500000", List.of("BRONCE", "ORO"), 1f, 0f, 0f)));
+    }
+
+    @Test
+    void testVectorSearchWithFilterThroughSdk() {
+        // Given
+        VectorizedQuery vectorQuery = new VectorizedQuery(EmbeddingVector.wrap(new float[]{1f, 0f, 0f}).asList())
+                .setKNearestNeighborsCount(10)
+                .setFields("embedding");
+        SearchOptions searchOptions = new SearchOptions()
+                .setVectorSearchOptions(new VectorSearchOptions().setQueries(vectorQuery))
+                .setFilter("active eq true and allowedRanks/any(r: r eq 'PLATA') and minimumAmount le 15000 and maximumAmount ge 15000")
+                .setTop(10)
+                .setIncludeTotalCount(true);
+
+        // When
+        SearchPagedIterable results = productSearchClient.search(null, searchOptions, Context.NONE);
+        List<SearchResult> matches = results.stream().toList();
+
+        // Then
+        assertEquals(2, results.getTotalCount());
+        assertEquals(List.of("PERSONAL", "VEHICULAR"), matches.stream()
+                .map(result -> result.getDocument(ProductDocument.class).getId())
+                .toList());
+        assertEquals(1.0, matches.get(0).getScore(), 1e-6);
+        assertEquals(1 / (2 - 0.8), matches.get(1).getScore(), 1e-6);
+        assertEquals(3, matches.get(0).getDocument(ProductDocument.class).getEmbedding().dimensions());
+    }
+
+    @Test
+    void testTopAndNearestNeighboursLimitResults() {
+        // Given
+        VectorizedQuery vectorQuery = new VectorizedQuery(List.of(0f, 1f, 0f))
+                .setKNearestNeighborsCount(3)
+                .setFields("embedding");
+
+        // When
+        List<String> ids = productSearchClient.search(null, new SearchOptions()
+                        .setVectorSearchOptions(new VectorSearchOptions().setQueries(vectorQuery))
+                        .setTop(2), Context.NONE)
+                .stream()
+                .map(result -> result.getDocument(ProductDocument.class).getId())
+                .toList();
+
+        // Then
+        assertEquals(List.of("HIPOTECARIO", "VEHICULAR"), ids);
+    }
+
+    @Test
+    void testPartialBatchFailuresAreReportedPerDocument() {
+        // Given
+        IndexDocumentsBatch<ProductDocument> batch = new IndexDocumentsBatch<ProductDocument>()
+                .addMergeActions(List.of(product("NUEVO", true, "1", "2", List.of("ORO"), 0f, 0f, 1f)))
+                .addMergeActions(List.of(ProductDocument.builder().id("PERSONAL").active(false).build()))
+                .addDeleteActions(List.of(ProductDocument.builder().id("HIPOTECARIO").build()));
+
+        // When
+        IndexDocumentsResult result = productSearchClient.indexDocumentsWithResponse(batch,
+                new IndexDocumentsOptions().setThrowOnAnyError(false), Context.NONE).getValue();
+
+        // Then
+        IndexingResult missing = result.getResults().get(0);
+        assertFalse(missing.isSucceeded());
+        assertEquals(404, missing.getStatusCode());
+        assertTrue(result.getResults().get(1).isSucceeded());
+        assertEquals(3, productSearchClient.getDocumentCount());
+        ProductDocument merged = productSearchClient.getDocument("PERSONAL", ProductDocument.class);
+        assertFalse(merged.getActive());
+        assertEquals("PERSONAL", merged.getName());
+    }
+
+    @Test
+    void testInvalidRequestsAreRejectedLikeTheService() {
+        // Given
+        SearchOptions invalidFilter = new SearchOptions().setFilter("active eq");
+        SearchOptions wrongDimensions = new SearchOptions().setVectorSearchOptions(new VectorSearchOptions()
+                .setQueries(new VectorizedQuery(List.of(1f, 0f)).setFields("embedding")));
+
+        // When
+        HttpResponseException filterError = assertThrows(HttpResponseException.class,
+                () -> productSearchClient.search(null, invalidFilter, Context.NONE).stream().toList());
+        HttpResponseException vectorError = assertThrows(HttpResponseException.class,
+                () -> productSearchClient.search(null, wrongDimensions, Context.NONE).stream().toList());
+
+        // Then
+        assertEquals(400, filterError.getResponse().getStatusCode());
+        assertEquals(400, vectorError.getResponse().getStatusCode());
+        assertEquals(2, emulator.requests("search"));
+    }
+
+    private ProductDocument product(String id, boolean active, String minimum, String maximum,
+                                    List<String> ranks, float... embedding) {
+        return ProductDocument.builder()
+                .id(id)
+                .name(id)
+                .active(active)
+                .minimumAmount(new BigDecimal(minimum))
+                .maximumAmount(new BigDecimal(maximum))
+                .currency("PEN")
+                .allowedRanks(ranks)
+                .embedding(EmbeddingVector.wrap(embedding))
+                .build();
+    }
+}
@@ -0,0 +1,127 @@
+package org.mavb.azure.ai.mapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mavb.azure.ai.dto.projection.StoredProductEmbedding;
+import org.mavb.azure.ai.entity.CreditProductEntity;
+import org.mavb.azure.ai.entity.ProductDocument;
+import org.mavb.azure.ai.repository.ProductEmbeddingRepository;
+import org.mavb.azure.ai.service.EmbeddingService;
+import org.mavb.azure.ai.vector.EmbeddingVector;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ProductDocumentMapperTest {
+
+    private static final String MODEL = "text-embedding-3-small";
+
+    private EmbeddingService embeddingService;
+    private ProductEmbeddingRepository productEmbeddingRepository;
+    private ProductDocumentMapper mapper;
+
+    @BeforeEach
+    void setUp() {
+        embeddingService = mock(EmbeddingService.class);
+        productEmbeddingRepository = mock(ProductEmbeddingRepository.class);
+        when(embeddingService.version()).thenReturn(MODEL);
+        mapper = new ProductDocumentMapper(embeddingService, productEmbeddingRepository, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void testUnchangedProductReusesStoredEmbedding() {
+        // Given
+        CreditProductEntity product = product("PROD-001", "Crédito vehicular");
+        EmbeddingVector stored = EmbeddingVector.wrap(new float[]{0.1f, 0.2f});
+        when(productEmbeddingRepository.findByProductIds(List.of("PROD-001"))).thenReturn(Map.of("PROD-001",
+                new StoredProductEmbedding("PROD-001", hashOf(product), MODEL, stored)));
+
+        // When
+        List<ProductDocument> documents = mapper.toProductDocuments(List.of(product));
+
+        // Then
+        assertEquals(stored, documents.get(0).getEmbedding());
+        verify(embeddingService, never()).getEmbeddings(anyList());
+        verify(productEmbeddingRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void testNonSemanticEditDoesNotReEmbed() {
+        // Given
+        CreditProductEntity product = product("PROD-001", "Crédito vehicular");
+        String hash = hashOf(product);
+        product.setUpdatedAt(product.getUpdatedAt().plusDays(1));
+        product.setActive(false);
+        when(productEmbeddingRepository.findByProductIds(anyCollection())).thenReturn(Map.of("PROD-001",
+                new StoredProductEmbedding("PROD-001", hash, MODEL, EmbeddingVector.wrap(new float[]{1f}))));
+
+        // When
+        mapper.toProductDocuments(List.of(product));
+
+        // Then
+        verify(embeddingService, never()).getEmbeddings(anyList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testChangedTextOrModelIsReEmbeddedAndStored() {
+        // Given
+        CreditProductEntity edited = product("PROD-001", "Crédito vehicular");
+        CreditProductEntity otherModel = product("PROD-002", "Crédito hipotecario");
+        CreditProductEntity unchanged = product("PROD-003", "Crédito personal");
+        EmbeddingVector previous = EmbeddingVector.wrap(new float[]{9f});
+        when(productEmbeddingRepository.findByProductIds(anyCollection())).thenReturn(Map.of(
+                "PROD-001", new StoredProductEmbedding("PROD-001", "stale-hash", MODEL, previous),
+                "PROD-002", new StoredProductEmbedding("PROD-002", hashOf(otherModel), "text-embedding-ada-002", previous),
+                "PROD-003", new StoredProductEmbedding("PROD-003", hashOf(unchanged), MODEL, previous)));
+        when(embeddingService.getEmbeddings(anyList())).thenReturn(List.of(
+                EmbeddingVector.wrap(new float[]{1f}), EmbeddingVector.wrap(new float[]{2f})));
+
+        // When
+        List<ProductDocument> documents = mapper.toProductDocuments(List.of(edited, otherModel, unchanged));
+
+        // Then
+        ArgumentCaptor<List<String>> texts = ArgumentCaptor.forClass(List.class);
+        verify(embeddingService, times(1)).getEmbeddings(texts.capture());
+        assertEquals(2, texts.getValue().size());
+        assertEquals(1f, documents.get(0).getEmbedding().get(0));
+        assertEquals(2f, documents.get(1).getEmbedding().get(0));
+        assertEquals(previous, documents.get(2).getEmbedding());
+
+        ArgumentCaptor<List<StoredProductEmbedding>> saved = ArgumentCaptor.forClass(List.class);
+        verify(productEmbeddingRepository).saveAll(saved.capture());
+        assertEquals(List.of("PROD-001", "PROD-002"), saved.getValue().stream().map(StoredProductEmbedding::productId).toList());
+        assertTrue(saved.getValue().stream().allMatch(embedding -> embedding.embeddingModel().equals(MODEL)));
+        assertEquals(hashOf(edited), saved.getValue().get(0).searchTextHash());
+    }
+
+    private String hashOf(CreditProductEntity product) {
+        return ProductDocumentMapper.searchTextHash(mapper.buildSearchText(product));
+    }
+
+    private CreditProductEntity product(String id, String name) {
+        return CreditProductEntity.builder()
+                .id(id)
+                .name(name)
+                .description(name + " con tasa preferencial")
+                .category("CONSUMO")
+                .subcategory("GENERAL")
+                .minimumAmount(new BigDecimal("1000.00"))
+                .maximumAmount(new BigDecimal("50000.00"))
+                .currency("PEN")
+                .term("12-60 meses")
+                .minimumRate(new BigDecimal("12.50"))
+                .maximumRate(new BigDecimal("25.00"))
+                .requirements(List.of("DNI"))
+                .features(List.of("Sin garantía"))
+                .benefits(List.of("Desembolso en 24h"))
+                .build();
+    }
+}
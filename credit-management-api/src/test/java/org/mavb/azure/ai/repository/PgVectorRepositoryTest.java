@@ -0,0 +1,88 @@
+package org.mavb.azure.ai.repository;
+
+import org.junit.jupiter.api.Test;
+import org.mavb.azure.ai.service.index.ProductFilter;
+import org.mavb.azure.ai.vector.EmbeddingVector;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PgVectorRepositoryTest {
+
+    @Test
+    void testFilterPredicatesAreBoundAsParameters() {
+        // Given
+        MapSqlParameterSource params = new MapSqlParameterSource();
+
+        // When
+        String where = PgVectorRepository.productPredicates(new ProductFilter("ORO", new BigDecimal("30000"), "PEN"), params);
+
+        // Then
+        assertEquals("active = TRUE AND embedding_model = :embeddingModel"
+                + " AND allowed_ranks @> ARRAY[CAST(:rank AS VARCHAR)]"
+                + " AND minimum_amount <= :amount AND maximum_amount >= :amount"
+                + " AND currency = :currency", where);
+        assertEquals("ORO", params.getValue("rank"));
+        assertEquals(new BigDecimal("30000"), params.getValue("amount"));
+        assertEquals("PEN", params.getValue("currency"));
+    }
+
+    @Test
+    void testBlankFilterFieldsAreNotApplied() {
+        // Given
+        MapSqlParameterSource params = new MapSqlParameterSource();
+
+        // When
+        String where = PgVectorRepository.productPredicates(new ProductFilter(" ", new BigDecimal("500"), null), params);
+
+        // Then
+        assertEquals("active = TRUE AND embedding_model = :embeddingModel"
+                + " AND minimum_amount <= :amount AND maximum_amount >= :amount", where);
+        assertFalse(params.hasValue("rank"));
+        assertFalse(params.hasValue("currency"));
+    }
+
+    @Test
+    void testSelectiveFilterSearchKeepsScanningPastEfSearch() {
+        // Given: the filter excludes most of the 40 nearest neighbours the HNSW scan yields by default
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        ProductFilter filter = new ProductFilter("ORO", new BigDecimal("30000"), "PEN");
+
+        // When
+        Map<String, String> settings = PgVectorRepository.scanSettings(true, 100);
+        String sql = PgVectorRepository.searchProductsSql(filter, params);
+
+        // Then: the scan iterates until top rows pass the filter, and the outer query restores the exact order
+        assertEquals(Map.of("hnsw.iterative_scan", "relaxed_order", "hnsw.ef_search", "100"), settings);
+        assertTrue(sql.startsWith("WITH candidates AS MATERIALIZED ("));
+        assertTrue(sql.contains("WHERE " + PgVectorRepository.productPredicates(filter, new MapSqlParameterSource())));
+        assertTrue(sql.endsWith("SELECT * FROM candidates ORDER BY distance"));
+    }
+
+    @Test
+    void testOlderPgVectorFallsBackToExactScan() {
+        // When
+        Map<String, String> settings = PgVectorRepository.scanSettings(false, 10);
+
+        // Then
+        assertEquals(Map.of("enable_indexscan", "off"), settings);
+        assertEquals("40", PgVectorRepository.scanSettings(true, 10).get("hnsw.ef_search"));
+    }
+
+    @Test
+    void testIterativeScanRequiresPgVector08() {
+        assertTrue(PgVectorRepository.supportsIterativeScan("0.8.0"));
+        assertTrue(PgVectorRepository.supportsIterativeScan("1.0"));
+        assertFalse(PgVectorRepository.supportsIterativeScan("0.7.4"));
+        assertFalse(PgVectorRepository.supportsIterativeScan("dev"));
+    }
+
+    @Test
+    void testVectorLiteralUsesPgVectorTextFormat() {
+        assertEquals("[0.5,-1.0,0.25]", PgVectorRepository.toVectorLiteral(EmbeddingVector.wrap(new float[]{0.5f, -1f, 0.25f})));
+        assertEquals("[]", PgVectorRepository.toVectorLiteral(EmbeddingVector.EMPTY));
+    }
+}
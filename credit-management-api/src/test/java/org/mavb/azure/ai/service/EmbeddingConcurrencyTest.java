@@ -0,0 +1,255 @@
+package org.mavb.azure.ai.service;
+
+import com.azure.ai.openai.OpenAIAsyncClient;
+import com.azure.ai.openai.OpenAIClient;
+import com.azure.ai.openai.models.EmbeddingItem;
+import com.azure.ai.openai.models.Embeddings;
+import com.azure.ai.openai.models.EmbeddingsOptions;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mavb.azure.ai.config.AzureProperties;
+import org.mavb.azure.ai.config.EvaluationProperties;
+import org.mavb.azure.ai.dto.projection.CustomerEmploymentData;
+import org.mavb.azure.ai.dto.request.EvaluationRequestDTO;
+import org.mavb.azure.ai.dto.response.EvaluationResponseDTO;
+import org.mavb.azure.ai.entity.CreditProductEntity;
+import org.mavb.azure.ai.entity.ProductDocument;
+import org.mavb.azure.ai.entity.RankDocument;
+import org.mavb.azure.ai.entity.RankEntity;
+import org.mavb.azure.ai.mapper.ProductDocumentMapper;
+import org.mavb.azure.ai.mapper.RankDocumentMapper;
+import org.mavb.azure.ai.repository.CreditProductRepository;
+import org.mavb.azure.ai.repository.CustomerRepository;
+import org.mavb.azure.ai.repository.RankRepository;
+import org.mavb.azure.ai.service.cache.EvaluationResultCache;
+import org.mavb.azure.ai.service.embedding.AzureOpenAIEmbeddingProvider;
+import org.mavb.azure.ai.service.embedding.EmbeddingCache;
+import org.mavb.azure.ai.service.embedding.ProductQueryEmbeddingGrid;
+import org.mavb.azure.ai.service.flight.RequestHedger;
+import org.mavb.azure.ai.service.impl.AISearchEvaluationServiceImpl;
+import org.mavb.azure.ai.service.index.DatabaseVectorIndex;
+import org.mavb.azure.ai.service.index.IndexFileStore;
+import org.mavb.azure.ai.service.index.ProductVectorIndex;
+import org.mavb.azure.ai.service.index.RankVectorIndex;
+import org.mavb.azure.ai.service.timing.StageTimer;
+import org.mavb.azure.ai.vector.EmbeddingVector;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Drives the credit evaluation pipeline with the real embedding provider, AI Search client and local
+ * indexes against mocked OpenAI SDK clients. The async client answers on a scheduler owned by the test,
+ * so any thread hop or blocking call the production path adds on the way to OpenAI shows up by name.
+ */
+class EmbeddingConcurrencyTest {
+
+    private static final int CONCURRENT_REQUESTS = 100;
+    private static final Duration SERVICE_LATENCY = Duration.ofMillis(50);
+    private static final String SDK_THREADS = "openai-sdk";
+
+    private final Scheduler sdkScheduler = Schedulers.newSingle(SDK_THREADS);
+    private final OpenAIClient openAIClient = mock(OpenAIClient.class);
+    private final OpenAIAsyncClient openAIAsyncClient = mock(OpenAIAsyncClient.class);
+    private final Queue<String> blockingCallThreads = new ConcurrentLinkedQueue<>();
+    private final Queue<String> responseThreads = new ConcurrentLinkedQueue<>();
+
+    @BeforeEach
+    void setUp() {
+        when(openAIAsyncClient.getEmbeddings(any(), any(EmbeddingsOptions.class))).thenAnswer(invocation -> {
+            List<String> inputs = invocation.<EmbeddingsOptions>getArgument(1).getInput();
+            return Mono.delay(SERVICE_LATENCY, sdkScheduler).map(tick -> embeddingsFor(inputs));
+        });
+        // Answers like the real client would, so a regression to the blocking path is caught here and not by an error
+        when(openAIClient.getEmbeddings(any(), any(EmbeddingsOptions.class))).thenAnswer(invocation -> {
+            blockingCallThreads.add(Thread.currentThread().getName());
+            Thread.sleep(SERVICE_LATENCY.toMillis());
+            return embeddingsFor(invocation.<EmbeddingsOptions>getArgument(1).getInput());
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        sdkScheduler.dispose();
+    }
+
+    @Test
+    void testCoalescedEmbeddingsNeverBlockAThread() {
+        // Given
+        AISearchEvaluationServiceImpl evaluationService = newEvaluationService(true);
+
+        // When
+        int evaluated = evaluateConcurrently(evaluationService);
+
+        // Then
+        assertEquals(CONCURRENT_REQUESTS, evaluated);
+        assertNoBlockingOpenAICalls();
+    }
+
+    @Test
+    void testUncoalescedEmbeddingsNeverBlockAThread() {
+        // Given
+        AISearchEvaluationServiceImpl evaluationService = newEvaluationService(false);
+
+        // When
+        int evaluated = evaluateConcurrently(evaluationService);
+
+        // Then
+        assertEquals(CONCURRENT_REQUESTS, evaluated);
+        assertNoBlockingOpenAICalls();
+    }
+
+    private void assertNoBlockingOpenAICalls() {
+        assertTrue(blockingCallThreads.isEmpty(), "blocking OpenAI client called on " + Set.copyOf(blockingCallThreads));
+        assertFalse(responseThreads.isEmpty());
+        // Responses are read where the SDK completes them, never re-dispatched to boundedElastic or parallel
+        assertTrue(responseThreads.stream().allMatch(thread -> thread.startsWith(SDK_THREADS)),
+                "embedding responses read on " + Set.copyOf(responseThreads));
+    }
+
+    private int evaluateConcurrently(AISearchEvaluationServiceImpl evaluationService) {
+        List<EvaluationResponseDTO> responses = Flux.range(0, CONCURRENT_REQUESTS)
+                .flatMap(i -> evaluationService.evaluateClientEligibility(EvaluationRequestDTO.builder()
+                        .identityDocument(String.valueOf(10_000_000 + i))
+                        .requestedAmount(new BigDecimal(10_000 + i))
+                        .build()), CONCURRENT_REQUESTS)
+                .collectList()
+                .block(Duration.ofSeconds(30));
+
+        return (int) responses.stream()
+                .filter(response -> "ORO".equals(response.getClientProfile().getSemanticRank()))
+                .filter(response -> !response.getEligibleProducts().isEmpty())
+                .count();
+    }
+
+    /**
+     * Real evaluation, AI Search client, embedding service and local indexes; only I/O is stubbed.
+     */
+    private AISearchEvaluationServiceImpl newEvaluationService(boolean coalescing) {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AzureProperties azureProperties = new AzureProperties();
+        azureProperties.getOpenai().setEmbeddingModel("text-embedding-3-small");
+        azureProperties.getOpenai().getEmbeddingBatch().setEnabled(coalescing);
+        EvaluationProperties evaluationProperties = new EvaluationProperties();
+        IndexFileStore indexFileStore = new IndexFileStore(evaluationProperties, null, null);
+
+        EmbeddingCache cache = new EmbeddingCache(azureProperties, meterRegistry);
+        cache.init();
+        EmbeddingService embeddingService = new EmbeddingService(
+                new AzureOpenAIEmbeddingProvider(openAIClient, openAIAsyncClient, azureProperties),
+                azureProperties, cache, meterRegistry);
+        embeddingService.init();
+
+        RankRepository rankRepository = mock(RankRepository.class);
+        RankDocumentMapper rankDocumentMapper = mock(RankDocumentMapper.class);
+        when(rankRepository.findAll()).thenReturn(List.of(RankEntity.builder().id("ORO").name("ORO").active(true).build()));
+        when(rankDocumentMapper.toRankDocumentSync(any())).thenReturn(RankDocument.builder()
+                .id("ORO").name("ORO").embedding(EmbeddingVector.wrap(new float[]{0.1f, 0.2f, 0.3f})).build());
+        RankVectorIndex rankVectorIndex = new RankVectorIndex(rankRepository, rankDocumentMapper, indexFileStore);
+        rankVectorIndex.load();
+
+        CreditProductRepository productRepository = mock(CreditProductRepository.class);
+        ProductDocumentMapper productDocumentMapper = mock(ProductDocumentMapper.class);
+        when(productRepository.findAll()).thenReturn(List.of(new CreditProductEntity()));
+        when(productDocumentMapper.toProductDocuments(anyList())).thenReturn(List.of(ProductDocument.builder()
+                .id("PROD-001").name("Crédito Personal").active(true).currency("PEN")
+                .minimumAmount(new BigDecimal("1000")).maximumAmount(new BigDecimal("500000"))
+                .minimumRate(BigDecimal.TEN).allowedRanks(List.of("ORO"))
+                .embedding(EmbeddingVector.wrap(new float[]{0.1f, 0.2f, 0.3f})).build()));
+        ProductVectorIndex productVectorIndex = new ProductVectorIndex(productRepository, productDocumentMapper, null,
+                meterRegistry, evaluationProperties, indexFileStore);
+        productVectorIndex.init();
+        productVectorIndex.load();
+
+        ProductQueryEmbeddingGrid productQueryEmbeddingGrid = mock(ProductQueryEmbeddingGrid.class);
+        when(productQueryEmbeddingGrid.queryAmount(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        AzureProperties.Search.Hedge hedge = new AzureProperties.Search.Hedge();
+        StageTimer stageTimer = new StageTimer(meterRegistry);
+        AISearchClient aiSearchClient = new AISearchClient(embeddingService, rankVectorIndex, productVectorIndex,
+                mock(DatabaseVectorIndex.class), productQueryEmbeddingGrid, evaluationProperties, null, null,
+                new RequestHedger("ranks", hedge, meterRegistry), new RequestHedger("products", hedge, meterRegistry),
+                stageTimer, meterRegistry);
+        aiSearchClient.init();
+
+        CustomerRepository customerRepository = mock(CustomerRepository.class);
+        when(customerRepository.findCustomerEmploymentDataForSemanticAnalysis(anyString()))
+                .thenAnswer(invocation -> List.of(customer(invocation.getArgument(0))));
+        EvaluationResultCache evaluationResultCache = new EvaluationResultCache(evaluationProperties,
+                productRepository, productQueryEmbeddingGrid, meterRegistry);
+        evaluationResultCache.init();
+        AISearchEvaluationServiceImpl evaluationService = new AISearchEvaluationServiceImpl(customerRepository,
+                aiSearchClient, evaluationProperties, evaluationResultCache, stageTimer, meterRegistry);
+        evaluationService.init();
+        return evaluationService;
+    }
+
+    private Embeddings embeddingsFor(List<String> inputs) {
+        List<EmbeddingItem> items = new ArrayList<>();
+        for (int i = 0; i < inputs.size(); i++) {
+            EmbeddingItem item = mock(EmbeddingItem.class);
+            when(item.getPromptIndex()).thenReturn(i);
+            when(item.getEmbedding()).thenAnswer(invocation -> {
+                responseThreads.add(Thread.currentThread().getName());
+                return List.of(0.1, 0.2, 0.3);
+            });
+            items.add(item);
+        }
+        Embeddings embeddings = mock(Embeddings.class);
+        when(embeddings.getData()).thenReturn(items);
+        return embeddings;
+    }
+
+    /**
+     * Income derived from the document, so every customer has its own semantic description.
+     */
+    private static Customer customer(String identityDocument) {
+        return new Customer(identityDocument, new BigDecimal(identityDocument).subtract(new BigDecimal("9995000")),
+                LocalDate.now().minusYears(3));
+    }
+
+    private record Customer(String identityDocument, BigDecimal monthlyIncome, LocalDate startDate)
+            implements CustomerEmploymentData {
+
+        public String getIdentityDocument() {
+            return identityDocument;
+        }
+
+        public BigDecimal getMonthlyIncome() {
+            return monthlyIncome;
+        }
+
+        public BigDecimal getCurrentDebt() {
+            return BigDecimal.ZERO;
+        }
+
+        public LocalDate getStartDate() {
+            return startDate;
+        }
+
+        public LocalDate getEndDate() {
+            return null;
+        }
+
+        public BigDecimal getIncome() {
+            return monthlyIncome;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package org.mavb.azure.ai.service;
+
+import com.azure.ai.openai.OpenAIAsyncClient;
+import com.azure.ai.openai.OpenAIClient;
+import com.azure.ai.openai.models.EmbeddingItem;
+import com.azure.ai.openai.models.Embeddings;
+import com.azure.ai.openai.models.EmbeddingsOptions;
+import com.azure.core.http.rest.RequestOptions;
+import com.azure.core.http.rest.Response;
+import com.azure.core.util.BinaryData;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mavb.azure.ai.config.AzureProperties;
+import org.mavb.azure.ai.service.embedding.AzureOpenAIEmbeddingProvider;
+import org.mavb.azure.ai.service.embedding.EmbeddingCache;
+import org.mavb.azure.ai.vector.EmbeddingVector;
+import org.mockito.ArgumentCaptor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class EmbeddingServiceTest {
+
+    private OpenAIClient openAIClient;
+    private OpenAIAsyncClient openAIAsyncClient;
+    private AzureProperties azureProperties;
+
+    @BeforeEach
+    void setUp() {
+        openAIClient = mock(OpenAIClient.class);
+        openAIAsyncClient = mock(OpenAIAsyncClient.class);
+        azureProperties = new AzureProperties();
+        azureProperties.getOpenai().setEmbeddingModel("text-embedding-3-small");
+
+        when(openAIClient.getEmbeddings(eq("text-embedding-3-small"), any(EmbeddingsOptions.class)))
+                .thenAnswer(invocation -> embeddingsFor(invocation.<EmbeddingsOptions>getArgument(1).getInput()));
+        when(openAIAsyncClient.getEmbeddings(eq("text-embedding-3-small"), any(EmbeddingsOptions.class)))
+                .thenAnswer(invocation -> Mono.just(embeddingsFor(invocation.<EmbeddingsOptions>getArgument(1).getInput())));
+    }
+
+    @Test
+    void testEquivalentTextsHitCache() {
+        // Given
+        EmbeddingService service = newService();
+
+        // When
+        EmbeddingVector first = service.getEmbedding("Cliente con ingresos de 5000 soles.");
+        EmbeddingVector second = service.getEmbedding("  Cliente con  ingresos de 5000 soles. ");
+
+        // Then
+        assertEquals(List.of(0.1f, 0.2f, 0.3f), first.asList());
+        assertEquals(first, second);
+        verify(openAIClient, times(1)).getEmbeddings(any(), any(EmbeddingsOptions.class));
+    }
+
+    @Test
+    void testCachePersistsAcrossRestarts(@TempDir Path tempDir) {
+        // Given
+        azureProperties.getOpenai().getEmbeddingCache()
+                .setPersistencePath(tempDir.resolve("embeddings.bin").toString());
+        EmbeddingCache firstCache = newCache();
+        new EmbeddingService(new AzureOpenAIEmbeddingProvider(openAIClient, openAIAsyncClient, azureProperties), azureProperties, firstCache, new SimpleMeterRegistry())
+                .getEmbedding("Producto de crédito");
+        firstCache.shutdown();
+
+        // When
+        EmbeddingService restarted = newService();
+        EmbeddingVector embedding = restarted.getEmbedding("Producto de crédito");
+
+        // Then
+        assertEquals(3, embedding.dimensions());
+        verify(openAIClient, times(1)).getEmbeddings(any(), any(EmbeddingsOptions.class));
+    }
+
+    @Test
+    void testConcurrentReactiveRequestsAreCoalesced() {
+        // Given
+        azureProperties.getOpenai().getEmbeddingBatch().setMaxDelay(Duration.ofMillis(50));
+        EmbeddingService service = newService();
+
+        // When
+        List<EmbeddingVector> results = Flux.just("texto uno", "texto dos", "texto uno", "texto tres")
+                .flatMap(service::getEmbeddingReactive)
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        // Then
+        assertEquals(4, results.size());
+        ArgumentCaptor<EmbeddingsOptions> options = ArgumentCaptor.forClass(EmbeddingsOptions.class);
+        verify(openAIAsyncClient, times(1)).getEmbeddings(any(), options.capture());
+        assertEquals(3, options.getValue().getInput().size());
+        verifyNoInteractions(openAIClient);
+    }
+
+    @Test
+    void testBulkEmbeddingsOnlyRequestDistinctMisses() {
+        // Given
+        azureProperties.getOpenai().getEmbeddingBatch().setMaxBatchSize(2);
+        EmbeddingService service = newService();
+        service.getEmbedding("texto uno");
+
+        // When
+        List<EmbeddingVector> results = service.getEmbeddings(List.of("texto uno", "texto dos", "texto tres", "texto dos", "texto cuatro"));
+
+        // Then
+        assertEquals(5, results.size());
+        assertTrue(results.stream().noneMatch(EmbeddingVector::isEmpty));
+        ArgumentCaptor<EmbeddingsOptions> options = ArgumentCaptor.forClass(EmbeddingsOptions.class);
+        verify(openAIClient, times(3)).getEmbeddings(any(), options.capture());
+        assertEquals(List.of(1, 2, 1), options.getAllValues().stream().map(o -> o.getInput().size()).toList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testReducedDimensionsAreRequestedThroughProtocolMethod() {
+        // Given
+        azureProperties.getOpenai().setEmbeddingDimensions(2);
+        Response<BinaryData> response = mock(Response.class);
+        when(response.getValue()).thenReturn(BinaryData.fromString("""
+                {"data":[{"object":"embedding","index":0,"embedding":[0.6,0.8]}],
+                 "usage":{"prompt_tokens":3,"total_tokens":3}}
+                """));
+        when(openAIClient.getEmbeddingsWithResponse(eq("text-embedding-3-small"), any(BinaryData.class), any(RequestOptions.class)))
+                .thenReturn(response);
+        EmbeddingService service = newService();
+
+        // When
+        EmbeddingVector embedding = service.getEmbedding("Producto de crédito");
+
+        // Then
+        assertEquals(List.of(0.6f, 0.8f), embedding.asList());
+        ArgumentCaptor<BinaryData> body = ArgumentCaptor.forClass(BinaryData.class);
+        verify(openAIClient).getEmbeddingsWithResponse(any(), body.capture(), any(RequestOptions.class));
+        assertTrue(body.getValue().toString().contains("\"dimensions\":2"));
+        verify(openAIClient, never()).getEmbeddings(any(), any(EmbeddingsOptions.class));
+    }
+
+    @Test
+    void testBlankTextIsRejected() {
+        EmbeddingService service = newService();
+
+        assertThrows(IllegalArgumentException.class, () -> service.getEmbedding("   "));
+        verifyNoInteractions(openAIClient);
+        verifyNoInteractions(openAIAsyncClient);
+    }
+
+    private EmbeddingService newService() {
+        EmbeddingService service = new EmbeddingService(new AzureOpenAIEmbeddingProvider(openAIClient, openAIAsyncClient, azureProperties), azureProperties, newCache(), new SimpleMeterRegistry());
+        service.init();
+        return service;
+    }
+
+    private Embeddings embeddingsFor(List<String> inputs) {
+        List<EmbeddingItem> items = new ArrayList<>();
+        for (int i = 0; i < inputs.size(); i++) {
+            EmbeddingItem item = mock(EmbeddingItem.class);
+            when(item.getPromptIndex()).thenReturn(i);
+            when(item.getEmbedding()).thenReturn(List.of(0.1, 0.2, 0.3));
+            items.add(item);
+        }
+        Embeddings embeddings = mock(Embeddings.class);
+        when(embeddings.getData()).thenReturn(items);
+        return embeddings;
+    }
+
+    private EmbeddingCache newCache() {
+        EmbeddingCache cache = new EmbeddingCache(azureProperties, new SimpleMeterRegistry());
+        cache.init();
+        return cache;
+    }
+}
@@ -0,0 +1,150 @@
+package org.mavb.azure.ai.service;
+
+import com.azure.core.credential.AzureKeyCredential;
+import com.azure.search.documents.SearchAsyncClient;
+import com.azure.search.documents.SearchClientBuilder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mavb.azure.ai.config.AzureProperties;
+import org.mavb.azure.ai.config.EvaluationProperties;
+import org.mavb.azure.ai.emulator.SearchEmulator;
+import org.mavb.azure.ai.entity.ProductDocument;
+import org.mavb.azure.ai.service.flight.RequestHedger;
+import org.mavb.azure.ai.service.index.DatabaseVectorIndex;
+import org.mavb.azure.ai.service.index.ProductFilter;
+import org.mavb.azure.ai.service.index.IndexFileStore;
+import org.mavb.azure.ai.service.index.ProductMatch;
+import org.mavb.azure.ai.service.index.ProductVectorIndex;
+import org.mavb.azure.ai.vector.EmbeddingVector;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ProductSearchServiceTest {
+
+    private static final String[] RANKS = {"BRONCE", "PLATA", "ORO", "PREMIUM"};
+
+    private SearchEmulator emulator;
+    private EvaluationProperties properties;
+    private EmbeddingService embeddingService;
+    private ProductVectorIndex productVectorIndex;
+    private ProductSearchService productSearchService;
+
+    @BeforeEach
+    void setUp() {
+        emulator = new SearchEmulator();
+        emulator.createIndex("products");
+        SearchClientBuilder builder = new SearchClientBuilder()
+                .endpoint(SearchEmulator.ENDPOINT)
+                .httpClient(emulator)
+                .credential(new AzureKeyCredential("emulator"))
+                .indexName("products");
+        SearchAsyncClient productSearchAsyncClient = builder.buildAsyncClient();
+
+        properties = new EvaluationProperties();
+        properties.getProductSearch().setMode(EvaluationProperties.SearchMode.REMOTE);
+        productVectorIndex = new ProductVectorIndex(null, null, null, new SimpleMeterRegistry(), properties,
+                new IndexFileStore(new EvaluationProperties(), null, null));
+        productVectorIndex.init();
+        embeddingService = mock(EmbeddingService.class);
+
+        productSearchService = new ProductSearchService(embeddingService, productVectorIndex, mock(DatabaseVectorIndex.class), properties, productSearchAsyncClient,
+                new RequestHedger("products", new AzureProperties.Search.Hedge(), new SimpleMeterRegistry()));
+
+        List<ProductDocument> products = products(200, 16);
+        builder.buildClient().mergeOrUploadDocuments(products);
+        productVectorIndex.upsertAll(products);
+    }
+
+    @Test
+    void testRemoteSearchMatchesLocalIndex() {
+        // Given
+        EmbeddingVector needs = randomVector(new Random(7), 16);
+        when(embeddingService.getEmbedding("necesito un crédito")).thenReturn(needs);
+
+        // When
+        List<ProductSearchService.ProductSearchResult> remote =
+                productSearchService.searchByRankAndNeeds("ORO", new BigDecimal("30000"), "necesito un crédito");
+        List<ProductMatch> local = productVectorIndex.search(needs, ProductFilter.of("ORO", new BigDecimal("30000")), 10);
+
+        // Then
+        assertEquals(10, remote.size());
+        assertEquals(local.stream().map(match -> match.product().getId()).toList(),
+                remote.stream().map(result -> result.getProduct().getId()).toList());
+        for (int i = 0; i < local.size(); i++) {
+            assertEquals(local.get(i).score(), remote.get(i).getRelevanceScore(), 1e-5);
+        }
+        remote.forEach(result -> {
+            assertTrue(result.getProduct().getAllowedRanks().contains("ORO"));
+            assertTrue(result.getProduct().getMinimumAmount().compareTo(new BigDecimal("30000")) <= 0);
+            assertTrue(result.getProduct().getMaximumAmount().compareTo(new BigDecimal("30000")) >= 0);
+        });
+        assertEquals(1, emulator.requests("search"));
+    }
+
+    @Test
+    void testRemoteSearchUsesConfiguredTop() {
+        // Given
+        properties.getProductSearch().setTop(5);
+        EmbeddingVector needs = randomVector(new Random(7), 16);
+        when(embeddingService.getEmbedding("necesito un crédito")).thenReturn(needs);
+
+        // When
+        List<ProductSearchService.ProductSearchResult> remote =
+                productSearchService.searchByRankAndNeeds("ORO", new BigDecimal("30000"), "necesito un crédito");
+        List<ProductMatch> local = productVectorIndex.search(needs, ProductFilter.of("ORO", new BigDecimal("30000")), 5);
+
+        // Then
+        assertEquals(local.stream().map(match -> match.product().getId()).toList(),
+                remote.stream().map(result -> result.getProduct().getId()).toList());
+    }
+
+    @Test
+    void testFiltersWithoutVectorQuery() {
+        // When
+        List<ProductSearchService.ProductSearchResult> results =
+                productSearchService.searchProducts("PLATA", new BigDecimal("5000"), "USD", null);
+
+        // Then
+        assertFalse(results.isEmpty());
+        results.forEach(result -> {
+            assertEquals("USD", result.getProduct().getCurrency());
+            assertTrue(result.getProduct().getActive());
+            assertTrue(result.getProduct().getAllowedRanks().contains("PLATA"));
+        });
+        verifyNoInteractions(embeddingService);
+    }
+
+    private List<ProductDocument> products(int count, int dimensions) {
+        Random random = new Random(42);
+        List<ProductDocument> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            BigDecimal minimum = BigDecimal.valueOf(1000L * (1 + random.nextInt(20)));
+            products.add(ProductDocument.builder()
+                    .id("PROD-" + i)
+                    .name("Producto " + i)
+                    .active(random.nextInt(10) > 0)
+                    .minimumAmount(minimum)
+                    .maximumAmount(minimum.multiply(BigDecimal.valueOf(2 + random.nextInt(50))))
+                    .currency(random.nextBoolean() ? "PEN" : "USD")
+                    .allowedRanks(List.of(RANKS[random.nextInt(RANKS.length)], RANKS[random.nextInt(RANKS.length)]))
+                    .embedding(randomVector(random, dimensions))
+                    .build());
+        }
+        return products;
+    }
+
+    private EmbeddingVector randomVector(Random random, int dimensions) {
+        float[] values = new float[dimensions];
+        for (int d = 0; d < dimensions; d++) {
+            values[d] = (float) random.nextGaussian();
+        }
+        return EmbeddingVector.wrap(values);
+    }
+}
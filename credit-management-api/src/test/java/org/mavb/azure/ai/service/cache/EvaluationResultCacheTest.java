@@ -0,0 +1,111 @@
+package org.mavb.azure.ai.service.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mavb.azure.ai.config.EvaluationProperties;
+import org.mavb.azure.ai.dto.projection.CustomerEmploymentProjection;
+import org.mavb.azure.ai.dto.projection.SearchSyncOutboxEntry.AggregateType;
+import org.mavb.azure.ai.entity.CreditProductEntity;
+import org.mavb.azure.ai.repository.CreditProductRepository;
+import org.mavb.azure.ai.service.embedding.ProductQueryEmbeddingGrid;
+import org.mavb.azure.ai.service.sync.SearchIndexChangedEvent;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class EvaluationResultCacheTest {
+
+    private CreditProductRepository productRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private EvaluationResultCache cache;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(CreditProductRepository.class);
+        when(productRepository.findAll()).thenReturn(List.of(product("1000", "20000"), product("10000", "80000")));
+        ProductQueryEmbeddingGrid grid = mock(ProductQueryEmbeddingGrid.class);
+        when(grid.queryAmount(any())).thenReturn(new BigDecimal("20000"));
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new EvaluationResultCache(new EvaluationProperties(), productRepository, grid, meterRegistry);
+        cache.init();
+    }
+
+    @Test
+    void testBucketSplitsOnProductLimits() {
+        // Given
+        EvaluationResultCache.Key below = cache.keyFor("10000001", new BigDecimal("19000"));
+        EvaluationResultCache.Key limit = cache.keyFor("10000001", new BigDecimal("20000.00"));
+        EvaluationResultCache.Key above = cache.keyFor("10000001", new BigDecimal("21000"));
+
+        // Then
+        assertEquals(below, limit);
+        assertNotEquals(limit, above);
+        verify(productRepository, times(1)).findAll();
+    }
+
+    @Test
+    void testHitRecordsSavedTime() {
+        // Given
+        EvaluationResultCache.Key key = cache.keyFor("10000001", new BigDecimal("15000"));
+        cache.put(key, cache.generation(), evaluation(2_000_000_000L));
+
+        // When
+        assertTrue(cache.get(key).isPresent());
+        assertTrue(cache.get(cache.keyFor("10000002", new BigDecimal("15000"))).isEmpty());
+
+        // Then
+        assertEquals(1, meterRegistry.get("evaluation.cache.requests").tag("result", "hit").counter().count());
+        assertEquals(1, meterRegistry.get("evaluation.cache.requests").tag("result", "miss").counter().count());
+        assertEquals(2.0, meterRegistry.get("evaluation.cache.saved").counter().count(), 1e-9);
+    }
+
+    @Test
+    void testCustomerEvictionOnlyDropsThatCustomer() {
+        // Given
+        EvaluationResultCache.Key first = cache.keyFor("10000001", new BigDecimal("15000"));
+        EvaluationResultCache.Key second = cache.keyFor("10000002", new BigDecimal("15000"));
+        cache.put(first, cache.generation(), evaluation(1));
+        cache.put(second, cache.generation(), evaluation(1));
+
+        // When
+        cache.evictCustomerAfterCommit("10000001");
+
+        // Then
+        assertTrue(cache.get(first).isEmpty());
+        assertTrue(cache.get(second).isPresent());
+    }
+
+    @Test
+    void testIndexChangeClearsCacheAndDiscardsInFlightResults() {
+        // Given
+        EvaluationResultCache.Key key = cache.keyFor("10000001", new BigDecimal("15000"));
+        cache.put(key, cache.generation(), evaluation(1));
+        long inFlight = cache.generation();
+
+        // When
+        cache.onSearchIndexChanged(new SearchIndexChangedEvent(AggregateType.PRODUCT, 1));
+        cache.put(key, inFlight, evaluation(1));
+
+        // Then
+        assertTrue(cache.get(key).isEmpty());
+        cache.keyFor("10000001", new BigDecimal("15000"));
+        verify(productRepository, times(2)).findAll();
+    }
+
+    private CachedEvaluation evaluation(long computeNanos) {
+        return new CachedEvaluation(new CustomerEmploymentProjection("10000001", BigDecimal.TEN, BigDecimal.ZERO),
+                null, List.of(), computeNanos);
+    }
+
+    private CreditProductEntity product(String minimum, String maximum) {
+        CreditProductEntity entity = new CreditProductEntity();
+        entity.setMinimumAmount(new BigDecimal(minimum));
+        entity.setMaximumAmount(new BigDecimal(maximum));
+        return entity;
+    }
+}
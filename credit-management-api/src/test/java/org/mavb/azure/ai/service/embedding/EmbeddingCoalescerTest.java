@@ -0,0 +1,93 @@
+package org.mavb.azure.ai.service.embedding;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mavb.azure.ai.vector.EmbeddingVector;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmbeddingCoalescerTest {
+
+    private EmbeddingCoalescer coalescer;
+
+    @AfterEach
+    void tearDown() {
+        if (coalescer != null) {
+            coalescer.dispose();
+        }
+    }
+
+    @Test
+    void testMoreSlowBatchesThanConcurrencyLimitAllComplete() {
+        // Given: each window holds one text and every load outlasts the arrival of the next four
+        AtomicInteger loads = new AtomicInteger();
+        coalescer = new EmbeddingCoalescer(16, Duration.ofMillis(10), 4, texts -> {
+            loads.incrementAndGet();
+            return Mono.delay(Duration.ofMillis(300)).map(tick -> vectors(texts));
+        }, new SimpleMeterRegistry());
+
+        // When
+        List<EmbeddingVector> results = Flux.range(0, 6)
+                .delayElements(Duration.ofMillis(20))
+                .flatMap(i -> coalescer.submit("texto " + i))
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        // Then
+        assertEquals(6, results.size());
+        assertTrue(loads.get() <= 6);
+        assertEquals(1, coalescer.submit("texto siguiente").block(Duration.ofSeconds(5)).dimensions());
+    }
+
+    @Test
+    void testConcurrentCallersAreAllAccepted() {
+        // Given
+        coalescer = new EmbeddingCoalescer(16, Duration.ofMillis(1), 4,
+                texts -> Mono.delay(Duration.ofMillis(5)).map(tick -> vectors(texts)), new SimpleMeterRegistry());
+
+        // When: many threads emit at the same time
+        Long completed = Flux.range(0, 2000)
+                .parallel(8)
+                .runOn(Schedulers.parallel())
+                .flatMap(i -> coalescer.submit("texto " + i))
+                .sequential()
+                .count()
+                .block(Duration.ofSeconds(10));
+
+        // Then
+        assertEquals(2000, completed);
+    }
+
+    @Test
+    void testEmptyLoadFailsPendingCallers() {
+        // Given
+        coalescer = new EmbeddingCoalescer(16, Duration.ofMillis(10), 4, texts -> Mono.empty(), new SimpleMeterRegistry());
+
+        // When / Then
+        Mono<EmbeddingVector> result = coalescer.submit("texto");
+        assertThrows(IllegalStateException.class, () -> result.block(Duration.ofSeconds(5)));
+    }
+
+    @Test
+    void testSubmitAfterDisposeFails() {
+        // Given
+        coalescer = new EmbeddingCoalescer(16, Duration.ofMillis(10), 4, texts -> Mono.just(vectors(texts)), new SimpleMeterRegistry());
+        coalescer.dispose();
+
+        // When / Then
+        Mono<EmbeddingVector> result = coalescer.submit("texto");
+        assertThrows(IllegalStateException.class, () -> result.block(Duration.ofSeconds(5)));
+    }
+
+    private static List<EmbeddingVector> vectors(List<String> texts) {
+        return texts.stream().map(text -> EmbeddingVector.wrap(new float[]{text.length()})).toList();
+    }
+}
@@ -0,0 +1,113 @@
+package org.mavb.azure.ai.service.embedding;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mavb.azure.ai.vector.EmbeddingVector;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmbeddingInferenceEngineTest {
+
+    @Test
+    void testQueuedTextsShareModelInvocations() throws Exception {
+        // Given: the single worker is held on the first batch while more texts queue up
+        CountDownLatch release = new CountDownLatch(1);
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        Function<List<String>, List<EmbeddingVector>> model = texts -> {
+            batchSizes.add(texts.size());
+            awaitQuietly(release);
+            return texts.stream().map(text -> EmbeddingVector.wrap(new float[]{text.length()})).toList();
+        };
+
+        try (EmbeddingInferenceEngine engine = new EmbeddingInferenceEngine(model, 4, 1, 64, new SimpleMeterRegistry())) {
+            CompletableFuture<EmbeddingVector> first = engine.submit("a");
+            waitUntil(() -> batchSizes.size() == 1);
+
+            // When
+            CompletableFuture<List<EmbeddingVector>> rest = engine.submitAll(
+                    IntStream.rangeClosed(2, 7).mapToObj("x"::repeat).toList());
+            release.countDown();
+
+            // Then: 6 queued texts run as batches of 4 and 2, results keep input order
+            assertEquals(1f, first.get(5, TimeUnit.SECONDS).get(0));
+            assertEquals(List.of(2f, 3f, 4f, 5f, 6f, 7f), rest.get(5, TimeUnit.SECONDS).stream().map(v -> v.get(0)).toList());
+            assertEquals(List.of(1, 4, 2), batchSizes);
+        }
+    }
+
+    @Test
+    void testModelFailureFailsOnlyItsBatch() throws Exception {
+        // Given
+        Function<List<String>, List<EmbeddingVector>> model = texts -> {
+            if (texts.contains("falla")) {
+                throw new IllegalStateException("model error");
+            }
+            return texts.stream().map(text -> EmbeddingVector.wrap(new float[]{1f})).toList();
+        };
+
+        try (EmbeddingInferenceEngine engine = new EmbeddingInferenceEngine(model, 1, 2, 64, new SimpleMeterRegistry())) {
+            // When
+            CompletableFuture<EmbeddingVector> failed = engine.submit("falla");
+            CompletableFuture<EmbeddingVector> succeeded = engine.submit("texto");
+
+            // Then
+            ExecutionException error = assertThrows(ExecutionException.class, () -> failed.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, error.getCause());
+            assertEquals(1f, succeeded.get(5, TimeUnit.SECONDS).get(0));
+        }
+    }
+
+    @Test
+    void testFullQueueRejectsNewTexts() throws Exception {
+        // Given: the worker is busy and the queue holds a single text
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        Function<List<String>, List<EmbeddingVector>> model = texts -> {
+            started.countDown();
+            awaitQuietly(release);
+            return texts.stream().map(text -> EmbeddingVector.wrap(new float[]{1f})).toList();
+        };
+
+        try (EmbeddingInferenceEngine engine = new EmbeddingInferenceEngine(model, 8, 1, 1, new SimpleMeterRegistry())) {
+            engine.submit("en curso");
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            CompletableFuture<EmbeddingVector> queued = engine.submit("en cola");
+
+            // When
+            CompletableFuture<EmbeddingVector> rejected = engine.submit("rechazado");
+            release.countDown();
+
+            // Then
+            ExecutionException error = assertThrows(ExecutionException.class, () -> rejected.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(RejectedExecutionException.class, error.getCause());
+            assertNotNull(queued.get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+}
@@ -0,0 +1,103 @@
+package org.mavb.azure.ai.service.embedding;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mavb.azure.ai.config.EvaluationProperties;
+import org.mavb.azure.ai.entity.CreditProductEntity;
+import org.mavb.azure.ai.entity.RankEntity;
+import org.mavb.azure.ai.repository.CreditProductRepository;
+import org.mavb.azure.ai.repository.RankRepository;
+import org.mavb.azure.ai.service.EmbeddingService;
+import org.mavb.azure.ai.vector.EmbeddingVector;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class ProductQueryEmbeddingGridTest {
+
+    private EmbeddingService embeddingService;
+    private EvaluationProperties evaluationProperties;
+    private ProductQueryEmbeddingGrid grid;
+
+    @BeforeEach
+    void setUp() {
+        embeddingService = mock(EmbeddingService.class);
+        when(embeddingService.getEmbeddings(anyList())).thenAnswer(invocation -> invocation.<List<String>>getArgument(0).stream()
+                .map(text -> EmbeddingVector.wrap(new float[]{text.hashCode()}))
+                .toList());
+
+        RankRepository rankRepository = mock(RankRepository.class);
+        when(rankRepository.findAll()).thenReturn(List.of(
+                RankEntity.builder().id("ORO").active(true).build(),
+                RankEntity.builder().id("PLATA").active(false).build()));
+        CreditProductRepository productRepository = mock(CreditProductRepository.class);
+        when(productRepository.findAll()).thenReturn(List.of(CreditProductEntity.builder()
+                .minimumAmount(new BigDecimal("3000.00"))
+                .maximumAmount(new BigDecimal("50000.00"))
+                .build()));
+
+        evaluationProperties = new EvaluationProperties();
+        evaluationProperties.getQueryGrid().setAmountBuckets(List.of(new BigDecimal("1000"), new BigDecimal("10000")));
+        grid = new ProductQueryEmbeddingGrid(embeddingService, evaluationProperties, rankRepository, productRepository, new SimpleMeterRegistry());
+        grid.init();
+    }
+
+    @Test
+    void testGridIsBuiltInOneBulkCall() {
+        // When
+        grid.build();
+
+        // Then: (ORO, UNDEFINED) x (1000, 3000, 10000, 50000)
+        verify(embeddingService, times(1)).getEmbeddings(argThat(texts -> texts.size() == 8));
+        assertTrue(grid.lookup("UNDEFINED", new BigDecimal("1000")).isPresent());
+        assertTrue(grid.lookup("PLATA", new BigDecimal("1000")).isEmpty());
+    }
+
+    @Test
+    void testLookupSnapsToNearestBucketWithinDeviation() {
+        // Given
+        grid.build();
+
+        // When
+        Optional<EmbeddingVector> snapped = grid.lookup("ORO", new BigDecimal("11500"));
+        Optional<EmbeddingVector> exactLimit = grid.lookup("ORO", new BigDecimal("50000"));
+        Optional<EmbeddingVector> tooFar = grid.lookup("ORO", new BigDecimal("200000"));
+
+        // Then
+        assertEquals(text("ORO", "10000"), snapped.orElseThrow().get(0));
+        assertEquals(text("ORO", "50000"), exactLimit.orElseThrow().get(0));
+        assertTrue(tooFar.isEmpty());
+    }
+
+    @Test
+    void testNewRankAddsOnlyItsRow() {
+        grid.build();
+        clearInvocations(embeddingService);
+
+        grid.onRankChanged("PREMIUM");
+        grid.onRankChanged("PREMIUM");
+
+        verify(embeddingService, times(1)).getEmbeddings(argThat(texts -> texts.size() == 4));
+        assertTrue(grid.lookup("PREMIUM", new BigDecimal("3000")).isPresent());
+    }
+
+    @Test
+    void testDisabledGridAlwaysFallsBack() {
+        evaluationProperties.getQueryGrid().setEnabled(false);
+
+        grid.build();
+
+        assertTrue(grid.lookup("ORO", new BigDecimal("10000")).isEmpty());
+        verifyNoInteractions(embeddingService);
+    }
+
+    private float text(String rank, String amount) {
+        return ProductQueryEmbeddingGrid.queryText(rank, new BigDecimal(amount)).hashCode();
+    }
+}
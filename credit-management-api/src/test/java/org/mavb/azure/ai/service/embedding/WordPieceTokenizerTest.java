@@ -0,0 +1,81 @@
+package org.mavb.azure.ai.service.embedding;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WordPieceTokenizerTest {
+
+    private static final List<String> VOCABULARY = List.of(
+            "[PAD]", "[UNK]", "[CLS]", "[SEP]", "credito", "vehic", "##ular", "de", "5000", ",", ".", "s", "##oles");
+
+    @Test
+    void testUncasedTextIsSplitIntoWordPieces(@TempDir Path tempDir) throws Exception {
+        // Given
+        Path vocabulary = tempDir.resolve("vocab.txt");
+        Files.write(vocabulary, VOCABULARY);
+        WordPieceTokenizer tokenizer = WordPieceTokenizer.load(vocabulary, true, 32);
+
+        // When
+        long[] ids = tokenizer.encode("Crédito  Vehicular, de 5000 soles.");
+
+        // Then: [CLS] credito vehic ##ular , de 5000 s ##oles . [SEP]
+        assertArrayEquals(new long[]{2, 4, 5, 6, 9, 7, 8, 11, 12, 10, 3}, ids);
+    }
+
+    @Test
+    void testUnknownWordMapsToUnk() {
+        // Given
+        WordPieceTokenizer tokenizer = new WordPieceTokenizer(vocabulary(), true, 32);
+
+        // When
+        long[] ids = tokenizer.encode("credito hipotecario");
+
+        // Then
+        assertArrayEquals(new long[]{2, 4, 1, 3}, ids);
+    }
+
+    @Test
+    void testLongInputIsTruncatedKeepingSeparator() {
+        // Given
+        WordPieceTokenizer tokenizer = new WordPieceTokenizer(vocabulary(), true, 4);
+
+        // When
+        long[] ids = tokenizer.encode("credito vehicular de 5000");
+
+        // Then: [CLS] credito vehic [SEP]
+        assertArrayEquals(new long[]{2, 4, 5, 3}, ids);
+    }
+
+    @Test
+    void testCasedVocabularyKeepsAccents() {
+        // Given
+        WordPieceTokenizer tokenizer = new WordPieceTokenizer(vocabulary(), false, 32);
+
+        // When
+        List<String> tokens = tokenizer.basicTokens("Crédito, vehicular");
+
+        // Then
+        assertEquals(List.of("Crédito", ",", "vehicular"), tokens);
+    }
+
+    @Test
+    void testVocabularyWithoutSpecialTokensIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new WordPieceTokenizer(Map.of("credito", 0), true, 32));
+    }
+
+    private static Map<String, Integer> vocabulary() {
+        Map<String, Integer> vocabulary = new HashMap<>();
+        for (int i = 0; i < VOCABULARY.size(); i++) {
+            vocabulary.put(VOCABULARY.get(i), i);
+        }
+        return vocabulary;
+    }
+}
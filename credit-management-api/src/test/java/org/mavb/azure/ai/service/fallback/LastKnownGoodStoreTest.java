@@ -0,0 +1,148 @@
+package org.mavb.azure.ai.service.fallback;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mavb.azure.ai.config.EvaluationProperties;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LastKnownGoodStoreTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final Ticker ticker = nanos::get;
+    private EvaluationProperties.Fallback settings;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        settings = new EvaluationProperties.Fallback();
+        settings.setLatencyBudget(Duration.ofMillis(100));
+        settings.setSlidingWindow(4);
+        settings.setMinimumCalls(2);
+        settings.setOpenDuration(Duration.ofMillis(200));
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void testFailureServesLastKnownGoodValue() {
+        // Given
+        LastKnownGoodStore<String, String> store = new LastKnownGoodStore<>("test", settings, meterRegistry);
+        store.execute("key", () -> Mono.just("good")).block(Duration.ofSeconds(2));
+
+        // When
+        String result = store.execute("key", () -> Mono.error(new IllegalStateException("search down")))
+                .block(Duration.ofSeconds(2));
+
+        // Then
+        assertEquals("good", result);
+        assertEquals(1, store.staleServed());
+        assertEquals(1, count("stale_error"));
+        assertEquals(1, count("fresh"));
+    }
+
+    @Test
+    void testFailureWithoutStoredValuePropagates() {
+        LastKnownGoodStore<String, String> store = new LastKnownGoodStore<>("test", settings, meterRegistry);
+
+        Mono<String> result = store.execute("key", () -> Mono.error(new IllegalStateException("search down")));
+
+        assertThrows(IllegalStateException.class, () -> result.block(Duration.ofSeconds(2)));
+        assertEquals(0, store.staleServed());
+    }
+
+    @Test
+    void testSlowCallServesStaleAndRefreshesInBackground() {
+        // Given
+        LastKnownGoodStore<String, String> store = new LastKnownGoodStore<>("test", settings, ticker, meterRegistry);
+        store.execute("key", () -> Mono.just("v1")).block(Duration.ofSeconds(2));
+        Sinks.One<String> slowCall = Sinks.one();
+
+        // When: the call is still running after the latency budget, then completes
+        String slow = store.execute("key", slowCall::asMono).block(Duration.ofSeconds(2));
+        slowCall.tryEmitValue("v2");
+        String afterRefresh = store.execute("key", () -> Mono.error(new IllegalStateException("search down")))
+                .block(Duration.ofSeconds(2));
+
+        // Then
+        assertEquals("v1", slow);
+        assertEquals("v2", afterRefresh);
+        assertEquals(1, count("stale_slow"));
+    }
+
+    @Test
+    void testOpenCircuitSkipsCallUntilProbeSucceeds() {
+        // Given
+        LastKnownGoodStore<String, String> store = new LastKnownGoodStore<>("test", settings, ticker, meterRegistry);
+        store.execute("key", () -> Mono.just("good")).block(Duration.ofSeconds(2));
+        // One failure out of two calls reaches the 50% threshold
+        store.execute("key", () -> Mono.error(new IllegalStateException("search down"))).block(Duration.ofSeconds(2));
+        AtomicInteger calls = new AtomicInteger();
+
+        // When
+        String whileOpen = store.execute("key", () -> Mono.fromCallable(() -> "call-" + calls.incrementAndGet()))
+                .block(Duration.ofSeconds(2));
+        nanos.addAndGet(settings.getOpenDuration().toNanos());
+        String probe = store.execute("key", () -> Mono.fromCallable(() -> "call-" + calls.incrementAndGet()))
+                .block(Duration.ofSeconds(2));
+
+        // Then
+        assertEquals("good", whileOpen);
+        assertEquals("call-1", probe);
+        assertEquals(1, count("stale_circuit_open"));
+        assertEquals(0, meterRegistry.get("circuit.state").tag("name", "test").gauge().value());
+    }
+
+    @Test
+    void testExpiredValueIsNotServed() {
+        // Given
+        LastKnownGoodStore<String, String> store = new LastKnownGoodStore<>("test", settings, ticker, meterRegistry);
+        store.execute("key", () -> Mono.just("good")).block(Duration.ofSeconds(2));
+        nanos.addAndGet(settings.getStaleTtl().toNanos());
+
+        // When
+        Mono<String> result = store.execute("key", () -> Mono.error(new IllegalStateException("search down")));
+
+        // Then
+        assertThrows(IllegalStateException.class, () -> result.block(Duration.ofSeconds(2)));
+        assertEquals(0, store.staleServed());
+    }
+
+    @Test
+    void testOpenCircuitWithoutStoredValueFailsFast() {
+        LastKnownGoodStore<String, String> store = new LastKnownGoodStore<>("test", settings, meterRegistry);
+        for (int i = 0; i < 2; i++) {
+            assertThrows(IllegalStateException.class,
+                    () -> store.execute("key", () -> Mono.<String>error(new IllegalStateException("search down"))).block());
+        }
+        AtomicInteger calls = new AtomicInteger();
+
+        Mono<String> result = store.execute("key", () -> Mono.fromCallable(() -> "call-" + calls.incrementAndGet()));
+
+        IllegalStateException error = assertThrows(IllegalStateException.class, () -> result.block(Duration.ofSeconds(2)));
+        assertTrue(error.getMessage().contains("Circuit open"));
+        assertEquals(0, calls.get());
+    }
+
+    @Test
+    void testDisabledStoreCallsThrough() {
+        settings.setEnabled(false);
+        LastKnownGoodStore<String, String> store = new LastKnownGoodStore<>("test", settings, meterRegistry);
+        store.execute("key", () -> Mono.just("good")).block(Duration.ofSeconds(2));
+
+        Mono<String> result = store.execute("key", () -> Mono.error(new IllegalStateException("search down")));
+
+        assertThrows(IllegalStateException.class, () -> result.block(Duration.ofSeconds(2)));
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("fallback.requests").tag("result", result).counter().count();
+    }
+}
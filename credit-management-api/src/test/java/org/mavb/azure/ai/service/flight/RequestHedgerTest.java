@@ -0,0 +1,164 @@
+package org.mavb.azure.ai.service.flight;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mavb.azure.ai.config.AzureProperties;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestHedgerTest {
+
+    private AzureProperties.Search.Hedge settings;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        settings = new AzureProperties.Search.Hedge();
+        settings.setEnabled(true);
+        settings.setInitialDelay(Duration.ofMillis(50));
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void testSlowPrimaryIsHedgedAndCancelled() {
+        // Given
+        RequestHedger hedger = new RequestHedger("test", settings, meterRegistry);
+        AtomicInteger attempts = new AtomicInteger();
+        AtomicBoolean primaryCancelled = new AtomicBoolean();
+
+        // When
+        String result = hedger.execute(() -> attempts.getAndIncrement() == 0
+                        ? Mono.delay(Duration.ofSeconds(5)).map(tick -> "primary").doOnCancel(() -> primaryCancelled.set(true))
+                        : Mono.just("hedge"))
+                .block(Duration.ofSeconds(2));
+
+        // Then
+        assertEquals("hedge", result);
+        assertEquals(2, attempts.get());
+        assertTrue(primaryCancelled.get());
+        assertEquals(1, meterRegistry.get("search.hedge.hedged").counter().count());
+        assertEquals(1, meterRegistry.get("search.hedge.wins").counter().count());
+    }
+
+    @Test
+    void testFastPrimaryIsNotHedged() {
+        RequestHedger hedger = new RequestHedger("test", settings, meterRegistry);
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = hedger.execute(() -> {
+            attempts.incrementAndGet();
+            return Mono.just("primary");
+        }).block(Duration.ofSeconds(2));
+
+        assertEquals("primary", result);
+        assertEquals(1, attempts.get());
+        assertEquals(0, meterRegistry.get("search.hedge.hedged").counter().count());
+    }
+
+    @Test
+    void testBudgetCapsHedges() {
+        // Given
+        settings.setInitialDelay(Duration.ofMillis(1));
+        settings.setMaxBudget(2);
+        RequestHedger hedger = new RequestHedger("test", settings, meterRegistry);
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            hedger.execute(() -> Mono.delay(Duration.ofMillis(20)).map(tick -> "slow")).block(Duration.ofSeconds(2));
+        }
+
+        // Then
+        assertEquals(2, meterRegistry.get("search.hedge.hedged").counter().count());
+        assertEquals(3, meterRegistry.get("search.hedge.budget.exhausted").counter().count());
+    }
+
+    @Test
+    void testPrimaryErrorAndEmptyAreNotHedged() {
+        // Given
+        RequestHedger hedger = new RequestHedger("test", settings, meterRegistry);
+        AtomicInteger attempts = new AtomicInteger();
+
+        // When
+        assertThrows(IllegalStateException.class, () -> hedger.execute(() -> {
+            attempts.incrementAndGet();
+            return Mono.<String>error(new IllegalStateException("search down"));
+        }).block(Duration.ofSeconds(2)));
+        String empty = hedger.execute(() -> {
+            attempts.incrementAndGet();
+            return Mono.<String>empty();
+        }).block(Duration.ofSeconds(2));
+
+        // Then
+        assertNull(empty);
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    void testDelayFollowsLatencyPercentile() {
+        // Given
+        settings.setMinSamples(10);
+        settings.setWindow(32);
+        settings.setInitialDelay(Duration.ofSeconds(1));
+        RequestHedger hedger = new RequestHedger("test", settings, meterRegistry);
+
+        // When
+        for (int i = 0; i < 20; i++) {
+            hedger.execute(() -> Mono.delay(Duration.ofMillis(15)).map(tick -> "ok")).block(Duration.ofSeconds(2));
+        }
+
+        // Then
+        Duration delay = hedger.currentDelay();
+        assertTrue(delay.compareTo(Duration.ofMillis(10)) >= 0);
+        assertTrue(delay.compareTo(Duration.ofMillis(500)) < 0);
+    }
+
+    @Test
+    void testHedgedPrimariesDoNotLowerTheDelay() {
+        // Given: every primary is slow and every hedge wins immediately
+        settings.setMinSamples(5);
+        settings.setWindow(8);
+        settings.setInitialDelay(Duration.ofMillis(20));
+        settings.setMaxDelay(Duration.ofMillis(200));
+        settings.setMaxBudget(100);
+        settings.setBudgetRatio(1);
+        RequestHedger hedger = new RequestHedger("test", settings, meterRegistry);
+
+        // When
+        for (int i = 0; i < 6; i++) {
+            AtomicInteger attempts = new AtomicInteger();
+            hedger.execute(() -> attempts.getAndIncrement() == 0
+                    ? Mono.delay(Duration.ofSeconds(5)).map(tick -> "primary")
+                    : Mono.just("hedge")).block(Duration.ofSeconds(2));
+        }
+
+        // Then: cancelled primaries count as slower than any delay, not as ~20 ms
+        assertEquals(Duration.ofMillis(200), hedger.currentDelay());
+        assertEquals(6, meterRegistry.get("search.hedge.attempt.latency").timer().count());
+    }
+
+    @Test
+    void testCallerCancellationIsNotALatencySample() {
+        // Given
+        settings.setMinSamples(5);
+        settings.setWindow(8);
+        RequestHedger hedger = new RequestHedger("test", settings, meterRegistry);
+
+        // When: callers give up long before the hedge delay
+        for (int i = 0; i < 10; i++) {
+            hedger.execute(() -> Mono.<String>never())
+                    .timeout(Duration.ofMillis(5))
+                    .onErrorResume(error -> Mono.empty())
+                    .block(Duration.ofSeconds(2));
+        }
+
+        // Then
+        assertEquals(Duration.ofMillis(50), hedger.currentDelay());
+        assertEquals(0, meterRegistry.get("search.hedge.hedged").counter().count());
+    }
+}
@@ -0,0 +1,81 @@
+package org.mavb.azure.ai.service.flight;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private SingleFlight<String, String> singleFlight;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        singleFlight = new SingleFlight<>("test", meterRegistry);
+    }
+
+    @Test
+    void testConcurrentCallersShareOneExecution() {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+        Sinks.One<String> upstream = Sinks.one();
+        Mono<String> first = singleFlight.execute("key", () -> {
+            calls.incrementAndGet();
+            return upstream.asMono();
+        });
+        Mono<String> second = singleFlight.execute("key", () -> {
+            calls.incrementAndGet();
+            return Mono.just("other");
+        });
+
+        // When
+        Mono<List<String>> results = Mono.zip(first, second).map(tuple -> List.of(tuple.getT1(), tuple.getT2()));
+        Mono<List<String>> pending = results.cache();
+        pending.subscribe();
+        upstream.tryEmitValue("value");
+
+        // Then
+        assertEquals(List.of("value", "value"), pending.block(Duration.ofSeconds(5)));
+        assertEquals(1, calls.get());
+        assertEquals(1, meterRegistry.get("singleflight.requests").tag("result", "executed").counter().count());
+        assertEquals(1, meterRegistry.get("singleflight.requests").tag("result", "collapsed").counter().count());
+    }
+
+    @Test
+    void testErrorReachesAllWaitersAndReleasesKey() {
+        // Given
+        Sinks.One<String> upstream = Sinks.one();
+        Mono<String> first = singleFlight.execute("key", upstream::asMono).cache();
+        Mono<String> second = singleFlight.execute("key", () -> Mono.just("other")).cache();
+        first.subscribe(value -> { }, error -> { });
+        second.subscribe(value -> { }, error -> { });
+
+        // When
+        upstream.tryEmitError(new IllegalStateException("search down"));
+
+        // Then
+        assertThrows(IllegalStateException.class, () -> first.block(Duration.ofSeconds(5)));
+        assertThrows(IllegalStateException.class, () -> second.block(Duration.ofSeconds(5)));
+        assertEquals("retry", singleFlight.execute("key", () -> Mono.just("retry")).block(Duration.ofSeconds(5)));
+        assertEquals(0.0, meterRegistry.get("singleflight.inflight").gauge().value());
+    }
+
+    @Test
+    void testDifferentKeysRunIndependently() {
+        String first = singleFlight.execute("a", () -> Mono.just("A")).block(Duration.ofSeconds(5));
+        String second = singleFlight.execute("b", () -> Mono.just("B")).block(Duration.ofSeconds(5));
+
+        assertEquals("A", first);
+        assertEquals("B", second);
+        assertEquals(2, meterRegistry.get("singleflight.requests").tag("result", "executed").counter().count());
+    }
+}
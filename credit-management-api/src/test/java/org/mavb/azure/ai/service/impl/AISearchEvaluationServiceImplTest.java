@@ -0,0 +1,162 @@
+package org.mavb.azure.ai.service.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mavb.azure.ai.config.EvaluationProperties;
+import org.mavb.azure.ai.dto.projection.CustomerEmploymentData;
+import org.mavb.azure.ai.dto.request.EvaluationRequestDTO;
+import org.mavb.azure.ai.dto.response.EvaluationResponseDTO;
+import org.mavb.azure.ai.entity.ProductDocument;
+import org.mavb.azure.ai.entity.RankDocument;
+import org.mavb.azure.ai.repository.CreditProductRepository;
+import org.mavb.azure.ai.repository.CustomerRepository;
+import org.mavb.azure.ai.service.AISearchClient;
+import org.mavb.azure.ai.service.cache.EvaluationResultCache;
+import org.mavb.azure.ai.service.embedding.ProductQueryEmbeddingGrid;
+import org.mavb.azure.ai.service.index.RankMatch;
+import org.mavb.azure.ai.service.timing.StageTimer;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class AISearchEvaluationServiceImplTest {
+
+    private CustomerRepository customerRepository;
+    private AISearchClient aiSearchClient;
+    private ProductQueryEmbeddingGrid productQueryEmbeddingGrid;
+    private AISearchEvaluationServiceImpl evaluationService;
+
+    @BeforeEach
+    void setUp() {
+        customerRepository = mock(CustomerRepository.class);
+        aiSearchClient = mock(AISearchClient.class);
+        productQueryEmbeddingGrid = mock(ProductQueryEmbeddingGrid.class);
+        when(productQueryEmbeddingGrid.queryAmount(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        EvaluationProperties evaluationProperties = new EvaluationProperties();
+        EvaluationResultCache evaluationResultCache = new EvaluationResultCache(evaluationProperties,
+                mock(CreditProductRepository.class), productQueryEmbeddingGrid, new SimpleMeterRegistry());
+        evaluationResultCache.init();
+        evaluationService = new AISearchEvaluationServiceImpl(customerRepository, aiSearchClient, evaluationProperties,
+                evaluationResultCache, new StageTimer(new SimpleMeterRegistry()), new SimpleMeterRegistry());
+        evaluationService.init();
+
+        LocalDate start = LocalDate.now().minusYears(3);
+        Row row = new Row("10000001", "5000", "1000", start, null, "5000");
+        when(customerRepository.findCustomerEmploymentDataForSemanticAnalysis("10000001")).thenReturn(List.of(row));
+        when(customerRepository.findCustomerEmploymentDataForSemanticAnalysis(anyCollection())).thenReturn(List.of(
+                row,
+                new Row("10000002", "5000", "1000", start, null, "5000"),
+                new Row("10000003", "9000", "0", null, null, null)));
+
+        RankDocument oro = RankDocument.builder().id("ORO").build();
+        when(aiSearchClient.resolveRankReactive(anyString())).thenReturn(Mono.just(new RankMatch(oro, 0.9)));
+        ProductDocument product = ProductDocument.builder().id("PROD-001").name("Crédito").minimumRate(BigDecimal.TEN).build();
+        when(aiSearchClient.searchProductsByRankAndAmountReactive(anyString(), any()))
+                .thenReturn(Mono.just(List.of(new AISearchClient.ProductSearchResult(product, 0.8))));
+    }
+
+    @Test
+    void testBatchLoadsCustomersOnceAndDedupesAiCalls() {
+        // Given
+        List<EvaluationRequestDTO> requests = List.of(
+                request("10000001", "15000"),
+                request("10000002", "15000.00"),
+                request("10000003", "15000"),
+                request("99999999", "15000"));
+
+        // When
+        Map<String, EvaluationResponseDTO> results = evaluationService.evaluateBatch(requests)
+                .collectMap(response -> response.getClientProfile().getIdentityDocument(), Function.identity())
+                .block(Duration.ofSeconds(5));
+
+        // Then
+        assertEquals(4, results.size());
+        assertEquals("ORO", results.get("10000001").getClientProfile().getSemanticRank());
+        assertEquals(0.9, results.get("10000002").getClientProfile().getSemanticConfidence());
+        assertEquals(1, results.get("10000003").getEligibleProducts().size());
+        assertNotNull(results.get("99999999").getError());
+        assertNull(results.get("10000001").getError());
+
+        verify(customerRepository, times(1)).findCustomerEmploymentDataForSemanticAnalysis(anyCollection());
+        verify(aiSearchClient, times(2)).resolveRankReactive(anyString());
+        verify(aiSearchClient, times(1)).searchProductsByRankAndAmountReactive(anyString(), any());
+    }
+
+    @Test
+    void testRankFailureDoesNotAbortBatch() {
+        when(aiSearchClient.resolveRankReactive(anyString())).thenReturn(Mono.error(new IllegalStateException("search down")));
+
+        List<EvaluationResponseDTO> results = evaluationService.evaluateBatch(List.of(request("10000001", "15000")))
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertEquals(1, results.size());
+        assertEquals("UNDEFINED", results.get(0).getClientProfile().getSemanticRank());
+        verify(customerRepository, never()).findCustomerEmploymentDataForSemanticAnalysis(anyString());
+    }
+
+    @Test
+    void testSameAmountBucketIsServedFromCache() {
+        // Given
+        when(productQueryEmbeddingGrid.queryAmount(any())).thenReturn(new BigDecimal("20000"));
+        EvaluationResponseDTO first = evaluationService.evaluateClientEligibility(request("10000001", "18000")).block(Duration.ofSeconds(5));
+
+        // When
+        EvaluationResponseDTO second = evaluationService.evaluateClientEligibility(request("10000001", "21000")).block(Duration.ofSeconds(5));
+
+        // Then
+        assertEquals(new BigDecimal("18000"), first.getEligibleProducts().get(0).getApprovedAmount());
+        assertEquals(new BigDecimal("21000"), second.getEligibleProducts().get(0).getApprovedAmount());
+        assertEquals("ORO", second.getClientProfile().getSemanticRank());
+        verify(customerRepository, times(1)).findCustomerEmploymentDataForSemanticAnalysis("10000001");
+        verify(aiSearchClient, times(1)).resolveRankReactive(anyString());
+        verify(aiSearchClient, times(1)).searchProductsByRankAndAmountReactive(anyString(), any());
+    }
+
+    private EvaluationRequestDTO request(String identityDocument, String amount) {
+        return EvaluationRequestDTO.builder()
+                .identityDocument(identityDocument)
+                .requestedAmount(new BigDecimal(amount))
+                .build();
+    }
+
+    private record Row(String identityDocument, String monthlyIncome, String currentDebt,
+                       LocalDate startDate, LocalDate endDate, String income) implements CustomerEmploymentData {
+
+        public String getIdentityDocument() {
+            return identityDocument;
+        }
+
+        public BigDecimal getMonthlyIncome() {
+            return new BigDecimal(monthlyIncome);
+        }
+
+        public BigDecimal getCurrentDebt() {
+            return new BigDecimal(currentDebt);
+        }
+
+        public LocalDate getStartDate() {
+            return startDate;
+        }
+
+        public LocalDate getEndDate() {
+            return endDate;
+        }
+
+        public BigDecimal getIncome() {
+            return income != null ? new BigDecimal(income) : null;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package org.mavb.azure.ai.service.index;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mavb.azure.ai.config.EvaluationProperties;
+import org.mavb.azure.ai.entity.CreditProductEntity;
+import org.mavb.azure.ai.entity.ProductDocument;
+import org.mavb.azure.ai.mapper.ProductDocumentMapper;
+import org.mavb.azure.ai.mapper.RankDocumentMapper;
+import org.mavb.azure.ai.repository.CreditProductRepository;
+import org.mavb.azure.ai.repository.PgVectorRepository;
+import org.mavb.azure.ai.repository.RankRepository;
+import org.mavb.azure.ai.service.EmbeddingService;
+import org.mavb.azure.ai.vector.EmbeddingVector;
+import org.mockito.InOrder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.OptionalInt;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class DatabaseVectorIndexTest {
+
+    private PgVectorRepository pgVectorRepository;
+    private CreditProductRepository productRepository;
+    private RankRepository rankRepository;
+    private ProductDocumentMapper productDocumentMapper;
+    private RankDocumentMapper rankDocumentMapper;
+    private DatabaseVectorIndex databaseVectorIndex;
+
+    @BeforeEach
+    void setUp() {
+        pgVectorRepository = mock(PgVectorRepository.class);
+        productRepository = mock(CreditProductRepository.class);
+        rankRepository = mock(RankRepository.class);
+        productDocumentMapper = mock(ProductDocumentMapper.class);
+        rankDocumentMapper = mock(RankDocumentMapper.class);
+        EmbeddingService embeddingService = mock(EmbeddingService.class);
+        when(embeddingService.version()).thenReturn("text-embedding-3-small");
+
+        EvaluationProperties properties = new EvaluationProperties();
+        properties.getVectorStore().setEnabled(true);
+        databaseVectorIndex = new DatabaseVectorIndex(pgVectorRepository, productRepository, rankRepository,
+                productDocumentMapper, rankDocumentMapper, embeddingService, properties,
+                mock(PlatformTransactionManager.class), new SimpleMeterRegistry());
+        databaseVectorIndex.init();
+    }
+
+    @Test
+    void testLoadIsSkippedWithoutPgVectorColumns() {
+        // Given
+        when(pgVectorRepository.dimensions()).thenReturn(OptionalInt.empty());
+
+        // When
+        databaseVectorIndex.load();
+
+        // Then
+        assertFalse(databaseVectorIndex.isReady());
+        verifyNoInteractions(productRepository, productDocumentMapper, rankDocumentMapper);
+    }
+
+    @Test
+    void testLoadStoresOnlyEmbeddingsOfColumnSize() {
+        // Given
+        when(pgVectorRepository.dimensions()).thenReturn(OptionalInt.of(2));
+        List<CreditProductEntity> entities = List.of(new CreditProductEntity());
+        when(productRepository.findAll()).thenReturn(entities);
+        when(productDocumentMapper.toProductDocuments(entities)).thenReturn(List.of(
+                product("PROD-001", 1f, 0f),
+                product("PROD-002", 1f, 0f, 0f),
+                ProductDocument.builder().id("PROD-003").embedding(EmbeddingVector.EMPTY).build()));
+        when(rankDocumentMapper.toRankDocuments(anyList())).thenReturn(List.of());
+
+        // When
+        databaseVectorIndex.load();
+
+        // Then
+        assertTrue(databaseVectorIndex.isReady());
+        verify(pgVectorRepository).saveProductEmbeddings(
+                argThat(documents -> documents.stream().map(ProductDocument::getId).toList().equals(List.of("PROD-001"))),
+                eq("text-embedding-3-small"));
+        verify(pgVectorRepository, never()).saveRankEmbeddings(anyList(), anyString());
+    }
+
+    @Test
+    void testQueryOfOtherDimensionsIsNotSent() {
+        // Given
+        when(pgVectorRepository.dimensions()).thenReturn(OptionalInt.of(2));
+        when(productDocumentMapper.toProductDocuments(anyList())).thenReturn(List.of());
+        when(rankDocumentMapper.toRankDocuments(anyList())).thenReturn(List.of());
+        databaseVectorIndex.load();
+
+        // When
+        List<ProductMatch> matches = databaseVectorIndex.search(EmbeddingVector.wrap(new float[]{1f, 0f, 0f}), null, 10);
+
+        // Then
+        assertTrue(matches.isEmpty());
+        assertTrue(databaseVectorIndex.nearestRank(EmbeddingVector.EMPTY).isEmpty());
+        verify(pgVectorRepository, never()).searchProducts(any(), any(), anyInt(), anyString());
+        verify(pgVectorRepository, never()).nearestRank(any(), anyString());
+    }
+
+    @Test
+    void testSearchConfiguresScanBeforeQuerying() {
+        // Given
+        when(pgVectorRepository.dimensions()).thenReturn(OptionalInt.of(2));
+        when(pgVectorRepository.supportsIterativeScan()).thenReturn(true);
+        when(productDocumentMapper.toProductDocuments(anyList())).thenReturn(List.of());
+        when(rankDocumentMapper.toRankDocuments(anyList())).thenReturn(List.of());
+        databaseVectorIndex.load();
+        ProductFilter filter = new ProductFilter("ORO", new BigDecimal("30000"), "PEN");
+        EmbeddingVector query = EmbeddingVector.wrap(new float[]{1f, 0f});
+
+        // When
+        databaseVectorIndex.search(query, filter, 5);
+        databaseVectorIndex.nearestRank(query);
+
+        // Then
+        InOrder inOrder = inOrder(pgVectorRepository);
+        inOrder.verify(pgVectorRepository).configureScan(true, 5);
+        inOrder.verify(pgVectorRepository).searchProducts(query, filter, 5, "text-embedding-3-small");
+        inOrder.verify(pgVectorRepository).configureScan(true, 1);
+        inOrder.verify(pgVectorRepository).nearestRank(query, "text-embedding-3-small");
+    }
+
+    private ProductDocument product(String id, float... values) {
+        return ProductDocument.builder().id(id).embedding(EmbeddingVector.wrap(values)).build();
+    }
+}
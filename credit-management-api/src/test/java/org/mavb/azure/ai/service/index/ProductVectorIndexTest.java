@@ -0,0 +1,163 @@
+package org.mavb.azure.ai.service.index;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mavb.azure.ai.config.EvaluationProperties;
+import org.mavb.azure.ai.entity.ProductDocument;
+import org.mavb.azure.ai.vector.EmbeddingVector;
+import org.mavb.azure.ai.vector.VectorEncoding;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductVectorIndexTest {
+
+    private ProductVectorIndex productVectorIndex;
+
+    @BeforeEach
+    void setUp() {
+        productVectorIndex = new ProductVectorIndex(null, null, null, new SimpleMeterRegistry(), new EvaluationProperties(),
+                new IndexFileStore(new EvaluationProperties(), null, null));
+        productVectorIndex.init();
+        productVectorIndex.upsertAll(List.of(
+                product("PERSONAL", true, "1000", "20000", "PEN", List.of("BRONCE", "PLATA"), 1f, 0f, 0f),
+                product("VEHICULAR", true, "10000", "80000", "PEN", List.of("PLATA", "ORO"), 0.8f, 0.6f, 0f),
+                product("HIPOTECARIO", true, "50000", "500000", "USD", List.of("ORO", "PREMIUM"), 0f, 1f, 0f),
+                product("INACTIVO", false, "1000", "500000", "PEN", List.of("BRONCE", "ORO"), 1f, 0f, 0f)));
+    }
+
+    @Test
+    void testFiltersAreAppliedBeforeRanking() {
+        // Given
+        EmbeddingVector query = EmbeddingVector.wrap(new float[]{1f, 0f, 0f});
+
+        // When
+        List<ProductMatch> byAmount = productVectorIndex.search(query, new ProductFilter(null, new BigDecimal("15000"), null), 10);
+        List<ProductMatch> byRank = productVectorIndex.search(query, ProductFilter.of("ORO", null), 10);
+        List<ProductMatch> byCurrency = productVectorIndex.search(query, new ProductFilter(null, null, "USD"), 10);
+
+        // Then
+        assertEquals(List.of("PERSONAL", "VEHICULAR"), ids(byAmount));
+        assertEquals(List.of("VEHICULAR", "HIPOTECARIO"), ids(byRank));
+        assertEquals(List.of("HIPOTECARIO"), ids(byCurrency));
+        assertEquals(1.0, byAmount.get(0).score(), 1e-6);
+    }
+
+    @Test
+    void testTopLimitsResultsAndKeepsBestScores() {
+        List<ProductMatch> matches = productVectorIndex.search(EmbeddingVector.wrap(new float[]{0f, 1f, 0f}), null, 2);
+
+        assertEquals(List.of("HIPOTECARIO", "VEHICULAR"), ids(matches));
+        assertTrue(matches.get(0).score() > matches.get(1).score());
+    }
+
+    @Test
+    void testUpsertReplacesAndRemoveDrops() {
+        productVectorIndex.upsert(product("PERSONAL", false, "1000", "20000", "PEN", List.of("BRONCE"), 1f, 0f, 0f));
+        productVectorIndex.remove("HIPOTECARIO");
+
+        List<ProductMatch> matches = productVectorIndex.search(EmbeddingVector.wrap(new float[]{1f, 0f, 0f}), null, 10);
+
+        assertEquals(3, productVectorIndex.size());
+        assertEquals(List.of("VEHICULAR"), ids(matches));
+    }
+
+    @Test
+    void testQuantizedEncodingsRescoreAtFullPrecision() {
+        // Given
+        Random random = new Random(7);
+        List<ProductDocument> documents = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            float[] values = new float[64];
+            for (int d = 0; d < values.length; d++) {
+                values[d] = (float) random.nextGaussian();
+            }
+            documents.add(product("PROD-" + i, true, "1000", "500000", "PEN", List.of("ORO"), values));
+        }
+        EmbeddingVector query = documents.get(42).getEmbedding();
+
+        // When
+        List<ProductMatch> exact = indexWith(VectorEncoding.FLOAT32, 1, documents).search(query, null, 10);
+        List<ProductMatch> int8 = indexWith(VectorEncoding.INT8, 4, documents).search(query, null, 10);
+        List<ProductMatch> binaryFullRescore = indexWith(VectorEncoding.BINARY, 30, documents).search(query, null, 10);
+
+        // Then
+        assertEquals("PROD-42", int8.get(0).product().getId());
+        assertEquals(exact.get(0).score(), int8.get(0).score(), 1e-6);
+        assertTrue(int8.stream().filter(match -> ids(exact).contains(match.product().getId())).count() >= 9);
+        assertEquals(ids(exact), ids(binaryFullRescore));
+        for (int i = 0; i < exact.size(); i++) {
+            assertEquals(exact.get(i).score(), binaryFullRescore.get(i).score(), 1e-6);
+        }
+    }
+
+    @Test
+    void testResidentBytesIncludeEmbeddingsKeptForRescoring() {
+        // Given
+        List<ProductDocument> documents = List.of(
+                product("PERSONAL", true, "1000", "20000", "PEN", List.of("ORO"), 1f, 0f, 0f, 0f),
+                product("VEHICULAR", true, "1000", "20000", "PEN", List.of("ORO"), 0f, 1f, 0f, 0f));
+
+        // When
+        long float32 = indexWith(VectorEncoding.FLOAT32, 1, documents).residentVectorBytes();
+        long int8 = indexWith(VectorEncoding.INT8, 4, documents).residentVectorBytes();
+
+        // Then: float embeddings plus the normalized copy, or plus codes, scale and inverse norm
+        assertEquals(2 * (4 * Float.BYTES + 4 * Float.BYTES), float32);
+        assertEquals(2 * (4 * Float.BYTES + 4 + Float.BYTES + Float.BYTES), int8);
+    }
+
+    private ProductVectorIndex indexWith(VectorEncoding encoding, int rescoreMultiplier, List<ProductDocument> documents) {
+        EvaluationProperties properties = new EvaluationProperties();
+        properties.getProductSearch().setEncoding(encoding);
+        properties.getProductSearch().setRescoreMultiplier(rescoreMultiplier);
+        ProductVectorIndex index = new ProductVectorIndex(null, null, null, new SimpleMeterRegistry(), properties,
+                new IndexFileStore(new EvaluationProperties(), null, null));
+        index.init();
+        index.upsertAll(documents);
+        return index;
+    }
+
+    @Test
+    void testProductsOfMinorityDimensionsAreSkippedWhateverTheOrder() {
+        // Given: a product re-embedded with a new model arrives first
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ProductVectorIndex index = new ProductVectorIndex(null, null, null, meterRegistry, new EvaluationProperties(),
+                new IndexFileStore(new EvaluationProperties(), null, null));
+        index.init();
+
+        // When
+        index.upsertAll(List.of(
+                product("NUEVO", true, "1000", "20000", "PEN", List.of("ORO"), 1f, 0f),
+                product("PERSONAL", true, "1000", "20000", "PEN", List.of("ORO"), 1f, 0f, 0f),
+                product("VEHICULAR", true, "1000", "20000", "PEN", List.of("ORO"), 0f, 1f, 0f)));
+
+        // Then
+        assertEquals(2, index.size());
+        assertEquals(List.of("PERSONAL"), ids(index.search(EmbeddingVector.wrap(new float[]{1f, 0f, 0f}), null, 1)));
+        assertEquals(1, meterRegistry.get("product.index.skipped").gauge().value());
+    }
+
+    private List<String> ids(List<ProductMatch> matches) {
+        return matches.stream().map(match -> match.product().getId()).toList();
+    }
+
+    private ProductDocument product(String id, boolean active, String minimum, String maximum,
+                                    String currency, List<String> ranks, float... embedding) {
+        return ProductDocument.builder()
+                .id(id)
+                .name(id)
+                .active(active)
+                .minimumAmount(new BigDecimal(minimum))
+                .maximumAmount(new BigDecimal(maximum))
+                .currency(currency)
+                .allowedRanks(ranks)
+                .embedding(EmbeddingVector.wrap(embedding))
+                .build();
+    }
+}
@@ -0,0 +1,145 @@
+package org.mavb.azure.ai.service.index;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mavb.azure.ai.config.EvaluationProperties;
+import org.mavb.azure.ai.entity.RankDocument;
+import org.mavb.azure.ai.entity.RankEntity;
+import org.mavb.azure.ai.mapper.RankDocumentMapper;
+import org.mavb.azure.ai.repository.RankRepository;
+import org.mavb.azure.ai.service.EmbeddingService;
+import org.mavb.azure.ai.vector.EmbeddingVector;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class RankVectorIndexTest {
+
+    private RankRepository rankRepository;
+    private RankDocumentMapper rankDocumentMapper;
+    private RankVectorIndex rankVectorIndex;
+
+    @BeforeEach
+    void setUp() {
+        rankRepository = mock(RankRepository.class);
+        rankDocumentMapper = mock(RankDocumentMapper.class);
+        rankVectorIndex = new RankVectorIndex(rankRepository, rankDocumentMapper, new IndexFileStore(new EvaluationProperties(), null, null));
+    }
+
+    @Test
+    void testNearestRankUsesCosineSimilarity() {
+        // Given
+        when(rankRepository.findAll()).thenReturn(List.of(rank("BRONCE", true), rank("ORO", true), rank("PLATA", false)));
+        when(rankDocumentMapper.toRankDocumentSync(any())).thenAnswer(invocation -> {
+            RankEntity entity = invocation.getArgument(0);
+            float[] values = switch (entity.getId()) {
+                case "BRONCE" -> new float[]{1f, 0f, 0f};
+                case "ORO" -> new float[]{0f, 1f, 0f};
+                default -> new float[]{0f, 0f, 1f};
+            };
+            return document(entity.getId(), values);
+        });
+
+        // When
+        rankVectorIndex.load();
+        Optional<RankMatch> match = rankVectorIndex.nearest(EmbeddingVector.wrap(new float[]{0.1f, 3f, 0f}));
+        Optional<RankMatch> exact = rankVectorIndex.nearest(EmbeddingVector.wrap(new float[]{2f, 0f, 0f}));
+
+        // Then
+        assertTrue(rankVectorIndex.isReady());
+        assertEquals(2, rankVectorIndex.size());
+        assertEquals("ORO", match.orElseThrow().rank().getId());
+        assertTrue(match.get().score() < 1.0);
+        assertEquals("BRONCE", exact.orElseThrow().rank().getId());
+        assertEquals(1.0, exact.get().score(), 1e-6);
+    }
+
+    @Test
+    void testUpsertIgnoresDocumentsWithoutEmbedding() {
+        rankVectorIndex.upsert(document("ORO", new float[0]));
+
+        assertEquals(0, rankVectorIndex.size());
+        assertTrue(rankVectorIndex.nearest(EmbeddingVector.wrap(new float[]{1f})).isEmpty());
+    }
+
+    @Test
+    void testRanksInIndexFileAreNotReEmbedded(@TempDir Path directory) {
+        // Given: ORO was written to the index file by a previous run
+        EvaluationProperties properties = new EvaluationProperties();
+        properties.getIndexFiles().setEnabled(true);
+        properties.getIndexFiles().setDirectory(directory.toString());
+        EmbeddingService embeddingService = mock(EmbeddingService.class);
+        when(embeddingService.version()).thenReturn("text-embedding-3-small");
+        IndexFileStore previousRun = new IndexFileStore(properties, embeddingService, new SimpleMeterRegistry());
+        previousRun.init();
+        previousRun.saveRanks(List.of(document("ORO", new float[]{0f, 1f})));
+        previousRun.shutdown();
+
+        IndexFileStore indexFileStore = new IndexFileStore(properties, embeddingService, new SimpleMeterRegistry());
+        indexFileStore.init();
+        RankVectorIndex index = new RankVectorIndex(rankRepository, rankDocumentMapper, indexFileStore);
+        RankEntity oro = rank("ORO", true);
+        RankEntity bronce = rank("BRONCE", true);
+        when(rankRepository.findAll()).thenReturn(List.of(oro, bronce));
+        when(rankDocumentMapper.toRankDocument(any(), any())).thenCallRealMethod();
+        when(rankDocumentMapper.toRankDocumentSync(bronce)).thenReturn(document("BRONCE", new float[]{1f, 0f}));
+
+        // When
+        index.load();
+
+        // Then: only BRONCE is embedded, and it is written for the next start
+        assertEquals(2, index.size());
+        assertEquals("ORO", index.nearest(EmbeddingVector.wrap(new float[]{0.1f, 1f})).orElseThrow().rank().getId());
+        verify(rankDocumentMapper, never()).toRankDocumentSync(oro);
+        assertTrue(indexFileStore.rank(document("BRONCE", new float[0])).isPresent());
+        indexFileStore.shutdown();
+    }
+
+    @Test
+    void testRanksWithChangedDescriptionAreReEmbedded(@TempDir Path directory) {
+        // Given: ORO is in the index file, but its description was edited on another replica since
+        EvaluationProperties properties = new EvaluationProperties();
+        properties.getIndexFiles().setEnabled(true);
+        properties.getIndexFiles().setDirectory(directory.toString());
+        EmbeddingService embeddingService = mock(EmbeddingService.class);
+        when(embeddingService.version()).thenReturn("text-embedding-3-small");
+        IndexFileStore previousRun = new IndexFileStore(properties, embeddingService, new SimpleMeterRegistry());
+        previousRun.init();
+        previousRun.saveRanks(List.of(document("ORO", new float[]{0f, 1f})));
+        previousRun.shutdown();
+
+        IndexFileStore indexFileStore = new IndexFileStore(properties, embeddingService, new SimpleMeterRegistry());
+        indexFileStore.init();
+        RankVectorIndex index = new RankVectorIndex(rankRepository, rankDocumentMapper, indexFileStore);
+        RankEntity oro = RankEntity.builder().id("ORO").name("ORO").description("Clientes con ingresos altos").active(true).build();
+        when(rankRepository.findAll()).thenReturn(List.of(oro));
+        when(rankDocumentMapper.toRankDocument(any(), any())).thenCallRealMethod();
+        when(rankDocumentMapper.toRankDocumentSync(oro)).thenReturn(RankDocument.builder().id("ORO").name("ORO")
+                .description(oro.getDescription()).embedding(EmbeddingVector.wrap(new float[]{1f, 0f})).build());
+
+        // When
+        index.load();
+
+        // Then: the stale vector is replaced by the new embedding, in memory and in the file
+        verify(rankDocumentMapper).toRankDocumentSync(oro);
+        assertEquals(1.0, index.nearest(EmbeddingVector.wrap(new float[]{1f, 0f})).orElseThrow().score(), 1e-6);
+        RankDocument current = RankDocument.builder().id("ORO").description(oro.getDescription()).build();
+        assertEquals(EmbeddingVector.wrap(new float[]{1f, 0f}), indexFileStore.rank(current).orElseThrow());
+        indexFileStore.shutdown();
+    }
+
+    private RankEntity rank(String id, boolean active) {
+        return RankEntity.builder().id(id).name(id).description("Rank " + id).active(active).build();
+    }
+
+    private RankDocument document(String id, float[] values) {
+        return RankDocument.builder().id(id).name(id).description("Rank " + id).embedding(EmbeddingVector.wrap(values)).build();
+    }
+}
@@ -0,0 +1,146 @@
+package org.mavb.azure.ai.service.limiter;
+
+import com.azure.core.http.HttpHeaderName;
+import com.azure.core.http.HttpHeaders;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mavb.azure.ai.config.AzureProperties;
+import org.mavb.azure.ai.exception.ServiceOverloadedException;
+import org.mavb.azure.ai.service.limiter.AdaptiveConcurrencyLimiter.Outcome;
+import org.mavb.azure.ai.service.limiter.AdaptiveConcurrencyLimiter.Permit;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private AzureProperties.OpenAI.Limiter settings;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        settings = new AzureProperties.OpenAI.Limiter();
+        settings.setInitialLimit(2);
+        settings.setMaxLimit(4);
+        settings.setQueueTimeout(Duration.ofMillis(200));
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void testQueuedCallerIsAdmittedOnRelease() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = newLimiter();
+        Permit first = acquire(limiter);
+        acquire(limiter);
+        Mono<Permit> queued = limiter.acquire().cache();
+        queued.subscribe();
+
+        // When
+        assertEquals(1, limiter.getQueued());
+        first.complete(Outcome.SUCCESS, null);
+
+        // Then
+        assertNotNull(queued.block(Duration.ofSeconds(1)));
+        assertEquals(0, limiter.getQueued());
+        assertEquals(2, limiter.getInFlight());
+    }
+
+    @Test
+    void testQueueDeadlineShedsLoad() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = newLimiter();
+        acquire(limiter);
+        acquire(limiter);
+
+        // When
+        ServiceOverloadedException error = assertThrows(ServiceOverloadedException.class,
+                () -> limiter.acquire().block(Duration.ofSeconds(1)));
+
+        // Then
+        assertEquals(Duration.ofMillis(200), error.getRetryAfter());
+        assertEquals(0, limiter.getQueued());
+        assertEquals(1, meterRegistry.get("limiter.rejected").counter().count());
+    }
+
+    @Test
+    void testThrottlingHalvesLimitOncePerWaveAndSuccessesGrowIt() {
+        // Given
+        settings.setInitialLimit(4);
+        AdaptiveConcurrencyLimiter limiter = newLimiter();
+        List<Permit> wave = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            wave.add(acquire(limiter));
+        }
+
+        // When
+        wave.forEach(permit -> permit.complete(Outcome.THROTTLED, null));
+
+        // Then
+        assertEquals(2.0, limiter.getLimit(), 1e-9);
+
+        // When
+        for (int i = 0; i < 8; i++) {
+            Permit first = acquire(limiter);
+            Permit second = acquire(limiter);
+            first.complete(Outcome.SUCCESS, null);
+            second.complete(Outcome.SUCCESS, null);
+        }
+
+        // Then
+        assertTrue(limiter.getLimit() > 3.0);
+        assertTrue(limiter.getLimit() <= settings.getMaxLimit());
+    }
+
+    @Test
+    void testRetryAfterPausesAdmissions() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = newLimiter();
+        acquire(limiter).complete(Outcome.THROTTLED, Duration.ofMillis(100));
+
+        // When
+        long start = System.nanoTime();
+        Permit permit = acquire(limiter);
+
+        // Then
+        assertNotNull(permit);
+        assertTrue(System.nanoTime() - start >= Duration.ofMillis(80).toNanos());
+    }
+
+    @Test
+    void testRetryAfterBeyondDeadlineIsRejectedImmediately() {
+        AdaptiveConcurrencyLimiter limiter = newLimiter();
+        acquire(limiter).complete(Outcome.THROTTLED, Duration.ofSeconds(5));
+
+        ServiceOverloadedException error = assertThrows(ServiceOverloadedException.class,
+                () -> limiter.acquire().block(Duration.ofSeconds(1)));
+
+        assertTrue(error.getRetryAfter().compareTo(Duration.ofSeconds(4)) > 0);
+    }
+
+    @Test
+    void testPolicyClassifiesResponses() {
+        HttpHeaders millis = new HttpHeaders().set(HttpHeaderName.fromString("retry-after-ms"), "1500");
+        HttpHeaders seconds = new HttpHeaders().set(HttpHeaderName.RETRY_AFTER, "3");
+
+        assertEquals(Outcome.THROTTLED, OpenAIConcurrencyPolicy.outcome(429));
+        assertEquals(Outcome.DROPPED, OpenAIConcurrencyPolicy.outcome(503));
+        assertEquals(Outcome.SUCCESS, OpenAIConcurrencyPolicy.outcome(400));
+        assertEquals(Duration.ofMillis(1500), OpenAIConcurrencyPolicy.retryAfter(millis));
+        assertEquals(Duration.ofSeconds(3), OpenAIConcurrencyPolicy.retryAfter(seconds));
+        assertNull(OpenAIConcurrencyPolicy.retryAfter(new HttpHeaders()));
+    }
+
+    private AdaptiveConcurrencyLimiter newLimiter() {
+        return new AdaptiveConcurrencyLimiter("test", settings, Schedulers.parallel(), meterRegistry);
+    }
+
+    private Permit acquire(AdaptiveConcurrencyLimiter limiter) {
+        return limiter.acquire().block(Duration.ofSeconds(1));
+    }
+}
@@ -0,0 +1,174 @@
+package org.mavb.azure.ai.service.sync;
+
+import com.azure.search.documents.SearchClient;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mavb.azure.ai.config.AzureProperties;
+import org.mavb.azure.ai.dto.projection.ReindexCheckpoint;
+import org.mavb.azure.ai.dto.projection.ReindexCheckpoint.Status;
+import org.mavb.azure.ai.dto.projection.ReindexCheckpoint.Target;
+import org.mavb.azure.ai.entity.CreditProductEntity;
+import org.mavb.azure.ai.entity.ProductDocument;
+import org.mavb.azure.ai.mapper.ProductDocumentMapper;
+import org.mavb.azure.ai.mapper.RankDocumentMapper;
+import org.mavb.azure.ai.repository.CreditProductRepository;
+import org.mavb.azure.ai.repository.RankRepository;
+import org.mavb.azure.ai.repository.ReindexCheckpointRepository;
+import org.mavb.azure.ai.service.index.ProductVectorIndex;
+import org.mavb.azure.ai.service.index.RankVectorIndex;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class SearchReindexJobTest {
+
+    private CreditProductRepository productRepository;
+    private ProductDocumentMapper productDocumentMapper;
+    private SearchClient productSearchClient;
+    private ProductVectorIndex productVectorIndex;
+    private ReindexCheckpointRepository checkpointRepository;
+    private SearchReindexJob job;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(CreditProductRepository.class);
+        productDocumentMapper = mock(ProductDocumentMapper.class);
+        productSearchClient = mock(SearchClient.class);
+        productVectorIndex = mock(ProductVectorIndex.class);
+        checkpointRepository = mock(ReindexCheckpointRepository.class);
+
+        AzureProperties azureProperties = new AzureProperties();
+        azureProperties.getSearch().getReindex().setBatchSize(2);
+        azureProperties.getSearch().getReindex().setRetryBackoff(Duration.ZERO);
+
+        when(productDocumentMapper.toProductDocuments(anyList())).thenAnswer(invocation -> {
+            List<CreditProductEntity> entities = invocation.getArgument(0);
+            return entities.stream().map(entity -> ProductDocument.builder().id(entity.getId()).build()).toList();
+        });
+
+        when(productRepository.findAllByIdForShare(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> ids = invocation.getArgument(0);
+            return ids.stream().map(id -> product(id, "Crédito vigente")).toList();
+        });
+
+        job = new SearchReindexJob(productRepository, mock(RankRepository.class), productDocumentMapper,
+                mock(RankDocumentMapper.class), productSearchClient, mock(SearchClient.class), productVectorIndex,
+                mock(RankVectorIndex.class), checkpointRepository, mock(EntityManager.class),
+                mock(PlatformTransactionManager.class), Runnable::run, Runnable::run,
+                mock(ApplicationEventPublisher.class), azureProperties);
+    }
+
+    @Test
+    void testFreshRunIndexesAllRowsInBatches() {
+        // Given
+        when(checkpointRepository.find(Target.PRODUCTS)).thenReturn(Optional.empty());
+        when(productRepository.count()).thenReturn(5L);
+        when(productRepository.streamAfter("")).thenReturn(products(1, 5).stream());
+
+        // When
+        ReindexProgress progress = job.start(Target.PRODUCTS, false);
+
+        // Then
+        verify(checkpointRepository).begin(Target.PRODUCTS, "", 0);
+        verify(productSearchClient, times(3)).mergeOrUploadDocuments(anyList());
+        verify(productVectorIndex, times(3)).upsertAll(anyList());
+        verify(checkpointRepository).advance(Target.PRODUCTS, "PROD-002", 2);
+        verify(checkpointRepository).advance(Target.PRODUCTS, "PROD-005", 5);
+        verify(checkpointRepository).finish(Target.PRODUCTS, Status.COMPLETED, null);
+        assertEquals("COMPLETED", progress.state());
+        assertEquals(5, progress.processed());
+        assertEquals(5, progress.total());
+        assertEquals(Duration.ZERO, progress.eta());
+        assertTrue(progress.docsPerSecond() > 0);
+    }
+
+    @Test
+    void testInterruptedRunResumesAfterCheckpoint() {
+        // Given
+        when(checkpointRepository.find(Target.PRODUCTS))
+                .thenReturn(Optional.of(new ReindexCheckpoint(Target.PRODUCTS, "PROD-003", 3, Status.RUNNING, null)));
+        when(productRepository.count()).thenReturn(5L);
+        when(productRepository.streamAfter("PROD-003")).thenReturn(products(4, 5).stream());
+
+        // When
+        ReindexProgress progress = job.start(Target.PRODUCTS, false);
+
+        // Then
+        verify(checkpointRepository).begin(Target.PRODUCTS, "PROD-003", 3);
+        verify(productSearchClient, times(1)).mergeOrUploadDocuments(anyList());
+        verify(checkpointRepository).advance(Target.PRODUCTS, "PROD-005", 5);
+        assertEquals(5, progress.processed());
+    }
+
+    @Test
+    void testUploadFailureKeepsCheckpointAtLastIndexedBatch() {
+        // Given
+        when(checkpointRepository.find(Target.PRODUCTS)).thenReturn(Optional.empty());
+        when(productRepository.count()).thenReturn(4L);
+        when(productRepository.streamAfter("")).thenReturn(products(1, 4).stream());
+        when(productSearchClient.mergeOrUploadDocuments(anyList()))
+                .thenReturn(null)
+                .thenThrow(new RuntimeException("Service unavailable"));
+
+        // When
+        ReindexProgress progress = job.start(Target.PRODUCTS, false);
+
+        // Then
+        verify(productSearchClient, times(4)).mergeOrUploadDocuments(anyList());
+        verify(checkpointRepository).advance(Target.PRODUCTS, "PROD-002", 2);
+        verify(checkpointRepository, never()).advance(eq(Target.PRODUCTS), eq("PROD-004"), anyLong());
+        verify(checkpointRepository).finish(eq(Target.PRODUCTS), eq(Status.FAILED), contains("Service unavailable"));
+        assertEquals("FAILED", progress.state());
+        assertEquals(2, progress.processed());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testWorkersIndexCurrentRowsInsteadOfStreamedOnes() {
+        // Given: PROD-002 was edited and PROD-003 deleted after the cursor read them
+        when(checkpointRepository.find(Target.PRODUCTS)).thenReturn(Optional.empty());
+        when(productRepository.count()).thenReturn(3L);
+        when(productRepository.streamAfter("")).thenReturn(Stream.of(
+                product("PROD-001", "Crédito antiguo"), product("PROD-002", "Crédito antiguo"), product("PROD-003", "Crédito antiguo")));
+        when(productRepository.findAllByIdForShare(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> ids = invocation.getArgument(0);
+            return ids.stream().filter(id -> !id.equals("PROD-003")).map(id -> product(id, "Crédito vigente")).toList();
+        });
+
+        // When
+        ReindexProgress progress = job.start(Target.PRODUCTS, false);
+
+        // Then
+        ArgumentCaptor<List<CreditProductEntity>> mapped = ArgumentCaptor.forClass(List.class);
+        verify(productDocumentMapper, times(1)).toProductDocuments(mapped.capture());
+        assertEquals(List.of("PROD-001", "PROD-002"), mapped.getValue().stream().map(CreditProductEntity::getId).toList());
+        assertTrue(mapped.getValue().stream().allMatch(entity -> entity.getName().equals("Crédito vigente")));
+        verify(productRepository).findAllByIdForShare(List.of("PROD-001", "PROD-002"));
+        verify(productRepository).findAllByIdForShare(List.of("PROD-003"));
+        verify(productSearchClient, times(1)).mergeOrUploadDocuments(anyList());
+        assertEquals(3, progress.processed());
+    }
+
+    private List<CreditProductEntity> products(int from, int to) {
+        return IntStream.rangeClosed(from, to).mapToObj(i -> product(String.format("PROD-%03d", i), "Crédito")).toList();
+    }
+
+    private static CreditProductEntity product(String id, String name) {
+        CreditProductEntity entity = new CreditProductEntity();
+        entity.setId(id);
+        entity.setName(name);
+        return entity;
+    }
+}
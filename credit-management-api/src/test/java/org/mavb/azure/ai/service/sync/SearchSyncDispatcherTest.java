@@ -0,0 +1,223 @@
+package org.mavb.azure.ai.service.sync;
+
+import com.azure.core.http.rest.Response;
+import com.azure.core.util.Context;
+import com.azure.search.documents.SearchClient;
+import com.azure.search.documents.indexes.models.IndexDocumentsBatch;
+import com.azure.search.documents.models.IndexActionType;
+import com.azure.search.documents.models.IndexDocumentsOptions;
+import com.azure.search.documents.models.IndexDocumentsResult;
+import com.azure.search.documents.models.IndexingResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mavb.azure.ai.config.AzureProperties;
+import org.mavb.azure.ai.dto.projection.SearchSyncOutboxEntry;
+import org.mavb.azure.ai.dto.projection.SearchSyncOutboxEntry.AggregateType;
+import org.mavb.azure.ai.dto.projection.SearchSyncOutboxEntry.Operation;
+import org.mavb.azure.ai.entity.CreditProductEntity;
+import org.mavb.azure.ai.entity.ProductDocument;
+import org.mavb.azure.ai.entity.RankDocument;
+import org.mavb.azure.ai.entity.RankEntity;
+import org.mavb.azure.ai.mapper.ProductDocumentMapper;
+import org.mavb.azure.ai.mapper.RankDocumentMapper;
+import org.mavb.azure.ai.repository.CreditProductRepository;
+import org.mavb.azure.ai.repository.RankRepository;
+import org.mavb.azure.ai.repository.SearchSyncOutboxRepository;
+import org.mavb.azure.ai.service.embedding.ProductQueryEmbeddingGrid;
+import org.mavb.azure.ai.service.index.DatabaseVectorIndex;
+import org.mavb.azure.ai.service.index.ProductVectorIndex;
+import org.mavb.azure.ai.service.index.RankVectorIndex;
+import org.mavb.azure.ai.vector.EmbeddingVector;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class SearchSyncDispatcherTest {
+
+    private SearchSyncOutboxRepository outboxRepository;
+    private CreditProductRepository productRepository;
+    private RankRepository rankRepository;
+    private ProductDocumentMapper productDocumentMapper;
+    private RankDocumentMapper rankDocumentMapper;
+    private SearchClient productSearchClient;
+    private SearchClient rankSearchClient;
+    private ProductVectorIndex productVectorIndex;
+    private RankVectorIndex rankVectorIndex;
+    private DatabaseVectorIndex databaseVectorIndex;
+    private ProductQueryEmbeddingGrid productQueryEmbeddingGrid;
+    private ApplicationEventPublisher eventPublisher;
+    private SearchSyncDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        outboxRepository = mock(SearchSyncOutboxRepository.class);
+        productRepository = mock(CreditProductRepository.class);
+        rankRepository = mock(RankRepository.class);
+        productDocumentMapper = mock(ProductDocumentMapper.class);
+        rankDocumentMapper = mock(RankDocumentMapper.class);
+        productSearchClient = mock(SearchClient.class);
+        rankSearchClient = mock(SearchClient.class);
+        productVectorIndex = mock(ProductVectorIndex.class);
+        rankVectorIndex = mock(RankVectorIndex.class);
+        databaseVectorIndex = mock(DatabaseVectorIndex.class);
+        productQueryEmbeddingGrid = mock(ProductQueryEmbeddingGrid.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+
+        dispatcher = new SearchSyncDispatcher(outboxRepository, productRepository, rankRepository,
+                productDocumentMapper, rankDocumentMapper, productSearchClient, rankSearchClient,
+                productVectorIndex, rankVectorIndex, databaseVectorIndex, productQueryEmbeddingGrid,
+                mock(PlatformTransactionManager.class), eventPublisher, new AzureProperties(), new SimpleMeterRegistry());
+        dispatcher.init();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testProductChangesAreSentAsOneBatch() {
+        // Given
+        when(outboxRepository.claimDue(anyInt())).thenReturn(List.of(
+                entry(1, AggregateType.PRODUCT, "PROD-001", Operation.UPSERT),
+                entry(2, AggregateType.PRODUCT, "PROD-002", Operation.UPSERT),
+                entry(3, AggregateType.PRODUCT, "PROD-001", Operation.UPSERT),
+                entry(4, AggregateType.PRODUCT, "PROD-003", Operation.DELETE)));
+        CreditProductEntity first = product("PROD-001");
+        CreditProductEntity second = product("PROD-002");
+        when(productRepository.findAllById(List.of("PROD-001", "PROD-002"))).thenReturn(List.of(first, second));
+        when(productDocumentMapper.toProductDocuments(List.of(first, second)))
+                .thenReturn(List.of(productDocument("PROD-001"), productDocument("PROD-002")));
+        Response<IndexDocumentsResult> response = response(new IndexingResult("PROD-001", true, 200),
+                new IndexingResult("PROD-002", true, 200),
+                new IndexingResult("PROD-003", true, 200));
+        when(productSearchClient.indexDocumentsWithResponse(any(), any(IndexDocumentsOptions.class), any(Context.class)))
+                .thenReturn(response);
+
+        // When
+        dispatcher.dispatch();
+
+        // Then
+        ArgumentCaptor<IndexDocumentsBatch<ProductDocument>> batch = ArgumentCaptor.forClass(IndexDocumentsBatch.class);
+        verify(productSearchClient, times(1)).indexDocumentsWithResponse(batch.capture(), any(IndexDocumentsOptions.class), any(Context.class));
+        assertEquals(3, batch.getValue().getActions().size());
+        assertEquals(IndexActionType.DELETE, batch.getValue().getActions().get(2).getActionType());
+        verify(productDocumentMapper, times(1)).toProductDocuments(anyList());
+        verify(outboxRepository).delete(List.of(1L, 2L, 3L, 4L));
+        verify(outboxRepository, never()).markFailed(anyCollection(), anyString(), any(), any());
+        verify(productVectorIndex, times(2)).upsert(any(ProductDocument.class));
+        verify(productVectorIndex).remove("PROD-003");
+        verify(productQueryEmbeddingGrid).onProductChanged(first);
+        verify(eventPublisher).publishEvent(new SearchIndexChangedEvent(AggregateType.PRODUCT, 3));
+        verifyNoInteractions(rankSearchClient);
+    }
+
+    @Test
+    void testFailedDocumentsAreRescheduled() {
+        // Given
+        when(outboxRepository.claimDue(anyInt())).thenReturn(List.of(
+                entry(10, AggregateType.RANK, "ORO", Operation.UPSERT),
+                entry(11, AggregateType.RANK, "PLATA", Operation.UPSERT)));
+        RankEntity oro = rank("ORO");
+        RankEntity plata = rank("PLATA");
+        when(rankRepository.findAllById(List.of("ORO", "PLATA"))).thenReturn(List.of(oro, plata));
+        when(rankDocumentMapper.toRankDocuments(List.of(oro, plata)))
+                .thenReturn(List.of(rankDocument("ORO"), rankDocument("PLATA")));
+        Response<IndexDocumentsResult> response = response(new IndexingResult("ORO", true, 200), new IndexingResult("PLATA", false, 503));
+        when(rankSearchClient.indexDocumentsWithResponse(any(), any(IndexDocumentsOptions.class), any(Context.class)))
+                .thenReturn(response);
+
+        // When
+        dispatcher.dispatch();
+
+        // Then
+        verify(outboxRepository).delete(List.of(10L));
+        verify(outboxRepository).markFailed(eq(List.of(11L)), contains("503"), any(), any());
+        verify(rankVectorIndex, times(1)).upsert(any(RankDocument.class));
+        verify(databaseVectorIndex).upsertRanks(argThat(documents -> documents.size() == 1
+                && documents.iterator().next().getId().equals("ORO")));
+        verify(productQueryEmbeddingGrid).onRankChanged("ORO");
+        verify(productQueryEmbeddingGrid, never()).onRankChanged("PLATA");
+    }
+
+    @Test
+    void testDeactivatedRanksAreRemovedFromLocalIndex() {
+        // Given
+        when(outboxRepository.claimDue(anyInt())).thenReturn(List.of(
+                entry(30, AggregateType.RANK, "ORO", Operation.UPSERT),
+                entry(31, AggregateType.RANK, "PLATA", Operation.UPSERT)));
+        RankEntity oro = rank("ORO");
+        RankEntity plata = rank("PLATA", false);
+        when(rankRepository.findAllById(List.of("ORO", "PLATA"))).thenReturn(List.of(oro, plata));
+        when(rankDocumentMapper.toRankDocuments(List.of(oro, plata)))
+                .thenReturn(List.of(rankDocument("ORO"), rankDocument("PLATA")));
+        Response<IndexDocumentsResult> response = response(new IndexingResult("ORO", true, 200), new IndexingResult("PLATA", true, 200));
+        when(rankSearchClient.indexDocumentsWithResponse(any(), any(IndexDocumentsOptions.class), any(Context.class)))
+                .thenReturn(response);
+
+        // When
+        dispatcher.dispatch();
+
+        // Then
+        verify(outboxRepository).delete(List.of(30L, 31L));
+        verify(rankVectorIndex).upsert(argThat(document -> document.getId().equals("ORO")));
+        verify(rankVectorIndex, never()).upsert(argThat(document -> document.getId().equals("PLATA")));
+        verify(rankVectorIndex).remove("PLATA");
+        verify(databaseVectorIndex).upsertRanks(argThat(documents -> documents.size() == 1
+                && documents.iterator().next().getId().equals("ORO")));
+    }
+
+    @Test
+    void testEmbeddingFailureReschedulesWholeBatch() {
+        // Given
+        when(outboxRepository.claimDue(anyInt())).thenReturn(List.of(entry(20, AggregateType.RANK, "ORO", Operation.UPSERT)));
+        when(rankRepository.findAllById(anyList())).thenReturn(List.of(rank("ORO")));
+        when(rankDocumentMapper.toRankDocuments(anyList())).thenThrow(new RuntimeException("OpenAI unavailable"));
+
+        // When
+        dispatcher.dispatch();
+
+        // Then
+        verify(outboxRepository).markFailed(eq(List.of(20L)), contains("OpenAI unavailable"), any(), any());
+        verifyNoInteractions(rankSearchClient, rankVectorIndex, databaseVectorIndex, eventPublisher);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Response<IndexDocumentsResult> response(IndexingResult... results) {
+        Response<IndexDocumentsResult> response = mock(Response.class);
+        when(response.getValue()).thenReturn(new IndexDocumentsResult(List.of(results)));
+        return response;
+    }
+
+    private SearchSyncOutboxEntry entry(long id, AggregateType type, String aggregateId, Operation operation) {
+        return new SearchSyncOutboxEntry(id, type, aggregateId, operation, 0);
+    }
+
+    private CreditProductEntity product(String id) {
+        CreditProductEntity entity = new CreditProductEntity();
+        entity.setId(id);
+        return entity;
+    }
+
+    private RankEntity rank(String id) {
+        return rank(id, true);
+    }
+
+    private RankEntity rank(String id, boolean active) {
+        RankEntity entity = new RankEntity();
+        entity.setId(id);
+        entity.setActive(active);
+        return entity;
+    }
+
+    private ProductDocument productDocument(String id) {
+        return ProductDocument.builder().id(id).embedding(EmbeddingVector.wrap(new float[]{1f, 0f})).build();
+    }
+
+    private RankDocument rankDocument(String id) {
+        return RankDocument.builder().id(id).embedding(EmbeddingVector.wrap(new float[]{1f, 0f})).build();
+    }
+}
@@ -0,0 +1,72 @@
+package org.mavb.azure.ai.service.timing;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StageTimerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private StageTimer stageTimer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        stageTimer = new StageTimer(meterRegistry);
+    }
+
+    @Test
+    void testStagesAreTaggedAndCollectedInRequestTimings() {
+        // Given
+        StageTimings timings = new StageTimings();
+
+        // When
+        String rank = stageTimer.time(EvaluationStage.CUSTOMER_LOOKUP, Mono.delay(Duration.ofMillis(20)).map(tick -> "customer"))
+                .flatMap(customer -> stageTimer.time(EvaluationStage.RANK_SEARCH, value -> value, Mono.just("ORO")))
+                .contextWrite(Context.of(StageTimings.class, timings))
+                .block(Duration.ofSeconds(2));
+
+        // Then
+        assertEquals("ORO", rank);
+        assertEquals(List.of(EvaluationStage.CUSTOMER_LOOKUP, EvaluationStage.RANK_SEARCH),
+                timings.entries().stream().map(StageTimings.Entry::stage).toList());
+        assertTrue(timings.entries().get(0).nanos() >= Duration.ofMillis(20).toNanos());
+        assertTrue(timings.toServerTiming().matches("customer_lookup;dur=\\d+\\.\\d{2}, rank_search;dur=\\d+\\.\\d{2}"));
+        assertEquals(1, timer("customer_lookup", "success", "none").count());
+        assertEquals(1, timer("rank_search", "success", "ORO").count());
+    }
+
+    @Test
+    void testEmptyAndFailedStagesAreTaggedByOutcome() {
+        stageTimer.time(EvaluationStage.PRODUCT_SEARCH, "PLATA", Mono.empty()).block();
+        assertThrows(IllegalStateException.class,
+                () -> stageTimer.time(EvaluationStage.EMBEDDING, Mono.error(new IllegalStateException("openai down"))).block());
+
+        assertEquals(1, timer("product_search", "empty", "PLATA").count());
+        assertEquals(1, timer("embedding", "error", "none").count());
+    }
+
+    @Test
+    void testTimingsAreOptional() {
+        String value = stageTimer.time(EvaluationStage.RESPONSE_BUILD, Mono.just("response")).block();
+
+        assertEquals("response", value);
+        assertEquals(1, timer("response_build", "success", "none").count());
+    }
+
+    private Timer timer(String stage, String outcome, String rank) {
+        return meterRegistry.get("evaluation.stage.latency")
+                .tag("stage", stage)
+                .tag("outcome", outcome)
+                .tag("rank", rank)
+                .timer();
+    }
+}
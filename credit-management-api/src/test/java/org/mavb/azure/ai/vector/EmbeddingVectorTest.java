@@ -0,0 +1,60 @@
+package org.mavb.azure.ai.vector;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.mavb.azure.ai.entity.ProductDocument;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmbeddingVectorTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testDocumentEmbeddingSerializesAsNumberArray() throws Exception {
+        // Given
+        ProductDocument document = ProductDocument.builder()
+                .id("PROD-001")
+                .embedding(EmbeddingVector.fromDoubles(List.of(0.25, -0.5, 1.0)))
+                .build();
+
+        // When
+        String json = objectMapper.writeValueAsString(document);
+        JsonNode embedding = objectMapper.readTree(json).get("embedding");
+        ProductDocument restored = objectMapper.readValue(json, ProductDocument.class);
+
+        // Then
+        assertTrue(embedding.isArray());
+        assertEquals(3, embedding.size());
+        assertEquals(-0.5, embedding.get(1).asDouble());
+        assertEquals(document.getEmbedding(), restored.getEmbedding());
+    }
+
+    @Test
+    void testNullEmbeddingDeserializesAsEmpty() throws Exception {
+        ProductDocument restored = objectMapper.readValue("{\"id\":\"PROD-002\",\"embedding\":null}", ProductDocument.class);
+
+        assertTrue(restored.getEmbedding().isEmpty());
+    }
+
+    @Test
+    void testListViewIsReadOnly() {
+        EmbeddingVector vector = EmbeddingVector.wrap(new float[]{1f, 2f});
+
+        assertEquals(List.of(1f, 2f), vector.asList());
+        assertThrows(UnsupportedOperationException.class, () -> vector.asList().set(0, 3f));
+    }
+
+    @Test
+    void testBytesRoundTrip() {
+        EmbeddingVector vector = EmbeddingVector.wrap(new float[]{0.125f, -3.5f, Float.MIN_VALUE});
+
+        byte[] bytes = vector.toBytes();
+
+        assertEquals(12, bytes.length);
+        assertEquals(vector, EmbeddingVector.fromBytes(bytes));
+    }
+}
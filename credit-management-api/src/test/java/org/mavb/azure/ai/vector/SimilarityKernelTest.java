@@ -0,0 +1,100 @@
+package org.mavb.azure.ai.vector;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimilarityKernelTest {
+
+    private final SimilarityKernel scalar = new ScalarSimilarityKernel();
+    private final SimilarityKernel simd = new SimdSimilarityKernel();
+
+    @Test
+    void testVectorApiKernelIsDetected() {
+        // The test task runs with --add-modules jdk.incubator.vector
+        assertTrue(SimilarityKernel.detect() instanceof SimdSimilarityKernel);
+        assertTrue(VectorMath.kernel().startsWith("simd-"));
+    }
+
+    @Test
+    void testSimdFloatDotMatchesScalar() {
+        Random random = new Random(11);
+        for (int dimensions : new int[]{0, 1, 7, 384, 1536, 1539}) {
+            // Given: offsets that are not lane aligned
+            float[] a = random(random, dimensions + 3);
+            float[] b = random(random, dimensions + 5);
+
+            // When
+            float expected = scalar.dot(a, 3, b, 5, dimensions);
+            float actual = simd.dot(a, 3, b, 5, dimensions);
+
+            // Then
+            assertEquals(expected, actual, 1e-4f, "dimensions " + dimensions);
+        }
+    }
+
+    @Test
+    void testSimdInt8DotIsExact() {
+        Random random = new Random(13);
+        for (int dimensions : new int[]{0, 5, 64, 1536, 1541}) {
+            // Given
+            byte[] a = new byte[dimensions + 1];
+            byte[] b = new byte[dimensions];
+            random.nextBytes(a);
+            random.nextBytes(b);
+
+            // When / Then
+            assertEquals(scalar.dot(a, 1, b, 0, dimensions), simd.dot(a, 1, b, 0, dimensions), "dimensions " + dimensions);
+        }
+    }
+
+    @Test
+    void testDotRowsScoresSelectedRowsOfMatrix() {
+        // Given: 10 rows of 1536 dimensions, 7 of them selected (one block of four plus a tail)
+        Random random = new Random(17);
+        int dimensions = 1536;
+        float[] matrix = random(random, 10 * dimensions);
+        float[] query = random(random, dimensions);
+        int[] rows = {9, 0, 3, 4, 7, 2, 8};
+
+        // When
+        float[] scalarScores = new float[rows.length];
+        float[] simdScores = new float[rows.length];
+        scalar.dotRows(query, matrix, dimensions, rows, rows.length, scalarScores);
+        simd.dotRows(query, matrix, dimensions, rows, rows.length, simdScores);
+
+        // Then
+        for (int i = 0; i < rows.length; i++) {
+            assertEquals(scalar.dot(query, 0, matrix, rows[i] * dimensions, dimensions), scalarScores[i]);
+            assertEquals(scalarScores[i], simdScores[i], 1e-3f);
+        }
+    }
+
+    @Test
+    void testTopKKeepsBestScoresInDescendingOrder() {
+        // Given
+        TopK topK = new TopK(3);
+
+        // When
+        float[] scores = {0.1f, 0.9f, 0.4f, 0.95f, 0.2f, 0.5f};
+        for (int row = 0; row < scores.length; row++) {
+            topK.offer(row, scores[row]);
+        }
+
+        // Then
+        assertEquals(3, topK.size());
+        assertArrayEquals(new int[]{3, 1, 5}, new int[]{topK.row(0), topK.row(1), topK.row(2)});
+        assertEquals(0.95f, topK.score(0));
+        assertEquals(0.5f, topK.score(2));
+    }
+
+    private static float[] random(Random random, int length) {
+        float[] values = new float[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = (float) random.nextGaussian();
+        }
+        return values;
+    }
+}
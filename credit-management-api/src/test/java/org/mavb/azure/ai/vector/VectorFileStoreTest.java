@@ -0,0 +1,167 @@
+package org.mavb.azure.ai.vector;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VectorFileStoreTest {
+
+    private static final String MODEL = "text-embedding-3-small";
+    private static final String HASH_A = "a".repeat(64);
+    private static final String HASH_B = "0123456789abcdef".repeat(4);
+
+    @Test
+    void testChangesSurviveRestartThroughTheLog(@TempDir Path directory) throws Exception {
+        // Given
+        try (VectorFileStore store = VectorFileStore.open(directory, "ranks", MODEL, VectorEncoding.FLOAT32)) {
+            store.putAll(Map.of("ORO", stored(vector(1f, 2f, 3f)), "PLATA", stored(vector(4f, 5f, 6f))));
+            store.remove("PLATA");
+        }
+
+        // When
+        try (VectorFileStore reopened = VectorFileStore.open(directory, "ranks", MODEL, VectorEncoding.FLOAT32)) {
+
+            // Then
+            assertEquals(vector(1f, 2f, 3f), reopened.get("ORO"));
+            assertNull(reopened.get("PLATA"));
+            assertEquals(1, reopened.size());
+            assertEquals(2, reopened.pendingChanges());
+        }
+    }
+
+    @Test
+    void testCompactionFoldsLogIntoMappedFile(@TempDir Path directory) throws Exception {
+        // Given
+        try (VectorFileStore store = VectorFileStore.open(directory, "products", MODEL, VectorEncoding.FLOAT32)) {
+            store.putAll(Map.of("PROD-001", stored(vector(1f, 0f)), "PROD-002", stored(vector(0f, 1f))));
+            store.compact();
+            store.putAll(Map.of("PROD-002", stored(vector(0.5f, 0.5f)), "PROD-003", stored(vector(-1f, 0f))));
+            store.remove("PROD-001");
+
+            // When
+            store.compact();
+
+            // Then
+            assertEquals(0, store.pendingChanges());
+            assertEquals(0, Files.size(directory.resolve("products.log")));
+            assertNull(store.get("PROD-001"));
+            assertEquals(vector(0.5f, 0.5f), store.get("PROD-002"));
+        }
+        VectorFile file = VectorFile.map(directory.resolve("products.vec"));
+        assertEquals(MODEL, file.model());
+        assertEquals(2, file.dimensions());
+        assertEquals(2, file.size());
+        assertEquals(vector(-1f, 0f), file.get("PROD-003"));
+    }
+
+    @Test
+    void testFilesOfAnotherModelAreDiscarded(@TempDir Path directory) throws Exception {
+        // Given
+        try (VectorFileStore store = VectorFileStore.open(directory, "ranks", "local:all-MiniLM-L6-v2", VectorEncoding.FLOAT32)) {
+            store.putAll(Map.of("ORO", stored(vector(1f, 2f))));
+            store.compact();
+            store.putAll(Map.of("PLATA", stored(vector(3f, 4f))));
+        }
+
+        // When
+        try (VectorFileStore store = VectorFileStore.open(directory, "ranks", MODEL, VectorEncoding.FLOAT32)) {
+
+            // Then
+            assertEquals(0, store.size());
+            assertNull(store.get("ORO"));
+            assertNull(store.get("PLATA"));
+        }
+    }
+
+    @Test
+    void testTornLogRecordIsIgnored(@TempDir Path directory) throws Exception {
+        // Given: the last record lost its final bytes in a crash
+        try (VectorFileStore store = VectorFileStore.open(directory, "ranks", MODEL, VectorEncoding.FLOAT32)) {
+            store.putAll(Map.of("ORO", stored(vector(1f, 2f))));
+            store.putAll(Map.of("PLATA", stored(vector(3f, 4f))));
+        }
+        Path log = directory.resolve("ranks.log");
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(log) - 3);
+        }
+
+        // When
+        try (VectorFileStore store = VectorFileStore.open(directory, "ranks", MODEL, VectorEncoding.FLOAT32)) {
+
+            // Then
+            assertEquals(vector(1f, 2f), store.get("ORO"));
+            assertNull(store.get("PLATA"));
+            store.putAll(Map.of("BRONCE", stored(vector(5f, 6f))));
+        }
+        try (VectorFileStore store = VectorFileStore.open(directory, "ranks", MODEL, VectorEncoding.FLOAT32)) {
+            assertEquals(vector(5f, 6f), store.get("BRONCE"));
+        }
+    }
+
+    @Test
+    void testInt8FileReturnsApproximateVectors(@TempDir Path directory) throws Exception {
+        // Given
+        float[] values = {0.12f, -0.5f, 0.33f, 0.9f};
+        try (VectorFileStore store = VectorFileStore.open(directory, "products", MODEL, VectorEncoding.INT8)) {
+            store.putAll(Map.of("PROD-001", stored(EmbeddingVector.wrap(values.clone()))));
+
+            // When
+            store.compact();
+
+            // Then
+            EmbeddingVector restored = store.get("PROD-001");
+            for (int i = 0; i < values.length; i++) {
+                assertEquals(values[i], restored.get(i), 0.9f / 127);
+            }
+        }
+        long expectedSize = VectorFile.HEADER_BYTES + 64 + Float.BYTES + values.length;
+        assertEquals(expectedSize, Files.size(directory.resolve("products.vec")));
+    }
+
+    @Test
+    void testVectorsOfOtherDimensionsAreSkipped(@TempDir Path directory) throws Exception {
+        try (VectorFileStore store = VectorFileStore.open(directory, "ranks", MODEL, VectorEncoding.FLOAT32)) {
+            store.putAll(Map.of("ORO", stored(vector(1f, 2f))));
+            store.putAll(Map.of("PLATA", stored(vector(1f, 2f, 3f))));
+
+            assertNull(store.get("PLATA"));
+            assertEquals(1, store.size());
+        }
+    }
+
+    @Test
+    void testSourceHashesSurviveLogReplayAndCompaction(@TempDir Path directory) throws Exception {
+        // Given
+        try (VectorFileStore store = VectorFileStore.open(directory, "ranks", MODEL, VectorEncoding.FLOAT32)) {
+            store.putAll(Map.of("ORO", new StoredVector(vector(1f, 2f), HASH_A)));
+            store.compact();
+            store.putAll(Map.of("PLATA", new StoredVector(vector(3f, 4f), HASH_B)));
+        }
+
+        // When
+        try (VectorFileStore store = VectorFileStore.open(directory, "ranks", MODEL, VectorEncoding.FLOAT32)) {
+
+            // Then
+            assertEquals(HASH_A, store.find("ORO").sourceHash());
+            assertEquals(HASH_B, store.find("PLATA").sourceHash());
+            store.compact();
+            assertEquals(HASH_B, store.find("PLATA").sourceHash());
+            assertEquals(vector(3f, 4f), store.find("PLATA").vector());
+        }
+    }
+
+    private static StoredVector stored(EmbeddingVector vector) {
+        return new StoredVector(vector, HASH_A);
+    }
+
+    private static EmbeddingVector vector(float... values) {
+        return EmbeddingVector.wrap(values);
+    }
+}
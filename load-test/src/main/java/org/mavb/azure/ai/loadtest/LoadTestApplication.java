@@ -0,0 +1,88 @@
+package org.mavb.azure.ai.loadtest;
+
+import org.mavb.azure.ai.loadtest.config.LoadTestSettings;
+import org.mavb.azure.ai.loadtest.driver.LoadDriver;
+import org.mavb.azure.ai.loadtest.driver.Report;
+import org.mavb.azure.ai.loadtest.driver.Scenario;
+import org.mavb.azure.ai.loadtest.driver.Scenarios;
+import org.mavb.azure.ai.loadtest.stub.StubServer;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Entry point of the harness.
+ * <ul>
+ *     <li>{@code stubs}: serves the Azure stand-ins until interrupted.</li>
+ *     <li>{@code run}: drives the enabled scenarios and prints the report.</li>
+ * </ul>
+ * Any other argument is a {@code --key=value} setting or {@code --config=file}.
+ */
+public final class LoadTestApplication {
+
+    private LoadTestApplication() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0 || !List.of("stubs", "run").contains(args[0])) {
+            System.err.println("Usage: LoadTestApplication stubs|run [--config=file] [--key=value ...]");
+            System.exit(2);
+        }
+        LoadTestSettings settings = LoadTestSettings.load(Arrays.copyOfRange(args, 1, args.length));
+        if (args[0].equals("stubs")) {
+            stubs(settings);
+        } else {
+            run(settings);
+        }
+    }
+
+    private static void stubs(LoadTestSettings settings) throws Exception {
+        StubServer server = new StubServer(settings);
+        server.start();
+        String endpoint = server.endpoint();
+        System.out.println("✅ Azure stand-ins listening on " + endpoint);
+        for (String index : settings.getList("stubs.search.indexes")) {
+            System.out.printf("   index %s: %d documents%n", index, server.documents(index));
+        }
+        System.out.println("   OPEN_AI_ENDPOINT=" + endpoint);
+        System.out.println("   AI_SEARCH_ENDPOINT=" + endpoint);
+        System.out.println("   AZURE_DOCUMENT_INTELLIGENCE_ENDPOINT=" + endpoint);
+        if (server.tls() != null) {
+            System.out.println("   JAVA_TOOL_OPTIONS=\"" + server.tls().jvmOptions() + "\"");
+        }
+
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.summary().forEach(System.out::println);
+            server.close();
+            stopped.countDown();
+        }));
+        stopped.await();
+    }
+
+    private static void run(LoadTestSettings settings) throws Exception {
+        List<Scenario> scenarios = Scenarios.create(settings);
+        if (scenarios.isEmpty()) {
+            System.err.println("❌ No scenario enabled, set scenario.<name>.rps > 0");
+            System.exit(2);
+        }
+        Duration warmup = settings.getDuration("driver.warmup", Duration.ofSeconds(10));
+        Duration duration = settings.getDuration("driver.duration", Duration.ofSeconds(60));
+        scenarios.forEach(scenario -> System.out.printf("🔄 %s at %.1f req/s%n", scenario.name(), scenario.rps()));
+        System.out.printf("🔄 Warmup %ds, measuring %ds%n", warmup.toSeconds(), duration.toSeconds());
+
+        LoadDriver driver = new LoadDriver(scenarios, warmup, duration, settings.getInt("driver.max-in-flight", 512),
+                settings.getDuration("driver.progress-interval", Duration.ofSeconds(5)), System.out);
+        Report report = driver.run();
+        report.print(System.out);
+
+        String reportFile = settings.get("driver.report-file", "");
+        if (!reportFile.isEmpty()) {
+            report.write(Path.of(reportFile));
+            System.out.println("✅ Report written to " + reportFile);
+        }
+    }
+}
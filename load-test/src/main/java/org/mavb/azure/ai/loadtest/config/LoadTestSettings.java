@@ -0,0 +1,116 @@
+package org.mavb.azure.ai.loadtest.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Harness settings: defaults from the bundled load-test.properties, then an optional --config=file,
+ * then --key=value arguments.
+ */
+public final class LoadTestSettings {
+
+    private static final String DEFAULTS = "/load-test.properties";
+
+    private final Properties properties;
+
+    private LoadTestSettings(Properties properties) {
+        this.properties = properties;
+    }
+
+    public static LoadTestSettings load(String... args) {
+        Properties properties = new Properties();
+        try (InputStream defaults = LoadTestSettings.class.getResourceAsStream(DEFAULTS)) {
+            if (defaults != null) {
+                properties.load(new InputStreamReader(defaults, StandardCharsets.UTF_8));
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read " + DEFAULTS, e);
+        }
+
+        for (String arg : args) {
+            if (arg.startsWith("--config=")) {
+                Path file = Path.of(arg.substring("--config=".length()));
+                try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                    properties.load(reader);
+                } catch (IOException e) {
+                    throw new IllegalArgumentException("Cannot read config file " + file, e);
+                }
+            }
+        }
+        for (String arg : args) {
+            if (arg.startsWith("--") && !arg.startsWith("--config=") && arg.contains("=")) {
+                int separator = arg.indexOf('=');
+                properties.setProperty(arg.substring(2, separator), arg.substring(separator + 1));
+            }
+        }
+        return new LoadTestSettings(properties);
+    }
+
+    public static LoadTestSettings of(Properties properties) {
+        return new LoadTestSettings(properties);
+    }
+
+    public String get(String key) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing setting " + key);
+        }
+        return value.trim();
+    }
+
+    public String get(String key, String defaultValue) {
+        String value = properties.getProperty(key);
+        return value != null ? value.trim() : defaultValue;
+    }
+
+    public int getInt(String key, int defaultValue) {
+        String value = properties.getProperty(key);
+        return value != null ? Integer.parseInt(value.trim()) : defaultValue;
+    }
+
+    public double getDouble(String key, double defaultValue) {
+        String value = properties.getProperty(key);
+        return value != null ? Double.parseDouble(value.trim()) : defaultValue;
+    }
+
+    public Duration getDuration(String key, Duration defaultValue) {
+        String value = properties.getProperty(key);
+        return value != null ? parseDuration(value.trim()) : defaultValue;
+    }
+
+    public List<String> getList(String key) {
+        String value = properties.getProperty(key, "");
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(item -> !item.isEmpty())
+                .toList();
+    }
+
+    /**
+     * Parses ISO-8601 durations (PT2S) and the short forms used in application.yaml (250ms, 2s, 5m, 1h).
+     */
+    public static Duration parseDuration(String value) {
+        if (value.startsWith("P") || value.startsWith("p")) {
+            return Duration.parse(value);
+        }
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        long amount = Long.parseLong(value.substring(0, value.length() - 1));
+        return switch (value.charAt(value.length() - 1)) {
+            case 's' -> Duration.ofSeconds(amount);
+            case 'm' -> Duration.ofMinutes(amount);
+            case 'h' -> Duration.ofHours(amount);
+            default -> throw new IllegalArgumentException("Unsupported duration " + value);
+        };
+    }
+}
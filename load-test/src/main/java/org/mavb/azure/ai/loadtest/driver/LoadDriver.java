@@ -0,0 +1,132 @@
+package org.mavb.azure.ai.loadtest.driver;
+
+import java.io.PrintStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator: every scenario issues requests at its target rate whatever the response times,
+ * like independent users would. Each request runs on its own virtual thread; {@code maxInFlight} bounds the
+ * client so an unresponsive API shows up as dropped requests instead of exhausting the machine.
+ * Requests scheduled during the warmup are sent but not recorded.
+ */
+public class LoadDriver {
+
+    private static final long POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final List<Scenario> scenarios;
+    private final Duration warmup;
+    private final Duration duration;
+    private final int maxInFlight;
+    private final Duration progressInterval;
+    private final PrintStream out;
+
+    public LoadDriver(List<Scenario> scenarios, Duration warmup, Duration duration, int maxInFlight,
+                      Duration progressInterval, PrintStream out) {
+        this.scenarios = scenarios;
+        this.warmup = warmup;
+        this.duration = duration;
+        this.maxInFlight = maxInFlight;
+        this.progressInterval = progressInterval;
+        this.out = out;
+    }
+
+    public Report run() throws InterruptedException {
+        Map<Scenario, ScenarioStats> stats = new LinkedHashMap<>();
+        scenarios.forEach(scenario -> stats.put(scenario, new ScenarioStats()));
+        Semaphore inFlight = new Semaphore(maxInFlight);
+
+        long startNanos = System.nanoTime();
+        long measureFromNanos = startNanos + warmup.toNanos();
+        long endNanos = measureFromNanos + duration.toNanos();
+
+        try (HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+             ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor()) {
+
+            List<Thread> pacers = stats.entrySet().stream()
+                    .map(entry -> Thread.ofPlatform().name("pacer-" + entry.getKey().name()).start(() ->
+                            pace(entry.getKey(), entry.getValue(), client, requests, inFlight, startNanos, measureFromNanos, endNanos)))
+                    .toList();
+
+            long nextProgress = startNanos + progressInterval.toNanos();
+            while (pacers.stream().anyMatch(Thread::isAlive)) {
+                LockSupport.parkNanos(Math.min(POLL_NANOS, Math.max(0, nextProgress - System.nanoTime())));
+                if (System.nanoTime() >= nextProgress) {
+                    printProgress(stats, System.nanoTime() - startNanos, maxInFlight - inFlight.availablePermits());
+                    nextProgress += progressInterval.toNanos();
+                }
+            }
+            requests.shutdown();
+            if (!requests.awaitTermination(1, TimeUnit.MINUTES)) {
+                out.println("⚠️ Requests still in flight after the run, ignoring them");
+                requests.shutdownNow();
+            }
+        }
+
+        return new Report(duration, stats);
+    }
+
+    private void pace(Scenario scenario, ScenarioStats stats, HttpClient client, ExecutorService requests,
+                      Semaphore inFlight, long startNanos, long measureFromNanos, long endNanos) {
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / scenario.rps());
+        for (long i = 0; ; i++) {
+            long intendedNanos = startNanos + i * intervalNanos;
+            if (intendedNanos >= endNanos) {
+                return;
+            }
+            long wait = intendedNanos - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            boolean measured = intendedNanos >= measureFromNanos;
+            if (measured) {
+                stats.scheduled();
+            }
+            if (!inFlight.tryAcquire()) {
+                if (measured) {
+                    stats.dropped();
+                }
+                continue;
+            }
+            requests.execute(() -> {
+                long sentNanos = System.nanoTime();
+                try {
+                    HttpResponse<Void> response = client.send(scenario.requests().get(), HttpResponse.BodyHandlers.discarding());
+                    long now = System.nanoTime();
+                    if (measured) {
+                        stats.completed(response.statusCode(), now - intendedNanos, now - sentNanos);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (Exception e) {
+                    long now = System.nanoTime();
+                    if (measured) {
+                        stats.failed(e, now - intendedNanos, now - sentNanos);
+                    }
+                } finally {
+                    inFlight.release();
+                }
+            });
+        }
+    }
+
+    private void printProgress(Map<Scenario, ScenarioStats> stats, long elapsedNanos, int inFlight) {
+        StringBuilder line = new StringBuilder(String.format("🔄 %3ds in-flight=%d", TimeUnit.NANOSECONDS.toSeconds(elapsedNanos), inFlight));
+        stats.forEach((scenario, scenarioStats) -> line.append(String.format(" | %s ok=%d err=%d dropped=%d",
+                scenario.name(), scenarioStats.succeededCount(), scenarioStats.errorCount(), scenarioStats.droppedCount())));
+        out.println(line);
+    }
+}
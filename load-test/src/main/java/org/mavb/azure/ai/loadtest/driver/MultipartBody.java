@@ -0,0 +1,22 @@
+package org.mavb.azure.ai.loadtest.driver;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * multipart/form-data body with a single file part, built once and reused for every request of a scenario.
+ */
+record MultipartBody(String contentType, byte[] bytes) {
+
+    static MultipartBody file(String partName, String fileName, String fileContentType, byte[] content) {
+        String boundary = "----load-test-" + UUID.randomUUID();
+        ByteArrayOutputStream body = new ByteArrayOutputStream(content.length + 256);
+        body.writeBytes(("--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"" + partName + "\"; filename=\"" + fileName + "\"\r\n"
+                + "Content-Type: " + fileContentType + "\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.writeBytes(content);
+        body.writeBytes(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        return new MultipartBody("multipart/form-data; boundary=" + boundary, body.toByteArray());
+    }
+}
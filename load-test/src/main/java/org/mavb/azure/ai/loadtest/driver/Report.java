@@ -0,0 +1,113 @@
+package org.mavb.azure.ai.loadtest.driver;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Results of a run: achieved throughput, latency percentiles (milliseconds) and error breakdown per scenario.
+ */
+public class Report {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final Duration duration;
+    private final Map<Scenario, ScenarioStats> stats;
+
+    public Report(Duration duration, Map<Scenario, ScenarioStats> stats) {
+        this.duration = duration;
+        this.stats = stats;
+    }
+
+    public ScenarioStats stats(String scenario) {
+        return stats.entrySet().stream()
+                .filter(entry -> entry.getKey().name().equals(scenario))
+                .map(Map.Entry::getValue)
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown scenario " + scenario));
+    }
+
+    public void print(PrintStream out) {
+        out.printf("%n%-15s %9s %9s %9s %8s %8s %9s %9s %9s %9s %9s %11s%n",
+                "scenario", "target/s", "actual/s", "ok", "error%", "dropped",
+                "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "svc p99 ms");
+        stats.forEach((scenario, scenarioStats) -> {
+            Histogram response = scenarioStats.responseTime();
+            out.printf("%-15s %9.1f %9.1f %9d %7.2f%% %8d %9.1f %9.1f %9.1f %9.1f %9.1f %11.1f%n",
+                    scenario.name(), scenario.rps(), throughput(scenarioStats), scenarioStats.succeededCount(),
+                    errorRate(scenarioStats) * 100, scenarioStats.droppedCount(),
+                    millis(response.getValueAtPercentile(50)), millis(response.getValueAtPercentile(90)),
+                    millis(response.getValueAtPercentile(99)), millis(response.getValueAtPercentile(99.9)),
+                    millis(response.getMaxValue()), millis(scenarioStats.serviceTime().getValueAtPercentile(99)));
+        });
+        stats.forEach((scenario, scenarioStats) -> scenarioStats.errors()
+                .forEach((error, count) -> out.printf("❌ %s %s: %d%n", scenario.name(), error, count)));
+    }
+
+    public void write(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), toMap());
+    }
+
+    Map<String, Object> toMap() {
+        List<Map<String, Object>> scenarios = stats.entrySet().stream().map(entry -> {
+            ScenarioStats scenarioStats = entry.getValue();
+            Map<String, Object> scenario = new LinkedHashMap<>();
+            scenario.put("name", entry.getKey().name());
+            scenario.put("targetRps", entry.getKey().rps());
+            scenario.put("throughputRps", throughput(scenarioStats));
+            scenario.put("scheduled", scenarioStats.scheduledCount());
+            scenario.put("succeeded", scenarioStats.succeededCount());
+            scenario.put("failed", scenarioStats.errorCount());
+            scenario.put("dropped", scenarioStats.droppedCount());
+            scenario.put("errorRate", errorRate(scenarioStats));
+            scenario.put("responseTimeMs", percentiles(scenarioStats.responseTime()));
+            scenario.put("serviceTimeMs", percentiles(scenarioStats.serviceTime()));
+            scenario.put("errors", scenarioStats.errors());
+            return scenario;
+        }).toList();
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("durationSeconds", duration.toMillis() / 1000.0);
+        report.put("scenarios", scenarios);
+        return report;
+    }
+
+    private double throughput(ScenarioStats scenarioStats) {
+        return scenarioStats.succeededCount() / (duration.toMillis() / 1000.0);
+    }
+
+    /**
+     * Failed and dropped requests over everything scheduled in the measured window.
+     */
+    private static double errorRate(ScenarioStats scenarioStats) {
+        long scheduled = scenarioStats.scheduledCount();
+        return scheduled == 0 ? 0 : (double) (scenarioStats.errorCount() + scenarioStats.droppedCount()) / scheduled;
+    }
+
+    private static Map<String, Double> percentiles(Histogram histogram) {
+        Map<String, Double> values = new LinkedHashMap<>();
+        for (double percentile : PERCENTILES) {
+            values.put("p" + (percentile == Math.rint(percentile) ? String.valueOf((int) percentile) : String.valueOf(percentile)),
+                    millis(histogram.getValueAtPercentile(percentile)));
+        }
+        values.put("max", millis(histogram.getMaxValue()));
+        return values;
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -0,0 +1,12 @@
+package org.mavb.azure.ai.loadtest.driver;
+
+import java.net.http.HttpRequest;
+import java.util.function.Supplier;
+
+/**
+ * One endpoint driven at a constant arrival rate.
+ *
+ * @param requests Builds the next request; called once per arrival
+ */
+public record Scenario(String name, double rps, Supplier<HttpRequest> requests) {
+}
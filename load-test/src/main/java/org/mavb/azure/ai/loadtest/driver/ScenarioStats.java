@@ -0,0 +1,93 @@
+package org.mavb.azure.ai.loadtest.driver;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Outcomes of one scenario.
+ * <p>
+ * Response time is measured from the moment the request was scheduled, not from when it was sent,
+ * so a saturated API or client shows up in the percentiles instead of silently lowering the request rate
+ * (coordinated omission). Service time, from send to response, is kept apart for comparison.
+ */
+public class ScenarioStats {
+
+    private static final long MAX_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    private final Histogram responseTime = new ConcurrentHistogram(MAX_TRACKABLE_MICROS, 3);
+    private final Histogram serviceTime = new ConcurrentHistogram(MAX_TRACKABLE_MICROS, 3);
+    private final LongAdder scheduled = new LongAdder();
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+    void scheduled() {
+        scheduled.increment();
+    }
+
+    /**
+     * A request that could not be sent because the client reached its in-flight limit.
+     */
+    void dropped() {
+        dropped.increment();
+    }
+
+    void completed(int status, long responseNanos, long serviceNanos) {
+        record(responseNanos, serviceNanos);
+        if (status >= 200 && status < 300) {
+            succeeded.increment();
+        } else {
+            errors.computeIfAbsent("HTTP " + status, key -> new LongAdder()).increment();
+        }
+    }
+
+    void failed(Throwable error, long responseNanos, long serviceNanos) {
+        record(responseNanos, serviceNanos);
+        errors.computeIfAbsent(error.getClass().getSimpleName(), key -> new LongAdder()).increment();
+    }
+
+    public long scheduledCount() {
+        return scheduled.sum();
+    }
+
+    public long succeededCount() {
+        return succeeded.sum();
+    }
+
+    public long droppedCount() {
+        return dropped.sum();
+    }
+
+    public long completedCount() {
+        return responseTime.getTotalCount();
+    }
+
+    public long errorCount() {
+        return errors.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    public Map<String, Long> errors() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        errors.forEach((key, count) -> snapshot.put(key, count.sum()));
+        return snapshot;
+    }
+
+    public Histogram responseTime() {
+        return responseTime;
+    }
+
+    public Histogram serviceTime() {
+        return serviceTime;
+    }
+
+    private void record(long responseNanos, long serviceNanos) {
+        responseTime.recordValue(Math.min(MAX_TRACKABLE_MICROS, TimeUnit.NANOSECONDS.toMicros(responseNanos)));
+        serviceTime.recordValue(Math.min(MAX_TRACKABLE_MICROS, TimeUnit.NANOSECONDS.toMicros(serviceNanos)));
+    }
+}
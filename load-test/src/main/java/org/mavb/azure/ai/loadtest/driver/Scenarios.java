@@ -0,0 +1,102 @@
+package org.mavb.azure.ai.loadtest.driver;
+
+import org.mavb.azure.ai.loadtest.config.LoadTestSettings;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Builds the scenarios enabled in the settings ({@code scenario.<name>.rps > 0}):
+ * credit evaluation, claim import and invoice scan.
+ */
+public final class Scenarios {
+
+    public static final String EVALUATE = "evaluate";
+    public static final String CLAIMS_IMPORT = "claims-import";
+    public static final String INVOICES_SCAN = "invoices-scan";
+
+    private Scenarios() {
+    }
+
+    public static List<Scenario> create(LoadTestSettings settings) {
+        Duration timeout = settings.getDuration("driver.request-timeout", Duration.ofSeconds(30));
+        List<Scenario> scenarios = new ArrayList<>();
+
+        if (rps(settings, EVALUATE) > 0) {
+            URI uri = URI.create(settings.get("scenario.evaluate.url"));
+            List<String> customers = settings.getList("scenario.evaluate.customers");
+            List<String> amounts = settings.getList("scenario.evaluate.amounts");
+            scenarios.add(new Scenario(EVALUATE, rps(settings, EVALUATE), () -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                String body = String.format("{\"identityDocument\":\"%s\",\"requestedAmount\":%s}",
+                        customers.get(random.nextInt(customers.size())), amounts.get(random.nextInt(amounts.size())));
+                return HttpRequest.newBuilder(uri)
+                        .timeout(timeout)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8))
+                        .build();
+            }));
+        }
+
+        if (rps(settings, CLAIMS_IMPORT) > 0) {
+            Path file = Path.of(settings.get("scenario.claims-import.file"));
+            MultipartBody body = MultipartBody.file("file", file.getFileName().toString(),
+                    "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", read(file));
+            scenarios.add(new Scenario(CLAIMS_IMPORT, rps(settings, CLAIMS_IMPORT),
+                    () -> multipart(URI.create(settings.get("scenario.claims-import.url")), body, timeout)));
+        }
+
+        if (rps(settings, INVOICES_SCAN) > 0) {
+            String file = settings.get("scenario.invoices-scan.file", "");
+            byte[] pdf = file.isEmpty() ? minimalPdf() : read(Path.of(file));
+            MultipartBody body = MultipartBody.file("file", "invoice.pdf", "application/pdf", pdf);
+            scenarios.add(new Scenario(INVOICES_SCAN, rps(settings, INVOICES_SCAN),
+                    () -> multipart(URI.create(settings.get("scenario.invoices-scan.url")), body, timeout)));
+        }
+        return scenarios;
+    }
+
+    private static double rps(LoadTestSettings settings, String scenario) {
+        return settings.getDouble("scenario." + scenario + ".rps", 0);
+    }
+
+    private static HttpRequest multipart(URI uri, MultipartBody body, Duration timeout) {
+        return HttpRequest.newBuilder(uri)
+                .timeout(timeout)
+                .header("Content-Type", body.contentType())
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body.bytes()))
+                .build();
+    }
+
+    private static byte[] read(Path file) {
+        try {
+            return Files.readAllBytes(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read scenario file " + file, e);
+        }
+    }
+
+    /**
+     * One blank page; the Document Intelligence stand-in does not look at the content.
+     */
+    static byte[] minimalPdf() {
+        String pdf = """
+                %PDF-1.4
+                1 0 obj << /Type /Catalog /Pages 2 0 R >> endobj
+                2 0 obj << /Type /Pages /Kids [3 0 R] /Count 1 >> endobj
+                3 0 obj << /Type /Page /Parent 2 0 R /MediaBox [0 0 595 842] >> endobj
+                trailer << /Root 1 0 R >>
+                %%EOF
+                """;
+        return pdf.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,114 @@
+package org.mavb.azure.ai.loadtest.stub;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpsExchange;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Azure Document Intelligence stand-in for the long-running prebuilt-invoice analysis used by /invoices/scan:
+ * the analyze call answers 202 with an Operation-Location that reports "running" until the configured
+ * analysis time elapsed, then "succeeded" with a synthetic invoice.
+ */
+class DocumentIntelligenceStub extends StubHandler {
+
+    private static final Pattern ANALYZE_PATH = Pattern.compile("/documentintelligence/documentModels/([^/:]+):analyze");
+    private static final Pattern RESULT_PATH = Pattern.compile("/documentintelligence/documentModels/([^/]+)/analyzeResults/([^/]+)");
+
+    private final Duration analysisTime;
+    private final Duration pollInterval;
+    private final Map<String, Instant> operations = new ConcurrentHashMap<>();
+
+    DocumentIntelligenceStub(FaultProfile faultProfile, Duration analysisTime, Duration pollInterval) {
+        super("document-intelligence", faultProfile);
+        this.analysisTime = analysisTime;
+        this.pollInterval = pollInterval;
+    }
+
+    @Override
+    protected void respond(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        Matcher analyze = ANALYZE_PATH.matcher(path);
+        Matcher result = RESULT_PATH.matcher(path);
+        if ("POST".equals(exchange.getRequestMethod()) && analyze.matches()) {
+            try (InputStream body = exchange.getRequestBody()) {
+                body.transferTo(OutputStream.nullOutputStream());
+            }
+            String operationId = UUID.randomUUID().toString();
+            operations.put(operationId, Instant.now());
+            String host = exchange.getRequestHeaders().getFirst("Host");
+            String scheme = exchange instanceof HttpsExchange ? "https" : "http";
+            exchange.getResponseHeaders().set("Operation-Location", String.format("%s://%s/documentintelligence/documentModels/%s/analyzeResults/%s?%s",
+                    scheme, host, analyze.group(1), operationId, exchange.getRequestURI().getQuery()));
+            exchange.getResponseHeaders().set("retry-after-ms", String.valueOf(pollInterval.toMillis()));
+            exchange.sendResponseHeaders(202, -1);
+        } else if ("GET".equals(exchange.getRequestMethod()) && result.matches()) {
+            Instant started = operations.get(result.group(2));
+            if (started == null) {
+                notFound(exchange);
+                return;
+            }
+            boolean done = Duration.between(started, Instant.now()).compareTo(analysisTime) >= 0;
+            Map<String, Object> status = new LinkedHashMap<>();
+            status.put("status", done ? "succeeded" : "running");
+            status.put("createdDateTime", started.toString());
+            status.put("lastUpdatedDateTime", Instant.now().toString());
+            if (done) {
+                operations.remove(result.group(2));
+                status.put("analyzeResult", invoice(result.group(1)));
+            } else {
+                exchange.getResponseHeaders().set("retry-after-ms", String.valueOf(pollInterval.toMillis()));
+            }
+            sendJson(exchange, 200, status);
+        } else {
+            notFound(exchange);
+        }
+    }
+
+    private static Map<String, Object> invoice(String modelId) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double subtotal = Math.round(random.nextDouble(20, 2000) * 100) / 100.0;
+        double total = Math.round(subtotal * 118) / 100.0;
+
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("InvoiceId", field("string", "valueString", "F001-" + random.nextInt(100000)));
+        fields.put("InvoiceDate", field("date", "valueDate", LocalDate.now().minusDays(random.nextInt(60)).toString()));
+        fields.put("VendorName", field("string", "valueString", "Comercial Load Test S.A.C."));
+        fields.put("InvoiceTotal", field("currency", "valueCurrency", Map.of("amount", total, "currencyCode", "PEN")));
+        fields.put("Items", field("array", "valueArray", List.of(
+                field("object", "valueObject", Map.of(
+                        "Description", field("string", "valueString", "Servicio de prueba de carga"),
+                        "Quantity", field("number", "valueNumber", 1),
+                        "UnitPrice", field("currency", "valueCurrency", Map.of("amount", subtotal, "currencyCode", "PEN")),
+                        "Amount", field("currency", "valueCurrency", Map.of("amount", subtotal, "currencyCode", "PEN")))))));
+
+        return Map.of(
+                "apiVersion", "2024-11-30",
+                "modelId", modelId,
+                "stringIndexType", "textElements",
+                "content", "",
+                "pages", List.of(),
+                "documents", List.of(Map.of(
+                        "docType", "invoice",
+                        "confidence", 0.95,
+                        "spans", List.of(),
+                        "fields", fields)));
+    }
+
+    private static Map<String, Object> field(String type, String valueKey, Object value) {
+        return Map.of("type", type, valueKey, value, "confidence", 0.95);
+    }
+}
@@ -0,0 +1,64 @@
+package org.mavb.azure.ai.loadtest.stub;
+
+import org.mavb.azure.ai.loadtest.config.LoadTestSettings;
+
+import java.time.Duration;
+import java.util.random.RandomGenerator;
+
+/**
+ * Latency and error distribution of one stand-in.
+ * <p>
+ * Latencies follow a log-normal distribution fitted to the configured median and p99, which matches the
+ * long right tail of real OpenAI and AI Search calls better than a uniform or normal distribution.
+ * Throttled calls answer 429 with Retry-After, failed calls answer 500.
+ */
+public record FaultProfile(Duration latencyMedian, Duration latencyP99, double errorRate,
+                           double throttleRate, Duration retryAfter) {
+
+    /**
+     * z-score of the 99th percentile of the standard normal distribution.
+     */
+    private static final double Z_99 = 2.3263;
+
+    public enum Fault {
+        NONE,
+        THROTTLE,
+        ERROR
+    }
+
+    public FaultProfile {
+        if (latencyP99.compareTo(latencyMedian) < 0) {
+            throw new IllegalArgumentException("Latency p99 must not be below the median");
+        }
+    }
+
+    /**
+     * Reads {@code <prefix>.latency-median}, {@code latency-p99}, {@code error-rate}, {@code throttle-rate}
+     * and {@code retry-after}.
+     */
+    public static FaultProfile from(LoadTestSettings settings, String prefix) {
+        return new FaultProfile(
+                settings.getDuration(prefix + ".latency-median", Duration.ofMillis(50)),
+                settings.getDuration(prefix + ".latency-p99", Duration.ofMillis(200)),
+                settings.getDouble(prefix + ".error-rate", 0),
+                settings.getDouble(prefix + ".throttle-rate", 0),
+                settings.getDuration(prefix + ".retry-after", Duration.ofSeconds(1)));
+    }
+
+    public long sampleLatencyNanos(RandomGenerator random) {
+        long median = latencyMedian.toNanos();
+        if (median <= 0) {
+            return 0;
+        }
+        double sigma = Math.log((double) latencyP99.toNanos() / median) / Z_99;
+        return (long) (median * Math.exp(sigma * random.nextGaussian()));
+    }
+
+    public Fault sampleFault(RandomGenerator random) {
+        double roll = random.nextDouble();
+        if (roll < throttleRate) {
+            return Fault.THROTTLE;
+        }
+        return roll < throttleRate + errorRate ? Fault.ERROR : Fault.NONE;
+    }
+}
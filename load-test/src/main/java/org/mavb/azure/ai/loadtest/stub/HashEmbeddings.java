@@ -0,0 +1,53 @@
+package org.mavb.azure.ai.loadtest.stub;
+
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic unit vectors derived from the text, so equal texts get equal embeddings
+ * and caches in front of the stand-in behave as they do against Azure OpenAI.
+ */
+final class HashEmbeddings {
+
+    private HashEmbeddings() {
+    }
+
+    static float[] embed(String text, int dimensions) {
+        SplittableRandom random = new SplittableRandom(seed(text));
+        float[] vector = new float[dimensions];
+        double norm = 0;
+        for (int i = 0; i < dimensions; i++) {
+            // Sum of uniforms: cheap, roughly gaussian components
+            double value = random.nextDouble() + random.nextDouble() + random.nextDouble() - 1.5;
+            vector[i] = (float) value;
+            norm += value * value;
+        }
+        float scale = (float) (1 / Math.sqrt(norm));
+        for (int i = 0; i < dimensions; i++) {
+            vector[i] *= scale;
+        }
+        return vector;
+    }
+
+    static double cosine(float[] a, float[] b) {
+        double dot = 0;
+        double normA = 0;
+        double normB = 0;
+        for (int i = 0; i < Math.min(a.length, b.length); i++) {
+            dot += a[i] * b[i];
+            normA += a[i] * a[i];
+            normB += b[i] * b[i];
+        }
+        return normA == 0 || normB == 0 ? 0 : dot / Math.sqrt(normA * normB);
+    }
+
+    private static long seed(String text) {
+        // FNV-1a over the UTF-8 bytes
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : text.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,120 @@
+package org.mavb.azure.ai.loadtest.stub;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Azure OpenAI stand-in for {@code /openai/deployments/{deployment}/embeddings} and {@code /chat/completions}.
+ * <p>
+ * Embeddings are deterministic per text and honour the {@code dimensions} parameter. Chat completions answer
+ * the claim classification prompt (one JSON element per "RowNumber:" line) and return the configured
+ * content for any other prompt.
+ */
+class OpenAIStub extends StubHandler {
+
+    private static final Pattern DEPLOYMENT_PATH = Pattern.compile("/openai/deployments/[^/]+/(embeddings|chat/completions)");
+    private static final Pattern ROW_NUMBER = Pattern.compile("RowNumber: (\\d+)");
+
+    private final int defaultDimensions;
+    private final List<String[]> claimCategories;
+    private final String chatContent;
+
+    OpenAIStub(FaultProfile faultProfile, int defaultDimensions, List<String> claimCategories, String chatContent) {
+        super("openai", faultProfile);
+        this.defaultDimensions = defaultDimensions;
+        this.claimCategories = claimCategories.stream()
+                .map(category -> category.split(">", 2))
+                .map(parts -> new String[]{parts[0].trim(), parts.length > 1 ? parts[1].trim() : parts[0].trim()})
+                .toList();
+        this.chatContent = chatContent;
+    }
+
+    @Override
+    protected void respond(HttpExchange exchange) throws IOException {
+        Matcher matcher = DEPLOYMENT_PATH.matcher(exchange.getRequestURI().getPath());
+        if (!"POST".equals(exchange.getRequestMethod()) || !matcher.matches()) {
+            notFound(exchange);
+            return;
+        }
+
+        JsonNode request = readJson(exchange);
+        if ("embeddings".equals(matcher.group(1))) {
+            sendJson(exchange, 200, embeddings(request));
+        } else {
+            sendJson(exchange, 200, chatCompletion(request));
+        }
+    }
+
+    private Map<String, Object> embeddings(JsonNode request) {
+        JsonNode input = request.path("input");
+        List<String> texts = new ArrayList<>();
+        if (input.isArray()) {
+            input.forEach(text -> texts.add(text.asText()));
+        } else {
+            texts.add(input.asText());
+        }
+        int dimensions = request.path("dimensions").asInt(defaultDimensions);
+
+        List<Map<String, Object>> data = new ArrayList<>(texts.size());
+        int tokens = 0;
+        for (int i = 0; i < texts.size(); i++) {
+            data.add(Map.of("object", "embedding", "index", i, "embedding", HashEmbeddings.embed(texts.get(i), dimensions)));
+            tokens += approximateTokens(texts.get(i));
+        }
+        return Map.of(
+                "object", "list",
+                "data", data,
+                "model", request.path("model").asText("text-embedding-3-small"),
+                "usage", Map.of("prompt_tokens", tokens, "total_tokens", tokens));
+    }
+
+    private Map<String, Object> chatCompletion(JsonNode request) throws IOException {
+        StringBuilder prompt = new StringBuilder();
+        request.path("messages").forEach(message -> prompt.append(message.path("content").asText()).append('\n'));
+
+        String content = chatContent;
+        Matcher rows = ROW_NUMBER.matcher(prompt);
+        List<Map<String, String>> classifications = new ArrayList<>();
+        while (rows.find() && !claimCategories.isEmpty()) {
+            String[] category = claimCategories.get(Math.floorMod(rows.group(1).hashCode(), claimCategories.size()));
+            Map<String, String> classification = new LinkedHashMap<>();
+            classification.put("rowNumber", rows.group(1));
+            classification.put("mainCategory", category[0]);
+            classification.put("subCategory", category[1]);
+            classifications.add(classification);
+        }
+        if (!classifications.isEmpty()) {
+            content = MAPPER.writeValueAsString(classifications);
+        }
+
+        int promptTokens = approximateTokens(prompt.toString());
+        int completionTokens = approximateTokens(content);
+        return Map.of(
+                "id", "chatcmpl-" + UUID.randomUUID(),
+                "object", "chat.completion",
+                "created", Instant.now().getEpochSecond(),
+                "model", "gpt-4o-mini",
+                "choices", List.of(Map.of(
+                        "index", 0,
+                        "finish_reason", "stop",
+                        "message", Map.of("role", "assistant", "content", content))),
+                "usage", Map.of(
+                        "prompt_tokens", promptTokens,
+                        "completion_tokens", completionTokens,
+                        "total_tokens", promptTokens + completionTokens));
+    }
+
+    private static int approximateTokens(String text) {
+        return Math.max(1, text.length() / 4);
+    }
+}
@@ -0,0 +1,139 @@
+package org.mavb.azure.ai.loadtest.stub;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Azure AI Search stand-in for the documents API used by the SDK:
+ * {@code /indexes('{index}')/docs/search.post.search}, {@code search.index} and {@code $count}.
+ * <p>
+ * Documents live in memory, keyed by {@code id}. Vector queries are ranked by cosine similarity against the
+ * {@code embedding} field; OData filters are not evaluated, the callers already re-check amounts and ranks.
+ */
+class SearchStub extends StubHandler {
+
+    private static final Pattern INDEX_PATH = Pattern.compile("/indexes\\('([^']+)'\\)/docs(/.*)?");
+
+    private final int dimensions;
+    private final Map<String, Map<String, ObjectNode>> indexes = new ConcurrentHashMap<>();
+
+    SearchStub(FaultProfile faultProfile, int dimensions) {
+        super("search", faultProfile);
+        this.dimensions = dimensions;
+    }
+
+    /**
+     * Loads a JSON array, or an object wrapping one array (as in ranks-data.json), into an index.
+     * Documents without an embedding get one derived from their description.
+     */
+    void seed(String index, Path file) throws IOException {
+        JsonNode root = MAPPER.readTree(Files.readAllBytes(file));
+        JsonNode documents = root.isArray() ? root : root.elements().next();
+        Map<String, ObjectNode> store = store(index);
+        for (JsonNode document : documents) {
+            ObjectNode copy = ((ObjectNode) document).deepCopy();
+            if (!copy.has("embedding")) {
+                ArrayNode embedding = copy.putArray("embedding");
+                for (float value : HashEmbeddings.embed(copy.path("description").asText(copy.path("id").asText()), dimensions)) {
+                    embedding.add(value);
+                }
+            }
+            store.put(copy.path("id").asText(), copy);
+        }
+    }
+
+    int size(String index) {
+        return store(index).size();
+    }
+
+    @Override
+    protected void respond(HttpExchange exchange) throws IOException {
+        Matcher matcher = INDEX_PATH.matcher(exchange.getRequestURI().getPath());
+        if (!matcher.matches()) {
+            notFound(exchange);
+            return;
+        }
+
+        String index = matcher.group(1);
+        String operation = matcher.group(2) != null ? matcher.group(2) : "";
+        switch (operation) {
+            case "/search.post.search" -> sendJson(exchange, 200, search(index, readJson(exchange)));
+            case "/search.index" -> sendJson(exchange, 200, upload(index, readJson(exchange)));
+            case "/$count" -> sendText(exchange, 200, String.valueOf(size(index)));
+            default -> notFound(exchange);
+        }
+    }
+
+    private Map<String, Object> search(String index, JsonNode request) {
+        List<ObjectNode> documents = new ArrayList<>(store(index).values());
+        int top = request.path("top").asInt(50);
+        JsonNode vectorQuery = request.path("vectorQueries").path(0);
+
+        List<Map.Entry<ObjectNode, Double>> scored = new ArrayList<>(documents.size());
+        if (vectorQuery.has("vector")) {
+            float[] query = toVector(vectorQuery.get("vector"));
+            top = Math.min(top, vectorQuery.path("k").asInt(top));
+            for (ObjectNode document : documents) {
+                // Cosine mapped to the 0..1 range reported by AI Search for cosine similarity
+                double cosine = HashEmbeddings.cosine(query, toVector(document.path("embedding")));
+                scored.add(Map.entry(document, 1 / (2 - cosine)));
+            }
+            scored.sort(Map.Entry.<ObjectNode, Double>comparingByValue(Comparator.reverseOrder()));
+        } else {
+            documents.forEach(document -> scored.add(Map.entry(document, 1.0)));
+        }
+
+        List<ObjectNode> value = new ArrayList<>();
+        for (Map.Entry<ObjectNode, Double> entry : scored.subList(0, Math.min(top, scored.size()))) {
+            ObjectNode result = entry.getKey().deepCopy();
+            result.put("@search.score", entry.getValue());
+            value.add(result);
+        }
+        return request.path("count").asBoolean(false)
+                ? Map.of("@odata.count", scored.size(), "value", value)
+                : Map.of("value", value);
+    }
+
+    private Map<String, Object> upload(String index, JsonNode request) {
+        Map<String, ObjectNode> store = store(index);
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (JsonNode action : request.path("value")) {
+            ObjectNode document = ((ObjectNode) action).deepCopy();
+            String kind = document.path("@search.action").asText("mergeOrUpload");
+            document.remove("@search.action");
+            String key = document.path("id").asText();
+            if ("delete".equals(kind)) {
+                store.remove(key);
+            } else {
+                store.put(key, document);
+            }
+            results.add(Map.of("key", key, "status", true, "statusCode", 200));
+        }
+        return Map.of("value", results);
+    }
+
+    private Map<String, ObjectNode> store(String index) {
+        return indexes.computeIfAbsent(index, name -> new ConcurrentHashMap<>());
+    }
+
+    private static float[] toVector(JsonNode values) {
+        float[] vector = new float[values.size()];
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] = (float) values.get(i).asDouble();
+        }
+        return vector;
+    }
+}
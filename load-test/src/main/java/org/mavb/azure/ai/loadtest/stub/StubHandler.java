@@ -0,0 +1,100 @@
+package org.mavb.azure.ai.loadtest.stub;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Base of the stand-ins: waits the sampled latency, injects the sampled fault and otherwise
+ * delegates to {@link #respond}.
+ */
+abstract class StubHandler implements HttpHandler {
+
+    protected static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final String name;
+    private final FaultProfile faultProfile;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    protected StubHandler(String name, FaultProfile faultProfile) {
+        this.name = name;
+        this.faultProfile = faultProfile;
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        requests.increment();
+        try (exchange) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            TimeUnit.NANOSECONDS.sleep(faultProfile.sampleLatencyNanos(random));
+
+            switch (faultProfile.sampleFault(random)) {
+                case THROTTLE -> {
+                    throttled.increment();
+                    exchange.getResponseHeaders().add("Retry-After", String.valueOf(faultProfile.retryAfter().toSeconds()));
+                    sendJson(exchange, 429, error("429", "Rate limit exceeded (load-test stand-in)"));
+                }
+                case ERROR -> {
+                    failed.increment();
+                    sendJson(exchange, 500, error("InternalServerError", "Injected failure (load-test stand-in)"));
+                }
+                case NONE -> respond(exchange);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            failed.increment();
+            sendJson(exchange, 400, error("BadRequest", e.getMessage()));
+        }
+    }
+
+    protected abstract void respond(HttpExchange exchange) throws IOException;
+
+    String summary() {
+        return String.format("%s: %d requests, %d throttled, %d failed", name, requests.sum(), throttled.sum(), failed.sum());
+    }
+
+    protected static JsonNode readJson(HttpExchange exchange) throws IOException {
+        try (InputStream body = exchange.getRequestBody()) {
+            return MAPPER.readTree(body);
+        }
+    }
+
+    protected static void sendJson(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = MAPPER.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+
+    protected static void sendText(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+
+    protected static void notFound(HttpExchange exchange) throws IOException {
+        sendJson(exchange, 404, error("NotFound", "No stand-in for " + exchange.getRequestMethod() + " " + exchange.getRequestURI().getPath()));
+    }
+
+    private static Map<String, Object> error(String code, String message) {
+        return Map.of("error", Map.of("code", code, "message", message != null ? message : ""));
+    }
+}
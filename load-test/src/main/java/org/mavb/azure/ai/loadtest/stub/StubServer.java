@@ -0,0 +1,101 @@
+package org.mavb.azure.ai.loadtest.stub;
+
+import com.sun.net.httpserver.HttpServer;
+import com.sun.net.httpserver.HttpsConfigurator;
+import com.sun.net.httpserver.HttpsServer;
+import org.mavb.azure.ai.loadtest.config.LoadTestSettings;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.security.GeneralSecurityException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * One local HTTP server hosting the Azure OpenAI, AI Search and Document Intelligence stand-ins,
+ * so every API can point its Azure endpoints to {@code http://localhost:<port>}.
+ * Requests are served on virtual threads, so injected latency does not limit the stand-in throughput.
+ * <p>
+ * HTTPS is on by default ({@code stubs.tls.enabled}) because the Azure SDK refuses to send key credentials
+ * over plain HTTP; see {@link StubTls}.
+ */
+public class StubServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final List<StubHandler> handlers;
+    private final SearchStub searchStub;
+    private final StubTls tls;
+
+    public StubServer(LoadTestSettings settings) throws IOException, GeneralSecurityException {
+        int dimensions = settings.getInt("stubs.embedding-dimensions", 1536);
+
+        OpenAIStub openAIStub = new OpenAIStub(FaultProfile.from(settings, "stubs.openai"), dimensions,
+                settings.getList("stubs.openai.claim-categories"), settings.get("stubs.openai.chat-content", "[]"));
+        searchStub = new SearchStub(FaultProfile.from(settings, "stubs.search"), dimensions);
+        DocumentIntelligenceStub documentIntelligenceStub = new DocumentIntelligenceStub(
+                FaultProfile.from(settings, "stubs.document-intelligence"),
+                settings.getDuration("stubs.document-intelligence.analysis-time", Duration.ofSeconds(2)),
+                settings.getDuration("stubs.document-intelligence.poll-interval", Duration.ofMillis(250)));
+        handlers = List.of(openAIStub, searchStub, documentIntelligenceStub);
+
+        for (String index : settings.getList("stubs.search.indexes")) {
+            String seed = settings.get("stubs.search.seed." + index, "");
+            if (!seed.isEmpty() && Files.exists(Path.of(seed))) {
+                searchStub.seed(index, Path.of(seed));
+            }
+        }
+
+        InetSocketAddress address = new InetSocketAddress(settings.getInt("stubs.port", 9100));
+        if (Boolean.parseBoolean(settings.get("stubs.tls.enabled", "true"))) {
+            tls = new StubTls(Path.of(settings.get("stubs.tls.dir", "build/stubs-tls")));
+            HttpsServer httpsServer = HttpsServer.create(address, 0);
+            httpsServer.setHttpsConfigurator(new HttpsConfigurator(tls.serverContext()));
+            server = httpsServer;
+        } else {
+            tls = null;
+            server = HttpServer.create(address, 0);
+        }
+        server.setExecutor(executor);
+        server.createContext("/openai/", openAIStub);
+        server.createContext("/indexes", searchStub);
+        server.createContext("/documentintelligence/", documentIntelligenceStub);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    public String endpoint() {
+        return (tls != null ? "https" : "http") + "://localhost:" + port();
+    }
+
+    /**
+     * @return Certificate settings, or {@code null} when serving plain HTTP
+     */
+    public StubTls tls() {
+        return tls;
+    }
+
+    public int documents(String index) {
+        return searchStub.size(index);
+    }
+
+    public List<String> summary() {
+        return handlers.stream().map(StubHandler::summary).toList();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.close();
+    }
+}
@@ -0,0 +1,110 @@
+package org.mavb.azure.ai.loadtest.stub;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManagerFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Self-signed certificate for the stand-ins. The Azure SDK only sends key credentials over HTTPS, so the APIs
+ * must reach the stand-ins through TLS and trust this certificate ({@code -Djavax.net.ssl.trustStore}).
+ * <p>
+ * The key store and trust store are created once with the JDK keytool and reused, so a trust store
+ * configured in the APIs stays valid across restarts.
+ */
+public final class StubTls {
+
+    public static final String PASSWORD = "changeit";
+
+    private static final String ALIAS = "azure-stubs";
+    private static final String KEYSTORE = "stubs-keystore.p12";
+    private static final String TRUSTSTORE = "stubs-truststore.p12";
+    private static final String CERTIFICATE = "stubs.crt";
+
+    private final Path directory;
+
+    public StubTls(Path directory) {
+        this.directory = directory;
+    }
+
+    public Path truststore() {
+        return directory.resolve(TRUSTSTORE).toAbsolutePath();
+    }
+
+    /**
+     * JVM options that make an API trust the stand-ins, e.g. for {@code JAVA_TOOL_OPTIONS}.
+     */
+    public String jvmOptions() {
+        return String.format("-Djavax.net.ssl.trustStore=%s -Djavax.net.ssl.trustStorePassword=%s -Djavax.net.ssl.trustStoreType=PKCS12",
+                truststore(), PASSWORD);
+    }
+
+    public SSLContext serverContext() throws IOException, GeneralSecurityException {
+        ensureStores();
+        KeyManagerFactory keyManagers = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        keyManagers.init(load(directory.resolve(KEYSTORE)), PASSWORD.toCharArray());
+        SSLContext context = SSLContext.getInstance("TLS");
+        context.init(keyManagers.getKeyManagers(), null, null);
+        return context;
+    }
+
+    /**
+     * Client context trusting only the stand-ins, for tests and tools that should not change JVM-wide settings.
+     */
+    public SSLContext clientContext() throws IOException, GeneralSecurityException {
+        ensureStores();
+        TrustManagerFactory trustManagers = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+        trustManagers.init(load(truststore()));
+        SSLContext context = SSLContext.getInstance("TLS");
+        context.init(null, trustManagers.getTrustManagers(), null);
+        return context;
+    }
+
+    private synchronized void ensureStores() throws IOException {
+        if (Files.exists(directory.resolve(KEYSTORE)) && Files.exists(truststore())) {
+            return;
+        }
+        Files.createDirectories(directory);
+        Files.deleteIfExists(directory.resolve(KEYSTORE));
+        Files.deleteIfExists(truststore());
+        keytool("-genkeypair", "-alias", ALIAS, "-keyalg", "EC", "-groupname", "secp256r1", "-validity", "3650",
+                "-dname", "CN=localhost", "-ext", "SAN=dns:localhost,ip:127.0.0.1",
+                "-keystore", directory.resolve(KEYSTORE).toString(), "-storetype", "PKCS12", "-storepass", PASSWORD);
+        keytool("-exportcert", "-alias", ALIAS, "-rfc", "-file", directory.resolve(CERTIFICATE).toString(),
+                "-keystore", directory.resolve(KEYSTORE).toString(), "-storepass", PASSWORD);
+        keytool("-importcert", "-noprompt", "-alias", ALIAS, "-file", directory.resolve(CERTIFICATE).toString(),
+                "-keystore", truststore().toString(), "-storetype", "PKCS12", "-storepass", PASSWORD);
+    }
+
+    private static void keytool(String... args) throws IOException {
+        Path keytool = Path.of(System.getProperty("java.home"), "bin", "keytool");
+        List<String> command = new ArrayList<>(List.of(keytool.toString()));
+        command.addAll(List.of(args));
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        try {
+            String output = new String(process.getInputStream().readAllBytes());
+            if (!process.waitFor(1, TimeUnit.MINUTES) || process.exitValue() != 0) {
+                throw new IOException("keytool " + args[0] + " failed: " + output);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while running keytool", e);
+        }
+    }
+
+    private static KeyStore load(Path file) throws IOException, GeneralSecurityException {
+        KeyStore store = KeyStore.getInstance("PKCS12");
+        try (InputStream in = Files.newInputStream(file)) {
+            store.load(in, PASSWORD.toCharArray());
+        }
+        return store;
+    }
+}
@@ -0,0 +1,119 @@
+package org.mavb.azure.ai.loadtest.driver;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoadDriverTest {
+
+    private static final PrintStream SILENT = new PrintStream(OutputStream.nullOutputStream());
+
+    @TempDir
+    Path tempDir;
+
+    private HttpServer server;
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress(0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/ok", exchange -> {
+            calls.incrementAndGet();
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.createContext("/slow", exchange -> {
+            try {
+                Thread.sleep(500);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.createContext("/error", exchange -> {
+            exchange.sendResponseHeaders(503, -1);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void run_keepsTargetRateAndExcludesWarmup() throws Exception {
+        // Given
+        LoadDriver driver = new LoadDriver(List.of(scenario("ok", 50)), Duration.ofMillis(500), Duration.ofSeconds(2),
+                64, Duration.ofSeconds(5), SILENT);
+
+        // When
+        Report report = driver.run();
+
+        // Then
+        ScenarioStats stats = report.stats("ok");
+        assertEquals(100, stats.scheduledCount(), 1);
+        assertEquals(stats.scheduledCount(), stats.succeededCount());
+        assertEquals(125, calls.get(), 1);
+        assertEquals(0, stats.errorCount());
+    }
+
+    @Test
+    void run_countsErrorsAndDropsRequestsAboveInFlightLimit() throws Exception {
+        // Given
+        LoadDriver driver = new LoadDriver(List.of(scenario("slow", 20), scenario("error", 10)), Duration.ZERO, Duration.ofSeconds(1),
+                2, Duration.ofSeconds(5), SILENT);
+
+        // When
+        Report report = driver.run();
+
+        // Then
+        ScenarioStats slow = report.stats("slow");
+        assertTrue(slow.droppedCount() > 0);
+        assertTrue(slow.responseTime().getMaxValue() >= 500_000);
+        ScenarioStats error = report.stats("error");
+        assertEquals(error.completedCount(), error.errorCount());
+        assertTrue(error.errors().containsKey("HTTP 503"));
+    }
+
+    @Test
+    void write_producesJsonReport() throws Exception {
+        // Given
+        Report report = new LoadDriver(List.of(scenario("ok", 20)), Duration.ZERO, Duration.ofMillis(500),
+                16, Duration.ofSeconds(5), SILENT).run();
+        Path file = tempDir.resolve("reports/report.json");
+
+        // When
+        report.write(file);
+
+        // Then
+        String json = Files.readString(file);
+        assertTrue(json.contains("\"name\" : \"ok\""));
+        assertTrue(json.contains("\"p99.9\""));
+    }
+
+    private Scenario scenario(String path, double rps) {
+        URI uri = URI.create("http://localhost:" + server.getAddress().getPort() + "/" + path);
+        return new Scenario(path, rps, () -> HttpRequest.newBuilder(uri).GET().build());
+    }
+}
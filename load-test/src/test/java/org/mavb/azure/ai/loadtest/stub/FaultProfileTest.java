@@ -0,0 +1,61 @@
+package org.mavb.azure.ai.loadtest.stub;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FaultProfileTest {
+
+    @Test
+    void sampleLatencyNanos_followsConfiguredMedianAndP99() {
+        // Given
+        FaultProfile profile = new FaultProfile(Duration.ofMillis(50), Duration.ofMillis(200), 0, 0, Duration.ofSeconds(1));
+        SplittableRandom random = new SplittableRandom(42);
+
+        // When
+        long[] samples = new long[100_000];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = profile.sampleLatencyNanos(random);
+        }
+        Arrays.sort(samples);
+
+        // Then
+        assertEquals(50, TimeUnit.NANOSECONDS.toMillis(samples[samples.length / 2]), 3);
+        assertEquals(200, TimeUnit.NANOSECONDS.toMillis(samples[(int) (samples.length * 0.99)]), 15);
+    }
+
+    @Test
+    void sampleFault_matchesConfiguredRates() {
+        // Given
+        FaultProfile profile = new FaultProfile(Duration.ZERO, Duration.ZERO, 0.05, 0.10, Duration.ofSeconds(1));
+        SplittableRandom random = new SplittableRandom(7);
+
+        // When
+        int throttled = 0;
+        int errors = 0;
+        for (int i = 0; i < 100_000; i++) {
+            switch (profile.sampleFault(random)) {
+                case THROTTLE -> throttled++;
+                case ERROR -> errors++;
+                case NONE -> { }
+            }
+        }
+
+        // Then
+        assertEquals(0.10, throttled / 100_000.0, 0.005);
+        assertEquals(0.05, errors / 100_000.0, 0.005);
+    }
+
+    @Test
+    void constructor_rejectsP99BelowMedian() {
+        // When / Then
+        assertThrows(IllegalArgumentException.class,
+                () -> new FaultProfile(Duration.ofMillis(100), Duration.ofMillis(50), 0, 0, Duration.ofSeconds(1)));
+    }
+}
@@ -0,0 +1,139 @@
+package org.mavb.azure.ai.loadtest.stub;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mavb.azure.ai.loadtest.config.LoadTestSettings;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StubServerTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @TempDir
+    Path tempDir;
+
+    private StubServer server;
+    private HttpClient client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Path ranks = tempDir.resolve("ranks.json");
+        Files.writeString(ranks, """
+                {"ranks": [
+                  {"id": "BRONCE", "description": "Ingresos entre S/2,500 - S/4,500 mensuales"},
+                  {"id": "ORO", "description": "Ingresos superiores a S/10,000 mensuales"}
+                ]}
+                """);
+
+        Properties properties = new Properties();
+        properties.setProperty("stubs.port", "0");
+        properties.setProperty("stubs.embedding-dimensions", "64");
+        properties.setProperty("stubs.openai.latency-median", "0ms");
+        properties.setProperty("stubs.openai.latency-p99", "0ms");
+        properties.setProperty("stubs.search.latency-median", "0ms");
+        properties.setProperty("stubs.search.latency-p99", "0ms");
+        properties.setProperty("stubs.document-intelligence.latency-median", "0ms");
+        properties.setProperty("stubs.document-intelligence.latency-p99", "0ms");
+        properties.setProperty("stubs.document-intelligence.analysis-time", "0ms");
+        properties.setProperty("stubs.openai.claim-categories", "Errores del sistema>Fallo técnico");
+        properties.setProperty("stubs.search.indexes", "ranks");
+        properties.setProperty("stubs.search.seed.ranks", ranks.toString());
+        properties.setProperty("stubs.tls.dir", tempDir.resolve("tls").toString());
+
+        server = new StubServer(LoadTestSettings.of(properties));
+        server.start();
+        client = HttpClient.newBuilder().sslContext(server.tls().clientContext()).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void embeddingsAndVectorSearch_returnSeededDocumentAsBestMatch() throws Exception {
+        // Given
+        String description = "Ingresos superiores a S/10,000 mensuales";
+
+        // When
+        JsonNode embeddings = post("/openai/deployments/text-embedding-3-small/embeddings?api-version=2024-06-01",
+                MAPPER.createObjectNode().put("input", description));
+        JsonNode vector = embeddings.path("data").path(0).path("embedding");
+        JsonNode results = post("/indexes('ranks')/docs/search.post.search?api-version=2024-07-01",
+                MAPPER.readTree("{\"count\": true, \"vectorQueries\": [{\"kind\": \"vector\", \"k\": 1, \"fields\": \"embedding\", \"vector\": "
+                        + vector + "}]}"));
+
+        // Then
+        assertEquals(64, vector.size());
+        assertEquals(2, server.documents("ranks"));
+        assertEquals(2, results.path("@odata.count").asInt());
+        assertEquals(1, results.path("value").size());
+        assertEquals("ORO", results.path("value").path(0).path("id").asText());
+        assertEquals(1.0, results.path("value").path(0).path("@search.score").asDouble(), 1e-6);
+    }
+
+    @Test
+    void chatCompletions_classifiesEveryClaimRow() throws Exception {
+        // Given
+        String prompt = "RowNumber: 1 | Descripción: error en la app\nRowNumber: 2 | Descripción: no carga la web";
+
+        // When
+        JsonNode completion = post("/openai/deployments/gpt-4o/chat/completions?api-version=2024-06-01",
+                MAPPER.readTree("{\"messages\": [{\"role\": \"user\", \"content\": " + MAPPER.writeValueAsString(prompt) + "}]}"));
+        JsonNode rows = MAPPER.readTree(completion.path("choices").path(0).path("message").path("content").asText());
+
+        // Then
+        assertEquals(2, rows.size());
+        assertEquals(2, rows.path(1).path("rowNumber").asInt());
+        assertEquals("Errores del sistema", rows.path(0).path("mainCategory").asText());
+        assertEquals("Fallo técnico", rows.path(0).path("subCategory").asText());
+    }
+
+    @Test
+    void documentIntelligence_completesAnalysisThroughOperationLocation() throws Exception {
+        // Given
+        HttpRequest analyze = HttpRequest.newBuilder(uri("/documentintelligence/documentModels/prebuilt-invoice:analyze?api-version=2024-11-30"))
+                .header("Content-Type", "application/octet-stream")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(new byte[]{'%', 'P', 'D', 'F'}))
+                .build();
+
+        // When
+        HttpResponse<String> accepted = client.send(analyze, HttpResponse.BodyHandlers.ofString());
+        String operation = accepted.headers().firstValue("Operation-Location").orElseThrow();
+        JsonNode result = MAPPER.readTree(client.send(HttpRequest.newBuilder(URI.create(operation)).GET().build(),
+                HttpResponse.BodyHandlers.ofString()).body());
+
+        // Then
+        assertEquals(202, accepted.statusCode());
+        assertEquals("succeeded", result.path("status").asText());
+        assertTrue(result.path("analyzeResult").path("documents").path(0).path("fields").has("InvoiceTotal"));
+    }
+
+    private JsonNode post(String path, JsonNode body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), response.body());
+        return MAPPER.readTree(response.body());
+    }
+
+    private URI uri(String path) {
+        return URI.create(server.endpoint() + path);
+    }
+}